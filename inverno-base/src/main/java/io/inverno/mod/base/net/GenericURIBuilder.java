@@ -893,7 +893,16 @@ class GenericURIBuilder implements URIBuilder {
 			groupNames.addAll(segment.getPatternGroupNames());
 		}
 		
-		return new GenericURIPattern(rawValue, pathPatternBuilder.toString(), groupNames);
+		// Segments following the leading slash when the pattern matches an absolute path
+		List<SegmentComponent> pathSegments = null;
+		if(segmentSize > 1 && this.segments.getFirst().getRawValue().isEmpty()) {
+			pathSegments = new ArrayList<>(this.segments.subList(1, segmentSize));
+		}
+		else if(segmentSize > 0 && absolute && !this.segments.getFirst().getRawValue().isEmpty()) {
+			pathSegments = new ArrayList<>(this.segments);
+		}
+		
+		return new GenericURIPattern(rawValue, pathPatternBuilder.toString(), groupNames, pathSegments, matchTrailingSlash);
 	}
 	
 	@Override
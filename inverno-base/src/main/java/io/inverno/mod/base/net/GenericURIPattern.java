@@ -34,6 +34,9 @@ class GenericURIPattern implements URIPattern {
 	private final String regex;
 	private final List<String> groupNames;
 	
+	private final List<SegmentComponent> pathSegments;
+	private final boolean matchTrailingSlash;
+	
 	private Pattern pattern;
 	
 	/**
@@ -47,9 +50,70 @@ class GenericURIPattern implements URIPattern {
 	 * @param groupNames a list of group names
 	 */
 	public GenericURIPattern(String rawValue, String regex, List<String> groupNames) {
+		this(rawValue, regex, groupNames, null, false);
+	}
+	
+	/**
+	 * <p>
+	 * Creates a generic URI path pattern with the specified raw value, regular
+	 * expression, list of group names, list of path segments and trailing slash
+	 * flag.
+	 * </p>
+	 * 
+	 * <p>
+	 * The list of path segments must contain the segments following the leading
+	 * slash of an absolute path pattern, it is used to match a path segment by
+	 * segment in a {@link URIPatternTrie}.
+	 * </p>
+	 * 
+	 * @param rawValue           a raw value
+	 * @param regex              a regular expression
+	 * @param groupNames         a list of group names
+	 * @param pathSegments       a list of path segments or null
+	 * @param matchTrailingSlash true if the pattern matches trailing slash, false
+	 *                           otherwise
+	 */
+	public GenericURIPattern(String rawValue, String regex, List<String> groupNames, List<SegmentComponent> pathSegments, boolean matchTrailingSlash) {
 		this.rawValue = rawValue;
 		this.regex = regex;
 		this.groupNames = groupNames != null ? Collections.unmodifiableList(groupNames) : List.of();
+		this.pathSegments = pathSegments != null ? Collections.unmodifiableList(pathSegments) : null;
+		this.matchTrailingSlash = matchTrailingSlash;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the list of group names in the regular expression.
+	 * </p>
+	 * 
+	 * @return a list of group names
+	 */
+	List<String> getGroupNames() {
+		return this.groupNames;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the segments following the leading slash of an absolute path
+	 * pattern.
+	 * </p>
+	 * 
+	 * @return a list of segments or null if the pattern is not an absolute path
+	 *         pattern
+	 */
+	List<SegmentComponent> getPathSegments() {
+		return this.pathSegments;
+	}
+	
+	/**
+	 * <p>
+	 * Determines whether the pattern matches trailing slash.
+	 * </p>
+	 * 
+	 * @return true if the pattern matches trailing slash, false otherwise
+	 */
+	boolean isMatchTrailingSlash() {
+		return this.matchTrailingSlash;
 	}
 
 	@Override
@@ -176,6 +176,18 @@ class URIParameter {
 		return parameterPattern.toString();
 	}
 	
+	/**
+	 * <p>
+	 * Determines whether the parameter is defined with the default pattern
+	 * <code>{@literal [^/]*}</code>.
+	 * </p>
+	 * 
+	 * @return true if the parameter uses the default pattern, false otherwise
+	 */
+	public boolean isDefaultPattern() {
+		return URIParameter.DEFAULT_PATTERN.equals(this.pattern);
+	}
+	
 	/**
 	 * <p>
 	 * Checks that the specified value matches the parameter pattern and is valid
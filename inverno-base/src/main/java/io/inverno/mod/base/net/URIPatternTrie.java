@@ -0,0 +1,535 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.base.net;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+
+/**
+ * <p>
+ * A segment trie used to match a path against a set of path patterns.
+ * </p>
+ *
+ * <p>
+ * Path patterns built by {@link URIBuilder#buildPathPattern(boolean)} are
+ * indexed by their leading static segments so that only the patterns sharing
+ * the static prefix of a path are considered when matching that path. The
+ * remaining segments are then matched segment by segment: static segments are
+ * compared and parameters defined with the default pattern are extracted
+ * without using any regular expression. Patterns declaring parameters with a
+ * custom pattern (eg. <code>{path:.*}</code>) which might span multiple
+ * segments are matched using their regular expression.
+ * </p>
+ *
+ * <p>
+ * When multiple patterns match a path, the most specific one wins following
+ * the same rules as {@link URIMatcher#compareTo(Object)}.
+ * </p>
+ *
+ * <p>
+ * This implementation is not thread-safe.
+ * </p>
+ *
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ *
+ * @see URIPattern
+ * @see URIBuilder
+ *
+ * @param <T> the type of value associated to a pattern
+ */
+public class URIPatternTrie<T> {
+
+	private final Node<T> root;
+
+	private final Map<URIPattern, Entry<T>> entries;
+
+	/**
+	 * <p>
+	 * Creates an empty URI pattern trie.
+	 * </p>
+	 */
+	public URIPatternTrie() {
+		this.root = new Node<>();
+		this.entries = new HashMap<>();
+	}
+
+	/**
+	 * <p>
+	 * Associates the specified value to the specified path pattern.
+	 * </p>
+	 *
+	 * @param pattern a path pattern
+	 * @param value   a value
+	 *
+	 * @return the value previously associated to the pattern or null
+	 */
+	public T put(URIPattern pattern, T value) {
+		Objects.requireNonNull(pattern);
+		T previousValue = this.remove(pattern);
+
+		Entry<T> entry = new Entry<>(pattern, value);
+		Node<T> node = this.root;
+		for(String staticSegment : entry.staticPrefix) {
+			node = node.children.computeIfAbsent(staticSegment, ign -> new Node<>());
+		}
+		node.entries.add(entry);
+		this.entries.put(pattern, entry);
+		return previousValue;
+	}
+
+	/**
+	 * <p>
+	 * Removes the specified path pattern.
+	 * </p>
+	 *
+	 * @param pattern a path pattern
+	 *
+	 * @return the value associated to the pattern or null
+	 */
+	public T remove(URIPattern pattern) {
+		Entry<T> entry = this.entries.remove(pattern);
+		if(entry == null) {
+			return null;
+		}
+		this.remove(this.root, entry, 0);
+		return entry.value;
+	}
+
+	private boolean remove(Node<T> node, Entry<T> entry, int depth) {
+		if(depth == entry.staticPrefix.length) {
+			node.entries.remove(entry);
+		}
+		else {
+			String staticSegment = entry.staticPrefix[depth];
+			Node<T> child = node.children.get(staticSegment);
+			if(child != null && this.remove(child, entry, depth + 1)) {
+				// The child is empty, we can remove it for good
+				node.children.remove(staticSegment);
+			}
+		}
+		return node.entries.isEmpty() && node.children.isEmpty();
+	}
+
+	/**
+	 * <p>
+	 * Determines whether the trie is empty.
+	 * </p>
+	 *
+	 * @return true if the trie is empty, false otherwise
+	 */
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+
+	/**
+	 * <p>
+	 * Matches the specified path against the patterns in the trie and returns
+	 * the most specific match.
+	 * </p>
+	 *
+	 * @param path the path to match
+	 *
+	 * @return the best match or null if no pattern matches the path
+	 */
+	public Match<T> match(String path) {
+		if(this.entries.isEmpty()) {
+			return null;
+		}
+		// The indexes of the slashes in the path, a segment starts after a slash and ends before the next one or at the end of the path
+		int[] slashes = null;
+		if(path.length() > 0 && path.charAt(0) == '/') {
+			int slashCount = 0;
+			for(int i=0;i<path.length();i++) {
+				if(path.charAt(i) == '/') {
+					slashCount++;
+				}
+			}
+			slashes = new int[slashCount];
+			for(int i=0, j=0;i<path.length();i++) {
+				if(path.charAt(i) == '/') {
+					slashes[j++] = i;
+				}
+			}
+		}
+
+		Match<T> bestMatch = this.match(this.root, path, slashes, 0, null);
+		if(slashes != null) {
+			Node<T> node = this.root;
+			for(int depth=0;depth<slashes.length;depth++) {
+				node = node.children.get(path.substring(slashes[depth] + 1, segmentEnd(path, slashes, depth)));
+				if(node == null) {
+					break;
+				}
+				bestMatch = this.match(node, path, slashes, depth + 1, bestMatch);
+			}
+		}
+		return bestMatch;
+	}
+
+	private Match<T> match(Node<T> node, String path, int[] slashes, int depth, Match<T> bestMatch) {
+		for(Entry<T> entry : node.entries) {
+			Match<T> match = entry.match(path, slashes, depth);
+			if(match != null && (bestMatch == null || match.compareTo(bestMatch) > 0)) {
+				bestMatch = match;
+			}
+		}
+		return bestMatch;
+	}
+
+	private static int segmentEnd(String path, int[] slashes, int index) {
+		return index + 1 < slashes.length ? slashes[index + 1] : path.length();
+	}
+
+	/**
+	 * <p>
+	 * A node in the trie holding the patterns whose static prefix ends at the
+	 * node.
+	 * </p>
+	 *
+	 * @param <T> the type of value associated to a pattern
+	 */
+	private static class Node<T> {
+
+		private final Map<String, Node<T>> children = new HashMap<>();
+
+		private final List<Entry<T>> entries = new ArrayList<>();
+	}
+
+	/**
+	 * <p>
+	 * A path pattern entry in the trie.
+	 * </p>
+	 *
+	 * @param <T> the type of value associated to a pattern
+	 */
+	private static class Entry<T> {
+
+		private final URIPattern pattern;
+
+		private final T value;
+
+		private final String[] staticPrefix;
+
+		private final SegmentPart[][] segments;
+
+		private final boolean matchTrailingSlash;
+
+		private final String[] groupNames;
+
+		private final int groupCount;
+
+		public Entry(URIPattern pattern, T value) {
+			this.pattern = pattern;
+			this.value = value;
+
+			List<SegmentComponent> pathSegments = pattern instanceof GenericURIPattern ? ((GenericURIPattern)pattern).getPathSegments() : null;
+			if(pathSegments == null) {
+				// We can only match using the regular expression
+				this.staticPrefix = new String[0];
+				this.segments = null;
+				this.matchTrailingSlash = false;
+				this.groupNames = pattern instanceof GenericURIPattern ? ((GenericURIPattern)pattern).getGroupNames().toArray(new String[0]) : new String[0];
+				this.groupCount = this.groupNames.length;
+				return;
+			}
+
+			this.matchTrailingSlash = ((GenericURIPattern)pattern).isMatchTrailingSlash();
+
+			int staticPrefixLength = 0;
+			while(staticPrefixLength < pathSegments.size() && pathSegments.get(staticPrefixLength).getParameters().isEmpty()) {
+				staticPrefixLength++;
+			}
+			this.staticPrefix = new String[staticPrefixLength];
+			List<String> names = new ArrayList<>();
+			for(int i=0;i<staticPrefixLength;i++) {
+				this.staticPrefix[i] = pathSegments.get(i).getRawValue();
+				if(!this.staticPrefix[i].isEmpty()) {
+					// an empty static segment doesn't define any group
+					names.add(null);
+				}
+			}
+
+			boolean regex = false;
+			SegmentPart[][] parts = new SegmentPart[pathSegments.size() - staticPrefixLength][];
+			for(int i=staticPrefixLength;i<pathSegments.size();i++) {
+				SegmentComponent segment = pathSegments.get(i);
+				String rawValue = segment.getRawValue();
+				List<SegmentPart> segmentParts = new ArrayList<>();
+				int valueIndex = 0;
+				for(URIParameter parameter : segment.getParameters()) {
+					if(!parameter.isDefaultPattern()) {
+						// A custom pattern might span multiple segments
+						regex = true;
+					}
+					if(parameter.getOffset() > valueIndex) {
+						segmentParts.add(new SegmentPart(rawValue.substring(valueIndex, parameter.getOffset()), false));
+						names.add(null);
+					}
+					segmentParts.add(new SegmentPart(null, true));
+					names.add(parameter.getName());
+					valueIndex = parameter.getOffset() + parameter.getLength();
+				}
+				if(valueIndex < rawValue.length()) {
+					segmentParts.add(new SegmentPart(rawValue.substring(valueIndex), false));
+					names.add(null);
+				}
+				parts[i - staticPrefixLength] = segmentParts.toArray(new SegmentPart[0]);
+			}
+
+			if(regex) {
+				this.segments = null;
+				this.groupNames = ((GenericURIPattern)pattern).getGroupNames().toArray(new String[0]);
+			}
+			else {
+				this.segments = parts;
+				this.groupNames = names.toArray(new String[0]);
+			}
+			this.groupCount = this.groupNames.length;
+		}
+
+		/**
+		 * <p>
+		 * Matches the specified path whose static prefix has already been matched
+		 * up to the specified depth.
+		 * </p>
+		 *
+		 * @param path    the path to match
+		 * @param slashes the indexes of the slashes in the path or null if the
+		 *                path is not absolute
+		 * @param depth   the number of segments matched by the static prefix
+		 *
+		 * @return a match or null if the path doesn't match the pattern
+		 */
+		public Match<T> match(String path, int[] slashes, int depth) {
+			if(this.segments == null) {
+				return this.matchRegex(path);
+			}
+			if(slashes == null) {
+				return null;
+			}
+			int remainingSegments = slashes.length - depth;
+			if(remainingSegments != this.segments.length) {
+				if(!this.matchTrailingSlash || remainingSegments != this.segments.length + 1 || slashes[slashes.length - 1] != path.length() - 1) {
+					return null;
+				}
+			}
+
+			int[] groups = new int[2 * this.groupCount];
+			int groupIndex = 0;
+			for(int i=0;i<depth;i++) {
+				int start = slashes[i] + 1;
+				int end = segmentEnd(path, slashes, i);
+				if(end > start) {
+					groups[2 * groupIndex] = start;
+					groups[2 * groupIndex + 1] = end;
+					groupIndex++;
+				}
+			}
+			for(int i=0;i<this.segments.length;i++) {
+				SegmentPart[] parts = this.segments[i];
+				if(!matchSegment(parts, 0, path, slashes[depth + i] + 1, segmentEnd(path, slashes, depth + i), groups, groupIndex)) {
+					return null;
+				}
+				groupIndex += parts.length;
+			}
+			return new Match<>(this, path, groups);
+		}
+
+		private Match<T> matchRegex(String path) {
+			Matcher matcher = this.pattern.getPattern().matcher(path);
+			if(!matcher.matches()) {
+				return null;
+			}
+			int[] groups = new int[2 * this.groupCount];
+			for(int i=0;i<this.groupCount;i++) {
+				if(i < matcher.groupCount()) {
+					groups[2 * i] = matcher.start(i + 1);
+					groups[2 * i + 1] = matcher.end(i + 1);
+				}
+				else {
+					groups[2 * i] = groups[2 * i + 1] = -1;
+				}
+			}
+			return new Match<>(this, path, groups);
+		}
+
+		/**
+		 * <p>
+		 * Matches a segment part by part, parameters are greedy and backtrack
+		 * just like the {@code [^/]*} default parameter pattern would.
+		 * </p>
+		 */
+		private static boolean matchSegment(SegmentPart[] parts, int partIndex, String path, int offset, int end, int[] groups, int groupIndex) {
+			if(partIndex == parts.length) {
+				return offset == end;
+			}
+			SegmentPart part = parts[partIndex];
+			if(!part.parameter) {
+				int length = part.value.length();
+				if(end - offset >= length && path.regionMatches(offset, part.value, 0, length) && matchSegment(parts, partIndex + 1, path, offset + length, end, groups, groupIndex + 1)) {
+					groups[2 * groupIndex] = offset;
+					groups[2 * groupIndex + 1] = offset + length;
+					return true;
+				}
+				return false;
+			}
+			for(int parameterEnd = end;parameterEnd >= offset;parameterEnd--) {
+				if(matchSegment(parts, partIndex + 1, path, parameterEnd, end, groups, groupIndex + 1)) {
+					groups[2 * groupIndex] = offset;
+					groups[2 * groupIndex + 1] = parameterEnd;
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * <p>
+	 * A part of a segment which is either a static value or a parameter.
+	 * </p>
+	 */
+	private static class SegmentPart {
+
+		private final String value;
+
+		private final boolean parameter;
+
+		public SegmentPart(String value, boolean parameter) {
+			this.value = value;
+			this.parameter = parameter;
+		}
+	}
+
+	/**
+	 * <p>
+	 * The result of a successful match of a path against a URI pattern trie.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 *
+	 * @param <T> the type of value associated to a pattern
+	 */
+	public static class Match<T> implements Comparable<Match<T>> {
+
+		private final Entry<T> entry;
+
+		private final String path;
+
+		private final int[] groups;
+
+		private Map<String, String> parameters;
+
+		private Match(Entry<T> entry, String path, int[] groups) {
+			this.entry = entry;
+			this.path = path;
+			this.groups = groups;
+		}
+
+		/**
+		 * <p>
+		 * Returns the pattern that matched the path.
+		 * </p>
+		 *
+		 * @return a URI pattern
+		 */
+		public URIPattern getPattern() {
+			return this.entry.pattern;
+		}
+
+		/**
+		 * <p>
+		 * Returns the value associated to the pattern that matched the path.
+		 * </p>
+		 *
+		 * @return a value
+		 */
+		public T getValue() {
+			return this.entry.value;
+		}
+
+		/**
+		 * <p>
+		 * Returns the parameters extracted from the path.
+		 * </p>
+		 *
+		 * @return a map of parameters
+		 */
+		public Map<String, String> getParameters() {
+			if(this.parameters == null) {
+				this.parameters = new LinkedHashMap<>();
+				for(int i=0;i<this.entry.groupCount;i++) {
+					String parameterName = this.entry.groupNames[i];
+					if(parameterName != null) {
+						this.parameters.put(parameterName, this.groups[2 * i] >= 0 ? this.path.substring(this.groups[2 * i], this.groups[2 * i + 1]) : null);
+					}
+				}
+			}
+			return this.parameters;
+		}
+
+		private int groupLength(int index) {
+			return this.groups[2 * index + 1] - this.groups[2 * index];
+		}
+
+		@Override
+		public int compareTo(Match<T> other) {
+			// Same rules as GenericURIMatcher#compareTo(): the most specific path wins from left to right
+			int groupIndex = 0;
+			while(groupIndex < Math.min(this.entry.groupCount, other.entry.groupCount)) {
+				int thisLength = this.groupLength(groupIndex);
+				boolean thisParameterized = this.entry.groupNames[groupIndex] != null;
+
+				int otherLength = other.groupLength(groupIndex);
+				boolean otherParameterized = other.entry.groupNames[groupIndex] != null;
+
+				if(thisLength < otherLength) {
+					if(!otherParameterized) {
+						return -1;
+					}
+					else {
+						return 1;
+					}
+				}
+				else if(thisLength > otherLength) {
+					if(!thisParameterized) {
+						return 1;
+					}
+					else {
+						return -1;
+					}
+				}
+				else {
+					if(!thisParameterized && otherParameterized) {
+						return 1;
+					}
+					else if(thisParameterized && !otherParameterized) {
+						return -1;
+					}
+				}
+				groupIndex++;
+			}
+			return Integer.compare(this.entry.groupCount, other.entry.groupCount);
+		}
+	}
+}
@@ -50,6 +50,11 @@ public final class MediaTypes {
 	 */
 	public static final String APPLICATION_XML = "application/xml";
 	
+	/**
+	 * {@code multipart/byteranges}
+	 */
+	public static final String MULTIPART_BYTERANGES = "multipart/byteranges";
+	
 	/**
 	 * {@code multipart/form-data}
 	 */
@@ -17,11 +17,16 @@ package io.inverno.mod.base.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.module.ModuleReference;
+import java.lang.module.ResolvedModule;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
@@ -79,6 +84,8 @@ public class ModuleResource extends AbstractAsyncResource {
 	
 	private Optional<Boolean> exists;
 	
+	private Optional<Long> size;
+	
 	/**
 	 * <p>
 	 * Creates a module resource with the specified URI.
@@ -283,7 +290,72 @@ public class ModuleResource extends AbstractAsyncResource {
 
 	@Override
 	public Optional<Long> size() throws ResourceException {
-		return Optional.empty();
+		if(this.size == null) {
+			if(!this.exists().orElse(false)) {
+				this.size = Optional.empty();
+			}
+			else {
+				this.size = this.resolve().flatMap(module -> {
+					// The size is taken from the resource metadata, the content must not be read since size() is invoked for every request
+					try {
+						Optional<URI> moduleLocation = module.isNamed() && module.getLayer() != null ? module.getLayer().configuration().findModule(module.getName()).map(ResolvedModule::reference).flatMap(ModuleReference::location) : Optional.empty();
+						if(moduleLocation.isPresent()) {
+							// Opening a module reader would open the module jar file every time
+							URI location = moduleLocation.get();
+							if(location.getScheme().equals("jrt")) {
+								return getSize(URI.create(location.toString() + "/" + this.resourceName));
+							}
+							else if(location.getScheme().equals("file")) {
+								Path locationPath = Paths.get(location);
+								if(Files.isDirectory(locationPath)) {
+									return getSize(locationPath.resolve(this.resourceName).toUri());
+								}
+								return getSize(URI.create("jar:" + location.toString() + "!/" + this.resourceName));
+							}
+						}
+						if(module.getClassLoader() != null) {
+							URL resourceUrl = module.getClassLoader().getResource(this.resourceName);
+							if(resourceUrl != null) {
+								return getSize(resourceUrl.toURI());
+							}
+						}
+					}
+					catch (IOException | URISyntaxException | IllegalArgumentException e) {
+						// Size is unknown
+					}
+					return Optional.empty();
+				});
+			}
+		}
+		return this.size;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the size of the resource identified by the specified URI from its
+	 * metadata.
+	 * </p>
+	 * 
+	 * @param uri the URI of a module resource, typically a {@code jar:},
+	 *            {@code jrt:} or {@code file:} URI
+	 * 
+	 * @return an optional returning the size of the resource or an empty optional
+	 *         if the size can't be determined without reading the resource
+	 * 
+	 * @throws IOException if there was an error accessing the resource metadata
+	 */
+	private static Optional<Long> getSize(URI uri) throws IOException {
+		if(uri.getScheme().equals("jar")) {
+			// The size is taken from the entry in the (cached) jar file, the entry is not read
+			long contentLength = uri.toURL().openConnection().getContentLengthLong();
+			return contentLength >= 0 ? Optional.of(contentLength) : Optional.empty();
+		}
+		try {
+			return Optional.of(Files.size(Paths.get(uri)));
+		}
+		catch(FileSystemNotFoundException | IllegalArgumentException e) {
+			return Optional.empty();
+		}
 	}
 
 	@Override
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.base.net;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ *
+ */
+public class URIPatternTrieTest {
+
+	private static URIPattern pathPattern(String path, boolean matchTrailingSlash) {
+		return URIs.uri(path, false, URIs.Option.NORMALIZED, URIs.Option.PARAMETERIZED).buildPathPattern(matchTrailingSlash);
+	}
+
+	@Test
+	public void testMatch() {
+		URIPatternTrie<String> trie = new URIPatternTrie<>();
+		for(String path : List.of("/a/{p1}_{p2}", "/a/{p}", "/a/b_{p}", "/a/b/{p}", "/a/{p}/c", "/a/{p:.*}", "/a/{p1}/{p2}", "/{p}/b")) {
+			trie.put(pathPattern(path, false), path);
+		}
+
+		Assertions.assertEquals("/a/{p1}_{p2}", trie.match("/a/1_2").getValue());
+		Assertions.assertEquals(Map.of("p1", "1", "p2", "2"), trie.match("/a/1_2").getParameters());
+		Assertions.assertEquals("/a/b_{p}", trie.match("/a/b_1").getValue());
+		Assertions.assertEquals("/a/b/{p}", trie.match("/a/b/c").getValue());
+		Assertions.assertEquals("/a/{p}", trie.match("/a/b").getValue());
+		Assertions.assertEquals("/a/{p}/c", trie.match("/a/2/c").getValue());
+		Assertions.assertEquals("/a/{p:.*}", trie.match("/a/b/c/d").getValue());
+		Assertions.assertEquals(Map.of("p", "b/c/d"), trie.match("/a/b/c/d").getParameters());
+		Assertions.assertEquals("/a/{p1}/{p2}", trie.match("/a/1/2").getValue());
+		Assertions.assertEquals("/{p}/b", trie.match("/c/b").getValue());
+		Assertions.assertNull(trie.match("/unknown"));
+		Assertions.assertNull(trie.match("/b"));
+
+		trie.remove(pathPattern("/a/{p:.*}", false));
+		Assertions.assertNull(trie.match("/a/b/c/d"));
+	}
+
+	@Test
+	public void testMatchTrailingSlash() {
+		URIPatternTrie<String> trie = new URIPatternTrie<>();
+		trie.put(pathPattern("/a/{p}", true), "/a/{p}");
+		trie.put(pathPattern("/a/{p}/c", false), "/a/{p}/c");
+
+		Assertions.assertEquals("/a/{p}", trie.match("/a/b").getValue());
+		Assertions.assertEquals("/a/{p}", trie.match("/a/b/").getValue());
+		Assertions.assertEquals(Map.of("p", "b"), trie.match("/a/b/").getParameters());
+		Assertions.assertEquals("/a/{p}/c", trie.match("/a/b/c").getValue());
+		Assertions.assertNull(trie.match("/a/b/c/"));
+	}
+
+	@Test
+	public void testSameOrderingAsURIMatcher() {
+		List<String> paths = List.of("/a/{p1}_{p2}", "/a/{p}", "/a/abc_{p}", "/a/{p}/c", "/a/{p:.*}", "/{p1}/{p2}", "/a/b/c");
+		URIPatternTrie<URIPattern> trie = new URIPatternTrie<>();
+		for(String path : paths) {
+			URIPattern pattern = pathPattern(path, false);
+			trie.put(pattern, pattern);
+		}
+
+		for(String input : List.of("/a/abc_1", "/a/1_2", "/a/b/c", "/a/b", "/b/c", "/a/b/c/d", "/a/")) {
+			URIMatcher bestMatcher = null;
+			for(String path : paths) {
+				URIMatcher matcher = pathPattern(path, false).matcher(input);
+				if(matcher.matches() && (bestMatcher == null || matcher.compareTo(bestMatcher) > 0)) {
+					bestMatcher = matcher;
+				}
+			}
+			URIPatternTrie.Match<URIPattern> match = trie.match(input);
+			Assertions.assertNotNull(match, input);
+			Assertions.assertEquals(bestMatcher.getParameters(), match.getParameters(), input);
+		}
+	}
+}
@@ -306,6 +306,18 @@ public class ResourceTest {
 		}
 	}
 	
+	@Test
+	public void testModuleSize() {
+		try (Resource resource = new ModuleResource(URI.create("module://io.inverno.mod.base/test.txt"), ResourceTest.class)) {
+			Assertions.assertTrue(resource.exists().get());
+			Assertions.assertEquals(14l, resource.size().get().longValue());
+		}
+		
+		try (Resource resource = new ModuleResource(URI.create("module://io.inverno.mod.base/unknown.txt"), ResourceTest.class)) {
+			Assertions.assertFalse(resource.size().isPresent());
+		}
+	}
+	
 	@Test
 	public void testUrlWrite() throws IllegalArgumentException, URISyntaxException {
 		FakeFtpServer fakeFtpServer = new FakeFtpServer();
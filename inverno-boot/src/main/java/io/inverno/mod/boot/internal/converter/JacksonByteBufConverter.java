@@ -16,13 +16,19 @@
 package io.inverno.mod.boot.internal.converter;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.reactivestreams.Publisher;
 
@@ -35,11 +41,14 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
 import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.inverno.core.annotation.Bean;
 import io.inverno.core.annotation.Provide;
@@ -56,6 +65,21 @@ import reactor.core.publisher.Mono;
  * JSON to Object converter backed by an {@link ObjectMapper}.
  * </p>
  * 
+ * <p>
+ * The {@link ObjectReader} and {@link ObjectWriter} used to decode and encode
+ * values of a particular type are cached: readers and writers for raw classes
+ * are associated to the class using a {@link ClassValue} and those for other
+ * types (eg. parameterized types) are stored in a bounded concurrent map.
+ * </p>
+ * 
+ * <p>
+ * Values are serialized into unreleasable heap buffers which callers can
+ * safely ignore. A converter serializing values directly into buffers
+ * allocated from a specific (eg. pooled) allocator can be obtained with
+ * {@link #pooled(ByteBufAllocator)}, the buffers it returns are then owned by
+ * the caller which is responsible for releasing them.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  * 
@@ -70,10 +94,125 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 	
 	private static final Mono<ByteBuf> LAST_CHUNK_PUBLISHER = Mono.just(EMPTY_LAST_CHUNK);
 	
+	/**
+	 * The maximum number of non-class types for which readers and writers are cached.
+	 */
+	private static final int MAX_CACHED_TYPES = 256;
+	
 	private ObjectMapper mapper;
+	
+	private final ClassValue<ObjectReader> classReaders;
+	
+	private final ClassValue<ObjectWriter> classWriters;
+	
+	private final Map<Type, ObjectReader> typeReaders;
+	
+	private final Map<Type, ObjectWriter> typeWriters;
+	
+	private final ByteBufAllocator allocator;
 
 	public JacksonByteBufConverter(ObjectMapper mapper) {
 		this.mapper = mapper;
+		this.classReaders = new ClassValue<ObjectReader>() {
+			@Override
+			protected ObjectReader computeValue(Class<?> type) {
+				return JacksonByteBufConverter.this.mapper.readerFor(type);
+			}
+		};
+		this.classWriters = new ClassValue<ObjectWriter>() {
+			@Override
+			protected ObjectWriter computeValue(Class<?> type) {
+				return JacksonByteBufConverter.this.mapper.writerFor(type);
+			}
+		};
+		this.typeReaders = new ConcurrentHashMap<>();
+		this.typeWriters = new ConcurrentHashMap<>();
+		this.allocator = null;
+	}
+	
+	/**
+	 * <p>
+	 * Creates a JSON converter sharing the object mapper, readers and writers of
+	 * the specified converter and encoding values into buffers allocated from the
+	 * specified allocator.
+	 * </p>
+	 * 
+	 * @param converter the original converter
+	 * @param allocator the byte buf allocator
+	 */
+	private JacksonByteBufConverter(JacksonByteBufConverter converter, ByteBufAllocator allocator) {
+		this.mapper = converter.mapper;
+		this.classReaders = converter.classReaders;
+		this.classWriters = converter.classWriters;
+		this.typeReaders = converter.typeReaders;
+		this.typeWriters = converter.typeWriters;
+		this.allocator = allocator;
+	}
+	
+	/**
+	 * <p>
+	 * Returns a JSON converter which serializes values directly into buffers
+	 * allocated from the specified allocator.
+	 * </p>
+	 * 
+	 * <p>
+	 * Unlike the buffers returned by this converter, the buffers returned by the
+	 * resulting converter must be released by the caller, this is usually done by
+	 * the network layer once they have been written.
+	 * </p>
+	 * 
+	 * @param allocator a byte buf allocator, typically a pooled direct allocator
+	 * 
+	 * @return a JSON converter
+	 */
+	public JacksonByteBufConverter pooled(ByteBufAllocator allocator) {
+		return new JacksonByteBufConverter(this, allocator);
+	}
+	
+	/**
+	 * <p>
+	 * Returns the object reader for the specified type.
+	 * </p>
+	 * 
+	 * @param type the type of the objects to read
+	 * 
+	 * @return an object reader
+	 */
+	private ObjectReader getReader(Type type) {
+		if(type instanceof Class) {
+			return this.classReaders.get((Class<?>)type);
+		}
+		ObjectReader reader = this.typeReaders.get(type);
+		if(reader == null) {
+			reader = this.mapper.readerFor(this.mapper.constructType(type));
+			if(this.typeReaders.size() < MAX_CACHED_TYPES) {
+				this.typeReaders.putIfAbsent(type, reader);
+			}
+		}
+		return reader;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the object writer for the specified type.
+	 * </p>
+	 * 
+	 * @param type the type of the objects to write
+	 * 
+	 * @return an object writer
+	 */
+	private ObjectWriter getWriter(Type type) {
+		if(type instanceof Class) {
+			return this.classWriters.get((Class<?>)type);
+		}
+		ObjectWriter writer = this.typeWriters.get(type);
+		if(writer == null) {
+			writer = this.mapper.writerFor(this.mapper.constructType(type));
+			if(this.typeWriters.size() < MAX_CACHED_TYPES) {
+				this.typeWriters.putIfAbsent(type, writer);
+			}
+		}
+		return writer;
 	}
 	
 	@Override
@@ -108,12 +247,7 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 
 	@Override
 	public ByteBuf encode(Object value) {
-		try {
-			return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(this.mapper.writeValueAsBytes(value)));
-		} 
-		catch (JsonProcessingException e) {
-			throw new ConverterException("Error encoding value", e);
-		}
+		return this.encode(value, this.mapper.writer());
 	}
 	
 	@Override
@@ -123,10 +257,37 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 	
 	@Override
 	public <T> ByteBuf encode(T value, Type type) throws ConverterException {
-		try {
-			return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(this.mapper.writerFor(this.mapper.constructType(type)).writeValueAsBytes(value)));
-		} 
-		catch (JsonProcessingException e) {
+		return this.encode(value, this.getWriter(type));
+	}
+	
+	/**
+	 * <p>
+	 * Encodes the specified value using the specified writer.
+	 * </p>
+	 * 
+	 * @param value  the value to encode
+	 * @param writer the object writer
+	 * 
+	 * @return a byte buf
+	 * 
+	 * @throws ConverterException if there was an error encoding the value
+	 */
+	private ByteBuf encode(Object value, ObjectWriter writer) throws ConverterException {
+		if(this.allocator == null) {
+			try {
+				return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(writer.writeValueAsBytes(value)));
+			}
+			catch (JsonProcessingException e) {
+				throw new ConverterException("Error encoding value", e);
+			}
+		}
+		ByteBuf buffer = this.allocator.buffer();
+		try(OutputStream output = new ByteBufOutputStream(buffer)) {
+			writer.writeValue(output, value);
+			return buffer;
+		}
+		catch (IOException e) {
+			buffer.release();
 			throw new ConverterException("Error encoding value", e);
 		}
 	}
@@ -197,18 +358,17 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 	}
 
 	private <T> Flux<T> decodeMany(Publisher<ByteBuf> value, Type type, boolean scanRootArray) {
-		// Performance wise, this might not be ideal because creating a flux is resource consuming
-		// TODO assess performance and see whether it is interesting to optimize this
-		return Flux.concat(value, LAST_CHUNK_PUBLISHER).scanWith(
-				() -> {
-					try {
-						return new ObjectScanner<T>(type, this.mapper, scanRootArray);
-					}
-					catch(IOException e) {
-						throw Exceptions.propagate(e);
-					}
-				},
-				(scanner, chunk) -> {
+		// Chunks are fed to the scanner one at a time, the next chunk is only requested once all objects in the current chunk have been emitted downstream
+		return Flux.defer(() -> {
+			ObjectScanner<T> scanner;
+			try {
+				scanner = new ObjectScanner<T>(this.getReader(type), this.mapper, scanRootArray);
+			}
+			catch(IOException e) {
+				throw Exceptions.propagate(e);
+			}
+			return Flux.concat(value, LAST_CHUNK_PUBLISHER)
+				.flatMapIterable(chunk -> {
 					try {
 						if(chunk == EMPTY_LAST_CHUNK) {
 							scanner.endOfInput();
@@ -221,22 +381,9 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 					catch (IOException e) {
 						throw Exceptions.propagate(e);
 					}
-				}
-			)
-			.skip(1)
-			.concatMap(scanner -> {
-				try {
-					List<T> objects = new LinkedList<>();
-					T object = null;
-					while( (object = scanner.nextObject()) != null) {
-						objects.add(object);
-					}
-					return Flux.fromIterable(objects);
-				} 
-				catch (IOException e) {
-					throw Exceptions.propagate(e);
-				}
-			});
+				}, 1)
+				.doOnDiscard(ByteBuf.class, ByteBuf::release);
+		});
 	}
 	
 	@Override
@@ -247,7 +394,14 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 	@Override
 	public <T> T decode(ByteBuf value, Type type) throws ConverterException {
 		try {
-			return this.mapper.readerFor(this.mapper.constructType(type)).readValue(ByteBufUtil.getBytes(value));
+			if(value.hasArray()) {
+				return this.getReader(type).readValue(value.array(), value.arrayOffset() + value.readerIndex(), value.readableBytes());
+			}
+			else {
+				try(InputStream input = new ByteBufInputStream(value)) {
+					return this.getReader(type).readValue(input);
+				}
+			}
 		} 
 		catch (IOException e) {
 			throw new ConverterException("Error decoding value", e);
@@ -265,7 +419,7 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 	@Override
 	public <T> List<T> decodeToList(ByteBuf value, Type type) {
 		try {
-			ObjectScanner<T> scanner = new ObjectScanner<>(type, this.mapper, true);
+			ObjectScanner<T> scanner = new ObjectScanner<>(this.getReader(type), this.mapper, true);
 			scanner.feedInput(value);
 			scanner.endOfInput();
 			
@@ -289,7 +443,7 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 	@Override
 	public <T> Set<T> decodeToSet(ByteBuf value, Type type) {
 		try {
-			ObjectScanner<T> scanner = new ObjectScanner<>(type, this.mapper, true);
+			ObjectScanner<T> scanner = new ObjectScanner<>(this.getReader(type), this.mapper, true);
 			scanner.feedInput(value);
 			scanner.endOfInput();
 			
@@ -329,9 +483,23 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 		}
 	}
 	
-	private static class ObjectScanner<T> {
-		
-		private Type type;
+	/**
+	 * <p>
+	 * A non-blocking object scanner.
+	 * </p>
+	 * 
+	 * <p>
+	 * The scanner is an {@link Iterable} over the objects that can be decoded
+	 * from the input fed so far, objects are decoded lazily as the iterator is
+	 * consumed.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.0
+	 *
+	 * @param <T> the type of the decoded objects
+	 */
+	private static class ObjectScanner<T> implements Iterable<T> {
 		
 		private ObjectMapper mapper;
 		private ObjectReader reader;
@@ -346,10 +514,9 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 
 		private TokenBuffer tokenBuffer;
 		
-		public ObjectScanner(Type type, ObjectMapper mapper, boolean scanRootArray) throws IOException {
-			this.type = type;
+		public ObjectScanner(ObjectReader reader, ObjectMapper mapper, boolean scanRootArray) throws IOException {
 			this.mapper = mapper;
-			this.reader = this.mapper.readerFor(this.mapper.constructType(this.type));
+			this.reader = reader;
 			this.scanRootArray = scanRootArray;
 			this.parser = this.mapper.getFactory().createNonBlockingByteArrayParser();
 			this.feeder = (ByteArrayFeeder)this.parser.getNonBlockingInputFeeder();
@@ -359,11 +526,6 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 			}
 		}
 		
-		@SuppressWarnings("unused")
-		public ObjectScanner(Class<T> type, ObjectMapper mapper, boolean scanRootArray) throws IOException {
-			this((Type)type, mapper, scanRootArray);
-		}
-		
 		protected TokenBuffer getTokenBuffer() {
 			if(this.tokenBuffer == null) {
 				this.tokenBuffer = new TokenBuffer(this.parser, this.deserializationContext);
@@ -373,18 +535,13 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 		}
 
 		public void feedInput(ByteBuf chunk) throws IOException {
+			// The non-blocking parser keeps a reference to the input array and parses it lazily as tokens are requested, the chunk is released right away
+			// so its content must be copied in an array owned by the parser to prevent the parser from reading a (pooled) array that has been reused
 			try {
-				if(chunk.hasArray()) {
-					int length = chunk.readableBytes();
-					int offset = chunk.arrayOffset() + chunk.readerIndex();
-					this.feeder.feedInput(chunk.array(), offset, offset + length);
-				}
-				else {
-					int length = chunk.readableBytes();
-					byte[] chunkBytes = new byte[length];
-					chunk.getBytes(chunk.readerIndex(), chunkBytes);
-					this.feeder.feedInput(chunkBytes, 0, length);
-				}
+				int length = chunk.readableBytes();
+				byte[] chunkBytes = new byte[length];
+				chunk.getBytes(chunk.readerIndex(), chunkBytes);
+				this.feeder.feedInput(chunkBytes, 0, length);
 			}
 			finally {
 				chunk.release();
@@ -395,6 +552,41 @@ public class JacksonByteBufConverter implements @Provide ReactiveConverter<ByteB
 			this.feeder.endOfInput();
 		}
 		
+		@Override
+		public Iterator<T> iterator() {
+			return new Iterator<T>() {
+				
+				private T next;
+				
+				private boolean fetched;
+
+				@Override
+				public boolean hasNext() {
+					if(!this.fetched) {
+						try {
+							this.next = ObjectScanner.this.nextObject();
+						}
+						catch (IOException e) {
+							throw Exceptions.propagate(e);
+						}
+						this.fetched = true;
+					}
+					return this.next != null;
+				}
+
+				@Override
+				public T next() {
+					if(!this.hasNext()) {
+						throw new NoSuchElementException();
+					}
+					T current = this.next;
+					this.next = null;
+					this.fetched = false;
+					return current;
+				}
+			};
+		}
+		
 		public T nextObject() throws IOException {
 			while (!this.parser.isClosed()) {
 				JsonToken token = this.parser.nextToken();
@@ -55,7 +55,7 @@ public class NdJsonMediaTypeConverter extends AbstractJsonMediaTypeConverter imp
 	}
 
 	private ByteBuf concatNewLine(ByteBuf value) {
-		return Unpooled.unreleasableBuffer(Unpooled.copiedBuffer(value, NEW_LINE));
+		return Unpooled.wrappedBuffer(value, NEW_LINE.duplicate());
 	}
 	
 	@Override
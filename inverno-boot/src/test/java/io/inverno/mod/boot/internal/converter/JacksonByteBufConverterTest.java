@@ -20,6 +20,7 @@ import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +32,7 @@ import org.reactivestreams.Publisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.inverno.mod.base.converter.ConverterException;
 import io.inverno.mod.boot.Person;
@@ -102,6 +104,22 @@ public class JacksonByteBufConverterTest {
 		ByteBuf out = CONVERTER.encode(in);
 		
 		Assertions.assertEquals("{\"firstname\":\"John\",\"name\":\"Smith\",\"age\":42}", out.toString(Charset.defaultCharset()));
+		// The caller doesn't own the buffer
+		Assertions.assertFalse(out.release());
+		Assertions.assertEquals(1, out.refCnt());
+	}
+	
+	@Test
+	public void testEncodePooled() {
+		Person in = new Person("John", "Smith", 42);
+		
+		ByteBuf out = CONVERTER.pooled(new PooledByteBufAllocator(true)).encode(in);
+		
+		Assertions.assertTrue(out.isDirect());
+		Assertions.assertEquals("{\"firstname\":\"John\",\"name\":\"Smith\",\"age\":42}", out.toString(Charset.defaultCharset()));
+		// The caller owns the buffer
+		Assertions.assertTrue(out.release());
+		Assertions.assertEquals(0, out.refCnt());
 	}
 
 	@Test
@@ -184,6 +202,40 @@ public class JacksonByteBufConverterTest {
 		Assertions.assertEquals(new Person("Junior", "Smith", 10), outList.get(2));
 	}
 
+	@Test
+	public void testDecodeManyPooledChunks() {
+		// chunks are allocated from a pool as they are requested, released chunks are then reused to hold the next chunks
+		PooledByteBufAllocator allocator = new PooledByteBufAllocator(false);
+		List<ByteBuf> chunks = new LinkedList<>();
+		Flux<ByteBuf> in = Flux.just(
+				"[{\"firstname\":\"John\",\"na",
+				"me\":\"Smith\",\"age\":42},",
+				"{\"firstname\":\"Jane\",",
+				"\"name\":\"Smith\",\"age\":40},{\"fi",
+				"rstname\":\"Junior\",\"name\":",
+				"\"Smith\",\"age\":10}]"
+			)
+			.map(s -> {
+				ByteBuf chunk = allocator.heapBuffer(64);
+				chunk.writeCharSequence(s, Charset.defaultCharset());
+				chunks.add(chunk);
+				return chunk;
+			});
+		
+		List<Person> outList = CONVERTER.decodeMany(in, Person.class).collectList().block();
+		
+		Assertions.assertEquals(3, outList.size());
+		
+		Assertions.assertEquals(new Person("John", "Smith", 42), outList.get(0));
+		Assertions.assertEquals(new Person("Jane", "Smith", 40), outList.get(1));
+		Assertions.assertEquals(new Person("Junior", "Smith", 10), outList.get(2));
+		
+		Assertions.assertEquals(6, chunks.size());
+		for(ByteBuf chunk : chunks) {
+			Assertions.assertEquals(0, chunk.refCnt());
+		}
+	}
+	
 	@Test
 	public void testDecode() {
 		ByteBuf in = Unpooled.copiedBuffer("{\"firstname\":\"John\",\"name\":\"Smith\",\"age\":42}", Charset.defaultCharset());
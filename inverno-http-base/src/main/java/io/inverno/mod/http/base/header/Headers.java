@@ -63,6 +63,10 @@ public final class Headers {
 	 * <a href="https://tools.ietf.org/html/rfc7231#section-5.3.5">RFC 7231 Section 5.3.5</a>
 	 */
 	public static final String NAME_ACCEPT_LANGUAGE = "accept-language";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7233#section-2.3">RFC 7233 Section 2.3</a>
+	 */
+	public static final String NAME_ACCEPT_RANGES = "accept-ranges";
 	/**
 	 * <a href="https://tools.ietf.org/html/rfc7231#section-7.4.1">RFC 7231 Section 7.4.1</a>
 	 */
@@ -83,6 +87,10 @@ public final class Headers {
 	 * <a href="https://tools.ietf.org/html/rfc7231#section-3.1.2.2">RFC 7231 Section 3.1.2.2</a>
 	 */
 	public static final String NAME_CONTENT_ENCODING = "content-encoding";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7233#section-4.2">RFC 7233 Section 4.2</a>
+	 */
+	public static final String NAME_CONTENT_RANGE = "content-range";
 	/**
 	 * <a href="https://tools.ietf.org/html/rfc7231#section-3.1.1.5">RFC 7231 Section 3.1.1.5</a>
 	 */
@@ -99,6 +107,10 @@ public final class Headers {
 	 * <a href="https://datatracker.ietf.org/doc/html/rfc7231#section-7.1.1.2">RFC 7231 Section 7.1.1.2</a>
 	 */
 	public static final String NAME_DATE = "date";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7232#section-2.3">RFC 7232 Section 2.3</a>
+	 */
+	public static final String NAME_ETAG = "etag";
 	/**
 	 * <a href="https://tools.ietf.org/html/rfc7230#section-5.4">RFC 7230 Section 5.4</a>
 	 */
@@ -107,6 +119,18 @@ public final class Headers {
 	 * <a href="https://tools.ietf.org/html/rfc7540#section-3.2.1">RFC 7540 Section 3.2.1</a>
 	 */
 	public static final String NAME_HTTP2_SETTINGS = "http2-settings";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7232#section-3.3">RFC 7232 Section 3.3</a>
+	 */
+	public static final String NAME_IF_MODIFIED_SINCE = "if-modified-since";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7232#section-3.2">RFC 7232 Section 3.2</a>
+	 */
+	public static final String NAME_IF_NONE_MATCH = "if-none-match";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7233#section-3.2">RFC 7233 Section 3.2</a>
+	 */
+	public static final String NAME_IF_RANGE = "if-range";
 	/**
 	 * <a href="https://datatracker.ietf.org/doc/html/rfc7232#section-2.2">RFC 7232 Section 2.2</a>
 	 */
@@ -115,6 +139,10 @@ public final class Headers {
 	 * <a href="https://tools.ietf.org/html/rfc7231#section-7.1.2">RFC 7231 Section 7.1.2</a>
 	 */
 	public static final String NAME_LOCATION = "location";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7233#section-3.1">RFC 7233 Section 3.1</a>
+	 */
+	public static final String NAME_RANGE = "range";
 	/**
 	 * <a href="https://tools.ietf.org/html/rfc7231#section-5.5.2">RFC 7231 Section 5.5.2</a>
 	 */
@@ -151,6 +179,10 @@ public final class Headers {
 	 * <a href="https://datatracker.ietf.org/doc/html/rfc7231#section-5.5.3">RFC 7231 Section 5.5.3</a>
 	 */
 	public static final String NAME_USER_AGENT = "user-agent";
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7231#section-7.1.4">RFC 7231 Section 7.1.4</a>
+	 */
+	public static final String NAME_VARY = "vary";
 	
 	/* HTTP/2 pseudo headers */
 	/**
@@ -175,6 +207,10 @@ public final class Headers {
 	public static final String NAME_PSEUDO_STATUS = ":status";
 	
 	/* Header Values */
+	/**
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7233#section-2.1">RFC 7233 Section 2.1</a>
+	 */
+	public static final String VALUE_BYTES = "bytes";
 	/**
 	 * <a href="https://tools.ietf.org/html/rfc7230#section-3.3.1">RFC 7230 Section 3.3.1</a>
 	 */
@@ -15,6 +15,8 @@
  */
 package io.inverno.mod.http.server;
 
+import reactor.core.publisher.Mono;
+
 /**
  * <p>
  * Represents a server exchange between a client and a server.
@@ -45,4 +47,37 @@ public interface Exchange {
 	 * @return the response part
 	 */
 	Response response();
+	
+	/**
+	 * <p>
+	 * Adds a finalizer to the exchange.
+	 * </p>
+	 * 
+	 * <p>
+	 * A finalizer is subscribed once the exchange is finalized, that is when
+	 * the response data publisher terminates (complete, error or cancel) or when
+	 * the exchange is disposed (eg. connection closed before the response data
+	 * publisher is subscribed). It can be used to release resources held for
+	 * the duration of the exchange (eg. buffers retained to produce the
+	 * response data) which would otherwise leak when the response data are
+	 * never consumed.
+	 * </p>
+	 * 
+	 * <p>
+	 * Finalizers are chained and subscribed in the order in which they were
+	 * added, errors are logged and ignored.
+	 * </p>
+	 * 
+	 * @param finalizer a finalizer
+	 * 
+	 * @return the exchange
+	 * 
+	 * @throws UnsupportedOperationException if the exchange doesn't support
+	 *                                       finalizers
+	 * 
+	 * @since 1.2
+	 */
+	default Exchange finalizer(Mono<Void> finalizer) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Exchange finalizers are not supported");
+	}
 }
@@ -134,6 +134,272 @@ public interface HttpServerConfiguration {
 		return 6;
 	}
 
+	/**
+	 * <p>
+	 * The number of response data chunks requested at once to the response
+	 * data publisher.
+	 * </p>
+	 * 
+	 * <p>
+	 * Response data are requested in batches as long as the connection is
+	 * writable, the server stops requesting data when the connection is no
+	 * longer writable (ie. the client is not reading fast enough) and resumes
+	 * when it becomes writable again.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to 16.
+	 * </p>
+	 * 
+	 * @return the response data batch size
+	 */
+	default int response_batch_size() {
+		return 16;
+	}
+	
+	/**
+	 * <p>
+	 * Enables/Disables the pooling of HTTP/1.x exchange responses.
+	 * </p>
+	 * 
+	 * <p>
+	 * When enabled, the response of an exchange, its headers and its body are
+	 * reset and reused for the next exchanges on the same connection once the
+	 * exchange completes, which reduces allocations on keep-alive connections.
+	 * An exchange handler must then not hold a reference to the response
+	 * beyond the completion of the exchange.
+	 * </p>
+	 * 
+	 * <p>
+	 * Such misuses are only partially detected: a recycled response raises an
+	 * {@link IllegalStateException} when accessed until it is reused by a
+	 * subsequent exchange, after which a stale reference silently reads and
+	 * modifies the response of that other exchange which might be sent to
+	 * another client. Recycled responses are not reused when Netty's resource
+	 * leak detection level is set to advanced or paranoid so that such misuses
+	 * are reliably reported during development and tests. This option must
+	 * only be enabled for applications that are known not to retain responses.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to false.
+	 * </p>
+	 * 
+	 * @return true if the option is enabled, false otherwise
+	 */
+	default boolean exchange_pooling_enabled() {
+		return false;
+	}
+	
+	/**
+	 * <p>
+	 * Enables concurrent processing of pipelined HTTP/1.x requests.
+	 * </p>
+	 * 
+	 * <p>
+	 * When enabled, the exchange of a pipelined request is started as soon as
+	 * the request is received instead of waiting for previous exchanges to
+	 * complete. Responses are buffered and still sent in the order of the
+	 * requests.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to false.
+	 * </p>
+	 * 
+	 * @return true if the option is enabled, false otherwise
+	 */
+	default boolean concurrent_pipelining_enabled() {
+		return false;
+	}
+	
+	/**
+	 * <p>
+	 * The maximum amount of response data in bytes buffered by a pipelined
+	 * HTTP/1.x exchange waiting for previous exchanges to complete when
+	 * concurrent pipelining is enabled.
+	 * </p>
+	 * 
+	 * <p>
+	 * The exchange stops requesting response data once this limit is reached
+	 * until it can write its response.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to 65536.
+	 * </p>
+	 * 
+	 * @return the pipelined response buffer size
+	 */
+	default int pipelined_response_buffer_size() {
+		return 65536;
+	}
+	
+	/**
+	 * <p>
+	 * Enables the server-managed {@code date} response header.
+	 * </p>
+	 * 
+	 * <p>
+	 * When enabled, a {@code date} header is added to responses that don't
+	 * already specify one. The header value is refreshed every second in each
+	 * event loop.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to false.
+	 * </p>
+	 * 
+	 * @return true if the option is enabled, false otherwise
+	 */
+	default boolean date_header_enabled() {
+		return false;
+	}
+	
+	/**
+	 * <p>
+	 * The value of the server-managed {@code server} response header.
+	 * </p>
+	 * 
+	 * <p>
+	 * When specified, a {@code server} header is added to responses that don't
+	 * already specify one.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to null which disables the header.
+	 * </p>
+	 * 
+	 * @return the server header value
+	 */
+	default String server_header() {
+		return null;
+	}
+	
+	/**
+	 * <p>
+	 * The maximum number of bytes of request body data that can be buffered
+	 * before the exchange handler actually consumes them.
+	 * </p>
+	 * 
+	 * <p>
+	 * When set to a positive value, the server stops reading from a HTTP/1.x
+	 * connection when the amount of unconsumed request body data reaches that
+	 * threshold and resumes reading when data are consumed, TCP flow control is
+	 * then applied to the client. A value of zero or less means request body
+	 * data are buffered without limit.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to 0.
+	 * </p>
+	 * 
+	 * @return the request body high water mark in bytes
+	 */
+	default int request_body_high_water_mark() {
+		return 0;
+	}
+	
+	/**
+	 * <p>
+	 * The time in milliseconds after which an idle connection is closed.
+	 * </p>
+	 * 
+	 * <p>
+	 * A connection is idle when no data have been read or written and no
+	 * exchange is in progress. A HTTP/1.x connection is simply closed whereas a
+	 * HTTP/2 connection is gracefully shutdown with a {@code GOAWAY} frame. A
+	 * value of zero or less disables the idle timeout.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to 60000. Idle connections were previously kept open until the
+	 * client closed them, this default therefore changes the behavior of
+	 * existing deployments relying on long-lived idle connections which must
+	 * now set a larger value or zero to keep them open.
+	 * </p>
+	 * 
+	 * @return the idle timeout in milliseconds
+	 */
+	default long idle_timeout() {
+		return 60000l;
+	}
+	
+	/**
+	 * <p>
+	 * The time in milliseconds allowed to receive the headers of a HTTP/1.x
+	 * request measured from the reception of its first bytes.
+	 * </p>
+	 * 
+	 * <p>
+	 * A {@code 408 Request Timeout} response is sent and the connection closed
+	 * when the request headers are not received in time which prevents slow
+	 * clients from holding connections by sending partial requests. A value of
+	 * zero or less disables the request header timeout.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to 30000. Requests were previously awaited indefinitely, clients
+	 * of existing deployments which take longer to send request headers now
+	 * receive a {@code 408} unless the timeout is increased or disabled.
+	 * </p>
+	 * 
+	 * @return the request header timeout in milliseconds
+	 */
+	default long request_header_timeout() {
+		return 30000l;
+	}
+	
+	/**
+	 * <p>
+	 * The time in milliseconds after which a connection is closed when response
+	 * data are pending and none could be written to the client.
+	 * </p>
+	 * 
+	 * <p>
+	 * This prevents stalled clients which stopped reading from holding a
+	 * connection, its exchanges and their buffered response data. A value of
+	 * zero or less disables the response write timeout.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to 60000. Slow consumers of existing deployments which used to
+	 * be waited for indefinitely (eg. clients pausing a long download for more
+	 * than a minute) are now disconnected unless the timeout is increased or
+	 * disabled.
+	 * </p>
+	 * 
+	 * @return the response write timeout in milliseconds
+	 */
+	default long response_write_timeout() {
+		return 60000l;
+	}
+	
+	/**
+	 * <p>
+	 * The time in milliseconds given to in-flight exchanges to complete when the
+	 * server is stopped.
+	 * </p>
+	 * 
+	 * <p>
+	 * When the server is stopped, it stops accepting connections, HTTP/1.x
+	 * connections are closed once the exchanges in progress complete with a
+	 * {@code connection: close} header and a {@code GOAWAY} frame is sent on
+	 * HTTP/2 connections to let active streams complete. Remaining connections
+	 * are closed when the timeout is reached. A value of zero or less closes
+	 * connections immediately.
+	 * </p>
+	 * 
+	 * <p>
+	 * Defaults to 10000.
+	 * </p>
+	 * 
+	 * @return the graceful shutdown timeout in milliseconds
+	 */
+	default long graceful_shutdown_timeout() {
+		return 10000l;
+	}
+	
 	/**
 	 * <p>
 	 * Enables/Disables HTTPS.
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.http.server;
+
+/**
+ * <p>
+ * Statistics about the connections reclaimed by the HTTP server.
+ * </p>
+ * 
+ * <p>
+ * The HTTP server closes connections which are idle, which do not send their
+ * request headers in time or which do not read response data in time as
+ * specified in the {@link HttpServerConfiguration}. These counters can be used
+ * to monitor how many connections were reclaimed that way.
+ * </p>
+ * 
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ * 
+ * @see HttpServerConfiguration#idle_timeout()
+ * @see HttpServerConfiguration#request_header_timeout()
+ * @see HttpServerConfiguration#response_write_timeout()
+ */
+public interface HttpServerStatistics {
+	
+	/**
+	 * <p>
+	 * Returns the number of idle connections that were closed.
+	 * </p>
+	 * 
+	 * @return the number of idle connections closed
+	 */
+	long getIdleConnectionCount();
+	
+	/**
+	 * <p>
+	 * Returns the number of connections that were closed because request
+	 * headers were not received in time.
+	 * </p>
+	 * 
+	 * @return the number of request header timeouts
+	 */
+	long getRequestHeaderTimeoutCount();
+	
+	/**
+	 * <p>
+	 * Returns the number of connections that were closed because response data
+	 * could not be written in time.
+	 * </p>
+	 * 
+	 * @return the number of response write timeouts
+	 */
+	long getResponseWriteTimeoutCount();
+}
@@ -137,6 +137,10 @@ public interface ResponseBody {
 	 * );
 	 * </pre></blockquote>
 	 * 
+	 * <p>
+	 * Event data buffers are released once they have been written.
+	 * </p>
+	 * 
 	 * @return a server-sent events payload producer
 	 */
 	ResponseBody.Sse<ByteBuf, ResponseBody.Sse.Event<ByteBuf>, ResponseBody.Sse.EventFactory<ByteBuf, ResponseBody.Sse.Event<ByteBuf>>> sse();
@@ -186,6 +190,13 @@ public interface ResponseBody {
 		 * which case the content type header is set in the response.
 		 * </p>
 		 * 
+		 * <p>
+		 * When the request is a {@code GET} request specifying a {@code range}
+		 * header, only the requested byte ranges are sent in a
+		 * {@code 206 Partial Content} response provided the {@code if-range}
+		 * precondition, if any, is met.
+		 * </p>
+		 * 
 		 * @param resource a resource
 		 * 
 		 * @throws IllegalStateException if the payload has already been set
@@ -33,10 +33,12 @@ import io.inverno.mod.http.base.header.Headers;
 import io.inverno.mod.http.server.ErrorExchange;
 import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.concurrent.EventExecutor;
 import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.SignalType;
 
 /**
@@ -54,6 +56,15 @@ import reactor.core.publisher.SignalType;
  * send response data to the client.
  * </p>
  * 
+ * <p>
+ * Response data are requested to the response data publisher in batches of
+ * {@link HttpServerConfiguration#response_batch_size()} chunks as long as the
+ * exchange is writable. When it is not, requests are deferred until
+ * {@link #onWritabilityChanged()} is invoked and the exchange is writable
+ * again so that a fast publisher can't fill up the outbound buffer when the
+ * client is slow.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -65,6 +76,7 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	
 	protected final ChannelHandlerContext context;
 	protected final EventExecutor contextExecutor;
+	protected final HttpServerConfiguration configuration;
 	
 	protected final ExchangeHandler<Exchange> rootHandler;
 	protected final ExchangeHandler<ErrorExchange<Throwable>> errorHandler;
@@ -75,12 +87,17 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	protected Handler handler;
 	
 	protected int transferedLength;
+	
+	private final int responseBatchSize;
+	private long pendingDemand;
 
 	protected boolean single;
 	private ByteBuf singleChunk;
 	
 	private ErrorSubscriber errorSubscriber;
 	
+	private Mono<Void> finalizer;
+	
 	protected static final ExchangeHandler<ErrorExchange<Throwable>> LAST_RESORT_ERROR_HANDLER = new GenericErrorHandler();
 	
 	/**
@@ -89,19 +106,23 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	 * handler, error exchange handler, request and response.
 	 * </p>
 	 * 
-	 * @param context      the channel handler context
-	 * @param rootHandler  the server root exchange handler
-	 * @param errorHandler the server error exchange handler
-	 * @param request      the exchange request
-	 * @param response     the exchange response
+	 * @param context       the channel handler context
+	 * @param configuration the HTTP server configuration
+	 * @param rootHandler   the server root exchange handler
+	 * @param errorHandler  the server error exchange handler
+	 * @param request       the exchange request
+	 * @param response      the exchange response
 	 */
-	public AbstractExchange(ChannelHandlerContext context, ExchangeHandler<Exchange> rootHandler, ExchangeHandler<ErrorExchange<Throwable>> errorHandler, AbstractRequest request, AbstractResponse response) {
+	public AbstractExchange(ChannelHandlerContext context, HttpServerConfiguration configuration, ExchangeHandler<Exchange> rootHandler, ExchangeHandler<ErrorExchange<Throwable>> errorHandler, AbstractRequest request, AbstractResponse response) {
 		this.context = context;
 		this.contextExecutor = this.context.executor();
+		this.configuration = configuration;
+		this.responseBatchSize = Math.max(1, configuration.response_batch_size());
 		this.rootHandler = rootHandler;
 		this.errorHandler = errorHandler;
 		this.request = request;
 		this.response = response;
+		this.response.setRequest(request);
 	}
 	
 	@Override
@@ -126,6 +147,38 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 		return this.transferedLength;
 	}
 	
+	@Override
+	public Exchange finalizer(Mono<Void> finalizer) {
+		Mono<Void> loggedFinalizer = finalizer.onErrorResume(throwable -> {
+			this.logError(() -> "Exchange finalizer error", throwable);
+			return Mono.empty();
+		});
+		if(this.finalizer != null) {
+			this.finalizer = this.finalizer.then(loggedFinalizer);
+		}
+		else {
+			this.finalizer = loggedFinalizer;
+		}
+		return this;
+	}
+	
+	/**
+	 * <p>
+	 * Subscribes to the exchange finalizers if any.
+	 * </p>
+	 * 
+	 * <p>
+	 * Finalizers are subscribed once, subsequent invocations have no effect.
+	 * </p>
+	 */
+	protected void finalizeExchange() {
+		if(this.finalizer != null) {
+			Mono<Void> currentFinalizer = this.finalizer;
+			this.finalizer = null;
+			currentFinalizer.subscribe();
+		}
+	}
+	
 	@Override
 	public void dispose() {
 		if(this.errorSubscriber != null) {
@@ -135,6 +188,7 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 			super.dispose();
 		}
 		this.request.dispose();
+		this.finalizeExchange();
 	}
 	
 	@Override
@@ -217,7 +271,8 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	 * 
 	 * <p>
 	 * After the execution of the task, the specified number of events is requested
-	 * to the response data subscriber.
+	 * to the response data subscriber if the exchange is writable, otherwise the
+	 * request is deferred until the exchange becomes writable again.
 	 * </p>
 	 * 
 	 * @param runnable the task to execute
@@ -227,13 +282,13 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	protected void executeInEventLoop(Runnable runnable, int request) {
 		if(this.contextExecutor.inEventLoop()) {
 			runnable.run();
-			this.request(request);
+			this.requestIfWritable(request);
 		}
 		else {
 			this.contextExecutor.execute(() -> {
 				try {
 					runnable.run();
-					this.request(request);
+					this.requestIfWritable(request);
 				}
 				catch (Throwable throwable) {
 					this.cancel();
@@ -243,6 +298,58 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 		}
 	}
 	
+	/**
+	 * <p>
+	 * Requests the specified number of events to the response data subscriber
+	 * if the exchange is writable or defers the request until it becomes
+	 * writable.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method must be invoked in the event loop.
+	 * </p>
+	 * 
+	 * @param request the number of events to request
+	 */
+	private void requestIfWritable(long request) {
+		if(this.isWritable()) {
+			this.request(request);
+		}
+		else {
+			this.pendingDemand += request;
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Determines whether response data can be written to the client without
+	 * buffering.
+	 * </p>
+	 * 
+	 * <p>
+	 * The default implementation checks the writability of the channel.
+	 * </p>
+	 * 
+	 * @return true if the exchange is writable, false otherwise
+	 */
+	protected boolean isWritable() {
+		return this.context.channel().isWritable();
+	}
+	
+	/**
+	 * <p>
+	 * Invoked in the event loop when the writability of the exchange changed in
+	 * order to resume deferred requests to the response data publisher.
+	 * </p>
+	 */
+	public void onWritabilityChanged() {
+		if(this.pendingDemand > 0 && this.isWritable()) {
+			long request = this.pendingDemand;
+			this.pendingDemand = 0;
+			this.request(request);
+		}
+	}
+	
 	/**
 	 * <p>
 	 * Creates an error exchange handler from the exchange with the specified error.
@@ -265,14 +372,15 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	 * </p>
 	 * 
 	 * <p>
-	 * The default implementation basically request an unbounded amount of events to
-	 * the subscription.
+	 * The default implementation requests a first batch of events to the
+	 * subscription, more events are then requested as response data are
+	 * written.
 	 * </p>
 	 * 
 	 * @param subscription the subscription to the response data publisher
 	 */
 	protected void onStart(Subscription subscription) {
-		subscription.request(Long.MAX_VALUE);
+		subscription.request(this.responseBatchSize);
 	}
 	
 	@Override
@@ -358,34 +466,35 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	
 	@Override
 	protected final void hookOnComplete() {
+		// Access is logged before completion since the response might be recycled once the exchange completes
 		if(this.transferedLength == 0) {
 			if(this.response.headers().getCharSequence(Headers.NAME_CONTENT_LENGTH) == null) {
 				this.response.headers().contentLength(0);
 			}
 			this.executeInEventLoop(() -> {
-				this.onCompleteEmpty();
 				this.logAccess();
+				this.onCompleteEmpty();
 			});
 		}
 		else if(this.singleChunk != null) {
 			// single chunk response
 			if(this.request.getMethod().equals(Method.HEAD)) {
 				this.executeInEventLoop(() -> {
-					this.onCompleteEmpty();
 					this.logAccess();
+					this.onCompleteEmpty();
 				});
 			}
 			else {
 				this.executeInEventLoop(() -> {
-					this.onCompleteSingle(this.singleChunk);
 					this.logAccess();
+					this.onCompleteSingle(this.singleChunk);
 				});
 			}
 		}
 		else {
 			this.executeInEventLoop(() -> {
-				this.onCompleteMany();
 				this.logAccess();
+				this.onCompleteMany();
 			});
 		}
 	}
@@ -438,6 +547,33 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 		
 		private static final String JSON_FORMAT = "JSON";
 		
+		private final InetSocketAddress remoteAddress;
+		private final String request;
+		private final int status;
+		private final int transferedBytes;
+		private final String referer;
+		private final String userAgent;
+		
+		/**
+		 * <p>
+		 * Creates an access log message.
+		 * </p>
+		 * 
+		 * <p>
+		 * Exchange information are captured when the message is created since
+		 * the message might be formatted asynchronously after the exchange
+		 * completed.
+		 * </p>
+		 */
+		public AccessLogMessage() {
+			this.remoteAddress = (InetSocketAddress)AbstractExchange.this.request.getRemoteAddress();
+			this.request = new StringBuilder().append(AbstractExchange.this.request.getMethod().name()).append(" ").append(AbstractExchange.this.request.getPath()).toString();
+			this.status = AbstractExchange.this.response.headers().getStatusCode();
+			this.transferedBytes = AbstractExchange.this.transferedLength;
+			this.referer = AbstractExchange.this.request.headers().get(Headers.NAME_REFERER).orElse("");
+			this.userAgent = AbstractExchange.this.request.headers().get(Headers.NAME_USER_AGENT).orElse("");
+		}
+		
 		@Override
 		public String getFormat() {
 			return Strings.EMPTY;
@@ -481,37 +617,37 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 		}
 		
 		private String getRemoteAddress() {
-			return ((InetSocketAddress)AbstractExchange.this.request.getRemoteAddress()).getAddress().getHostAddress();
+			return this.remoteAddress.getAddress().getHostAddress();
 		}
 		
 		private String getRequest() {
-			return new StringBuilder().append(AbstractExchange.this.request.getMethod().name()).append(" ").append(AbstractExchange.this.request.getPath()).toString();
+			return this.request;
 		}
 		
 		private int getStatus() {
-			return AbstractExchange.this.response.headers().getStatusCode();
+			return this.status;
 		}
 		
 		private int getTransferedBytes() {
-			return AbstractExchange.this.transferedLength;
+			return this.transferedBytes;
 		}
 		
 		private String getReferer() {
-			return AbstractExchange.this.request.headers().get(Headers.NAME_REFERER).orElse("");
+			return this.referer;
 		}
 		
 		private String getUserAgent() {
-			return AbstractExchange.this.request.headers().get(Headers.NAME_USER_AGENT).orElse("");
+			return this.userAgent;
 		}
 		
 		private String asString() {
 			StringBuilder message = new StringBuilder();
-			message.append(((InetSocketAddress)AbstractExchange.this.request.getRemoteAddress()).getAddress().getHostName()).append(" ");
-			message.append("\"").append(AbstractExchange.this.request.getMethod().name()).append(" ").append(AbstractExchange.this.request.getPath()).append("\" ");
-			message.append(AbstractExchange.this.response.headers().getStatusCode()).append(" ");
-			message.append(AbstractExchange.this.transferedLength).append(" ");
-			message.append("\"").append(AbstractExchange.this.request.headers().get(Headers.NAME_REFERER).orElse("")).append("\" ");
-			message.append("\"").append(AbstractExchange.this.request.headers().get(Headers.NAME_USER_AGENT).orElse("")).append("\" ");
+			message.append(this.remoteAddress.getAddress().getHostName()).append(" ");
+			message.append("\"").append(this.request).append("\" ");
+			message.append(this.status).append(" ");
+			message.append(this.transferedBytes).append(" ");
+			message.append("\"").append(this.referer).append("\" ");
+			message.append("\"").append(this.userAgent).append("\" ");
 			
 			return message.toString();
 		}
@@ -574,6 +710,7 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 	@Override
 	protected void hookFinally(SignalType type) {
 		this.request.dispose();
+		this.finalizeExchange();
 	}
 	
 	/**
@@ -641,9 +778,9 @@ public abstract class AbstractExchange extends BaseSubscriber<ByteBuf> implement
 		
 		@Override
 		protected void hookOnComplete() {
-			AbstractExchange.this.hookOnComplete();
+			// access is logged in hookOnComplete()
 			AbstractExchange.this.logError(() -> "Exchange processing error", this.originalError);
-			AbstractExchange.this.logAccess();
+			AbstractExchange.this.hookOnComplete();
 		}
 	}
 }
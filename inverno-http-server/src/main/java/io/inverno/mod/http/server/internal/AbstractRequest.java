@@ -150,10 +150,9 @@ public abstract class AbstractRequest implements Request {
 			Method method = this.getMethod();
 			if(method == Method.POST || method == Method.PUT || method == Method.PATCH) {
 				if(this.requestBody == null) {
-					// TODO deal with backpressure using a custom queue: if the queue reach a given threshold we should suspend the read on the channel: this.context.channel().config().setAutoRead(false)
-					// and resume when this flux is actually consumed (doOnRequest? this might impact performance)
 					this.data = Sinks.many().unicast().onBackpressureBuffer();
 					Flux<ByteBuf> requestBodyData = this.data.asFlux()
+						.doOnNext(this::onDataConsumed)
 						.doOnDiscard(ByteBuf.class, ByteBuf::release);
 					
 					this.requestBody = Optional.of(new GenericRequestBody(
@@ -183,6 +182,24 @@ public abstract class AbstractRequest implements Request {
 		return Optional.ofNullable(this.data);
 	}
 	
+	/**
+	 * <p>
+	 * Invoked when a chunk of request payload data is emitted to the request
+	 * body subscriber.
+	 * </p>
+	 * 
+	 * <p>
+	 * This can be used by implementations to apply backpressure on the
+	 * connection based on the amount of data actually consumed. The default
+	 * implementation does nothing.
+	 * </p>
+	 * 
+	 * @param chunk the chunk of data
+	 */
+	protected void onDataConsumed(ByteBuf chunk) {
+		
+	}
+	
 	/**
 	 * <p>
 	 * Drains and release the request data flux.
@@ -22,6 +22,7 @@ import org.reactivestreams.Publisher;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.inverno.mod.http.base.header.HeaderService;
+import io.inverno.mod.http.server.Request;
 import io.inverno.mod.http.server.Response;
 import io.inverno.mod.http.server.ResponseCookies;
 import io.inverno.mod.http.server.ResponseHeaders;
@@ -48,6 +49,10 @@ public abstract class AbstractResponse implements Response {
 	
 	protected GenericResponseBody responseBody;
 	
+	protected Request request;
+	
+	private boolean recycled;
+	
 	/**
 	 * <p>
 	 * Creates a response with the specified channel handler context, header service
@@ -64,6 +69,88 @@ public abstract class AbstractResponse implements Response {
 		this.responseBody = new GenericResponseBody(this);
 	}
 
+	/**
+	 * <p>
+	 * Sets the request the response is answering.
+	 * </p>
+	 * 
+	 * <p>
+	 * The request is used to process conditional and range requests when a
+	 * resource is set in the response payload.
+	 * </p>
+	 * 
+	 * @param request the request
+	 */
+	void setRequest(Request request) {
+		this.request = request;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the request the response is answering.
+	 * </p>
+	 * 
+	 * @return the request or null if the response is not bound to a request
+	 */
+	public Request getRequest() {
+		return this.request;
+	}
+	
+	/**
+	 * <p>
+	 * Recycles the response once the exchange it belongs to has completed so
+	 * that it can be reused for another exchange.
+	 * </p>
+	 * 
+	 * <p>
+	 * The response state is reset and any access to the response raises an
+	 * {@link IllegalStateException} until it is reused. Once reused, the
+	 * response belongs to another exchange and accesses through references
+	 * retained from the previous exchange can no longer be detected.
+	 * </p>
+	 * 
+	 * @see #reuse()
+	 */
+	public void recycle() {
+		this.responseTrailers = null;
+		this.responseCookies = null;
+		this.request = null;
+		this.responseBody.reset();
+		this.recycled = true;
+	}
+	
+	/**
+	 * <p>
+	 * Reuses a recycled response for a new exchange.
+	 * </p>
+	 * 
+	 * @see #recycle()
+	 */
+	public void reuse() {
+		this.recycled = false;
+	}
+	
+	/**
+	 * <p>
+	 * Makes sure the response has not been recycled.
+	 * </p>
+	 * 
+	 * <p>
+	 * This only detects accesses between {@link #recycle()} and
+	 * {@link #reuse()}, a reused response can't tell the exchange it is
+	 * currently bound to from a previous one.
+	 * </p>
+	 * 
+	 * @throws IllegalStateException if the response is used after the
+	 *                               completion of its exchange and before it
+	 *                               is reused
+	 */
+	protected final void checkNotRecycled() throws IllegalStateException {
+		if(this.recycled) {
+			throw new IllegalStateException("Response used after exchange completion");
+		}
+	}
+	
 	/**
 	 * <p>
 	 * Returns true if the response payload is composed of a single chunk of data.
@@ -72,6 +159,7 @@ public abstract class AbstractResponse implements Response {
 	 * @return true if the response payload is single, false otherwise
 	 */
 	public boolean isSingle() {
+		this.checkNotRecycled();
 		return this.responseBody.isSingle();
 	}
 	
@@ -83,6 +171,7 @@ public abstract class AbstractResponse implements Response {
 	 * @return the data publisher
 	 */
 	public Publisher<ByteBuf> data() {
+		this.checkNotRecycled();
 		return this.responseBody.getData();
 	}
 	
@@ -94,16 +183,19 @@ public abstract class AbstractResponse implements Response {
 	 * @return the cookies
 	 */
 	public GenericResponseCookies getCookies() {
+		this.checkNotRecycled();
 		return this.responseCookies;
 	}
 	
 	@Override
 	public boolean isHeadersWritten() {
+		this.checkNotRecycled();
 		return this.responseHeaders.isWritten();
 	}
 	
 	@Override
 	public AbstractResponseHeaders headers() {
+		this.checkNotRecycled();
 		return this.responseHeaders;
 	}
 	
@@ -118,6 +210,7 @@ public abstract class AbstractResponse implements Response {
 
 	@Override
 	public ResponseTrailers trailers() {
+		this.checkNotRecycled();
 		return this.responseTrailers;
 	}
 	
@@ -135,6 +228,7 @@ public abstract class AbstractResponse implements Response {
 
 	@Override
 	public GenericResponseBody body() {
+		this.checkNotRecycled();
 		return this.responseBody;
 	}
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.http.server.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.inverno.core.annotation.Bean;
+import io.inverno.core.annotation.Provide;
+import io.inverno.mod.http.server.HttpServerStatistics;
+
+/**
+ * <p>
+ * Generic {@link HttpServerStatistics} implementation.
+ * </p>
+ * 
+ * <p>
+ * Counters are updated by the channel handlers from the event loops and can be
+ * read from any thread.
+ * </p>
+ * 
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ */
+@Bean(name = "httpServerStatistics")
+public class GenericHttpServerStatistics implements @Provide HttpServerStatistics {
+	
+	private final LongAdder idleConnectionCount = new LongAdder();
+	private final LongAdder requestHeaderTimeoutCount = new LongAdder();
+	private final LongAdder responseWriteTimeoutCount = new LongAdder();
+	
+	/**
+	 * <p>
+	 * Records the closing of an idle connection.
+	 * </p>
+	 */
+	public void onIdleConnection() {
+		this.idleConnectionCount.increment();
+	}
+	
+	/**
+	 * <p>
+	 * Records a request header timeout.
+	 * </p>
+	 */
+	public void onRequestHeaderTimeout() {
+		this.requestHeaderTimeoutCount.increment();
+	}
+	
+	/**
+	 * <p>
+	 * Records a response write timeout.
+	 * </p>
+	 */
+	public void onResponseWriteTimeout() {
+		this.responseWriteTimeoutCount.increment();
+	}
+	
+	@Override
+	public long getIdleConnectionCount() {
+		return this.idleConnectionCount.sum();
+	}
+	
+	@Override
+	public long getRequestHeaderTimeoutCount() {
+		return this.requestHeaderTimeoutCount.sum();
+	}
+	
+	@Override
+	public long getResponseWriteTimeoutCount() {
+		return this.responseWriteTimeoutCount.sum();
+	}
+}
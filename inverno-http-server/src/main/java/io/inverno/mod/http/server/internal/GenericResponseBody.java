@@ -15,6 +15,16 @@
  */
 package io.inverno.mod.http.server.internal;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -25,9 +35,13 @@ import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpConstants;
 import io.inverno.mod.base.Charsets;
 import io.inverno.mod.base.resource.MediaTypes;
+import io.inverno.mod.base.resource.ZipResource;
 import io.inverno.mod.http.base.InternalServerErrorException;
+import io.inverno.mod.http.base.Method;
 import io.inverno.mod.http.base.NotFoundException;
+import io.inverno.mod.http.base.Status;
 import io.inverno.mod.http.base.header.Headers;
+import io.inverno.mod.http.server.Request;
 import io.inverno.mod.http.server.ResponseBody;
 import io.inverno.mod.http.server.ResponseBody.Sse.Event;
 import io.inverno.mod.http.server.ResponseBody.Sse.EventFactory;
@@ -35,6 +49,7 @@ import io.inverno.mod.http.server.ResponseData;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * <p>
@@ -48,6 +63,18 @@ public class GenericResponseBody implements ResponseBody {
 	
 	private static final String SSE_CONTENT_TYPE = MediaTypes.TEXT_EVENT_STREAM + ";charset=utf-8";
 	
+	/**
+	 * The default capacity of the buffers used to read file resources which
+	 * corresponds to the maximum TLS record plaintext size and to the default
+	 * HTTP/2 max frame size.
+	 */
+	public static final int DEFAULT_FILE_BUFFER_CAPACITY = 16384;
+	
+	/**
+	 * The maximum capacity of the buffers used to read file resources.
+	 */
+	public static final int MAX_FILE_BUFFER_CAPACITY = 65536;
+	
 	protected AbstractResponse response;
 	
 	protected ResponseData<ByteBuf> rawData;
@@ -62,6 +89,8 @@ public class GenericResponseBody implements ResponseBody {
 	private boolean dataSet;
 	private boolean single;
 	
+	private int fileBufferCapacity = DEFAULT_FILE_BUFFER_CAPACITY;
+	
 	/**
 	 * <p>
 	 * Creates a response body for the specified response.
@@ -110,6 +139,41 @@ public class GenericResponseBody implements ResponseBody {
 		return this.data;
 	}
 
+	/**
+	 * <p>
+	 * Resets the response body so that it can be reused with a recycled
+	 * response.
+	 * </p>
+	 */
+	protected void reset() {
+		this.dataEmitter = null;
+		this.data = null;
+		this.dataSet = false;
+		this.single = false;
+		this.fileBufferCapacity = DEFAULT_FILE_BUFFER_CAPACITY;
+	}
+	
+	/**
+	 * <p>
+	 * Sets the capacity of the buffers used to read file resources.
+	 * </p>
+	 * 
+	 * <p>
+	 * File resources are read into pooled direct buffers of that capacity
+	 * which should therefore match the size of the frames or records
+	 * eventually written to the connection. The capacity is capped to
+	 * {@link #MAX_FILE_BUFFER_CAPACITY}.
+	 * </p>
+	 * 
+	 * @param fileBufferCapacity the file buffer capacity
+	 */
+	public void setFileBufferCapacity(int fileBufferCapacity) {
+		if(fileBufferCapacity <= 0) {
+			throw new IllegalArgumentException("File buffer capacity must be strictly positive");
+		}
+		this.fileBufferCapacity = Math.min(fileBufferCapacity, MAX_FILE_BUFFER_CAPACITY);
+	}
+	
 	/**
 	 * <p>
 	 * Returns true if the response payload is composed of a single chunk of data.
@@ -168,6 +232,20 @@ public class GenericResponseBody implements ResponseBody {
 		return this.sseStringData;
 	}
 	
+	/**
+	 * <p>
+	 * Returns the opaque tag of an entity tag which is the entity tag without
+	 * the weakness indicator.
+	 * </p>
+	 * 
+	 * @param entityTag an entity tag
+	 * 
+	 * @return the opaque tag
+	 */
+	private static String opaqueTag(String entityTag) {
+		return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+	}
+	
 	/**
 	 * <p>
 	 * Generic raw {@link ResponseData} implementation.
@@ -218,6 +296,25 @@ public class GenericResponseBody implements ResponseBody {
 	 * Generic {@link ResponseBody.Resource} implementation.
 	 * </p>
 	 * 
+	 * <p>
+	 * A weak entity tag is generated from the size and the last modified time of
+	 * the resource unless an {@code etag} header has already been set in the
+	 * response. Conditional requests are evaluated as defined by
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7232">RFC 7232</a>: a
+	 * {@code 304 Not Modified} response is sent without reading the resource when
+	 * the {@code if-none-match} or the {@code if-modified-since} header of a
+	 * {@code GET} or {@code HEAD} request matches the resource.
+	 * </p>
+	 * 
+	 * <p>
+	 * Byte range requests are supported as defined by
+	 * <a href="https://datatracker.ietf.org/doc/html/rfc7233">RFC 7233</a>: when
+	 * a {@code GET} request specifies a satisfiable {@code range} header, and a
+	 * matching {@code if-range} header if any, a {@code 206 Partial Content}
+	 * response containing the requested ranges is sent either as a single part or
+	 * as a {@code multipart/byteranges} payload.
+	 * </p>
+	 * 
 	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
 	 * @since 1.0
 	 */
@@ -254,9 +351,75 @@ public class GenericResponseBody implements ResponseBody {
 						h.contentType(mediaType);
 					}
 				}
+				
+				if(GenericResponseBody.this.response.headers().getCharSequence(Headers.NAME_ETAG) == null) {
+					resource.size().ifPresent(size -> {
+						resource.lastModified().ifPresent(lastModified -> {
+							h.set(Headers.NAME_ETAG, "W/\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.toMillis()) + "\"");
+						});
+					});
+				}
 			});
 		}
 		
+		/**
+		 * <p>
+		 * Evaluates the {@code if-none-match} and {@code if-modified-since}
+		 * preconditions of the request against the resource.
+		 * </p>
+		 * 
+		 * <p>
+		 * The {@code if-modified-since} header is ignored when the request
+		 * specifies an {@code if-none-match} header.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 * 
+		 * @return true if the resource has not been modified and a
+		 *         {@code 304 Not Modified} response must be sent, false otherwise
+		 */
+		protected boolean isNotModified(io.inverno.mod.base.resource.Resource resource) {
+			Request request = GenericResponseBody.this.response.getRequest();
+			AbstractResponseHeaders responseHeaders = GenericResponseBody.this.response.headers();
+			if(request == null || !(request.getMethod().equals(Method.GET) || request.getMethod().equals(Method.HEAD)) || responseHeaders.getStatusCode() != Status.OK.getCode()) {
+				return false;
+			}
+			
+			List<String> ifNoneMatch = request.headers().getAll(Headers.NAME_IF_NONE_MATCH);
+			if(!ifNoneMatch.isEmpty()) {
+				String etag = responseHeaders.get(Headers.NAME_ETAG).map(GenericResponseBody::opaqueTag).orElse(null);
+				if(etag == null) {
+					return false;
+				}
+				for(String ifNoneMatchValue : ifNoneMatch) {
+					for(String tag : ifNoneMatchValue.split(",")) {
+						tag = tag.trim();
+						// Weak comparison
+						if(tag.equals("*") || opaqueTag(tag).equals(etag)) {
+							return true;
+						}
+					}
+				}
+				return false;
+			}
+			
+			String ifModifiedSince = request.headers().get(Headers.NAME_IF_MODIFIED_SINCE).orElse(null);
+			FileTime lastModified = resource.lastModified().orElse(null);
+			if(ifModifiedSince == null || lastModified == null) {
+				return false;
+			}
+			try {
+				Instant since = Headers.FORMATTER_RFC_1123_DATE_TIME.parse(ifModifiedSince.trim(), Instant::from);
+				// HTTP dates have a one second resolution
+				return !lastModified.toInstant().truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+			}
+			catch(DateTimeParseException e) {
+				// Invalid dates must be ignored
+				return false;
+			}
+		}
+
+		
 		@Override
 		public void value(io.inverno.mod.base.resource.Resource resource) {
 			// In case of file resources we should always be able to determine existence
@@ -264,12 +427,517 @@ public class GenericResponseBody implements ResponseBody {
 			// internal server error
 			if(resource.exists().orElse(true)) {
 				this.populateHeaders(resource);
-				GenericResponseBody.this.setData(resource.read().orElseThrow(() -> new InternalServerErrorException("Resource " + resource + " is not readable")));
+				
+				if(this.isNotModified(resource)) {
+					// No need to open the resource
+					GenericResponseBody.this.response.headers(h -> h.status(Status.NOT_MODIFIED));
+					GenericResponseBody.this.setData(Mono.empty());
+					return;
+				}
+				
+				List<ByteRange> ranges = this.resolveRanges(resource);
+				if(ranges == null) {
+					this.setData(resource);
+				}
+				else if(ranges.isEmpty()) {
+					GenericResponseBody.this.setData(Mono.empty());
+				}
+				else if(ranges.size() == 1) {
+					this.setData(resource, ranges.get(0));
+				}
+				else {
+					this.setData(resource, ranges, this.createMultipartRangesDelimiters(resource, ranges));
+				}
 			}
 			else {
 				throw new NotFoundException();
 			}
 		}
+		
+		/**
+		 * <p>
+		 * Resolves the ranges of the resource to send in the response.
+		 * </p>
+		 * 
+		 * <p>
+		 * This method returns null when the whole resource must be sent, that is
+		 * when the request is not a range request, when the range request
+		 * can't be honored or when the {@code if-range} precondition is not
+		 * met. An empty list is returned when none of the requested ranges is
+		 * satisfiable in which case the response is set to
+		 * {@code 416 Range Not Satisfiable}. Otherwise the response status is set
+		 * to {@code 206 Partial Content}, the {@code content-range} header is set
+		 * for single range responses and the {@code content-length} header is
+		 * updated.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 * 
+		 * @return a list of ranges, an empty list or null
+		 */
+		protected List<ByteRange> resolveRanges(io.inverno.mod.base.resource.Resource resource) {
+			Long size = resource.size().orElse(null);
+			AbstractResponseHeaders responseHeaders = GenericResponseBody.this.response.headers();
+			if(size == null || responseHeaders.getCharSequence(Headers.NAME_CONTENT_ENCODING) != null) {
+				return null;
+			}
+			GenericResponseBody.this.response.headers(h -> h.set(Headers.NAME_ACCEPT_RANGES, Headers.VALUE_BYTES));
+			
+			Request request = GenericResponseBody.this.response.getRequest();
+			if(request == null || !request.getMethod().equals(Method.GET) || responseHeaders.getStatusCode() != Status.OK.getCode()) {
+				return null;
+			}
+			String range = request.headers().get(Headers.NAME_RANGE).orElse(null);
+			if(range == null || !this.matchesIfRange(request.headers().get(Headers.NAME_IF_RANGE).orElse(null))) {
+				return null;
+			}
+			
+			List<ByteRange> ranges = ByteRange.parse(range, size);
+			if(ranges == null) {
+				return null;
+			}
+			else if(ranges.isEmpty()) {
+				GenericResponseBody.this.response.headers(h -> h
+					.status(Status.RANGE_NOT_SATISFIABLE)
+					.set(Headers.NAME_CONTENT_RANGE, Headers.VALUE_BYTES + " */" + size)
+					.contentLength(0)
+				);
+			}
+			else if(ranges.size() == 1) {
+				ByteRange singleRange = ranges.get(0);
+				GenericResponseBody.this.response.headers(h -> h
+					.status(Status.PARTIAL_CONTENT)
+					.set(Headers.NAME_CONTENT_RANGE, singleRange.toContentRange(size))
+					.contentLength(singleRange.getLength())
+				);
+			}
+			else {
+				GenericResponseBody.this.response.headers(h -> h.status(Status.PARTIAL_CONTENT));
+			}
+			return ranges;
+		}
+		
+		/**
+		 * <p>
+		 * Determines whether the specified {@code if-range} header value matches
+		 * the representation of the resource.
+		 * </p>
+		 * 
+		 * <p>
+		 * An entity tag matches when it is strong and identical to the
+		 * {@code etag} response header, a date matches when it is identical to
+		 * the {@code last-modified} response header.
+		 * </p>
+		 * 
+		 * @param ifRange the {@code if-range} header value or null
+		 * 
+		 * @return true if the range request can be honored, false otherwise
+		 */
+		private boolean matchesIfRange(String ifRange) {
+			if(ifRange == null) {
+				return true;
+			}
+			ifRange = ifRange.trim();
+			if(ifRange.startsWith("W/")) {
+				return false;
+			}
+			else if(ifRange.startsWith("\"")) {
+				return ifRange.equals(GenericResponseBody.this.response.headers().get(Headers.NAME_ETAG).orElse(null));
+			}
+			else {
+				return ifRange.equals(GenericResponseBody.this.response.headers().get(Headers.NAME_LAST_MODIFIED).orElse(null));
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Creates the delimiters of a {@code multipart/byteranges} payload and sets
+		 * the response content type and content length accordingly.
+		 * </p>
+		 * 
+		 * <p>
+		 * The returned list contains the part headers of each range followed by
+		 * the closing delimiter.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 * @param ranges   the ranges
+		 * 
+		 * @return a list of delimiters
+		 */
+		private List<ByteBuf> createMultipartRangesDelimiters(io.inverno.mod.base.resource.Resource resource, List<ByteRange> ranges) {
+			long size = resource.size().get();
+			String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong()) + Long.toHexString(System.nanoTime());
+			String contentType = GenericResponseBody.this.response.headers().getContentType().orElse(null);
+			
+			List<ByteBuf> delimiters = new ArrayList<>(ranges.size() + 1);
+			long contentLength = 0;
+			for(ByteRange range : ranges) {
+				StringBuilder partHeaders = new StringBuilder();
+				partHeaders.append("\r\n--").append(boundary).append("\r\n");
+				if(contentType != null) {
+					partHeaders.append(Headers.NAME_CONTENT_TYPE).append(": ").append(contentType).append("\r\n");
+				}
+				partHeaders.append(Headers.NAME_CONTENT_RANGE).append(": ").append(range.toContentRange(size)).append("\r\n\r\n");
+				ByteBuf delimiter = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer(partHeaders, Charsets.UTF_8));
+				delimiters.add(delimiter);
+				contentLength += delimiter.readableBytes() + range.getLength();
+			}
+			ByteBuf closeDelimiter = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer("\r\n--" + boundary + "--\r\n", Charsets.UTF_8));
+			delimiters.add(closeDelimiter);
+			contentLength += closeDelimiter.readableBytes();
+			
+			long multipartContentLength = contentLength;
+			GenericResponseBody.this.response.headers(h -> h
+				.contentType(MediaTypes.MULTIPART_BYTERANGES + ";boundary=" + boundary)
+				.contentLength(multipartContentLength)
+			);
+			return delimiters;
+		}
+		
+		/**
+		 * <p>
+		 * Sets the whole resource in the response payload.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 */
+		protected void setData(io.inverno.mod.base.resource.Resource resource) {
+			FileChannel fileChannel = this.openFileChannel(resource);
+			if(fileChannel != null) {
+				try {
+					GenericResponseBody.this.setData(this.read(fileChannel, 0, fileChannel.size()).doFinally(ign -> this.close(fileChannel)));
+				}
+				catch(IOException e) {
+					this.close(fileChannel);
+					throw new InternalServerErrorException("Error reading resource " + resource, e);
+				}
+			}
+			else {
+				GenericResponseBody.this.setData(resource.read().orElseThrow(() -> new InternalServerErrorException("Resource " + resource + " is not readable")));
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Sets the specified range of the resource in the response payload.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 * @param range    the range to send
+		 */
+		protected void setData(io.inverno.mod.base.resource.Resource resource, ByteRange range) {
+			FileChannel fileChannel = this.openFileChannel(resource);
+			if(fileChannel != null) {
+				GenericResponseBody.this.setData(this.read(fileChannel, range.getStart(), range.getLength()).doFinally(ign -> this.close(fileChannel)));
+			}
+			else {
+				GenericResponseBody.this.setData(this.read(resource, range));
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Sets the specified ranges of the resource in the response payload as a
+		 * {@code multipart/byteranges} payload.
+		 * </p>
+		 * 
+		 * @param resource   the resource
+		 * @param ranges     the ranges to send
+		 * @param delimiters the part headers of each range followed by the
+		 *                   closing delimiter
+		 */
+		protected void setData(io.inverno.mod.base.resource.Resource resource, List<ByteRange> ranges, List<ByteBuf> delimiters) {
+			FileChannel fileChannel = this.openFileChannel(resource);
+			List<Publisher<ByteBuf>> parts = new ArrayList<>(2 * ranges.size() + 1);
+			for(int i=0;i<ranges.size();i++) {
+				ByteRange range = ranges.get(i);
+				parts.add(Mono.just(delimiters.get(i)));
+				parts.add(fileChannel != null ? this.read(fileChannel, range.getStart(), range.getLength()) : this.read(resource, range));
+			}
+			parts.add(Mono.just(delimiters.get(ranges.size())));
+			if(fileChannel != null) {
+				GenericResponseBody.this.setData(Flux.concat(parts).doFinally(ign -> this.close(fileChannel)));
+			}
+			else {
+				GenericResponseBody.this.setData(Flux.concat(parts));
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Opens a file channel to read the specified resource when it is a file
+		 * resource.
+		 * </p>
+		 * 
+		 * <p>
+		 * The channel is opened eagerly since the resource might be closed before
+		 * the response data are actually subscribed.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 * 
+		 * @return a file channel or null if the resource is not a file resource
+		 */
+		private FileChannel openFileChannel(io.inverno.mod.base.resource.Resource resource) {
+			if(!resource.isFile().orElse(false) || resource instanceof ZipResource) {
+				return null;
+			}
+			ReadableByteChannel channel = resource.openReadableByteChannel().orElseThrow(() -> new InternalServerErrorException("Resource " + resource + " is not readable"));
+			if(channel instanceof FileChannel) {
+				return (FileChannel)channel;
+			}
+			try {
+				channel.close();
+			}
+			catch(IOException e) {
+				// ignore
+			}
+			return null;
+		}
+		
+		/**
+		 * <p>
+		 * Reads a region of a file channel.
+		 * </p>
+		 * 
+		 * <p>
+		 * The file is read on the bounded elastic scheduler using positional
+		 * reads into pooled direct buffers of the configured file buffer capacity,
+		 * chunks are only read when requested so that the connection flow control
+		 * is respected. The channel is not closed by this method.
+		 * </p>
+		 * 
+		 * @param fileChannel the file channel
+		 * @param position    the position of the first byte to read
+		 * @param count       the number of bytes to read
+		 * 
+		 * @return a publisher of the region data
+		 */
+		private Flux<ByteBuf> read(FileChannel fileChannel, long position, long count) {
+			long end = position + count;
+			return Flux.<ByteBuf, Long>generate(() -> position, (currentPosition, sink) -> {
+					if(currentPosition >= end) {
+						sink.complete();
+						return currentPosition;
+					}
+					int length = (int)Math.min(GenericResponseBody.this.fileBufferCapacity, end - currentPosition);
+					ByteBuf chunk = GenericResponseBody.this.response.context.alloc().directBuffer(length, length);
+					try {
+						while(chunk.isWritable()) {
+							if(chunk.writeBytes(fileChannel, currentPosition + chunk.writerIndex(), chunk.writableBytes()) < 0) {
+								throw new IOException("Unexpected end of file");
+							}
+						}
+					}
+					catch(IOException e) {
+						chunk.release();
+						sink.error(e);
+						return currentPosition;
+					}
+					sink.next(chunk);
+					return currentPosition + length;
+				})
+				.doOnDiscard(ByteBuf.class, ByteBuf::release)
+				.subscribeOn(Schedulers.boundedElastic());
+		}
+		
+		/**
+		 * <p>
+		 * Closes the specified file channel.
+		 * </p>
+		 * 
+		 * @param fileChannel the file channel
+		 */
+		private void close(FileChannel fileChannel) {
+			try {
+				fileChannel.close();
+			}
+			catch(IOException e) {
+				// ignore
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Reads the specified range of the resource.
+		 * </p>
+		 * 
+		 * <p>
+		 * Chunks before the range are skipped and released, the resource
+		 * subscription is cancelled once the end of the range is reached.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 * @param range    the range to read
+		 * 
+		 * @return a publisher of the range data
+		 */
+		private Flux<ByteBuf> read(io.inverno.mod.base.resource.Resource resource, ByteRange range) {
+			return Flux.defer(() -> {
+				long[] position = new long[1];
+				return Flux.from(resource.read().orElseThrow(() -> new InternalServerErrorException("Resource " + resource + " is not readable")))
+					.<ByteBuf>handle((chunk, sink) -> {
+						long chunkStart = position[0];
+						long chunkEnd = chunkStart + chunk.readableBytes();
+						position[0] = chunkEnd;
+						try {
+							if(chunkEnd > range.getStart()) {
+								int from = (int)(Math.max(range.getStart(), chunkStart) - chunkStart);
+								int to = (int)(Math.min(range.getEnd() + 1, chunkEnd) - chunkStart);
+								sink.next(chunk.retainedSlice(chunk.readerIndex() + from, to - from));
+							}
+						}
+						finally {
+							chunk.release();
+						}
+						if(chunkEnd > range.getEnd()) {
+							sink.complete();
+						}
+					});
+			});
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A satisfiable byte range of a resource.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	protected static final class ByteRange {
+		
+		/**
+		 * The maximum number of ranges in a range request, the whole resource is
+		 * sent when a request specifies more ranges.
+		 */
+		private static final int MAX_RANGES = 16;
+		
+		private final long start;
+		
+		private final long end;
+		
+		/**
+		 * <p>
+		 * Creates a byte range.
+		 * </p>
+		 * 
+		 * @param start the position of the first byte
+		 * @param end   the position of the last byte, inclusive
+		 */
+		public ByteRange(long start, long end) {
+			this.start = start;
+			this.end = end;
+		}
+		
+		/**
+		 * <p>
+		 * Parses the specified {@code range} header value.
+		 * </p>
+		 * 
+		 * <p>
+		 * Unsatisfiable ranges are ignored.
+		 * </p>
+		 * 
+		 * @param range the {@code range} header value
+		 * @param size  the size of the resource
+		 * 
+		 * @return a list of satisfiable ranges which is empty when no range is
+		 *         satisfiable or null if the value is invalid or specifies too
+		 *         many ranges
+		 */
+		public static List<ByteRange> parse(String range, long size) {
+			String unit = Headers.VALUE_BYTES + "=";
+			if(!range.regionMatches(true, 0, unit, 0, unit.length())) {
+				return null;
+			}
+			String[] rangeSpecs = range.substring(unit.length()).split(",");
+			if(rangeSpecs.length > MAX_RANGES) {
+				return null;
+			}
+			List<ByteRange> ranges = new ArrayList<>(rangeSpecs.length);
+			try {
+				for(String rangeSpec : rangeSpecs) {
+					rangeSpec = rangeSpec.trim();
+					int dashIndex = rangeSpec.indexOf('-');
+					if(dashIndex < 0) {
+						return null;
+					}
+					else if(dashIndex == 0) {
+						// suffix-byte-range-spec
+						long suffixLength = Long.parseLong(rangeSpec.substring(1));
+						if(suffixLength < 0) {
+							return null;
+						}
+						if(suffixLength > 0 && size > 0) {
+							ranges.add(new ByteRange(Math.max(0, size - suffixLength), size - 1));
+						}
+					}
+					else {
+						long first = Long.parseLong(rangeSpec.substring(0, dashIndex));
+						long last = dashIndex == rangeSpec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(rangeSpec.substring(dashIndex + 1));
+						if(first < 0 || last < first) {
+							return null;
+						}
+						if(first < size) {
+							ranges.add(new ByteRange(first, Math.min(last, size - 1)));
+						}
+					}
+				}
+			}
+			catch(NumberFormatException e) {
+				return null;
+			}
+			return ranges;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the position of the first byte of the range.
+		 * </p>
+		 * 
+		 * @return the start position
+		 */
+		public long getStart() {
+			return this.start;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the position of the last byte of the range.
+		 * </p>
+		 * 
+		 * @return the end position, inclusive
+		 */
+		public long getEnd() {
+			return this.end;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the length of the range.
+		 * </p>
+		 * 
+		 * @return the number of bytes in the range
+		 */
+		public long getLength() {
+			return this.end - this.start + 1;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the {@code content-range} header value of the range.
+		 * </p>
+		 * 
+		 * @param size the size of the resource
+		 * 
+		 * @return a content range
+		 */
+		public String toContentRange(long size) {
+			return Headers.VALUE_BYTES + " " + this.start + "-" + this.end + "/" + size;
+		}
 	}
 
 	/**
@@ -324,22 +992,28 @@ public class GenericResponseBody implements ResponseBody {
 							.concatWith(Flux.from(sse.getData())
 								.map(chunk -> {
 									ByteBuf escapedChunk = Unpooled.unreleasableBuffer(Unpooled.buffer(chunk.readableBytes(), Integer.MAX_VALUE));
-									while(chunk.isReadable()) {
-										byte nextByte = chunk.readByte();
-										
-										if(nextByte == HttpConstants.CR) {
-											if(chunk.getByte(chunk.readerIndex()) == HttpConstants.LF) {
-												chunk.readByte();
+									try {
+										while(chunk.isReadable()) {
+											byte nextByte = chunk.readByte();
+											
+											if(nextByte == HttpConstants.CR) {
+												if(chunk.getByte(chunk.readerIndex()) == HttpConstants.LF) {
+													chunk.readByte();
+												}
+												escapedChunk.writeCharSequence("\r\ndata:", Charsets.UTF_8);
+											}
+											else if(nextByte == HttpConstants.LF) {
+												escapedChunk.writeCharSequence("\r\ndata:", Charsets.UTF_8);
+											}
+											else {
+												escapedChunk.writeByte(nextByte);
 											}
-											escapedChunk.writeCharSequence("\r\ndata:", Charsets.UTF_8);
-										}
-										else if(nextByte == HttpConstants.LF) {
-											escapedChunk.writeCharSequence("\r\ndata:", Charsets.UTF_8);
-										}
-										else {
-											escapedChunk.writeByte(nextByte);
 										}
 									}
+									finally {
+										// the chunk has been copied
+										chunk.release();
+									}
 									return escapedChunk;
 								})
 							);
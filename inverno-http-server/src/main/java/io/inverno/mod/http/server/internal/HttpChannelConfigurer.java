@@ -15,6 +15,7 @@
  */
 package io.inverno.mod.http.server.internal;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.netty.buffer.ByteBufAllocator;
@@ -23,6 +24,7 @@ import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
 import io.netty.handler.ssl.SslContext;
+import io.netty.handler.timeout.IdleStateHandler;
 import io.inverno.core.annotation.Bean;
 import io.inverno.core.annotation.Bean.Visibility;
 import io.inverno.core.annotation.Lazy;
@@ -95,6 +97,12 @@ public class HttpChannelConfigurer {
 	 * @param pipeline the pipeline to configure
 	 */
 	public void configure(ChannelPipeline pipeline) {
+		long idleTimeout = Math.max(this.configuration.idle_timeout(), 0);
+		long responseWriteTimeout = Math.max(this.configuration.response_write_timeout(), 0);
+		if(idleTimeout > 0 || responseWriteTimeout > 0) {
+			// Idle events are handled by the HTTP/1.x and HTTP/2 handlers which know whether exchanges are in progress
+			pipeline.addLast("idleStateHandler", new IdleStateHandler(true, 0, responseWriteTimeout, idleTimeout, TimeUnit.MILLISECONDS));
+		}
 		if(this.configuration.tls_enabled()) {
 			pipeline.addLast("sslHandler", this.sslContext.newHandler(this.allocator));
 			if(this.configuration.h2_enabled()) {
@@ -123,7 +131,7 @@ public class HttpChannelConfigurer {
 	 * @param pipeline the pipeline to configure
 	 */
 	private void initHttp1x(ChannelPipeline pipeline) {
-		pipeline.addLast("http1xDecoder", new Http1xRequestDecoder());
+		pipeline.addLast("http1xDecoder", new Http1xRequestDecoder(this.configuration.request_header_timeout()));
 		pipeline.addLast("http1xEncoder", new Http1xResponseEncoder(this.directAllocator));
 		if (this.configuration.decompression_enabled()) {
 			pipeline.addLast("http1xDecompressor", new HttpContentDecompressor(false));
@@ -17,7 +17,10 @@ package io.inverno.mod.http.server.internal;
 
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import io.inverno.core.annotation.Bean;
 import io.inverno.core.annotation.Bean.Visibility;
 
@@ -26,6 +29,11 @@ import io.inverno.core.annotation.Bean.Visibility;
  * HTTP Channel initializer.
  * </p>
  * 
+ * <p>
+ * Initialized channels are tracked in a channel group until they are closed so
+ * that they can be gracefully shutdown when the server is stopped.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -35,6 +43,8 @@ public class HttpChannelInitializer extends ChannelInitializer<SocketChannel> {
 
 	private final HttpChannelConfigurer channelConfigurer;
 	
+	private final ChannelGroup channels;
+	
 	/**
 	 * <p>
 	 * Creates a HTTP channel initializer.
@@ -44,10 +54,23 @@ public class HttpChannelInitializer extends ChannelInitializer<SocketChannel> {
 	 */
 	public HttpChannelInitializer(HttpChannelConfigurer channelConfigurer) {
 		this.channelConfigurer = channelConfigurer;
+		this.channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+	}
+	
+	/**
+	 * <p>
+	 * Returns the group of open channels.
+	 * </p>
+	 * 
+	 * @return a channel group
+	 */
+	public ChannelGroup getChannels() {
+		return this.channels;
 	}
 	
 	@Override
 	protected void initChannel(SocketChannel ch) throws Exception {
+		this.channels.add(ch);
 		this.channelConfigurer.configure(ch.pipeline());
 	}
 }
@@ -21,14 +21,14 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelInitializer;
-import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.group.ChannelGroup;
 import io.inverno.core.annotation.Bean;
 import io.inverno.core.annotation.Bean.Visibility;
 import io.inverno.core.annotation.Destroy;
@@ -53,7 +53,7 @@ public class HttpServer {
 	
 	private HttpServerConfiguration configuration;
 	
-	private ChannelInitializer<SocketChannel> channelInitializer;
+	private HttpChannelInitializer channelInitializer;
 
 	private ChannelFuture serverChannelFuture;
 	
@@ -66,7 +66,7 @@ public class HttpServer {
 	 * @param netService         the Net service
 	 * @param channelInitializer the channel initializer
 	 */
-	public HttpServer(HttpServerConfiguration configuration, NetService netService, ChannelInitializer<SocketChannel> channelInitializer) {
+	public HttpServer(HttpServerConfiguration configuration, NetService netService, HttpChannelInitializer channelInitializer) {
 		this.configuration = configuration;
 		this.netService = netService;
 		this.channelInitializer = channelInitializer;
@@ -109,8 +109,51 @@ public class HttpServer {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Stops the HTTP server.
+	 * </p>
+	 * 
+	 * <p>
+	 * The server stops accepting connections and gives in-flight exchanges the
+	 * configured graceful shutdown timeout to complete before closing remaining
+	 * connections.
+	 * </p>
+	 * 
+	 * @throws InterruptedException
+	 */
 	@Destroy
 	public void stop() throws InterruptedException {
-		this.serverChannelFuture.channel().close();
+		this.serverChannelFuture.channel().close().sync();
+		
+		ChannelGroup channels = this.channelInitializer.getChannels();
+		long gracefulShutdownTimeout = this.configuration.graceful_shutdown_timeout();
+		if(gracefulShutdownTimeout > 0 && !channels.isEmpty()) {
+			this.logger.debug(() -> "Draining " + channels.size() + " HTTP connection(s)...");
+			channels.forEach(channel -> channel.pipeline().fireUserEventTriggered(GracefulShutdownEvent.INSTANCE));
+			if(!channels.newCloseFuture().await(gracefulShutdownTimeout, TimeUnit.MILLISECONDS)) {
+				this.logger.warn(() -> "Closing " + channels.size() + " HTTP connection(s) with exchanges still in progress");
+			}
+		}
+		channels.close();
+	}
+	
+	/**
+	 * <p>
+	 * The event fired on open connections when the server is stopped to
+	 * gracefully shutdown them.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	public static final class GracefulShutdownEvent {
+		
+		/**
+		 * The graceful shutdown event.
+		 */
+		public static final GracefulShutdownEvent INSTANCE = new GracefulShutdownEvent();
+		
+		private GracefulShutdownEvent() {}
 	}
 }
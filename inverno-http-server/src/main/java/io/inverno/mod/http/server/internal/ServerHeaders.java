@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.http.server.internal;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.inverno.core.annotation.Bean;
+import io.inverno.core.annotation.Bean.Visibility;
+import io.inverno.core.annotation.Destroy;
+import io.inverno.mod.http.base.header.Headers;
+import io.inverno.mod.http.server.HttpServerConfiguration;
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * <p>
+ * Provides the server-managed {@code date} and {@code server} response headers.
+ * </p>
+ * 
+ * <p>
+ * Header values are pre-encoded as {@link AsciiString} so they can be written
+ * as is by the HTTP/1.x and HTTP/2 encoders. The {@code date} header value is
+ * refreshed once per second in each event loop by a scheduled task instead of
+ * being formatted for every response.
+ * </p>
+ * 
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ * 
+ * @see HttpServerConfiguration#date_header_enabled()
+ * @see HttpServerConfiguration#server_header()
+ */
+@Bean(visibility = Visibility.PRIVATE)
+public class ServerHeaders {
+	
+	private final AsciiString server;
+	
+	private final FastThreadLocal<DateHeader> dateHeader;
+	
+	private final Queue<ScheduledFuture<?>> refreshFutures;
+	
+	/**
+	 * <p>
+	 * Creates server headers.
+	 * </p>
+	 * 
+	 * @param configuration the HTTP server configuration
+	 */
+	public ServerHeaders(HttpServerConfiguration configuration) {
+		this.server = configuration.server_header() != null ? AsciiString.of(configuration.server_header()) : null;
+		this.dateHeader = configuration.date_header_enabled() ? new FastThreadLocal<>() : null;
+		this.refreshFutures = new ConcurrentLinkedQueue<>();
+	}
+	
+	/**
+	 * <p>
+	 * Stops refreshing the date header values.
+	 * </p>
+	 */
+	@Destroy
+	public void destroy() {
+		ScheduledFuture<?> refreshFuture;
+		while( (refreshFuture = this.refreshFutures.poll()) != null) {
+			refreshFuture.cancel(false);
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Returns the value of the server header.
+	 * </p>
+	 * 
+	 * @return the server header value or null if the server header is disabled
+	 */
+	public CharSequence getServer() {
+		return this.server;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the current value of the date header.
+	 * </p>
+	 * 
+	 * <p>
+	 * When invoked from an event loop, this method returns the value maintained
+	 * for that event loop and starts refreshing it the first time it is invoked.
+	 * </p>
+	 * 
+	 * @param executor the event loop executing the exchange
+	 * 
+	 * @return the date header value or null if the date header is disabled
+	 */
+	public CharSequence getDate(EventExecutor executor) {
+		if(this.dateHeader == null) {
+			return null;
+		}
+		if(!executor.inEventLoop()) {
+			return format();
+		}
+		DateHeader date = this.dateHeader.get();
+		if(date == null) {
+			date = new DateHeader(executor);
+			this.dateHeader.set(date);
+		}
+		return date.value;
+	}
+	
+	/**
+	 * <p>
+	 * A date header value maintained in an event loop.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private final class DateHeader implements Runnable {
+		
+		private AsciiString value;
+		
+		/**
+		 * <p>
+		 * Creates a date header value refreshed at the beginning of every second
+		 * in the specified event loop.
+		 * </p>
+		 * 
+		 * @param executor the event loop
+		 */
+		public DateHeader(EventExecutor executor) {
+			long now = System.currentTimeMillis();
+			this.value = format(now);
+			ServerHeaders.this.refreshFutures.add(executor.scheduleAtFixedRate(this, 1000 - (now % 1000), 1000, TimeUnit.MILLISECONDS));
+		}
+		
+		@Override
+		public void run() {
+			this.value = format(System.currentTimeMillis());
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Formats the current date as a date header value.
+	 * </p>
+	 * 
+	 * @return a date header value
+	 */
+	private static AsciiString format() {
+		return format(System.currentTimeMillis());
+	}
+	
+	/**
+	 * <p>
+	 * Formats the specified date as a date header value.
+	 * </p>
+	 * 
+	 * @param epochMilli a number of milliseconds since the epoch
+	 * 
+	 * @return a date header value
+	 */
+	private static AsciiString format(long epochMilli) {
+		return AsciiString.of(Headers.FORMATTER_RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(epochMilli)));
+	}
+}
@@ -15,29 +15,49 @@
  */
 package io.inverno.mod.http.server.internal.http1x;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
 import io.inverno.mod.base.converter.ObjectConverter;
 import io.inverno.mod.http.base.Parameter;
 import io.inverno.mod.http.base.header.HeaderService;
 import io.inverno.mod.http.server.ErrorExchange;
 import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.http.server.Part;
 import io.inverno.mod.http.server.internal.AbstractExchange;
+import io.inverno.mod.http.server.internal.GenericHttpServerStatistics;
+import io.inverno.mod.http.server.internal.HttpServer;
+import io.inverno.mod.http.server.internal.ServerHeaders;
 import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
 import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.ResourceLeakDetector;
+import reactor.core.publisher.Sinks.EmitResult;
 
 /**
  * <p>
@@ -54,46 +74,67 @@ import io.netty.handler.codec.http.LastHttpContent;
  */
 public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1xConnectionEncoder, AbstractExchange.Handler {
 
+	private static final int MAX_POOLED_RESPONSES = 16;
+	
 	private Http1xExchange requestingExchange;
 	private Http1xExchange respondingExchange;
 	
 	private Http1xExchange exchangeQueue;
 	
+	private HttpServerConfiguration configuration;
 	private ExchangeHandler<Exchange> rootHandler;
 	private ExchangeHandler<ErrorExchange<Throwable>> errorHandler; 
 	private HeaderService headerService;
 	private ObjectConverter<String> parameterConverter;
 	private MultipartDecoder<Parameter> urlEncodedBodyDecoder; 
 	private MultipartDecoder<Part> multipartBodyDecoder;
+	private GenericHttpServerStatistics statistics;
+	private ServerHeaders serverHeaders;
+	
+	private final Deque<Http1xResponse> responsePool;
+	
+	private final Deque<PipelinedExchange> pipelinedExchanges;
 	
 	private boolean read;
 	private boolean flush;
+	private boolean draining;
 	
 	/**
 	 * <p>
 	 * Creates a HTTP1.x channel handler.
 	 * </p>
 	 * 
+	 * @param configuration         the HTTP server configuration
 	 * @param rootHandler           the root exchange handler
 	 * @param errorHandler          the error exchange handler
 	 * @param headerService         the header service
 	 * @param parameterConverter    a string object converter
 	 * @param urlEncodedBodyDecoder the application/x-www-form-urlencoded body decoder
 	 * @param multipartBodyDecoder  the multipart/form-data body decoder
+	 * @param statistics            the HTTP server statistics
+	 * @param serverHeaders         the server-managed response headers
 	 */
 	public Http1xChannelHandler(
+			HttpServerConfiguration configuration,
 			ExchangeHandler<Exchange> rootHandler, 
 			ExchangeHandler<ErrorExchange<Throwable>> errorHandler, 
 			HeaderService headerService, 
 			ObjectConverter<String> parameterConverter,
 			MultipartDecoder<Parameter> urlEncodedBodyDecoder, 
-			MultipartDecoder<Part> multipartBodyDecoder) {
+			MultipartDecoder<Part> multipartBodyDecoder,
+			GenericHttpServerStatistics statistics,
+			ServerHeaders serverHeaders) {
+		this.configuration = configuration;
 		this.rootHandler = rootHandler;
 		this.errorHandler = errorHandler;
 		this.headerService = headerService;
 		this.parameterConverter = parameterConverter;
 		this.urlEncodedBodyDecoder = urlEncodedBodyDecoder;
 		this.multipartBodyDecoder = multipartBodyDecoder;
+		this.statistics = statistics;
+		this.serverHeaders = serverHeaders;
+		this.responsePool = this.configuration.exchange_pooling_enabled() ? new ArrayDeque<>() : null;
+		this.pipelinedExchanges = this.configuration.concurrent_pipelining_enabled() ? new ArrayDeque<>() : null;
 	}
 	
 	@Override
@@ -106,7 +147,15 @@ public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1x
 				this.onDecoderError(ctx, httpRequest);
 				return;
 			}
-			this.requestingExchange = new Http1xExchange(ctx, httpRequest, this, this.headerService, this.parameterConverter, this.urlEncodedBodyDecoder, this.multipartBodyDecoder, this.rootHandler, this.errorHandler);
+			if(this.pipelinedExchanges != null) {
+				this.onPipelinedRequest(ctx, httpRequest);
+				return;
+			}
+			this.requestingExchange = new Http1xExchange(ctx, this.configuration, httpRequest, this.createResponse(ctx), this, this.headerService, this.parameterConverter, this.urlEncodedBodyDecoder, this.multipartBodyDecoder, this.rootHandler, this.errorHandler, this.serverHeaders);
+			if(this.draining) {
+				// The connection will be closed after that exchange
+				this.requestingExchange.keepAlive = false;
+			}
 			if(this.exchangeQueue == null) {
 				this.exchangeQueue = this.requestingExchange;
 				this.requestingExchange.start(this);
@@ -126,7 +175,17 @@ public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1x
 					this.onDecoderError(ctx, httpContent);
 					return;
 				}
-				this.requestingExchange.request().data().ifPresentOrElse(emitter -> emitter.tryEmitNext(httpContent.content()), () -> httpContent.release());
+				this.requestingExchange.request().data().ifPresentOrElse(
+					emitter -> {
+						this.requestingExchange.request().onDataBuffered(httpContent.content());
+						if(emitter.tryEmitNext(httpContent.content()) != EmitResult.OK) {
+							// the data were not buffered after all
+							this.requestingExchange.request().onDataConsumed(httpContent.content());
+							httpContent.release();
+						}
+					}, 
+					() -> httpContent.release()
+				);
 				if(httpContent instanceof LastHttpContent) {
 					this.requestingExchange.request().data().ifPresent(sink -> sink.tryEmitComplete());
 				}
@@ -140,6 +199,104 @@ public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1x
 		}
 	}
 	
+	/**
+	 * <p>
+	 * Creates and starts the exchange of a request when concurrent pipelining is
+	 * enabled.
+	 * </p>
+	 * 
+	 * <p>
+	 * The exchange is started right away, its response is buffered until all
+	 * previous exchanges have completed.
+	 * </p>
+	 * 
+	 * @param ctx         the channel handler context
+	 * @param httpRequest the HTTP request
+	 */
+	private void onPipelinedRequest(ChannelHandlerContext ctx, HttpRequest httpRequest) {
+		PipelinedExchange pipelinedExchange = new PipelinedExchange(!this.pipelinedExchanges.isEmpty());
+		this.requestingExchange = new Http1xExchange(ctx, this.configuration, httpRequest, this.createResponse(ctx), pipelinedExchange, this.headerService, this.parameterConverter, this.urlEncodedBodyDecoder, this.multipartBodyDecoder, this.rootHandler, this.errorHandler, this.serverHeaders);
+		pipelinedExchange.exchange = this.requestingExchange;
+		if(this.draining) {
+			// The connection will be closed after that exchange
+			this.requestingExchange.keepAlive = false;
+		}
+		if(this.exchangeQueue == null) {
+			this.exchangeQueue = this.requestingExchange;
+			this.respondingExchange = this.requestingExchange;
+		}
+		else {
+			this.exchangeQueue.next = this.requestingExchange;
+			this.exchangeQueue = this.requestingExchange;
+		}
+		this.pipelinedExchanges.add(pipelinedExchange);
+		this.requestingExchange.start(pipelinedExchange);
+	}
+	
+	/**
+	 * <p>
+	 * Releases the responses buffered by pipelined exchanges when the
+	 * connection is closed.
+	 * </p>
+	 */
+	private void disposePipelinedExchanges() {
+		if(this.pipelinedExchanges != null) {
+			PipelinedExchange pipelinedExchange;
+			while( (pipelinedExchange = this.pipelinedExchanges.poll()) != null) {
+				pipelinedExchange.dispose();
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Creates a response for a new exchange.
+	 * </p>
+	 * 
+	 * <p>
+	 * When exchange pooling is enabled, a response recycled from a previous
+	 * exchange is returned when available.
+	 * </p>
+	 * 
+	 * @param ctx the channel handler context
+	 * 
+	 * @return a HTTP1.x response
+	 */
+	private Http1xResponse createResponse(ChannelHandlerContext ctx) {
+		if(this.responsePool != null) {
+			Http1xResponse response = this.responsePool.poll();
+			if(response != null) {
+				response.reuse();
+				return response;
+			}
+		}
+		return new Http1xResponse(ctx, this.headerService, this.parameterConverter);
+	}
+	
+	/**
+	 * <p>
+	 * Recycles the response of a completed exchange when exchange pooling is
+	 * enabled.
+	 * </p>
+	 * 
+	 * <p>
+	 * Recycled responses are not reused when resource leak detection is set to
+	 * advanced or paranoid so that any use of the response after the
+	 * completion of the exchange is reported.
+	 * </p>
+	 * 
+	 * @param exchange the completed exchange
+	 */
+	private void recycleResponse(Http1xExchange exchange) {
+		if(this.responsePool != null) {
+			Http1xResponse response = (Http1xResponse)exchange.response();
+			response.recycle();
+			if(this.responsePool.size() < MAX_POOLED_RESPONSES && ResourceLeakDetector.getLevel().ordinal() < ResourceLeakDetector.Level.ADVANCED.ordinal()) {
+				this.responsePool.offer(response);
+			}
+		}
+	}
+	
 	@Override
 	public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
 //		System.out.println("Channel read complete");
@@ -180,9 +337,59 @@ public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1x
 	@Override
 	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
 //		System.out.println("User Event triggered");
-		// TODO idle
+		if(evt instanceof IdleStateEvent) {
+			IdleState state = ((IdleStateEvent)evt).state();
+			if(state == IdleState.ALL_IDLE && this.respondingExchange == null) {
+				// No exchange in progress: the connection can be closed
+				this.statistics.onIdleConnection();
+				ctx.close();
+			}
+			else if(state == IdleState.WRITER_IDLE && this.respondingExchange != null && hasPendingWrites(ctx)) {
+				// The client stopped reading the response
+				this.statistics.onResponseWriteTimeout();
+				ctx.close();
+			}
+		}
+		else if(evt instanceof HttpServer.GracefulShutdownEvent) {
+			this.draining = true;
+			if(this.exchangeQueue == null) {
+				ctx.close();
+			}
+			else {
+				// The connection is closed once the last received exchange (ie. the tail of the queue) completes, its response gets a connection: close header if it hasn't been sent yet
+				this.requestingExchange.keepAlive = false;
+			}
+		}
+		else if(evt instanceof Http1xRequestDecoder.RequestHeaderTimeoutEvent) {
+			this.statistics.onRequestHeaderTimeout();
+			if(this.respondingExchange == null) {
+				DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.REQUEST_TIMEOUT);
+				response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+				response.headers().set(HttpHeaderNames.CONTENT_LENGTH, HttpHeaderValues.ZERO);
+				ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+			}
+			else {
+				// We can't respond in the middle of a response
+				ctx.close();
+			}
+		}
 		ctx.fireUserEventTriggered(evt);
 	}
+	
+	/**
+	 * <p>
+	 * Determines whether data are pending in the channel outbound buffer.
+	 * </p>
+	 * 
+	 * @param ctx the channel handler context
+	 * 
+	 * @return true if data are waiting to be written to the client, false
+	 *         otherwise
+	 */
+	private static boolean hasPendingWrites(ChannelHandlerContext ctx) {
+		ChannelOutboundBuffer outboundBuffer = ctx.channel().unsafe().outboundBuffer();
+		return outboundBuffer != null && outboundBuffer.totalPendingWriteBytes() > 0;
+	}
 
 	@Override
 	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
@@ -202,12 +409,15 @@ public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1x
 		if(this.respondingExchange != null) {
 			this.respondingExchange.dispose();
 		}
+		this.disposePipelinedExchanges();
 	}
 
 	@Override
 	public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
-//		super.channelWritabilityChanged(ctx);
-//		System.out.println("Channel writability changed");
+		if(this.respondingExchange != null) {
+			this.respondingExchange.onWritabilityChanged();
+		}
+		ctx.fireChannelWritabilityChanged();
 	}
 	
 	@Override
@@ -236,17 +446,29 @@ public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1x
 		if(this.respondingExchange.next != null) {
 			this.respondingExchange.next.dispose();
 		}
+		this.disposePipelinedExchanges();
 		// ...and close the connection
 		ctx.close();
 	}
 	
 	@Override
 	public void exchangeComplete(ChannelHandlerContext ctx) {
+		this.recycleResponse(this.respondingExchange);
 		if(this.respondingExchange.keepAlive) {
 			if(this.respondingExchange.next != null) {
-				this.respondingExchange.next.start(this);
+				if(this.pipelinedExchanges != null) {
+					// The next exchange has already been started
+					this.pipelinedExchanges.poll();
+					this.pipelinedExchanges.peek().promote(ctx);
+				}
+				else {
+					this.respondingExchange.next.start(this);
+				}
 			}
 			else {
+				if(this.pipelinedExchanges != null) {
+					this.pipelinedExchanges.poll();
+				}
 				this.exchangeQueue = null;
 				this.respondingExchange = null;
 			}
@@ -255,7 +477,169 @@ public class Http1xChannelHandler extends ChannelDuplexHandler implements Http1x
 			if(this.respondingExchange.next != null) {
 				this.respondingExchange.next.dispose();
 			}
+			this.disposePipelinedExchanges();
 			ctx.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
 		}
 	}
+	
+	/**
+	 * <p>
+	 * A pipelined exchange started before previous exchanges on the connection
+	 * have completed.
+	 * </p>
+	 * 
+	 * <p>
+	 * Response frames written by the exchange are buffered until it becomes the
+	 * responding exchange so that responses are sent in the order of the
+	 * requests. The exchange stops requesting response data when the buffered
+	 * data exceed {@link HttpServerConfiguration#pipelined_response_buffer_size()}.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private class PipelinedExchange implements Http1xConnectionEncoder, AbstractExchange.Handler {
+		
+		private Http1xExchange exchange;
+		
+		private boolean buffering;
+		private List<Object> bufferedFrames;
+		private long bufferedSize;
+		
+		private boolean completed;
+		private Throwable error;
+		private boolean disposed;
+		
+		/**
+		 * <p>
+		 * Creates a pipelined exchange.
+		 * </p>
+		 * 
+		 * @param buffering true to buffer response frames, false if the exchange
+		 *                  is the responding exchange
+		 */
+		public PipelinedExchange(boolean buffering) {
+			this.buffering = buffering;
+		}
+		
+		@Override
+		public ChannelFuture writeFrame(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+			if(this.disposed) {
+				// The connection has been closed, frames can't be written anymore
+				ReferenceCountUtil.release(msg);
+				if(!promise.isVoid()) {
+					promise.tryFailure(new IllegalStateException("Connection closed"));
+				}
+				return promise;
+			}
+			if(this.buffering) {
+				if(this.bufferedFrames == null) {
+					this.bufferedFrames = new ArrayList<>();
+				}
+				this.bufferedFrames.add(msg);
+				this.bufferedFrames.add(promise);
+				if(msg instanceof ByteBufHolder) {
+					this.bufferedSize += ((ByteBufHolder)msg).content().readableBytes();
+				}
+				else if(msg instanceof ByteBuf) {
+					this.bufferedSize += ((ByteBuf)msg).readableBytes();
+				}
+				else if(msg instanceof FileRegion) {
+					this.bufferedSize += ((FileRegion)msg).count();
+				}
+				return promise;
+			}
+			return Http1xChannelHandler.this.writeFrame(ctx, msg, promise);
+		}
+		
+		@Override
+		public boolean isWritable(ChannelHandlerContext ctx) {
+			if(this.disposed) {
+				return false;
+			}
+			if(this.buffering) {
+				return this.bufferedSize < Http1xChannelHandler.this.configuration.pipelined_response_buffer_size();
+			}
+			return ctx.channel().isWritable();
+		}
+		
+		@Override
+		public void exchangeError(ChannelHandlerContext ctx, Throwable t) {
+			if(this.buffering) {
+				this.error = t;
+			}
+			else {
+				Http1xChannelHandler.this.exchangeError(ctx, t);
+			}
+		}
+		
+		@Override
+		public void exchangeComplete(ChannelHandlerContext ctx) {
+			if(this.buffering) {
+				this.completed = true;
+			}
+			else {
+				Http1xChannelHandler.this.exchangeComplete(ctx);
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Makes the exchange the responding exchange once all previous exchanges
+		 * have completed.
+		 * </p>
+		 * 
+		 * <p>
+		 * Buffered response frames are written and the exchange is completed if
+		 * it has already completed, otherwise it resumes requesting response
+		 * data.
+		 * </p>
+		 * 
+		 * @param ctx the channel handler context
+		 */
+		public void promote(ChannelHandlerContext ctx) {
+			this.buffering = false;
+			Http1xChannelHandler.this.respondingExchange = this.exchange;
+			if(this.bufferedFrames != null) {
+				for(int i=0;i<this.bufferedFrames.size();i+=2) {
+					Http1xChannelHandler.this.writeFrame(ctx, this.bufferedFrames.get(i), (ChannelPromise)this.bufferedFrames.get(i+1));
+				}
+				this.bufferedFrames = null;
+				this.bufferedSize = 0;
+			}
+			if(this.error != null) {
+				Http1xChannelHandler.this.exchangeError(ctx, this.error);
+			}
+			else if(this.completed) {
+				Http1xChannelHandler.this.exchangeComplete(ctx);
+			}
+			else {
+				this.exchange.onWritabilityChanged();
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Releases buffered response frames.
+		 * </p>
+		 * 
+		 * <p>
+		 * Frames subsequently written by the exchange are released right away.
+		 * </p>
+		 */
+		public void dispose() {
+			this.disposed = true;
+			if(this.bufferedFrames != null) {
+				for(int i=0;i<this.bufferedFrames.size();i+=2) {
+					ReferenceCountUtil.release(this.bufferedFrames.get(i));
+					ChannelPromise promise = (ChannelPromise)this.bufferedFrames.get(i+1);
+					if(!promise.isVoid()) {
+						promise.tryFailure(new IllegalStateException("Connection closed"));
+					}
+				}
+				this.bufferedFrames = null;
+				this.bufferedSize = 0;
+			}
+		}
+	}
 }
\ No newline at end of file
@@ -25,7 +25,10 @@ import io.inverno.mod.http.base.header.HeaderService;
 import io.inverno.mod.http.server.ErrorExchange;
 import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.http.server.Part;
+import io.inverno.mod.http.server.internal.GenericHttpServerStatistics;
+import io.inverno.mod.http.server.internal.ServerHeaders;
 import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
 
 /**
@@ -40,43 +43,55 @@ import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
 @Bean(visibility = Visibility.PRIVATE)
 public class Http1xChannelHandlerFactory implements Supplier<Http1xChannelHandler> {
 
+	private HttpServerConfiguration configuration;
 	private ExchangeHandler<Exchange> rootHandler;
 	private ExchangeHandler<ErrorExchange<Throwable>> errorHandler;
 	private HeaderService headerService;
 	private ObjectConverter<String> parameterConverter;
 	private MultipartDecoder<Parameter> urlEncodedBodyDecoder; 
 	private MultipartDecoder<Part> multipartBodyDecoder;
+	private GenericHttpServerStatistics statistics;
+	private ServerHeaders serverHeaders;
 	
 	/**
 	 * <p>
 	 * Creates a HTTP1.x channel handler factory.
 	 * <p>
 	 * 
+	 * @param configuration         the HTTP server configuration
 	 * @param rootHandler           the root exchange handler
 	 * @param errorHandler          the error exchange handler
 	 * @param headerService         the header service
 	 * @param parameterConverter    a string object converter
 	 * @param urlEncodedBodyDecoder the application/x-www-form-urlencoded body decoder
 	 * @param multipartBodyDecoder  the multipart/form-data body decoder
+	 * @param statistics            the HTTP server statistics
+	 * @param serverHeaders         the server-managed response headers
 	 */
 	public Http1xChannelHandlerFactory(
+			HttpServerConfiguration configuration,
 			ExchangeHandler<Exchange> rootHandler, 
 			ExchangeHandler<ErrorExchange<Throwable>> errorHandler, 
 			HeaderService headerService, 
 			ObjectConverter<String> parameterConverter,
 			MultipartDecoder<Parameter> urlEncodedBodyDecoder, 
-			MultipartDecoder<Part> multipartBodyDecoder) {
+			MultipartDecoder<Part> multipartBodyDecoder,
+			GenericHttpServerStatistics statistics,
+			ServerHeaders serverHeaders) {
 		
+		this.configuration = configuration;
 		this.rootHandler = rootHandler;
 		this.errorHandler = errorHandler;
 		this.headerService = headerService;
 		this.parameterConverter = parameterConverter;
 		this.urlEncodedBodyDecoder = urlEncodedBodyDecoder;
 		this.multipartBodyDecoder = multipartBodyDecoder;
+		this.statistics = statistics;
+		this.serverHeaders = serverHeaders;
 	}
 
 	@Override
 	public Http1xChannelHandler get() {
-		return new Http1xChannelHandler(this.rootHandler, this.errorHandler, this.headerService, this.parameterConverter, this.urlEncodedBodyDecoder, this.multipartBodyDecoder);
+		return new Http1xChannelHandler(this.configuration, this.rootHandler, this.errorHandler, this.headerService, this.parameterConverter, this.urlEncodedBodyDecoder, this.multipartBodyDecoder, this.statistics, this.serverHeaders);
 	}
 }
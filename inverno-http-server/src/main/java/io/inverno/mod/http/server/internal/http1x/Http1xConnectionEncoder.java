@@ -41,4 +41,21 @@ interface Http1xConnectionEncoder {
 	 * @return a channel future
 	 */
 	ChannelFuture writeFrame(ChannelHandlerContext ctx, Object msg, ChannelPromise promise);
+	
+	/**
+	 * <p>
+	 * Determines whether frames can be written without buffering.
+	 * </p>
+	 * 
+	 * <p>
+	 * The default implementation checks the writability of the channel.
+	 * </p>
+	 * 
+	 * @param ctx the channel handler context
+	 * 
+	 * @return true if the encoder is writable, false otherwise
+	 */
+	default boolean isWritable(ChannelHandlerContext ctx) {
+		return ctx.channel().isWritable();
+	}
 }
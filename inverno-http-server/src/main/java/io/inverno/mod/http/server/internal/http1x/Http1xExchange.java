@@ -46,9 +46,11 @@ import io.inverno.mod.http.base.header.Headers;
 import io.inverno.mod.http.server.ErrorExchange;
 import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.http.server.Part;
 import io.inverno.mod.http.server.internal.AbstractExchange;
 import io.inverno.mod.http.server.internal.GenericErrorExchange;
+import io.inverno.mod.http.server.internal.ServerHeaders;
 import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
 import io.inverno.mod.http.server.internal.netty.FlatFullHttpResponse;
 import io.inverno.mod.http.server.internal.netty.FlatHttpResponse;
@@ -73,6 +75,7 @@ import reactor.core.publisher.BaseSubscriber;
 public class Http1xExchange extends AbstractExchange {
 
 	private final Http1xConnectionEncoder encoder;
+	private final ServerHeaders serverHeaders;
 	private final HeaderService headerService;
 	private final ObjectConverter<String> parameterConverter;
 	
@@ -89,7 +92,9 @@ public class Http1xExchange extends AbstractExchange {
 	 * </p>
 	 * 
 	 * @param context               the channel handler context
+	 * @param configuration         the HTTP server configuration
 	 * @param httpRequest           the underlying HTTP request
+	 * @param response              the HTTP1.x response
 	 * @param encoder               the HTTP1.x connection encoder
 	 * @param headerService         the header service
 	 * @param parameterConverter    a string object converter
@@ -98,22 +103,27 @@ public class Http1xExchange extends AbstractExchange {
 	 * @param multipartBodyDecoder  the multipart/form-data body decoder
 	 * @param rootHandler           the root exchange handler
 	 * @param errorHandler          the error exchange handler
+	 * @param serverHeaders         the server-managed response headers
 	 */
 	public Http1xExchange(
 			ChannelHandlerContext context, 
+			HttpServerConfiguration configuration,
 			HttpRequest httpRequest,
+			Http1xResponse response,
 			Http1xConnectionEncoder encoder,
 			HeaderService headerService,
 			ObjectConverter<String> parameterConverter,
 			MultipartDecoder<Parameter> urlEncodedBodyDecoder, 
 			MultipartDecoder<Part> multipartBodyDecoder,
 			ExchangeHandler<Exchange> rootHandler, 
-			ExchangeHandler<ErrorExchange<Throwable>> errorHandler
+			ExchangeHandler<ErrorExchange<Throwable>> errorHandler,
+			ServerHeaders serverHeaders
 		) {
-		super(context, rootHandler, errorHandler, new Http1xRequest(context, httpRequest, new Http1xRequestHeaders(httpRequest, headerService, parameterConverter), parameterConverter, urlEncodedBodyDecoder, multipartBodyDecoder), new Http1xResponse(context, headerService, parameterConverter));
+		super(context, configuration, rootHandler, errorHandler, new Http1xRequest(context, configuration, httpRequest, new Http1xRequestHeaders(httpRequest, headerService, parameterConverter), parameterConverter, urlEncodedBodyDecoder, multipartBodyDecoder), response);
 		this.encoder = encoder;
 		this.headerService = headerService;
 		this.parameterConverter = parameterConverter;
+		this.serverHeaders = serverHeaders;
 		
 		this.keepAlive = !httpRequest.headers().contains(Headers.NAME_CONNECTION, Headers.VALUE_CLOSE, true);
 		String te = httpRequest.headers().get(Headers.NAME_TE);
@@ -128,6 +138,16 @@ public class Http1xExchange extends AbstractExchange {
 		}
 	}
 	
+	@Override
+	protected boolean isWritable() {
+		return this.encoder.isWritable(this.context);
+	}
+	
+	@Override
+	public Http1xRequest request() {
+		return (Http1xRequest)this.request;
+	}
+	
 	@Override
 	protected ErrorExchange<Throwable> createErrorExchange(Throwable error) {
 		return new GenericErrorExchange(this.request, new Http1xResponse(this.context, this.headerService, this.parameterConverter), error);
@@ -154,6 +174,14 @@ public class Http1xExchange extends AbstractExchange {
 		if(this.trailers && internalTrailers != null) {
 			internalHeaders.set(Headers.NAME_TRAILER, internalTrailers.names().stream().collect(Collectors.joining(", ")));
 		}
+		CharSequence date = this.serverHeaders.getDate(this.contextExecutor);
+		if(date != null && !internalHeaders.contains(HttpHeaderNames.DATE)) {
+			internalHeaders.set(HttpHeaderNames.DATE, date);
+		}
+		CharSequence server = this.serverHeaders.getServer();
+		if(server != null && !internalHeaders.contains(HttpHeaderNames.SERVER)) {
+			internalHeaders.set(HttpHeaderNames.SERVER, server);
+		}
 	}
 	
 	private HttpResponse createHttpResponse(Http1xResponseHeaders headers, Http1xResponseTrailers trailers) {
@@ -259,7 +287,7 @@ public class Http1xExchange extends AbstractExchange {
 		this.handler.exchangeComplete(this.context);
 	}
 	
-	private class FileRegionDataSubscriber extends BaseSubscriber<FileRegion> {
+	private class FileRegionDataSubscriber extends BaseSubscriber<Object> {
 
 		@Override
 		protected void hookOnSubscribe(Subscription subscription) {
@@ -267,10 +295,19 @@ public class Http1xExchange extends AbstractExchange {
 		}
 
 		@Override
-		protected void hookOnNext(FileRegion fileRegion) {
+		protected void hookOnNext(Object message) {
 			Http1xExchange.this.executeInEventLoop(() -> {
-				Http1xExchange.this.transferedLength += fileRegion.count();
-				Http1xExchange.this.encoder.writeFrame(Http1xExchange.this.context, fileRegion, Http1xExchange.this.context.newPromise().addListener(future -> {
+				Object frame;
+				if(message instanceof FileRegion) {
+					Http1xExchange.this.transferedLength += ((FileRegion)message).count();
+					frame = message;
+				}
+				else {
+					// multipart delimiters
+					Http1xExchange.this.transferedLength += ((ByteBuf)message).readableBytes();
+					frame = new DefaultHttpContent((ByteBuf)message);
+				}
+				Http1xExchange.this.encoder.writeFrame(Http1xExchange.this.context, frame, Http1xExchange.this.context.newPromise().addListener(future -> {
 					if(future.isSuccess()) {
 						// TODO here we put null as next value because we don't have access to the actual buffer, can we do better?
 						Http1xExchange.this.handler.exchangeNext(Http1xExchange.this.context, null);
@@ -16,6 +16,7 @@
 package io.inverno.mod.http.server.internal.http1x;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -27,6 +28,7 @@ import io.inverno.mod.base.net.URIs;
 import io.inverno.mod.http.base.Method;
 import io.inverno.mod.http.base.Parameter;
 import io.inverno.mod.http.base.header.Headers;
+import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.http.server.Part;
 import io.inverno.mod.http.server.Request;
 import io.inverno.mod.http.server.RequestHeaders;
@@ -39,6 +41,13 @@ import reactor.core.publisher.Sinks.Many;
  * HTTP1.x {@link Request} implementation.
  * </p>
  * 
+ * <p>
+ * When a request body high water mark is configured, reading from the
+ * connection is suspended when the amount of request body data buffered and
+ * not yet consumed by the exchange handler exceeds the high water mark and
+ * resumed when it goes back below.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -54,12 +63,17 @@ public class Http1xRequest extends AbstractRequest {
 	private String scheme;
 	private String authority;
 	
+	private final int bodyHighWaterMark;
+	private final AtomicLong bufferedBodySize;
+	private volatile boolean readSuspended;
+	
 	/**
 	 * <p>
 	 * Creates a HTTP1.x server request.
 	 * </p>
 	 * 
 	 * @param context               the channel handler context
+	 * @param configuration         the HTTP server configuration
 	 * @param httpRequest           the underlying HTTP request
 	 * @param requestHeaders        the HTTP1.x request headers
 	 * @param parameterConverter    a string object converter
@@ -67,9 +81,66 @@ public class Http1xRequest extends AbstractRequest {
 	 *                              decoder
 	 * @param multipartBodyDecoder  the multipart/form-data body decoder
 	 */
-	public Http1xRequest(ChannelHandlerContext context, HttpRequest httpRequest, RequestHeaders requestHeaders, ObjectConverter<String> parameterConverter, MultipartDecoder<Parameter> urlEncodedBodyDecoder, MultipartDecoder<Part> multipartBodyDecoder) {
+	public Http1xRequest(ChannelHandlerContext context, HttpServerConfiguration configuration, HttpRequest httpRequest, RequestHeaders requestHeaders, ObjectConverter<String> parameterConverter, MultipartDecoder<Parameter> urlEncodedBodyDecoder, MultipartDecoder<Part> multipartBodyDecoder) {
 		super(context, requestHeaders, parameterConverter, urlEncodedBodyDecoder, multipartBodyDecoder);
 		this.httpRequest = httpRequest;
+		this.bodyHighWaterMark = configuration.request_body_high_water_mark();
+		this.bufferedBodySize = this.bodyHighWaterMark > 0 ? new AtomicLong() : null;
+	}
+	
+	/**
+	 * <p>
+	 * Invoked in the event loop before a chunk of request payload data is
+	 * emitted in the request data sink.
+	 * </p>
+	 * 
+	 * <p>
+	 * This suspends reading on the connection when the amount of buffered data
+	 * reaches the request body high water mark.
+	 * </p>
+	 * 
+	 * @param chunk the chunk of data
+	 */
+	void onDataBuffered(ByteBuf chunk) {
+		if(this.bufferedBodySize != null && this.bufferedBodySize.addAndGet(chunk.readableBytes()) >= this.bodyHighWaterMark && !this.readSuspended) {
+			this.readSuspended = true;
+			this.context.channel().config().setAutoRead(false);
+		}
+	}
+	
+	@Override
+	protected void onDataConsumed(ByteBuf chunk) {
+		if(this.bufferedBodySize != null && this.bufferedBodySize.addAndGet(-chunk.readableBytes()) < this.bodyHighWaterMark && this.readSuspended) {
+			this.resumeRead();
+		}
+	}
+	
+	@Override
+	public void dispose() {
+		super.dispose();
+		if(this.bufferedBodySize != null && this.readSuspended) {
+			// remaining data have been dropped
+			this.bufferedBodySize.set(0);
+			this.resumeRead();
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Resumes reading on the connection in the event loop if it has been
+	 * suspended and buffered data went back below the high water mark.
+	 * </p>
+	 */
+	private void resumeRead() {
+		if(this.context.executor().inEventLoop()) {
+			if(this.readSuspended && this.bufferedBodySize.get() < this.bodyHighWaterMark) {
+				this.readSuspended = false;
+				this.context.channel().config().setAutoRead(true);
+			}
+		}
+		else {
+			this.context.executor().execute(this::resumeRead);
+		}
 	}
 	
 	@Override
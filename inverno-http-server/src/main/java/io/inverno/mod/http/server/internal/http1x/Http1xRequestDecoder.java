@@ -15,28 +15,65 @@
  */
 package io.inverno.mod.http.server.internal.http1x;
 
-import io.netty.handler.codec.http.DefaultHttpHeaders;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.inverno.mod.http.server.internal.netty.FlatLastHttpContent;
+import io.inverno.mod.http.server.internal.netty.LinkedHttpHeaders;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.DecoderResult;
+import io.netty.handler.codec.PrematureChannelClosureException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpRequest;
-import io.netty.handler.codec.http.HttpMessage;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpConstants;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpVersion;
-import io.inverno.mod.http.server.internal.netty.LinkedHttpHeaders;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.ScheduledFuture;
 
 /**
  * <p>
- * HTTP1.x {@link HttpRequestDecoder} implementation.
+ * HTTP1.x request decoder.
+ * </p>
+ * 
+ * <p>
+ * This implementation replaces Netty's {@link HttpRequestDecoder} in order to
+ * increase performances: the request line and the headers of a request are
+ * copied at once in a single byte array and header names and values are
+ * stored in a {@link LinkedHttpHeaders} as {@link AsciiString} slices over that
+ * array instead of being converted to {@code String}. Well-known methods,
+ * versions and header names are resolved to constants.
+ * </p>
+ * 
+ * <p>
+ * It produces the same messages as Netty's decoder: a {@link HttpRequest}
+ * followed by {@link io.netty.handler.codec.http.HttpContent} and terminated
+ * by a {@link LastHttpContent} which holds the trailers of chunked requests. An
+ * invalid request or chunk results in a message with a failed
+ * {@link DecoderResult} after which remaining bytes are discarded.
  * </p>
  * 
  * <p>
- * This implementation basically substitutes a {@link LinkedHttpHeaders} for
- * Netty's {@link DefaultHttpHeaders} in order to increase performances.
+ * It also enforces the request header timeout: a
+ * {@link RequestHeaderTimeoutEvent} is fired when the headers of a request are
+ * not received within the specified time after the reception of its first
+ * bytes.
  * </p>
  * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
-public class Http1xRequestDecoder extends HttpRequestDecoder {
+public class Http1xRequestDecoder extends ByteToMessageDecoder {
 	
 	private static final int MAX_INITIAL_LINE_LENGTH = 4096;
 	
@@ -44,20 +81,743 @@ public class Http1xRequestDecoder extends HttpRequestDecoder {
 	
 	private static final int MAX_CHUNK_SIZE = 8192;
 	
-	private static final boolean VALIDATE_HEADER = true;
+	private static final AsciiString HTTP_1_1 = AsciiString.cached(HttpVersion.HTTP_1_1.text());
 	
-	private static final int INITIAL_BUFFER_SIZE = 128;
+	private static final AsciiString HTTP_1_0 = AsciiString.cached(HttpVersion.HTTP_1_0.text());
 	
-	public Http1xRequestDecoder() {
-		super(MAX_INITIAL_LINE_LENGTH, MAX_HEADER_SIZE, MAX_CHUNK_SIZE, VALIDATE_HEADER, INITIAL_BUFFER_SIZE);
+	private static final AsciiString SPACE = AsciiString.cached(" ");
+	
+	/**
+	 * <p>
+	 * The states of the decoder.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private enum State {
+		READ_HEADERS,
+		READ_FIXED_LENGTH_CONTENT,
+		READ_CHUNK_SIZE,
+		READ_CHUNKED_CONTENT,
+		READ_CHUNK_DELIMITER,
+		READ_CHUNK_FOOTER,
+		BAD_MESSAGE
 	}
-
+	
+	private final long requestHeaderTimeout;
+	
+	private boolean awaitingHeaders;
+	private ScheduledFuture<?> requestHeaderTimeoutFuture;
+	
+	private State state;
+	
+	private int scanIndex;
+	private int lineStart;
+	private int headersStart;
+	
+	private long contentRemaining;
+	
+	/**
+	 * <p>
+	 * Creates a HTTP1.x request decoder.
+	 * </p>
+	 * 
+	 * @param requestHeaderTimeout the request header timeout in milliseconds, a
+	 *                             value of zero or less disables the timeout
+	 */
+	public Http1xRequestDecoder(long requestHeaderTimeout) {
+		this.requestHeaderTimeout = requestHeaderTimeout;
+		this.awaitingHeaders = true;
+		this.state = State.READ_HEADERS;
+		this.headersStart = -1;
+	}
+	
+	@Override
+	protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out) throws Exception {
+		if(this.awaitingHeaders && this.requestHeaderTimeout > 0 && this.requestHeaderTimeoutFuture == null && buffer.isReadable()) {
+			this.requestHeaderTimeoutFuture = ctx.executor().schedule(() -> {
+				this.requestHeaderTimeoutFuture = null;
+				ctx.fireUserEventTriggered(RequestHeaderTimeoutEvent.INSTANCE);
+			}, this.requestHeaderTimeout, TimeUnit.MILLISECONDS);
+		}
+		switch(this.state) {
+			case READ_HEADERS: {
+				try {
+					if(this.scanIndex == 0 && !skipControlCharacters(buffer)) {
+						return;
+					}
+					int blockLength = this.findEndOfBlock(buffer, true);
+					if(blockLength < 0) {
+						return;
+					}
+					byte[] block = new byte[blockLength];
+					buffer.readBytes(block);
+					HttpRequest request = this.parseRequest(block);
+					this.awaitingHeaders = false;
+					this.cancelRequestHeaderTimeout();
+					out.add(request);
+					if(this.state == State.READ_HEADERS) {
+						// No content
+						out.add(LastHttpContent.EMPTY_LAST_CONTENT);
+						this.awaitingHeaders = true;
+					}
+				}
+				catch(Exception e) {
+					out.add(this.invalidRequest(buffer, e));
+				}
+				return;
+			}
+			case READ_FIXED_LENGTH_CONTENT: {
+				int toRead = (int)Math.min(Math.min(this.contentRemaining, MAX_CHUNK_SIZE), buffer.readableBytes());
+				if(toRead == 0) {
+					return;
+				}
+				ByteBuf content = buffer.readRetainedSlice(toRead);
+				this.contentRemaining -= toRead;
+				if(this.contentRemaining == 0) {
+					out.add(new DefaultLastHttpContent(content, false));
+					this.onLastContent();
+				}
+				else {
+					out.add(new DefaultHttpContent(content));
+				}
+				return;
+			}
+			case READ_CHUNK_SIZE: {
+				try {
+					int lineEnd = buffer.indexOf(buffer.readerIndex(), buffer.writerIndex(), HttpConstants.LF);
+					if(lineEnd < 0) {
+						if(buffer.readableBytes() > MAX_INITIAL_LINE_LENGTH) {
+							throw new TooLongFrameException("An HTTP line is larger than " + MAX_INITIAL_LINE_LENGTH + " bytes.");
+						}
+						return;
+					}
+					long chunkSize = parseChunkSize(buffer, buffer.readerIndex(), lineEnd);
+					buffer.readerIndex(lineEnd + 1);
+					if(chunkSize == 0) {
+						this.state = State.READ_CHUNK_FOOTER;
+					}
+					else {
+						this.contentRemaining = chunkSize;
+						this.state = State.READ_CHUNKED_CONTENT;
+					}
+				}
+				catch(Exception e) {
+					out.add(this.invalidChunk(buffer, e));
+				}
+				return;
+			}
+			case READ_CHUNKED_CONTENT: {
+				int toRead = (int)Math.min(Math.min(this.contentRemaining, MAX_CHUNK_SIZE), buffer.readableBytes());
+				if(toRead == 0) {
+					return;
+				}
+				out.add(new DefaultHttpContent(buffer.readRetainedSlice(toRead)));
+				this.contentRemaining -= toRead;
+				if(this.contentRemaining == 0) {
+					this.state = State.READ_CHUNK_DELIMITER;
+				}
+				return;
+			}
+			case READ_CHUNK_DELIMITER: {
+				int lineEnd = buffer.indexOf(buffer.readerIndex(), buffer.writerIndex(), HttpConstants.LF);
+				if(lineEnd < 0) {
+					buffer.skipBytes(buffer.readableBytes());
+				}
+				else {
+					buffer.readerIndex(lineEnd + 1);
+					this.state = State.READ_CHUNK_SIZE;
+				}
+				return;
+			}
+			case READ_CHUNK_FOOTER: {
+				try {
+					int blockLength = this.findEndOfBlock(buffer, false);
+					if(blockLength < 0) {
+						return;
+					}
+					if(blockLength <= 2) {
+						// No trailers
+						buffer.skipBytes(blockLength);
+						out.add(LastHttpContent.EMPTY_LAST_CONTENT);
+					}
+					else {
+						byte[] block = new byte[blockLength];
+						buffer.readBytes(block);
+						LinkedHttpHeaders trailers = new LinkedHttpHeaders();
+						parseHeaders(block, 0, trailers);
+						out.add(new FlatLastHttpContent(Unpooled.EMPTY_BUFFER, trailers));
+					}
+					this.onLastContent();
+				}
+				catch(Exception e) {
+					out.add(this.invalidChunk(buffer, e));
+				}
+				return;
+			}
+			case BAD_MESSAGE: {
+				buffer.skipBytes(buffer.readableBytes());
+				return;
+			}
+			default:
+				throw new IllegalStateException("Unexpected state: " + this.state);
+		}
+	}
+	
 	@Override
-	protected HttpMessage createMessage(String[] initialLine) throws Exception {
-		return new DefaultHttpRequest(
-		      HttpVersion.valueOf(initialLine[2]),
-		      HttpMethod.valueOf(initialLine[0]),
-		      initialLine[1],
-		      new LinkedHttpHeaders());
+	protected void decodeLast(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+		super.decodeLast(ctx, in, out);
+		switch(this.state) {
+			case READ_FIXED_LENGTH_CONTENT:
+			case READ_CHUNK_SIZE:
+			case READ_CHUNKED_CONTENT:
+			case READ_CHUNK_DELIMITER:
+			case READ_CHUNK_FOOTER:
+				out.add(this.invalidChunk(in, new PrematureChannelClosureException("Connection closed before received content complete")));
+				break;
+			default:
+				break;
+		}
+	}
+	
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		this.cancelRequestHeaderTimeout();
+		super.channelInactive(ctx);
+	}
+	
+	@Override
+	protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+		this.cancelRequestHeaderTimeout();
+		super.handlerRemoved0(ctx);
+	}
+	
+	/**
+	 * <p>
+	 * Cancels the pending request header timeout if any.
+	 * </p>
+	 */
+	private void cancelRequestHeaderTimeout() {
+		if(this.requestHeaderTimeoutFuture != null) {
+			this.requestHeaderTimeoutFuture.cancel(false);
+			this.requestHeaderTimeoutFuture = null;
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Resets the decoder to read the next request once the content of the
+	 * current request has been entirely read.
+	 * </p>
+	 */
+	private void onLastContent() {
+		this.state = State.READ_HEADERS;
+		this.awaitingHeaders = true;
+	}
+	
+	/**
+	 * <p>
+	 * Creates an invalid request message and discards remaining bytes.
+	 * </p>
+	 * 
+	 * @param buffer the input buffer
+	 * @param cause  the decoding error
+	 * 
+	 * @return an invalid request
+	 */
+	private HttpRequest invalidRequest(ByteBuf buffer, Exception cause) {
+		this.state = State.BAD_MESSAGE;
+		this.awaitingHeaders = false;
+		this.cancelRequestHeaderTimeout();
+		buffer.skipBytes(buffer.readableBytes());
+		
+		HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_0, HttpMethod.GET, "/bad-request");
+		request.setDecoderResult(DecoderResult.failure(cause));
+		return request;
+	}
+	
+	/**
+	 * <p>
+	 * Creates an invalid last content message and discards remaining bytes.
+	 * </p>
+	 * 
+	 * @param buffer the input buffer
+	 * @param cause  the decoding error
+	 * 
+	 * @return an invalid last content
+	 */
+	private LastHttpContent invalidChunk(ByteBuf buffer, Exception cause) {
+		this.state = State.BAD_MESSAGE;
+		buffer.skipBytes(buffer.readableBytes());
+		
+		LastHttpContent chunk = new DefaultLastHttpContent(Unpooled.EMPTY_BUFFER);
+		chunk.setDecoderResult(DecoderResult.failure(cause));
+		return chunk;
+	}
+	
+	/**
+	 * <p>
+	 * Skips the control characters and whitespaces preceding a request line.
+	 * </p>
+	 * 
+	 * @param buffer the input buffer
+	 * 
+	 * @return true if the beginning of a request line was found, false otherwise
+	 */
+	private static boolean skipControlCharacters(ByteBuf buffer) {
+		int readerIndex = buffer.readerIndex();
+		int writerIndex = buffer.writerIndex();
+		while(readerIndex < writerIndex) {
+			int c = buffer.getUnsignedByte(readerIndex);
+			if(!Character.isISOControl(c) && !Character.isWhitespace(c)) {
+				buffer.readerIndex(readerIndex);
+				return true;
+			}
+			readerIndex++;
+		}
+		buffer.readerIndex(writerIndex);
+		return false;
+	}
+	
+	/**
+	 * <p>
+	 * Finds the end of a block of header lines terminated by an empty line.
+	 * </p>
+	 * 
+	 * <p>
+	 * The buffer is scanned incrementally: the scanning state is kept between
+	 * invocations so that bytes are scanned only once when the block is
+	 * received in several parts.
+	 * </p>
+	 * 
+	 * @param buffer      the input buffer
+	 * @param requestLine true if the block starts with a request line, false
+	 *                    otherwise
+	 * 
+	 * @return the length of the block including the terminating empty line or
+	 *         -1 if the end of the block hasn't been received yet
+	 * 
+	 * @throws TooLongFrameException if the request line or the headers are too
+	 *                               large
+	 */
+	private int findEndOfBlock(ByteBuf buffer, boolean requestLine) throws TooLongFrameException {
+		int readerIndex = buffer.readerIndex();
+		int writerIndex = buffer.writerIndex();
+		if(this.headersStart < 0 && !requestLine) {
+			this.headersStart = 0;
+		}
+		for(;;) {
+			int lineEnd = buffer.indexOf(readerIndex + this.scanIndex, writerIndex, HttpConstants.LF);
+			if(lineEnd < 0) {
+				this.scanIndex = writerIndex - readerIndex;
+				if(this.headersStart < 0) {
+					if(this.scanIndex - this.lineStart > MAX_INITIAL_LINE_LENGTH) {
+						throw new TooLongFrameException("An HTTP line is larger than " + MAX_INITIAL_LINE_LENGTH + " bytes.");
+					}
+				}
+				else if(this.scanIndex - this.headersStart > MAX_HEADER_SIZE) {
+					throw new TooLongFrameException("HTTP header is larger than " + MAX_HEADER_SIZE + " bytes.");
+				}
+				return -1;
+			}
+			int lineLength = lineEnd - readerIndex - this.lineStart;
+			if(lineLength > 0 && buffer.getByte(lineEnd - 1) == HttpConstants.CR) {
+				lineLength--;
+			}
+			this.scanIndex = this.lineStart = lineEnd - readerIndex + 1;
+			if(this.headersStart < 0) {
+				if(lineLength > MAX_INITIAL_LINE_LENGTH) {
+					throw new TooLongFrameException("An HTTP line is larger than " + MAX_INITIAL_LINE_LENGTH + " bytes.");
+				}
+				this.headersStart = this.scanIndex;
+			}
+			else if(this.scanIndex - this.headersStart > MAX_HEADER_SIZE) {
+				throw new TooLongFrameException("HTTP header is larger than " + MAX_HEADER_SIZE + " bytes.");
+			}
+			else if(lineLength == 0) {
+				int blockLength = this.scanIndex;
+				this.scanIndex = this.lineStart = 0;
+				this.headersStart = -1;
+				return blockLength;
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Parses the request line and the headers of a request.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method also determines how the content of the request must be read
+	 * and updates the state of the decoder accordingly.
+	 * </p>
+	 * 
+	 * @param block the request line and headers
+	 * 
+	 * @return a request
+	 * 
+	 * @throws IllegalArgumentException if the request is invalid
+	 */
+	private HttpRequest parseRequest(byte[] block) throws IllegalArgumentException {
+		int lineEnd = indexOf(block, 0, HttpConstants.LF);
+		int end = lineEnd > 0 && block[lineEnd - 1] == HttpConstants.CR ? lineEnd - 1 : lineEnd;
+		
+		int methodStart = 0;
+		int methodEnd = findWhitespace(block, methodStart, end);
+		int uriStart = findNonWhitespace(block, methodEnd, end);
+		int uriEnd = findWhitespace(block, uriStart, end);
+		int versionStart = findNonWhitespace(block, uriEnd, end);
+		int versionEnd = findWhitespace(block, versionStart, end);
+		if(methodEnd == methodStart || uriEnd == uriStart || versionEnd == versionStart || findNonWhitespace(block, versionEnd, end) != end) {
+			throw new IllegalArgumentException("Invalid request line: " + new AsciiString(block, 0, end, false));
+		}
+		
+		HttpMethod method = parseMethod(block, methodStart, methodEnd - methodStart);
+		String uri = new AsciiString(block, uriStart, uriEnd - uriStart, false).toString();
+		HttpVersion version = parseVersion(block, versionStart, versionEnd - versionStart);
+		
+		LinkedHttpHeaders headers = new LinkedHttpHeaders();
+		parseHeaders(block, lineEnd + 1, headers);
+		
+		if(isChunked(headers.getAllCharSequence(HttpHeaderNames.TRANSFER_ENCODING))) {
+			// Transfer-Encoding overrides Content-Length (RFC 7230 3.3.3)
+			headers.remove(HttpHeaderNames.CONTENT_LENGTH);
+			this.state = State.READ_CHUNK_SIZE;
+		}
+		else {
+			List<CharSequence> contentLengths = headers.getAllCharSequence(HttpHeaderNames.CONTENT_LENGTH);
+			for(int i=1;i<contentLengths.size();i++) {
+				if(!AsciiString.contentEquals(contentLengths.get(0), contentLengths.get(i))) {
+					throw new IllegalArgumentException("Multiple Content-Length values found");
+				}
+			}
+			long contentLength = contentLengths.isEmpty() ? 0 : headers.getLong(HttpHeaderNames.CONTENT_LENGTH);
+			if(contentLength < 0) {
+				throw new IllegalArgumentException("Invalid Content-Length: " + contentLength);
+			}
+			else if(contentLength > 0) {
+				this.contentRemaining = contentLength;
+				this.state = State.READ_FIXED_LENGTH_CONTENT;
+			}
+		}
+		return new DefaultHttpRequest(version, method, uri, headers);
+	}
+	
+	/**
+	 * <p>
+	 * Determines whether the specified Transfer-Encoding header values
+	 * designate a chunked request content.
+	 * </p>
+	 * 
+	 * <p>
+	 * Values are split into comma separated transfer codings which are
+	 * compared exactly (ignoring case) to {@code chunked}. As per RFC 7230
+	 * 3.3.3, a request with a Transfer-Encoding header whose final coding is
+	 * not {@code chunked} is rejected since its content length can't be
+	 * determined reliably, the same goes for a request where {@code chunked}
+	 * is applied more than once.
+	 * </p>
+	 * 
+	 * @param transferEncodings the list of Transfer-Encoding header values
+	 * 
+	 * @return true if the request content is chunked, false if there's no
+	 *         Transfer-Encoding header
+	 * 
+	 * @throws IllegalArgumentException if the Transfer-Encoding header is
+	 *                                  invalid
+	 */
+	private static boolean isChunked(List<CharSequence> transferEncodings) throws IllegalArgumentException {
+		if(transferEncodings.isEmpty()) {
+			return false;
+		}
+		boolean chunked = false;
+		boolean empty = true;
+		for(CharSequence transferEncoding : transferEncodings) {
+			int length = transferEncoding.length();
+			int codingStart = 0;
+			while(codingStart <= length) {
+				int codingEnd = codingStart;
+				while(codingEnd < length && transferEncoding.charAt(codingEnd) != ',') {
+					codingEnd++;
+				}
+				CharSequence coding = AsciiString.trim(transferEncoding.subSequence(codingStart, codingEnd));
+				if(coding.length() > 0) {
+					if(chunked) {
+						throw new IllegalArgumentException("Invalid Transfer-Encoding: chunked must be the final coding");
+					}
+					chunked = AsciiString.contentEqualsIgnoreCase(coding, HttpHeaderValues.CHUNKED);
+					empty = false;
+				}
+				codingStart = codingEnd + 1;
+			}
+		}
+		if(!chunked) {
+			throw new IllegalArgumentException(empty ? "Invalid Transfer-Encoding: empty" : "Invalid Transfer-Encoding: chunked must be the final coding");
+		}
+		return true;
+	}
+	
+	/**
+	 * <p>
+	 * Parses header lines into the specified headers.
+	 * </p>
+	 * 
+	 * <p>
+	 * Header names and values are added as {@link AsciiString} slices of the
+	 * specified block, obsolete line folding is supported.
+	 * </p>
+	 * 
+	 * @param block   a block of header lines terminated by an empty line
+	 * @param start   the index of the first header line in the block
+	 * @param headers the headers to populate
+	 * 
+	 * @throws IllegalArgumentException if a header is invalid
+	 */
+	private static void parseHeaders(byte[] block, int start, LinkedHttpHeaders headers) throws IllegalArgumentException {
+		AsciiString name = null;
+		AsciiString value = null;
+		int lineStart = start;
+		for(;;) {
+			int lineEnd = indexOf(block, lineStart, HttpConstants.LF);
+			int end = lineEnd > lineStart && block[lineEnd - 1] == HttpConstants.CR ? lineEnd - 1 : lineEnd;
+			if(end == lineStart) {
+				break;
+			}
+			byte first = block[lineStart];
+			if(first == HttpConstants.SP || first == HttpConstants.HT) {
+				// Obsolete line folding
+				if(name == null) {
+					throw new IllegalArgumentException("Invalid header line: " + new AsciiString(block, lineStart, end - lineStart, false));
+				}
+				int valueStart = findNonWhitespace(block, lineStart, end);
+				int valueEnd = findEndOfValue(block, valueStart, end);
+				value = value.concat(SPACE).concat(new AsciiString(block, valueStart, valueEnd - valueStart, false));
+			}
+			else {
+				if(name != null) {
+					headers.addCharSequence(name, value);
+				}
+				int colon = indexOf(block, lineStart, end, HttpConstants.COLON);
+				if(colon <= lineStart) {
+					throw new IllegalArgumentException("Invalid header line: " + new AsciiString(block, lineStart, end - lineStart, false));
+				}
+				validateHeaderName(block, lineStart, colon);
+				name = new AsciiString(block, lineStart, colon - lineStart, false);
+				int valueStart = findNonWhitespace(block, colon + 1, end);
+				int valueEnd = findEndOfValue(block, valueStart, end);
+				value = new AsciiString(block, valueStart, valueEnd - valueStart, false);
+			}
+			lineStart = lineEnd + 1;
+		}
+		if(name != null) {
+			headers.addCharSequence(name, value);
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Validates the characters of a header name.
+	 * </p>
+	 * 
+	 * @param block the block of bytes
+	 * @param start the index of the first character of the name
+	 * @param end   the index after the last character of the name
+	 * 
+	 * @throws IllegalArgumentException if the name contains prohibited
+	 *                                  characters
+	 */
+	private static void validateHeaderName(byte[] block, int start, int end) throws IllegalArgumentException {
+		for(int i=start;i<end;i++) {
+			byte b = block[i];
+			switch(b) {
+				case 0x00:
+				case '\t':
+				case '\n':
+				case 0x0b:
+				case '\f':
+				case '\r':
+				case ' ':
+				case ',':
+				case ':':
+				case ';':
+				case '=':
+					throw new IllegalArgumentException("Invalid header name: " + new AsciiString(block, start, end - start, false));
+				default:
+					if(b < 0) {
+						throw new IllegalArgumentException("Invalid header name: " + new AsciiString(block, start, end - start, false));
+					}
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Resolves a request method.
+	 * </p>
+	 * 
+	 * <p>
+	 * Standard methods are identified by their length and first character and
+	 * resolved to {@link HttpMethod} constants without creating any String.
+	 * </p>
+	 * 
+	 * @param block  the block of bytes
+	 * @param start  the index of the method
+	 * @param length the length of the method
+	 * 
+	 * @return a HTTP method
+	 */
+	private static HttpMethod parseMethod(byte[] block, int start, int length) {
+		HttpMethod method = null;
+		byte first = block[start];
+		switch(length) {
+			case 3:
+				method = first == 'G' ? HttpMethod.GET : first == 'P' ? HttpMethod.PUT : null;
+				break;
+			case 4:
+				method = first == 'P' ? HttpMethod.POST : first == 'H' ? HttpMethod.HEAD : null;
+				break;
+			case 5:
+				method = first == 'P' ? HttpMethod.PATCH : first == 'T' ? HttpMethod.TRACE : null;
+				break;
+			case 6:
+				method = first == 'D' ? HttpMethod.DELETE : null;
+				break;
+			case 7:
+				method = first == 'O' ? HttpMethod.OPTIONS : first == 'C' ? HttpMethod.CONNECT : null;
+				break;
+		}
+		if(method != null && regionEquals(block, start, length, method.asciiName())) {
+			return method;
+		}
+		return HttpMethod.valueOf(new AsciiString(block, start, length, false).toString());
+	}
+	
+	/**
+	 * <p>
+	 * Resolves a request version.
+	 * </p>
+	 * 
+	 * @param block  the block of bytes
+	 * @param start  the index of the version
+	 * @param length the length of the version
+	 * 
+	 * @return a HTTP version
+	 */
+	private static HttpVersion parseVersion(byte[] block, int start, int length) {
+		if(regionEquals(block, start, length, HTTP_1_1)) {
+			return HttpVersion.HTTP_1_1;
+		}
+		else if(regionEquals(block, start, length, HTTP_1_0)) {
+			return HttpVersion.HTTP_1_0;
+		}
+		return HttpVersion.valueOf(new AsciiString(block, start, length, false).toString());
+	}
+	
+	/**
+	 * <p>
+	 * Parses the hexadecimal size of a chunk.
+	 * </p>
+	 * 
+	 * @param buffer  the input buffer
+	 * @param start   the index of the chunk size line
+	 * @param lineEnd the index of the line feed terminating the line
+	 * 
+	 * @return the chunk size
+	 * 
+	 * @throws NumberFormatException if the chunk size is invalid
+	 */
+	private static long parseChunkSize(ByteBuf buffer, int start, int lineEnd) throws NumberFormatException {
+		long size = 0;
+		int index = start;
+		for(;index < lineEnd;index++) {
+			byte b = buffer.getByte(index);
+			if(b == ';' || b == HttpConstants.SP || b == HttpConstants.HT || b == HttpConstants.CR) {
+				break;
+			}
+			int digit = Character.digit(b, 16);
+			if(digit < 0) {
+				throw new NumberFormatException("Invalid chunk size");
+			}
+			if(size > (Long.MAX_VALUE >> 4)) {
+				throw new NumberFormatException("Chunk size is too large");
+			}
+			size = (size << 4) + digit;
+		}
+		if(index == start) {
+			throw new NumberFormatException("Invalid chunk size");
+		}
+		return size;
+	}
+	
+	private static boolean regionEquals(byte[] block, int start, int length, AsciiString expected) {
+		if(length != expected.length()) {
+			return false;
+		}
+		for(int i=0;i<length;i++) {
+			if(block[start + i] != expected.byteAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static int indexOf(byte[] block, int start, byte value) {
+		return indexOf(block, start, block.length, value);
+	}
+	
+	private static int indexOf(byte[] block, int start, int end, byte value) {
+		for(int i=start;i<end;i++) {
+			if(block[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private static int findWhitespace(byte[] block, int start, int end) {
+		for(int i=start;i<end;i++) {
+			if(block[i] == HttpConstants.SP || block[i] == HttpConstants.HT) {
+				return i;
+			}
+		}
+		return end;
+	}
+	
+	private static int findNonWhitespace(byte[] block, int start, int end) {
+		for(int i=start;i<end;i++) {
+			if(block[i] != HttpConstants.SP && block[i] != HttpConstants.HT) {
+				return i;
+			}
+		}
+		return end;
+	}
+	
+	private static int findEndOfValue(byte[] block, int start, int end) {
+		for(int i=end;i>start;i--) {
+			if(block[i - 1] != HttpConstants.SP && block[i - 1] != HttpConstants.HT) {
+				return i;
+			}
+		}
+		return start;
+	}
+	
+	/**
+	 * <p>
+	 * The event fired when the headers of a request were not received in time.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	public static final class RequestHeaderTimeoutEvent {
+		
+		/**
+		 * The request header timeout event.
+		 */
+		public static final RequestHeaderTimeoutEvent INSTANCE = new RequestHeaderTimeoutEvent();
+		
+		private RequestHeaderTimeoutEvent() {}
 	}
 }
@@ -68,8 +68,15 @@ class Http1xResponse extends AbstractResponse {
 		return this.context.pipeline().get(SslHandler.class) == null && this.context.pipeline().get(HttpContentCompressor.class) == null;
 	}
 	
+	@Override
+	public void recycle() {
+		((Http1xResponseHeaders)this.responseHeaders).reset();
+		super.recycle();
+	}
+	
 	@Override
 	public Response trailers(Consumer<ResponseTrailers> trailersConfigurer) {
+		this.checkNotRecycled();
 		if(this.responseTrailers == null) {
 			this.responseTrailers = new Http1xResponseTrailers(this.headerService, this.parameterConverter);
 		}
@@ -79,12 +86,12 @@ class Http1xResponse extends AbstractResponse {
 	
 	@Override
 	public Http1xResponseHeaders headers() {
-		return (Http1xResponseHeaders)this.responseHeaders;
+		return (Http1xResponseHeaders)super.headers();
 	}
 	
 	@Override
 	public Http1xResponseTrailers trailers() {
-		return (Http1xResponseTrailers)this.responseTrailers;
+		return (Http1xResponseTrailers)super.trailers();
 	}
 	
 	@Override
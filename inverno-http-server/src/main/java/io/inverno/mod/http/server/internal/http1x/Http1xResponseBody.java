@@ -17,15 +17,17 @@ package io.inverno.mod.http.server.internal.http1x;
 
 import java.io.IOException;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.reactivestreams.Publisher;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.FileRegion;
 import io.inverno.mod.base.resource.ZipResource;
 import io.inverno.mod.http.base.InternalServerErrorException;
-import io.inverno.mod.http.base.NotFoundException;
 import io.inverno.mod.http.server.ResponseBody;
 import io.inverno.mod.http.server.internal.GenericResponseBody;
 import reactor.core.Exceptions;
@@ -45,7 +47,7 @@ class Http1xResponseBody extends GenericResponseBody {
 
 	private static final int MAX_FILE_REGION_SIZE = 1024 * 1024;
 	
-	private Publisher<FileRegion> fileRegionData;
+	private Publisher<Object> fileRegionData;
 	
 	/**
 	 * <p>
@@ -58,16 +60,28 @@ class Http1xResponseBody extends GenericResponseBody {
 		super(response);
 	}
 	
+	@Override
+	protected void reset() {
+		super.reset();
+		this.fileRegionData = null;
+	}
+	
 	/**
 	 * <p>
 	 * Returns the file region data publisher to send when present instead of the
 	 * regular payload data publisher.
 	 * </p>
 	 * 
+	 * <p>
+	 * The publisher emits {@link FileRegion} and {@link ByteBuf} messages, the
+	 * later being used to delimit the parts of {@code multipart/byteranges}
+	 * payloads.
+	 * </p>
+	 * 
 	 * @return an optional returning a file region publisher or an empty optional if
 	 *         no file region has been set in the response
 	 */
-	public Optional<Publisher<FileRegion>> getFileRegionData() {
+	public Optional<Publisher<Object>> getFileRegionData() {
 		return Optional.ofNullable(this.fileRegionData);
 	}
 	
@@ -91,6 +105,10 @@ class Http1xResponseBody extends GenericResponseBody {
 	 * available.
 	 * </p>
 	 * 
+	 * <p>
+	 * Requested byte ranges are sent as file regions at the requested positions.
+	 * </p>
+	 * 
 	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
 	 * @since 1.0
 	 * 
@@ -98,50 +116,116 @@ class Http1xResponseBody extends GenericResponseBody {
 	 */
 	private class Http1xResponseBodyResourceData extends GenericResponseBody.GenericResponseBodyResourceData {
 
+		/**
+		 * <p>
+		 * Determines whether the specified resource can be sent using file
+		 * regions.
+		 * </p>
+		 * 
+		 * @param resource the resource
+		 * 
+		 * @return true if file regions can be used, false otherwise
+		 */
+		private boolean supportsFileRegion(io.inverno.mod.base.resource.Resource resource) {
+			// Only regular file resources supports zero-copy
+			// It seems FileRegion does not support Zip files, I saw different behavior between JDK<15 and above
+			return resource.isFile().orElse(false) && !(resource instanceof ZipResource);
+		}
+		
 		@Override
-		public void value(io.inverno.mod.base.resource.Resource resource) {
-			// In case of file resources we should always be able to determine existence
-			// For other resources with a null exists we can still try, worst case scenario: 
-			// internal server error
-			if(resource.exists().orElse(true)) {
-				this.populateHeaders(resource);
-
-				// Only regular file resources supports zero-copy
-				// It seems FileRegion does not support Zip files, I saw different behavior between JDK<15 and above
-				if(resource.isFile().orElse(false) && !(resource instanceof ZipResource)) {
-					// We need to create the file region and then send an empty response
-					// The Http1xServerExchange should then complete and check whether there is a file region or not
-					FileChannel fileChannel = (FileChannel)resource.openReadableByteChannel().orElseThrow(() -> new InternalServerErrorException("Resource " + resource + " is not readable"));
-					
-					long size = resource.size().get();
-					int count = (int)Math.ceil((float)size / (float)MAX_FILE_REGION_SIZE);
-					
-					// We need to add an extra element in order to control when the flux terminates so we can properly close the file channel
-					Http1xResponseBody.this.fileRegionData = Flux.range(0, count + 1) 
-						.filter(index -> index < count)
-						.map(index -> {
-							long position = index * MAX_FILE_REGION_SIZE;
-							FileRegion region = new DefaultFileRegion(fileChannel, position, Math.min(size - position, MAX_FILE_REGION_SIZE));
-							region.retain();
-							return region;
-						})
-						.doFinally(sgn -> {
-							try {
-								fileChannel.close();
-							} 
-							catch (IOException e) {
-								Exceptions.propagate(e);
-							}
-						});
-					Http1xResponseBody.this.setData(Flux.empty());
-				}
-				else {
-					Http1xResponseBody.this.setData(resource.read().orElseThrow(() -> new InternalServerErrorException("Resource " + resource + " is not readable")));
+		protected void setData(io.inverno.mod.base.resource.Resource resource) {
+			if(this.supportsFileRegion(resource)) {
+				List<Object> messages = new ArrayList<>();
+				this.addFileRegions(messages, new ByteRange(0, resource.size().get() - 1));
+				this.setFileRegionData(resource, messages);
+			}
+			else {
+				super.setData(resource);
+			}
+		}
+		
+		@Override
+		protected void setData(io.inverno.mod.base.resource.Resource resource, ByteRange range) {
+			if(this.supportsFileRegion(resource)) {
+				List<Object> messages = new ArrayList<>();
+				this.addFileRegions(messages, range);
+				this.setFileRegionData(resource, messages);
+			}
+			else {
+				super.setData(resource, range);
+			}
+		}
+		
+		@Override
+		protected void setData(io.inverno.mod.base.resource.Resource resource, List<ByteRange> ranges, List<ByteBuf> delimiters) {
+			if(this.supportsFileRegion(resource)) {
+				List<Object> messages = new ArrayList<>();
+				for(int i=0;i<ranges.size();i++) {
+					messages.add(delimiters.get(i));
+					this.addFileRegions(messages, ranges.get(i));
 				}
+				messages.add(delimiters.get(ranges.size()));
+				this.setFileRegionData(resource, messages);
 			}
 			else {
-				throw new NotFoundException();
+				super.setData(resource, ranges, delimiters);
 			}
 		}
+		
+		/**
+		 * <p>
+		 * Splits the specified range in regions of at most
+		 * {@link #MAX_FILE_REGION_SIZE} bytes and adds them to the list of
+		 * messages.
+		 * </p>
+		 * 
+		 * @param messages the list of messages
+		 * @param range    the range to send
+		 */
+		private void addFileRegions(List<Object> messages, ByteRange range) {
+			for(long position = range.getStart();position <= range.getEnd();position += MAX_FILE_REGION_SIZE) {
+				messages.add(new ByteRange(position, Math.min(range.getEnd(), position + MAX_FILE_REGION_SIZE - 1)));
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Sets the file region data publisher emitting the specified messages
+		 * and an empty regular payload.
+		 * </p>
+		 * 
+		 * @param resource the file resource
+		 * @param messages a list of ranges to send as file regions and delimiters
+		 */
+		private void setFileRegionData(io.inverno.mod.base.resource.Resource resource, List<Object> messages) {
+			// We need to create the file region and then send an empty response
+			// The Http1xServerExchange should then complete and check whether there is a file region or not
+			FileChannel fileChannel = (FileChannel)resource.openReadableByteChannel().orElseThrow(() -> new InternalServerErrorException("Resource " + resource + " is not readable"));
+			
+			int count = messages.size();
+			
+			// We need to add an extra element in order to control when the flux terminates so we can properly close the file channel
+			Http1xResponseBody.this.fileRegionData = Flux.range(0, count + 1) 
+				.filter(index -> index < count)
+				.map(index -> {
+					Object message = messages.get(index);
+					if(message instanceof ByteRange) {
+						ByteRange range = (ByteRange)message;
+						FileRegion region = new DefaultFileRegion(fileChannel, range.getStart(), range.getLength());
+						region.retain();
+						return region;
+					}
+					return message;
+				})
+				.doFinally(sgn -> {
+					try {
+						fileChannel.close();
+					} 
+					catch (IOException e) {
+						Exceptions.propagate(e);
+					}
+				});
+			Http1xResponseBody.this.setData(Flux.empty());
+		}
 	}
 }
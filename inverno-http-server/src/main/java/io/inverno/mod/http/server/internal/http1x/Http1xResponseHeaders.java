@@ -85,6 +85,17 @@ public class Http1xResponseHeaders implements AbstractResponseHeaders {
 	LinkedHttpHeaders getUnderlyingHeaders() {
 		return this.underlyingHeaders;
 	}
+	
+	/**
+	 * <p>
+	 * Resets the headers so that they can be reused with a recycled response.
+	 * </p>
+	 */
+	void reset() {
+		this.underlyingHeaders.clear();
+		this.statusCode = 200;
+		this.written = false;
+	}
 
 	@Override
 	public Http1xResponseHeaders status(Status status) {
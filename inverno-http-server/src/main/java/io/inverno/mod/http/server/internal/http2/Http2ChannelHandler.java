@@ -15,6 +15,8 @@
  */
 package io.inverno.mod.http.server.internal.http2;
 
+import java.util.Optional;
+
 import io.inverno.mod.base.converter.ObjectConverter;
 import io.inverno.mod.http.base.Parameter;
 import io.inverno.mod.http.base.header.HeaderService;
@@ -24,9 +26,13 @@ import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.http.server.Part;
 import io.inverno.mod.http.server.internal.AbstractExchange;
+import io.inverno.mod.http.server.internal.GenericHttpServerStatistics;
+import io.inverno.mod.http.server.internal.HttpServer;
+import io.inverno.mod.http.server.internal.ServerHeaders;
 import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.handler.codec.compression.ZlibWrapper;
 import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -42,8 +48,11 @@ import io.netty.handler.codec.http2.Http2FrameListener;
 import io.netty.handler.codec.http2.Http2Headers;
 import io.netty.handler.codec.http2.Http2Settings;
 import io.netty.handler.codec.http2.Http2Stream;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.util.collection.IntObjectHashMap;
 import io.netty.util.collection.IntObjectMap;
+import reactor.core.publisher.Sinks;
 import reactor.core.publisher.Sinks.EmitResult;
 
 /**
@@ -70,6 +79,8 @@ public class Http2ChannelHandler extends Http2ConnectionHandler implements Http2
 	private final ObjectConverter<String> parameterConverter;
 	private final MultipartDecoder<Parameter> urlEncodedBodyDecoder;
 	private final MultipartDecoder<Part> multipartBodyDecoder;
+	private final GenericHttpServerStatistics statistics;
+	private final ServerHeaders serverHeaders;
 
 	private final IntObjectMap<Http2Exchange> serverStreams;
 
@@ -89,6 +100,8 @@ public class Http2ChannelHandler extends Http2ConnectionHandler implements Http2
 	 * @param urlEncodedBodyDecoder the application/x-www-form-urlencoded body
 	 *                              decoder
 	 * @param multipartBodyDecoder  the multipart/form-data body decoder
+	 * @param statistics            the HTTP server statistics
+	 * @param serverHeaders         the server-managed response headers
 	 */
 	public Http2ChannelHandler(
 			HttpServerConfiguration configuration,
@@ -100,7 +113,9 @@ public class Http2ChannelHandler extends Http2ConnectionHandler implements Http2
 			HeaderService headerService, 
 			ObjectConverter<String> parameterConverter,
 			MultipartDecoder<Parameter> urlEncodedBodyDecoder,
-			MultipartDecoder<Part> multipartBodyDecoder) {
+			MultipartDecoder<Part> multipartBodyDecoder,
+			GenericHttpServerStatistics statistics,
+			ServerHeaders serverHeaders) {
 		super(decoder, encoder, initialSettings);
 
 		this.configuration = configuration;
@@ -110,9 +125,17 @@ public class Http2ChannelHandler extends Http2ConnectionHandler implements Http2
 		this.parameterConverter = parameterConverter;
 		this.urlEncodedBodyDecoder = urlEncodedBodyDecoder;
 		this.multipartBodyDecoder = multipartBodyDecoder;
+		this.statistics = statistics;
+		this.serverHeaders = serverHeaders;
 
 		this.serverStreams = new IntObjectHashMap<>();
 		this.connection().addListener(this);
+		this.encoder().flowController().listener(stream -> {
+			Http2Exchange serverStream = this.serverStreams.get(stream.id());
+			if(serverStream != null) {
+				serverStream.onWritabilityChanged();
+			}
+		});
 	}
 
 	@Override
@@ -122,6 +145,32 @@ public class Http2ChannelHandler extends Http2ConnectionHandler implements Http2
 		ctx.close();
 	}
 
+	@Override
+	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+		if(evt instanceof IdleStateEvent) {
+			IdleState state = ((IdleStateEvent)evt).state();
+			if(state == IdleState.ALL_IDLE && this.connection().numActiveStreams() == 0) {
+				// Graceful shutdown: a GOAWAY frame is sent before closing the connection
+				this.statistics.onIdleConnection();
+				this.close(ctx, ctx.newPromise());
+			}
+			else if(state == IdleState.WRITER_IDLE && this.connection().numActiveStreams() > 0) {
+				ChannelOutboundBuffer outboundBuffer = ctx.channel().unsafe().outboundBuffer();
+				if(outboundBuffer != null && outboundBuffer.totalPendingWriteBytes() > 0) {
+					// The client stopped reading, a GOAWAY frame wouldn't be read either
+					this.statistics.onResponseWriteTimeout();
+					ctx.close();
+				}
+			}
+		}
+		else if(evt instanceof HttpServer.GracefulShutdownEvent) {
+			// A GOAWAY frame is sent and the connection is closed once active streams complete
+			this.gracefulShutdownTimeoutMillis(this.configuration.graceful_shutdown_timeout());
+			this.close(ctx, ctx.newPromise());
+		}
+		super.userEventTriggered(ctx, evt);
+	}
+	
 	@Override
 	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
 		super.channelInactive(ctx);
@@ -135,23 +184,36 @@ public class Http2ChannelHandler extends Http2ConnectionHandler implements Http2
 	}
 
 	/**
-	 * If receive a frame with end-of-stream set, send a pre-canned response.
+	 * <p>
+	 * Emits received data in the request data sink of the stream exchange.
+	 * </p>
+	 * 
+	 * <p>
+	 * Only padding bytes are returned as processed, emitted data are returned
+	 * to the local flow controller by the request as they are consumed by the
+	 * exchange handler. Data that could not be emitted are returned
+	 * immediately.
+	 * </p>
 	 */
 	@Override
 	public int onDataRead(ChannelHandlerContext ctx, int streamId, ByteBuf data, int padding, boolean endOfStream) throws Http2Exception {
 //        System.out.println("onDataRead() " + streamId + " - "+ endOfStream);
-
-		// TODO flow control?
-		int processed = data.readableBytes() + padding;
+		int processed = padding;
 
 		Http2Exchange serverStream = this.serverStreams.get(streamId);
 		if (serverStream != null) {
-			serverStream.request().data().ifPresent(sink -> {
+			Optional<Sinks.Many<ByteBuf>> requestData = serverStream.request().data();
+			if(requestData.isPresent()) {
 				data.retain();
-				if(sink.tryEmitNext(data) != EmitResult.OK) {
+				serverStream.request().onDataBuffered(data);
+				if(requestData.get().tryEmitNext(data) != EmitResult.OK) {
+					serverStream.request().onDataConsumed(data);
 					data.release();
 				}
-			});
+			}
+			else {
+				processed += data.readableBytes();
+			}
 			if (endOfStream) {
 				serverStream.request().data().ifPresent(sink -> sink.tryEmitComplete());
 			}
@@ -169,7 +231,7 @@ public class Http2ChannelHandler extends Http2ConnectionHandler implements Http2
 //        System.out.println("onHeaderReads(2) " + streamId + " - " + endOfStream + " - " + this.hashCode());
 		Http2Exchange exchange = this.serverStreams.get(streamId);
 		if (exchange == null) {
-			Http2Exchange streamExchange = new Http2Exchange(ctx, this.connection().stream(streamId), headers, this.encoder(), this.headerService, this.parameterConverter, this.urlEncodedBodyDecoder, this.multipartBodyDecoder, this.rootHandler, this.errorHandler);
+			Http2Exchange streamExchange = new Http2Exchange(ctx, this.configuration, this.connection().stream(streamId), headers, this.encoder(), this.headerService, this.parameterConverter, this.urlEncodedBodyDecoder, this.multipartBodyDecoder, this.rootHandler, this.errorHandler, this.serverHeaders);
 			if(this.configuration.compression_enabled()) {
 				String acceptEncoding = headers.get(HttpHeaderNames.ACCEPT_ENCODING) != null ? headers.get(HttpHeaderNames.ACCEPT_ENCODING).toString() : null;
 				if(acceptEncoding != null) {
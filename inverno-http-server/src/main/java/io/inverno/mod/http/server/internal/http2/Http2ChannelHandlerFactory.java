@@ -33,6 +33,8 @@ import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.http.server.Part;
+import io.inverno.mod.http.server.internal.GenericHttpServerStatistics;
+import io.inverno.mod.http.server.internal.ServerHeaders;
 import io.inverno.mod.http.server.internal.http1x.Http1xChannelHandler;
 import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
 
@@ -55,6 +57,8 @@ public class Http2ChannelHandlerFactory implements Supplier<Http2ChannelHandler>
 	private ObjectConverter<String> parameterConverter;
 	private MultipartDecoder<Parameter> urlEncodedBodyDecoder;
 	private MultipartDecoder<Part> multipartBodyDecoder;
+	private GenericHttpServerStatistics statistics;
+	private ServerHeaders serverHeaders;
 	
 	/**
 	 * <p>
@@ -68,6 +72,8 @@ public class Http2ChannelHandlerFactory implements Supplier<Http2ChannelHandler>
 	 * @param parameterConverter    a string object converter
 	 * @param urlEncodedBodyDecoder the application/x-www-form-urlencoded body decoder
 	 * @param multipartBodyDecoder  the multipart/form-data body decoder
+	 * @param statistics            the HTTP server statistics
+	 * @param serverHeaders         the server-managed response headers
 	 */
 	public Http2ChannelHandlerFactory(
 			HttpServerConfiguration configuration, 
@@ -76,7 +82,9 @@ public class Http2ChannelHandlerFactory implements Supplier<Http2ChannelHandler>
 			HeaderService headerService, 
 			ObjectConverter<String> parameterConverter,
 			MultipartDecoder<Parameter> urlEncodedBodyDecoder, 
-			MultipartDecoder<Part> multipartBodyDecoder) {
+			MultipartDecoder<Part> multipartBodyDecoder,
+			GenericHttpServerStatistics statistics,
+			ServerHeaders serverHeaders) {
 		this.configuration = configuration;
 		this.rootHandler = rootHandler;
 		this.errorHandler = errorHandler;
@@ -84,6 +92,8 @@ public class Http2ChannelHandlerFactory implements Supplier<Http2ChannelHandler>
 		this.parameterConverter = parameterConverter;
 		this.urlEncodedBodyDecoder = urlEncodedBodyDecoder;
 		this.multipartBodyDecoder = multipartBodyDecoder;
+		this.statistics = statistics;
+		this.serverHeaders = serverHeaders;
 	}
 
 	@Override
@@ -131,7 +141,9 @@ public class Http2ChannelHandlerFactory implements Supplier<Http2ChannelHandler>
 				Http2ChannelHandlerFactory.this.headerService,
 				Http2ChannelHandlerFactory.this.parameterConverter,
 				Http2ChannelHandlerFactory.this.urlEncodedBodyDecoder,
-				Http2ChannelHandlerFactory.this.multipartBodyDecoder
+				Http2ChannelHandlerFactory.this.multipartBodyDecoder,
+				Http2ChannelHandlerFactory.this.statistics,
+				Http2ChannelHandlerFactory.this.serverHeaders
 			);
 			this.frameListener(handler);
 			return handler;
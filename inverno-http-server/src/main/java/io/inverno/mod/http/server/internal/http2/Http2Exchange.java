@@ -18,6 +18,7 @@ package io.inverno.mod.http.server.internal.http2;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http2.Http2ConnectionEncoder;
 import io.netty.handler.codec.http2.Http2Headers;
 import io.netty.handler.codec.http2.Http2Stream;
@@ -28,9 +29,11 @@ import io.inverno.mod.http.base.header.Headers;
 import io.inverno.mod.http.server.ErrorExchange;
 import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.http.server.Part;
 import io.inverno.mod.http.server.internal.AbstractExchange;
 import io.inverno.mod.http.server.internal.GenericErrorExchange;
+import io.inverno.mod.http.server.internal.ServerHeaders;
 import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
 
 /**
@@ -54,6 +57,7 @@ public class Http2Exchange extends AbstractExchange {
 	private final Http2ConnectionEncoder encoder;
 	private final HeaderService headerService;
 	private final ObjectConverter<String> parameterConverter;
+	private final ServerHeaders serverHeaders;
 	
 	/**
 	 * <p>
@@ -61,6 +65,7 @@ public class Http2Exchange extends AbstractExchange {
 	 * </p>
 	 * 
 	 * @param context               the channel handler context
+	 * @param configuration         the HTTP server configuration
 	 * @param stream                the underlying HTTP/2 stream
 	 * @param httpHeaders           the underlying HTTP/2 request headers
 	 * @param encoder               the HTTP/2 connection encoder
@@ -71,9 +76,11 @@ public class Http2Exchange extends AbstractExchange {
 	 * @param multipartBodyDecoder  the multipart/form-data body decoder
 	 * @param rootHandler           the server root exchange handler
 	 * @param errorHandler          the server error exchange handler
+	 * @param serverHeaders         the server-managed response headers
 	 */
 	public Http2Exchange(
 			ChannelHandlerContext context, 
+			HttpServerConfiguration configuration,
 			Http2Stream stream, 
 			Http2Headers httpHeaders, 
 			Http2ConnectionEncoder encoder,
@@ -82,13 +89,18 @@ public class Http2Exchange extends AbstractExchange {
 			MultipartDecoder<Parameter> urlEncodedBodyDecoder, 
 			MultipartDecoder<Part> multipartBodyDecoder,
 			ExchangeHandler<Exchange> rootHandler, 
-			ExchangeHandler<ErrorExchange<Throwable>> errorHandler
+			ExchangeHandler<ErrorExchange<Throwable>> errorHandler,
+			ServerHeaders serverHeaders
 		) {
-		super(context, rootHandler, errorHandler, new Http2Request(context, new Http2RequestHeaders(httpHeaders, headerService, parameterConverter), parameterConverter, urlEncodedBodyDecoder, multipartBodyDecoder), new Http2Response(context, headerService, parameterConverter));
+		super(context, configuration, rootHandler, errorHandler, new Http2Request(context, stream, encoder.connection().local().flowController(), new Http2RequestHeaders(httpHeaders, headerService, parameterConverter), parameterConverter, urlEncodedBodyDecoder, multipartBodyDecoder), new Http2Response(context, headerService, parameterConverter));
 		this.stream = stream;
 		this.encoder = encoder;
 		this.headerService = headerService;
 		this.parameterConverter = parameterConverter;
+		this.serverHeaders = serverHeaders;
+		
+		// File resources are read in chunks fitting in a single DATA frame
+		this.response.body().setFileBufferCapacity(encoder.configuration().frameSizePolicy().maxFrameSize());
 	}
 	
 	/**
@@ -105,28 +117,53 @@ public class Http2Exchange extends AbstractExchange {
 		}
 	}
 	
+	@Override
+	protected boolean isWritable() {
+		// The remote flow controller accounts for both the stream flow control window and the channel writability
+		return this.encoder.flowController().isWritable(this.stream);
+	}
+	
+	@Override
+	public Http2Request request() {
+		return (Http2Request)this.request;
+	}
+	
 	@Override
 	protected ErrorExchange<Throwable> createErrorExchange(Throwable error) {
 		return new GenericErrorExchange(this.request, new Http2Response(this.context, this.headerService, this.parameterConverter), error);
 	}
 	
+	/**
+	 * <p>
+	 * Adds the server-managed headers to the response headers and returns the
+	 * underlying HTTP/2 headers to write.
+	 * </p>
+	 * 
+	 * @param headers the response headers
+	 * 
+	 * @return the underlying HTTP/2 headers
+	 */
+	private Http2Headers preProcessResponseInternals(Http2ResponseHeaders headers) {
+		Http2Headers internalHeaders = headers.getUnderlyingHeaders();
+		CharSequence date = this.serverHeaders.getDate(this.contextExecutor);
+		if(date != null && !internalHeaders.contains(HttpHeaderNames.DATE)) {
+			internalHeaders.set(HttpHeaderNames.DATE, date);
+		}
+		CharSequence server = this.serverHeaders.getServer();
+		if(server != null && !internalHeaders.contains(HttpHeaderNames.SERVER)) {
+			internalHeaders.set(HttpHeaderNames.SERVER, server);
+		}
+		return internalHeaders;
+	}
+	
 	@Override
 	protected void onNextMany(ByteBuf value) {
 		try {
 			Http2ResponseHeaders headers = (Http2ResponseHeaders)this.response.headers();
 			if(!headers.isWritten()) {
-				this.encoder.writeHeaders(this.context, this.stream.id(), headers.getUnderlyingHeaders(), 0, false, this.context.voidPromise());
+				this.encoder.writeHeaders(this.context, this.stream.id(), this.preProcessResponseInternals(headers), 0, false, this.context.voidPromise());
 				headers.setWritten(true);
 			}
-			// TODO implement back pressure with the flow controller
-			/*this.encoder.flowController().listener(new Listener() {
-				
-				@Override
-				public void writabilityChanged(Http2Stream stream) {
-					
-				}
-			});*/
-			
 			this.encoder.writeData(this.context, this.stream.id(), value, 0, false, this.context.voidPromise());
 			this.context.channel().flush();
 		}
@@ -144,7 +181,7 @@ public class Http2Exchange extends AbstractExchange {
 	protected void onCompleteEmpty() {
 		Http2ResponseHeaders headers = (Http2ResponseHeaders)this.response.headers();
 		Http2ResponseTrailers trailers = (Http2ResponseTrailers)this.response.trailers();
-		this.encoder.writeHeaders(this.context, this.stream.id(), headers.getUnderlyingHeaders(), 0, trailers == null, this.context.voidPromise());
+		this.encoder.writeHeaders(this.context, this.stream.id(), this.preProcessResponseInternals(headers), 0, trailers == null, this.context.voidPromise());
 		headers.setWritten(true);
 		if(trailers != null) {
 			this.encoder.writeHeaders(this.context, this.stream.id(), trailers.getUnderlyingTrailers(), 0, true, this.context.voidPromise());
@@ -156,7 +193,7 @@ public class Http2Exchange extends AbstractExchange {
 	@Override
 	protected void onCompleteSingle(ByteBuf value) {
 		Http2ResponseHeaders headers = (Http2ResponseHeaders)this.response.headers();
-		this.encoder.writeHeaders(this.context, this.stream.id(), headers.getUnderlyingHeaders(), 0, false, this.context.voidPromise());
+		this.encoder.writeHeaders(this.context, this.stream.id(), this.preProcessResponseInternals(headers), 0, false, this.context.voidPromise());
 		headers.setWritten(true);
 		Http2ResponseTrailers trailers = (Http2ResponseTrailers)this.response.trailers();
 		this.encoder.writeData(this.context, this.stream.id(), value, 0, trailers == null, this.context.voidPromise());
@@ -173,7 +210,7 @@ public class Http2Exchange extends AbstractExchange {
 		Http2ResponseHeaders headers = (Http2ResponseHeaders)this.response.headers();
 		Http2ResponseTrailers trailers = (Http2ResponseTrailers)this.response.trailers();
 		if(!headers.isWritten()) {
-			this.encoder.writeHeaders(this.context, this.stream.id(), headers.getUnderlyingHeaders(), 0, trailers == null, this.context.voidPromise());
+			this.encoder.writeHeaders(this.context, this.stream.id(), this.preProcessResponseInternals(headers), 0, trailers == null, this.context.voidPromise());
 			headers.setWritten(true);
 			if(trailers != null) {
 				this.encoder.writeHeaders(this.context, this.stream.id(), trailers.getUnderlyingTrailers(), 0, true, this.context.voidPromise());
@@ -15,7 +15,11 @@
  */
 package io.inverno.mod.http.server.internal.http2;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2LocalFlowController;
+import io.netty.handler.codec.http2.Http2Stream;
 import io.inverno.mod.base.converter.ObjectConverter;
 import io.inverno.mod.base.net.URIBuilder;
 import io.inverno.mod.base.net.URIs;
@@ -33,6 +37,12 @@ import io.inverno.mod.http.server.internal.multipart.MultipartDecoder;
  * HTTP/2 {@link Request} implementation.
  * </p>
  * 
+ * <p>
+ * Request body data are returned to the local flow controller as they are
+ * consumed by the exchange handler, the stream flow control window then
+ * bounds the amount of request body data buffered for the stream.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -47,19 +57,86 @@ public class Http2Request extends AbstractRequest {
 	private String authority;
 	private String path;
 	
+	private final Http2Stream stream;
+	private final Http2LocalFlowController flowController;
+	
+	private int bufferedBodySize;
+	
 	/**
 	 * <p>
 	 * Creates a HTTP/2 server request.
 	 * </p>
 	 * 
 	 * @param context
+	 * @param stream
+	 * @param flowController
 	 * @param requestHeaders
 	 * @param parameterConverter
 	 * @param urlEncodedBodyDecoder
 	 * @param multipartBodyDecoder
 	 */
-	public Http2Request(ChannelHandlerContext context, RequestHeaders requestHeaders, ObjectConverter<String> parameterConverter, MultipartDecoder<Parameter> urlEncodedBodyDecoder, MultipartDecoder<Part> multipartBodyDecoder) {
+	public Http2Request(ChannelHandlerContext context, Http2Stream stream, Http2LocalFlowController flowController, RequestHeaders requestHeaders, ObjectConverter<String> parameterConverter, MultipartDecoder<Parameter> urlEncodedBodyDecoder, MultipartDecoder<Part> multipartBodyDecoder) {
 		super(context, requestHeaders, parameterConverter, urlEncodedBodyDecoder, multipartBodyDecoder);
+		this.stream = stream;
+		this.flowController = flowController;
+	}
+	
+	/**
+	 * <p>
+	 * Invoked in the event loop before a chunk of request payload data is
+	 * emitted in the request data sink.
+	 * </p>
+	 * 
+	 * @param chunk the chunk of data
+	 */
+	void onDataBuffered(ByteBuf chunk) {
+		this.bufferedBodySize += chunk.readableBytes();
+	}
+	
+	@Override
+	protected void onDataConsumed(ByteBuf chunk) {
+		int size = chunk.readableBytes();
+		if(this.context.executor().inEventLoop()) {
+			this.consumeBytes(size);
+		}
+		else {
+			this.context.executor().execute(() -> this.consumeBytes(size));
+		}
+	}
+	
+	@Override
+	public void dispose() {
+		super.dispose();
+		// Remaining buffered data have been dropped and must be returned to the flow controller
+		if(this.context.executor().inEventLoop()) {
+			this.consumeBytes(this.bufferedBodySize);
+		}
+		else {
+			this.context.executor().execute(() -> this.consumeBytes(this.bufferedBodySize));
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Returns the specified amount of consumed bytes to the local flow
+	 * controller which sends a WINDOW_UPDATE frame to the client when needed.
+	 * </p>
+	 * 
+	 * @param size the number of consumed bytes
+	 */
+	private void consumeBytes(int size) {
+		size = Math.min(size, this.bufferedBodySize);
+		if(size > 0) {
+			this.bufferedBodySize -= size;
+			try {
+				if(this.flowController.consumeBytes(this.stream, size)) {
+					this.context.flush();
+				}
+			}
+			catch(Http2Exception e) {
+				this.context.fireExceptionCaught(e);
+			}
+		}
 	}
 	
 	@Override
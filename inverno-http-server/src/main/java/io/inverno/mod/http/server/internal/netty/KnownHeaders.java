@@ -0,0 +1,314 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.http.server.internal.netty;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.AsciiString;
+
+/**
+ * <p>
+ * A table of well-known HTTP header names and common header values.
+ * </p>
+ * 
+ * <p>
+ * Header names are interned as constant {@link AsciiString} so that they can be
+ * compared by identity, and pre-encoded together with their common values so
+ * that a recognized header can be written in a single operation.
+ * </p>
+ * 
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ * 
+ * @see LinkedHttpHeaders
+ */
+public final class KnownHeaders {
+	
+	private static final int TABLE_SIZE = 128;
+	
+	private static final int TABLE_MASK = TABLE_SIZE - 1;
+	
+	private static final Header[] TABLE = new Header[TABLE_SIZE];
+	
+	static {
+		AsciiString[] noValues = {};
+		
+		register(HttpHeaderNames.ACCEPT, noValues);
+		register(HttpHeaderNames.ACCEPT_CHARSET, noValues);
+		register(HttpHeaderNames.ACCEPT_ENCODING, new AsciiString[] { AsciiString.cached("gzip, deflate"), AsciiString.cached("gzip, deflate, br") });
+		register(HttpHeaderNames.ACCEPT_LANGUAGE, noValues);
+		register(HttpHeaderNames.ACCEPT_RANGES, new AsciiString[] { HttpHeaderValues.BYTES, HttpHeaderValues.NONE });
+		register(HttpHeaderNames.ACCESS_CONTROL_ALLOW_CREDENTIALS, new AsciiString[] { AsciiString.cached("true") });
+		register(HttpHeaderNames.ACCESS_CONTROL_ALLOW_HEADERS, noValues);
+		register(HttpHeaderNames.ACCESS_CONTROL_ALLOW_METHODS, noValues);
+		register(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, new AsciiString[] { AsciiString.cached("*") });
+		register(HttpHeaderNames.ACCESS_CONTROL_EXPOSE_HEADERS, noValues);
+		register(HttpHeaderNames.ACCESS_CONTROL_MAX_AGE, noValues);
+		register(HttpHeaderNames.AGE, noValues);
+		register(HttpHeaderNames.ALLOW, noValues);
+		register(HttpHeaderNames.AUTHORIZATION, noValues);
+		register(HttpHeaderNames.CACHE_CONTROL, new AsciiString[] { HttpHeaderValues.NO_CACHE, HttpHeaderValues.NO_STORE, HttpHeaderValues.MAX_AGE.concat("=0") });
+		register(HttpHeaderNames.CONNECTION, new AsciiString[] { HttpHeaderValues.CLOSE, HttpHeaderValues.KEEP_ALIVE, HttpHeaderValues.UPGRADE });
+		register(HttpHeaderNames.CONTENT_DISPOSITION, noValues);
+		register(HttpHeaderNames.CONTENT_ENCODING, new AsciiString[] { HttpHeaderValues.GZIP, HttpHeaderValues.DEFLATE, AsciiString.cached("br"), HttpHeaderValues.IDENTITY });
+		register(HttpHeaderNames.CONTENT_LANGUAGE, noValues);
+		register(HttpHeaderNames.CONTENT_LENGTH, new AsciiString[] { HttpHeaderValues.ZERO });
+		register(HttpHeaderNames.CONTENT_LOCATION, noValues);
+		register(HttpHeaderNames.CONTENT_RANGE, noValues);
+		register(HttpHeaderNames.CONTENT_TYPE, new AsciiString[] { 
+			HttpHeaderValues.APPLICATION_JSON, 
+			HttpHeaderValues.TEXT_PLAIN, 
+			HttpHeaderValues.TEXT_HTML, 
+			AsciiString.cached("text/event-stream"), 
+			HttpHeaderValues.APPLICATION_OCTET_STREAM, 
+			HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED,
+			AsciiString.cached("application/json;charset=utf-8"),
+			AsciiString.cached("text/plain;charset=utf-8"),
+			AsciiString.cached("text/html;charset=utf-8")
+		});
+		register(HttpHeaderNames.COOKIE, noValues);
+		register(HttpHeaderNames.DATE, noValues);
+		register(HttpHeaderNames.ETAG, noValues);
+		register(HttpHeaderNames.EXPECT, new AsciiString[] { HttpHeaderValues.CONTINUE });
+		register(HttpHeaderNames.EXPIRES, new AsciiString[] { HttpHeaderValues.ZERO });
+		register(HttpHeaderNames.HOST, noValues);
+		register(HttpHeaderNames.IF_MATCH, noValues);
+		register(HttpHeaderNames.IF_MODIFIED_SINCE, noValues);
+		register(HttpHeaderNames.IF_NONE_MATCH, noValues);
+		register(HttpHeaderNames.IF_RANGE, noValues);
+		register(HttpHeaderNames.IF_UNMODIFIED_SINCE, noValues);
+		register(HttpHeaderNames.KEEP_ALIVE, noValues);
+		register(HttpHeaderNames.LAST_MODIFIED, noValues);
+		register(HttpHeaderNames.LOCATION, noValues);
+		register(HttpHeaderNames.ORIGIN, noValues);
+		register(HttpHeaderNames.PRAGMA, new AsciiString[] { HttpHeaderValues.NO_CACHE });
+		register(HttpHeaderNames.RANGE, noValues);
+		register(HttpHeaderNames.REFERER, noValues);
+		register(HttpHeaderNames.SERVER, noValues);
+		register(HttpHeaderNames.SET_COOKIE, noValues);
+		register(HttpHeaderNames.TE, new AsciiString[] { HttpHeaderValues.TRAILERS });
+		register(HttpHeaderNames.TRAILER, noValues);
+		register(HttpHeaderNames.TRANSFER_ENCODING, new AsciiString[] { HttpHeaderValues.CHUNKED });
+		register(HttpHeaderNames.UPGRADE, new AsciiString[] { AsciiString.cached("h2c"), HttpHeaderValues.WEBSOCKET });
+		register(HttpHeaderNames.USER_AGENT, noValues);
+		register(HttpHeaderNames.VARY, new AsciiString[] { HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderNames.ORIGIN });
+		register(HttpHeaderNames.WWW_AUTHENTICATE, noValues);
+		register(HttpHeaderNames.X_FRAME_OPTIONS, new AsciiString[] { AsciiString.cached("DENY"), AsciiString.cached("SAMEORIGIN") });
+		register(AsciiString.cached("x-content-type-options"), new AsciiString[] { AsciiString.cached("nosniff") });
+		register(AsciiString.cached("x-forwarded-for"), noValues);
+		register(AsciiString.cached("x-forwarded-host"), noValues);
+		register(AsciiString.cached("x-forwarded-proto"), new AsciiString[] { AsciiString.cached("http"), AsciiString.cached("https") });
+		register(AsciiString.cached("x-request-id"), noValues);
+	}
+	
+	private KnownHeaders() {}
+	
+	/**
+	 * <p>
+	 * Registers a known header in the table.
+	 * </p>
+	 * 
+	 * @param name   the header name
+	 * @param values the common header values
+	 */
+	private static void register(AsciiString name, AsciiString[] values) {
+		Header header = new Header(name, values);
+		int index = header.hashCode & TABLE_MASK;
+		while(TABLE[index] != null) {
+			index = (index + 1) & TABLE_MASK;
+		}
+		TABLE[index] = header;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the known header corresponding to the specified header name.
+	 * </p>
+	 * 
+	 * @param name     a header name
+	 * @param hashCode the case insensitive hash code of the name as returned by
+	 *                 {@link AsciiString#hashCode(CharSequence)}
+	 * 
+	 * @return a known header or null if the header is not a known header
+	 */
+	public static Header lookup(CharSequence name, int hashCode) {
+		int index = hashCode & TABLE_MASK;
+		Header header;
+		while( (header = TABLE[index]) != null) {
+			if(header.hashCode == hashCode && (header.name == name || AsciiString.contentEqualsIgnoreCase(header.name, name))) {
+				return header;
+			}
+			index = (index + 1) & TABLE_MASK;
+		}
+		return null;
+	}
+	
+	/**
+	 * <p>
+	 * A known header.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	public static final class Header {
+		
+		private static final byte[] COLON_AND_SPACE = { ':', ' ' };
+		
+		private static final byte[] CRLF = { '\r', '\n' };
+		
+		private final AsciiString name;
+		
+		private final int hashCode;
+		
+		private final byte[] encodedName;
+		
+		private final AsciiString[] values;
+		
+		private final byte[][] encodedHeaders;
+		
+		private final int maxValueLength;
+		
+		/**
+		 * <p>
+		 * Creates a known header.
+		 * </p>
+		 * 
+		 * @param name   the header name
+		 * @param values the common header values
+		 */
+		private Header(AsciiString name, AsciiString[] values) {
+			this.name = name;
+			this.hashCode = AsciiString.hashCode(name);
+			this.encodedName = concat(name.toByteArray(), COLON_AND_SPACE);
+			this.values = values;
+			this.encodedHeaders = new byte[values.length][];
+			int maxValueLength = 0;
+			for(int i=0;i<values.length;i++) {
+				this.encodedHeaders[i] = concat(this.encodedName, values[i].toByteArray(), CRLF);
+				maxValueLength = Math.max(maxValueLength, values[i].length());
+			}
+			this.maxValueLength = maxValueLength;
+		}
+		
+		private static byte[] concat(byte[]... arrays) {
+			int length = 0;
+			for(byte[] array : arrays) {
+				length += array.length;
+			}
+			byte[] result = new byte[length];
+			int offset = 0;
+			for(byte[] array : arrays) {
+				System.arraycopy(array, 0, result, offset, array.length);
+				offset += array.length;
+			}
+			return result;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the header name.
+		 * </p>
+		 * 
+		 * @return the header name
+		 */
+		public AsciiString getName() {
+			return this.name;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the case insensitive hash code of the header name.
+		 * </p>
+		 * 
+		 * @return the hash code of the header name
+		 */
+		public int getHashCode() {
+			return this.hashCode;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the header name followed by a colon and a space encoded in
+		 * US-ASCII.
+		 * </p>
+		 * 
+		 * <p>
+		 * The returned array must not be modified.
+		 * </p>
+		 * 
+		 * @return the encoded header name
+		 */
+		public byte[] getEncodedName() {
+			return this.encodedName;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the index of the specified value in the common values of the
+		 * header.
+		 * </p>
+		 * 
+		 * @param value a header value
+		 * 
+		 * @return the index of the value or -1 if the value is not a common value
+		 */
+		public int valueIndex(CharSequence value) {
+			int length = value.length();
+			if(length > this.maxValueLength) {
+				return -1;
+			}
+			for(int i=0;i<this.values.length;i++) {
+				AsciiString commonValue = this.values[i];
+				if(commonValue == value || (commonValue.length() == length && commonValue.contentEquals(value))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		/**
+		 * <p>
+		 * Returns the common value at the specified index.
+		 * </p>
+		 * 
+		 * @param valueIndex a value index
+		 * 
+		 * @return a common header value
+		 */
+		public AsciiString getValue(int valueIndex) {
+			return this.values[valueIndex];
+		}
+		
+		/**
+		 * <p>
+		 * Returns the whole header line with the common value at the specified
+		 * index encoded in US-ASCII.
+		 * </p>
+		 * 
+		 * <p>
+		 * The returned array must not be modified.
+		 * </p>
+		 * 
+		 * @param valueIndex a value index
+		 * 
+		 * @return the encoded header line
+		 */
+		public byte[] getEncodedHeader(int valueIndex) {
+			return this.encodedHeaders[valueIndex];
+		}
+	}
+}
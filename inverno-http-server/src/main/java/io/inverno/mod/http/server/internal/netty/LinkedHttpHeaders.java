@@ -22,9 +22,9 @@ import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -32,6 +32,7 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Function;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
@@ -49,6 +50,17 @@ import io.netty.util.AsciiString;
  * and the tail of the list for fast access.
  * </p>
  * 
+ * <p>
+ * Well-known header names and common values are interned using
+ * {@link KnownHeaders} so that they can be compared by identity and encoded
+ * from pre-encoded bytes.
+ * </p>
+ * 
+ * <p>
+ * The number of hash buckets grows with the number of headers in order to
+ * keep bucket chains short when a large number of headers is received.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -58,7 +70,15 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	
 	private HeaderNode tail;
 	
-	private HeaderNode[] buckets = new HeaderNode[16];
+	private static final int MIN_BUCKETS = 16;
+	
+	private static final int MAX_BUCKETS = 256;
+	
+	private HeaderNode[] buckets = new HeaderNode[MIN_BUCKETS];
+	
+	private int bucketMask = MIN_BUCKETS - 1;
+	
+	private int size;
 	
 	public LinkedHttpHeaders() {
 		this.head = this.tail = new HeaderNode();
@@ -82,14 +102,25 @@ public class LinkedHttpHeaders extends HttpHeaders {
 		}
 	}
 	
+	private static boolean matches(HeaderNode node, CharSequence name, int hashCode, KnownHeaders.Header knownHeader) {
+		if(node.hashCode != hashCode) {
+			return false;
+		}
+		if(knownHeader != null || node.knownHeader != null) {
+			// Known header names are interned
+			return knownHeader == node.knownHeader;
+		}
+		CharSequence key = node.key;
+		return name == key || AsciiString.contentEqualsIgnoreCase(name, key);
+	}
+	
 	private CharSequence get0(CharSequence name) {
 		int hashCode = AsciiString.hashCode(name);
-		int bucketIndex = hashCode & 0x0000000F;
-		HeaderNode current = buckets[bucketIndex];
+		KnownHeaders.Header knownHeader = KnownHeaders.lookup(name, hashCode);
+		HeaderNode current = this.buckets[hashCode & this.bucketMask];
 		CharSequence value = null;
 		while (current != null) {
-			CharSequence key = current.key;
-			if (current.hashCode == hashCode && (name == key || AsciiString.contentEqualsIgnoreCase(name, key))) {
+			if (matches(current, name, hashCode, knownHeader)) {
 				value = current.getValue();
 			}
 			current = current.bucketNext;
@@ -115,74 +146,133 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	
 	@Override
 	public List<String> getAll(CharSequence name) {
-		LinkedList<String> values = new LinkedList<>();
-	    int h = AsciiString.hashCode(name);
-	    int i = h & 0x0000000F;
-	    HeaderNode e = buckets[i];
-	    while (e != null) {
-	      CharSequence key = e.key;
-	      if (e.hashCode == h && (name == key || AsciiString.contentEqualsIgnoreCase(name, key))) {
-	        values.addFirst(e.getValue().toString());
-	      }
-	      e = e.bucketNext;
-	    }
-	    return values;
+		return this.getAll0(name, CharSequence::toString);
 	}
 	
 	public List<CharSequence> getAllCharSequence(CharSequence name) {
-		LinkedList<CharSequence> values = new LinkedList<>();
-	    int h = AsciiString.hashCode(name);
-	    int i = h & 0x0000000F;
-	    HeaderNode e = buckets[i];
-	    while (e != null) {
-	      CharSequence key = e.key;
-	      if (e.hashCode == h && (name == key || AsciiString.contentEqualsIgnoreCase(name, key))) {
-	        values.addFirst(e.getValue());
-	      }
-	      e = e.bucketNext;
-	    }
-	    return values;
+		return this.getAll0(name, Function.identity());
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> List<T> getAll0(CharSequence name, Function<CharSequence, T> mapper) {
+		int hashCode = AsciiString.hashCode(name);
+		KnownHeaders.Header knownHeader = KnownHeaders.lookup(name, hashCode);
+		HeaderNode first = null;
+		int count = 0;
+		for(HeaderNode current = this.buckets[hashCode & this.bucketMask];current != null;current = current.bucketNext) {
+			if(matches(current, name, hashCode, knownHeader)) {
+				if(first == null) {
+					first = current;
+				}
+				count++;
+			}
+		}
+		if(count == 0) {
+			return Collections.emptyList();
+		}
+		else if(count == 1) {
+			return Collections.singletonList(mapper.apply(first.value));
+		}
+		// Bucket chains are in reverse insertion order
+		Object[] values = new Object[count];
+		for(HeaderNode current = first;current != null;current = current.bucketNext) {
+			if(matches(current, name, hashCode, knownHeader)) {
+				values[--count] = mapper.apply(current.value);
+			}
+		}
+		return (List<T>)Arrays.asList(values);
 	}
 	
 	public CharSequence getCharSequence(CharSequence name) {
 		return this.get0(name);
 	}
 	
+	/**
+	 * <p>
+	 * Parses a decimal number from the specified value without creating any
+	 * intermediary String.
+	 * </p>
+	 * 
+	 * @param value a header value
+	 * @param min   the minimum value
+	 * @param max   the maximum value
+	 * 
+	 * @return a number
+	 * 
+	 * @throws NumberFormatException if the value is not a valid number in the
+	 *                               specified range
+	 */
+	static long parseLong(CharSequence value, long min, long max) throws NumberFormatException {
+		int length = value.length();
+		if(length == 0) {
+			throw new NumberFormatException("Empty value");
+		}
+		AsciiString asciiValue = value instanceof AsciiString ? (AsciiString)value : null;
+		int index = 0;
+		boolean negative = false;
+		char first = asciiValue != null ? (char)asciiValue.byteAt(0) : value.charAt(0);
+		if(first == '-' || first == '+') {
+			negative = first == '-';
+			if(++index == length) {
+				throw new NumberFormatException("Invalid number: " + value);
+			}
+		}
+		// Accumulate negatively to handle Long.MIN_VALUE
+		long limit = negative ? min : -max;
+		long multiplyMin = limit / 10;
+		long result = 0;
+		for(;index < length;index++) {
+			int digit = (asciiValue != null ? (char)asciiValue.byteAt(index) : value.charAt(index)) - '0';
+			if(digit < 0 || digit > 9) {
+				throw new NumberFormatException("Invalid number: " + value);
+			}
+			if(result < multiplyMin) {
+				throw new NumberFormatException("Number out of range: " + value);
+			}
+			result *= 10;
+			if(result < limit + digit) {
+				throw new NumberFormatException("Number out of range: " + value);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+	
 	@Override
 	public Integer getInt(CharSequence name) {
-		String value = this.get(name);
-		return value != null ? Integer.parseInt(value) : null;
+		CharSequence value = this.get0(name);
+		return value != null ? (int)parseLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE) : null;
 	}
 
 	@Override
 	public int getInt(CharSequence name, int defaultValue) {
 		Objects.requireNonNull(name);
-		String value = this.get(name);
-		return value != null ? Integer.parseInt(value) : defaultValue;
+		CharSequence value = this.get0(name);
+		return value != null ? (int)parseLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE) : defaultValue;
 	}
 	
 	public Long getLong(CharSequence name) {
-		String value = this.get(name);
-		return value != null ? Long.parseLong(value) : null;
+		CharSequence value = this.get0(name);
+		return value != null ? parseLong(value, Long.MIN_VALUE, Long.MAX_VALUE) : null;
 	}
 
 	public long getLong(CharSequence name, long defaultValue) {
 		Objects.requireNonNull(name);
-		String value = this.get(name);
-		return value != null ? Long.parseLong(value) : defaultValue;
+		CharSequence value = this.get0(name);
+		return value != null ? parseLong(value, Long.MIN_VALUE, Long.MAX_VALUE) : defaultValue;
 	}
 
 	@Override
 	public Short getShort(CharSequence name) {
-		String value = this.get(name);
-		return value != null ? Short.parseShort(value) : null;
+		CharSequence value = this.get0(name);
+		return value != null ? (short)parseLong(value, Short.MIN_VALUE, Short.MAX_VALUE) : null;
 	}
 
 	@Override
 	public short getShort(CharSequence name, short defaultValue) {
 		Objects.requireNonNull(name);
-		String value = this.get(name);
-		return value != null ? Short.parseShort(value) : defaultValue;
+		CharSequence value = this.get0(name);
+		return value != null ? (short)parseLong(value, Short.MIN_VALUE, Short.MAX_VALUE) : defaultValue;
 	}
 
 	@Override
@@ -199,20 +289,35 @@ public class LinkedHttpHeaders extends HttpHeaders {
 
 	private void add0(CharSequence name, CharSequence value) {
 		int hashCode = AsciiString.hashCode(name);
-		int bucketIndex = hashCode & 0x0000000F;
-		this.add0(name, value, hashCode, bucketIndex);
+		this.add0(name, value, hashCode, KnownHeaders.lookup(name, hashCode));
 	}
 	
-	private void add0(CharSequence name, CharSequence value, int hashCode, int bucketIndex) {
-		HeaderNode bucketHead = buckets[bucketIndex];
+	private void add0(CharSequence name, CharSequence value, int hashCode, KnownHeaders.Header knownHeader) {
+		if(this.size >= this.buckets.length && this.buckets.length < MAX_BUCKETS) {
+			this.resize(this.buckets.length << 1);
+		}
+		int bucketIndex = hashCode & this.bucketMask;
+		HeaderNode bucketHead = this.buckets[bucketIndex];
 		HeaderNode newNode;
-		buckets[bucketIndex] = newNode = new HeaderNode(hashCode, name, value);
+		this.buckets[bucketIndex] = newNode = knownHeader != null ? new HeaderNode(knownHeader, value) : new HeaderNode(hashCode, name, value);
 		newNode.bucketNext = bucketHead;
 		
 		HeaderNode head = this.head;
 		this.head = newNode;
 		head.previous = newNode;
 		newNode.next = head;
+		this.size++;
+	}
+	
+	private void resize(int bucketCount) {
+		this.buckets = new HeaderNode[bucketCount];
+		this.bucketMask = bucketCount - 1;
+		// Re-insert from the oldest to the newest header to keep bucket chains in reverse insertion order
+		for(HeaderNode current = this.tail.previous;current != null;current = current.previous) {
+			int bucketIndex = current.hashCode & this.bucketMask;
+			current.bucketNext = this.buckets[bucketIndex];
+			this.buckets[bucketIndex] = current;
+		}
 	}
 
 	@Override
@@ -239,9 +344,9 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	@Override
 	public HttpHeaders add(CharSequence name, Iterable<?> values) {
 		int hashCode = AsciiString.hashCode(name);
-	    int bucketIndex = hashCode & 0x0000000F;
+	    KnownHeaders.Header knownHeader = KnownHeaders.lookup(name, hashCode);
 	    for (Object value : values) {
-	    	this.add0(name, this.convertToCharSequence(value), hashCode, bucketIndex);
+	    	this.add0(name, this.convertToCharSequence(value), hashCode, knownHeader);
 	    }
 	    return this;
 	}
@@ -253,9 +358,9 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	
 	public HttpHeaders addCharSequence(CharSequence name, Iterable<CharSequence> values) {
 		int hashCode = AsciiString.hashCode(name);
-	    int bucketIndex = hashCode & 0x0000000F;
+	    KnownHeaders.Header knownHeader = KnownHeaders.lookup(name, hashCode);
 	    for (CharSequence value : values) {
-	    	this.add0(name, value, hashCode, bucketIndex);
+	    	this.add0(name, value, hashCode, knownHeader);
 	    }
 	    return this;
 	}
@@ -279,14 +384,13 @@ public class LinkedHttpHeaders extends HttpHeaders {
 
 	private LinkedHttpHeaders set0(CharSequence name, CharSequence value) {
 		int hashCode = AsciiString.hashCode(name);
-		int bucketIndex = hashCode & 0x0000000F;
-		return this.set0(name, value, hashCode, bucketIndex);
+		return this.set0(name, value, hashCode, KnownHeaders.lookup(name, hashCode));
 	}
 	
-	private LinkedHttpHeaders set0(CharSequence name, CharSequence value, int hashCode, int bucketIndex) {
-		remove0(name, hashCode, bucketIndex);
+	private LinkedHttpHeaders set0(CharSequence name, CharSequence value, int hashCode, KnownHeaders.Header knownHeader) {
+		remove0(name, hashCode, knownHeader);
 		if (value != null) {
-			add0(name, value, hashCode, bucketIndex);
+			add0(name, value, hashCode, knownHeader);
 		}
 		return this;
 	}
@@ -316,9 +420,9 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	@Override
 	public HttpHeaders set(CharSequence name, Iterable<?> values) {
 		int hashCode = AsciiString.hashCode(name);
-	    int bucketIndex = hashCode & 0x0000000F;
+	    KnownHeaders.Header knownHeader = KnownHeaders.lookup(name, hashCode);
 	    for (Object value : values) {
-	    	this.set0(name, this.convertToCharSequence(value), hashCode, bucketIndex);
+	    	this.set0(name, this.convertToCharSequence(value), hashCode, knownHeader);
 	    }
 	    return this;
 	}
@@ -330,9 +434,9 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	
 	public HttpHeaders setCharSequence(CharSequence name, Iterable<CharSequence> values) {
 		int hashCode = AsciiString.hashCode(name);
-	    int bucketIndex = hashCode & 0x0000000F;
+	    KnownHeaders.Header knownHeader = KnownHeaders.lookup(name, hashCode);
 	    for (CharSequence value : values) {
-	    	this.set0(name, value, hashCode, bucketIndex);
+	    	this.set0(name, value, hashCode, knownHeader);
 	    }
 	    return this;
 	}
@@ -356,16 +460,15 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	
 	private void remove0(CharSequence name) {
 		int hashCode = AsciiString.hashCode(name);
-		int bucketIndex = hashCode & 0x0000000F;
-		this.remove0(name, hashCode, bucketIndex);
+		this.remove0(name, hashCode, KnownHeaders.lookup(name, hashCode));
 	}
 	
-	private void remove0(CharSequence name, int hashCode, int bucketIndex) {
-		HeaderNode current = buckets[bucketIndex];
+	private void remove0(CharSequence name, int hashCode, KnownHeaders.Header knownHeader) {
+		int bucketIndex = hashCode & this.bucketMask;
+		HeaderNode current = this.buckets[bucketIndex];
 		HeaderNode previous = null;
 		while (current != null) {
-			CharSequence key = current.key;
-			if (current.hashCode == hashCode && (name == key || AsciiString.contentEqualsIgnoreCase(name, key))) {
+			if (matches(current, name, hashCode, knownHeader)) {
 				if(previous == null) {
 					this.buckets[bucketIndex] = current.bucketNext;
 				}
@@ -380,6 +483,7 @@ public class LinkedHttpHeaders extends HttpHeaders {
 					current.previous.next = current.next;
 					current.next.previous = current.previous;
 				}
+				this.size--;
 			}
 			else {
 				previous = current;
@@ -403,6 +507,7 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	public HttpHeaders clear() {
 		Arrays.fill(this.buckets, null);
 		this.tail.previous = null;
+		this.size = 0;
 		this.head = this.tail;
 		return this;
 	}
@@ -435,11 +540,10 @@ public class LinkedHttpHeaders extends HttpHeaders {
 
 	private boolean contains0(CharSequence name, CharSequence value, boolean ignoreCase) {
 		int hashCode = AsciiString.hashCode(name);
-		int bucketIndex = hashCode & 0x0000000F;
-		HeaderNode current = buckets[bucketIndex];
+		KnownHeaders.Header knownHeader = KnownHeaders.lookup(name, hashCode);
+		HeaderNode current = this.buckets[hashCode & this.bucketMask];
 		while (current != null) {
-			CharSequence key = current.key;
-			if (current.hashCode == hashCode && (name == key || AsciiString.contentEqualsIgnoreCase(name, key))) {
+			if (matches(current, name, hashCode, knownHeader)) {
 				CharSequence currentValue = current.getValue();
 				return currentValue == value || (ignoreCase && AsciiString.contentEqualsIgnoreCase(currentValue, value)) || AsciiString.contentEquals(currentValue, value);
 			}
@@ -475,12 +579,7 @@ public class LinkedHttpHeaders extends HttpHeaders {
 
 	@Override
 	public int size() {
-		int size = 0;
-		HeaderNode current = this.head;
-		while(current != null) {
-			size++;
-		}
-		return size;
+		return this.size;
 	}
 
 	@Override
@@ -530,7 +629,17 @@ public class LinkedHttpHeaders extends HttpHeaders {
 	public void encode(ByteBuf buf) {
 		HeaderNode current = this.tail.previous;
 		while (current != null) {
-			encoderHeader(current.key, current.value, buf);
+			if(current.knownHeader != null) {
+				if(current.valueIndex >= 0) {
+					buf.writeBytes(current.knownHeader.getEncodedHeader(current.valueIndex));
+				}
+				else {
+					encoderHeader(current.knownHeader.getEncodedName(), current.value, buf);
+				}
+			}
+			else {
+				encoderHeader(current.key, current.value, buf);
+			}
 			current = current.previous;
 		}
 	}
@@ -555,6 +664,21 @@ public class LinkedHttpHeaders extends HttpHeaders {
 		buf.writerIndex(offset);
 	}
 
+	static void encoderHeader(byte[] encodedName, CharSequence value, ByteBuf buf) {
+		final int nameLen = encodedName.length;
+		final int valueLen = value.length();
+		final int headerLen = nameLen + valueLen + 2;
+		buf.ensureWritable(headerLen);
+		int offset = buf.writerIndex();
+		buf.setBytes(offset, encodedName);
+		offset += nameLen;
+		writeAscii(buf, offset, value);
+		offset += valueLen;
+		ByteBufUtil.setShortBE(buf, offset, CRLF_SHORT);
+		offset += 2;
+		buf.writerIndex(offset);
+	}
+
 	private static void writeAscii(ByteBuf buf, int offset, CharSequence value) {
 		if (value instanceof AsciiString) {
 			ByteBufUtil.copy((AsciiString) value, 0, buf, offset, value.length());
@@ -568,7 +692,9 @@ public class LinkedHttpHeaders extends HttpHeaders {
 
 		final CharSequence key;
 		final int hashCode;
+		final KnownHeaders.Header knownHeader;
 		CharSequence value;
+		int valueIndex;
 		
 		HeaderNode next, previous;
 		HeaderNode bucketNext;
@@ -576,13 +702,24 @@ public class LinkedHttpHeaders extends HttpHeaders {
 		private HeaderNode() {
 			this.hashCode = -1;
 			this.key = null;
+			this.knownHeader = null;
 			this.value = null;
+			this.valueIndex = -1;
 		}
 		
 		private HeaderNode(int hashCode, CharSequence key, CharSequence value) {
 			this.hashCode = hashCode;
 			this.key = key;
+			this.knownHeader = null;
 			this.value = value;
+			this.valueIndex = -1;
+		}
+		
+		private HeaderNode(KnownHeaders.Header knownHeader, CharSequence value) {
+			this.hashCode = knownHeader.getHashCode();
+			this.key = knownHeader.getName();
+			this.knownHeader = knownHeader;
+			this.setValue(value);
 		}
 		
 		@Override
@@ -599,6 +736,13 @@ public class LinkedHttpHeaders extends HttpHeaders {
 		public CharSequence setValue(CharSequence value) {
 			CharSequence previousValue = this.value;
 			this.value = value;
+			this.valueIndex = -1;
+			if(this.knownHeader != null) {
+				this.valueIndex = this.knownHeader.valueIndex(value);
+				if(this.valueIndex >= 0) {
+					this.value = this.knownHeader.getValue(this.valueIndex);
+				}
+			}
 			return previousValue;
 		}
 	}
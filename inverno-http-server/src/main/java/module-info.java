@@ -58,6 +58,9 @@ import io.inverno.mod.http.base.Parameter;
  * <dd>the HTTP server root exchange handler</dd>
  * <dt>errorHandler</dt>
  * <dd>the HTTP server error exchange handler</dd>
+ * <dt>httpServerStatistics</dt>
+ * <dd>the HTTP server statistics exposing the number of connections reclaimed
+ * on timeouts</dd>
  * </dl>
  * 
  * <p>
@@ -0,0 +1,49 @@
+package io.inverno.mod.http.server.internal;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.inverno.mod.http.server.internal.GenericResponseBody.ByteRange;
+
+public class ByteRangeTest {
+
+	@Test
+	public void testParse() {
+		List<ByteRange> ranges = ByteRange.parse("bytes=0-99", 1000);
+		Assertions.assertEquals(1, ranges.size());
+		Assertions.assertEquals(0, ranges.get(0).getStart());
+		Assertions.assertEquals(99, ranges.get(0).getEnd());
+		Assertions.assertEquals(100, ranges.get(0).getLength());
+		Assertions.assertEquals("bytes 0-99/1000", ranges.get(0).toContentRange(1000));
+
+		ranges = ByteRange.parse("bytes=900-, -50, 500-2000", 1000);
+		Assertions.assertEquals(3, ranges.size());
+		Assertions.assertEquals(900, ranges.get(0).getStart());
+		Assertions.assertEquals(999, ranges.get(0).getEnd());
+		Assertions.assertEquals(950, ranges.get(1).getStart());
+		Assertions.assertEquals(999, ranges.get(1).getEnd());
+		Assertions.assertEquals(500, ranges.get(2).getStart());
+		Assertions.assertEquals(999, ranges.get(2).getEnd());
+
+		ranges = ByteRange.parse("bytes=-2000", 1000);
+		Assertions.assertEquals(0, ranges.get(0).getStart());
+		Assertions.assertEquals(999, ranges.get(0).getEnd());
+	}
+
+	@Test
+	public void testParseUnsatisfiable() {
+		Assertions.assertTrue(ByteRange.parse("bytes=1000-", 1000).isEmpty());
+		Assertions.assertTrue(ByteRange.parse("bytes=-0", 1000).isEmpty());
+	}
+
+	@Test
+	public void testParseInvalid() {
+		Assertions.assertNull(ByteRange.parse("items=0-1", 1000));
+		Assertions.assertNull(ByteRange.parse("bytes=10-5", 1000));
+		Assertions.assertNull(ByteRange.parse("bytes=a-b", 1000));
+		Assertions.assertNull(ByteRange.parse("bytes=5", 1000));
+		Assertions.assertNull(ByteRange.parse("bytes=0-0,1-1,2-2,3-3,4-4,5-5,6-6,7-7,8-8,9-9,10-10,11-11,12-12,13-13,14-14,15-15,16-16", 1000));
+	}
+}
@@ -0,0 +1,302 @@
+package io.inverno.mod.http.server.internal;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import io.inverno.mod.base.converter.StringConverter;
+import io.inverno.mod.base.resource.FileResource;
+import io.inverno.mod.http.base.header.Headers;
+import io.inverno.mod.http.base.internal.header.ContentTypeCodec;
+import io.inverno.mod.http.base.internal.header.GenericHeaderService;
+import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
+import io.inverno.mod.http.server.internal.http1x.Http1xChannelHandler;
+import io.inverno.mod.http.server.internal.http1x.Http1xRequestDecoder;
+import io.inverno.mod.http.server.internal.http2.Http2Response;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.ReferenceCountUtil;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+public class GenericResponseBodyTest {
+
+	private static final String LAST_MODIFIED = "Fri, 01 Jan 2021 00:00:00 GMT";
+
+	private static Path file;
+
+	@BeforeAll
+	public static void init() throws IOException {
+		file = Files.createTempFile("resource", ".txt");
+		Files.write(file, "Hello world!".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2021-01-01T00:00:00.500Z")));
+	}
+
+	@AfterAll
+	public static void destroy() throws IOException {
+		Files.delete(file);
+	}
+
+	private static EmbeddedChannel createChannel(ExchangeHandler<Exchange> rootHandler) {
+		HttpServerConfiguration configuration = new HttpServerConfiguration() {};
+		Http1xChannelHandler handler = new Http1xChannelHandler(
+			configuration,
+			rootHandler,
+			errorExchange -> errorExchange.response().headers(h -> h.status(500)).body().empty(),
+			new GenericHeaderService(List.of(new ContentTypeCodec())),
+			new StringConverter(),
+			null,
+			null,
+			new GenericHttpServerStatistics(),
+			new ServerHeaders(configuration)
+		);
+		return new EmbeddedChannel(new Http1xRequestDecoder(0), handler);
+	}
+	
+	private static HttpResponseStatus serve(String method, String requestHeaders) {
+		EmbeddedChannel channel = createChannel(exchange -> {
+			try(FileResource resource = new FileResource(file.toUri())) {
+				exchange.response().headers(h -> h.set(Headers.NAME_ETAG, "\"abc\"")).body().resource().value(resource);
+			}
+		});
+		try {
+			channel.writeInbound(Unpooled.copiedBuffer(method + " / HTTP/1.1\r\n" + requestHeaders + "\r\n", StandardCharsets.US_ASCII));
+			Object msg;
+			while( (msg = channel.readOutbound()) != null) {
+				try {
+					if(msg instanceof HttpResponse) {
+						return ((HttpResponse)msg).status();
+					}
+				}
+				finally {
+					ReferenceCountUtil.release(msg);
+				}
+			}
+			return null;
+		}
+		finally {
+			channel.finishAndReleaseAll();
+		}
+	}
+
+	@Test
+	public void testIfNoneMatch() {
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("GET", "If-None-Match: \"abc\"\r\n"));
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("HEAD", "If-None-Match: \"abc\"\r\n"));
+		// Weak comparison
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("GET", "If-None-Match: \"xyz\", W/\"abc\"\r\n"));
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("GET", "If-None-Match: \"xyz\"\r\nIf-None-Match: \"abc\"\r\n"));
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("GET", "If-None-Match: *\r\n"));
+
+		Assertions.assertEquals(HttpResponseStatus.OK, serve("GET", "If-None-Match: \"xyz\"\r\n"));
+		// Only GET and HEAD requests are concerned
+		Assertions.assertEquals(HttpResponseStatus.OK, serve("POST", "If-None-Match: \"abc\"\r\n"));
+	}
+
+	@Test
+	public void testIfModifiedSince() {
+		// HTTP dates have a one second resolution
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("GET", "If-Modified-Since: " + LAST_MODIFIED + "\r\n"));
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("GET", "If-Modified-Since: Sat, 02 Jan 2021 00:00:00 GMT\r\n"));
+
+		Assertions.assertEquals(HttpResponseStatus.OK, serve("GET", "If-Modified-Since: Thu, 31 Dec 2020 23:59:59 GMT\r\n"));
+		// Invalid dates are ignored
+		Assertions.assertEquals(HttpResponseStatus.OK, serve("GET", "If-Modified-Since: yesterday\r\n"));
+	}
+
+	@Test
+	public void testIfNoneMatchPrecedence() {
+		// If-Modified-Since is ignored when If-None-Match is specified
+		Assertions.assertEquals(HttpResponseStatus.OK, serve("GET", "If-None-Match: \"xyz\"\r\nIf-Modified-Since: " + LAST_MODIFIED + "\r\n"));
+		Assertions.assertEquals(HttpResponseStatus.NOT_MODIFIED, serve("GET", "If-None-Match: \"abc\"\r\nIf-Modified-Since: Thu, 31 Dec 2020 23:59:59 GMT\r\n"));
+	}
+
+	@Test
+	public void testSseReleasesData() {
+		ByteBuf data = Unpooled.copiedBuffer("a\nb", StandardCharsets.UTF_8);
+		EmbeddedChannel channel = createChannel(exchange -> exchange.response().body().sse().from((events, eventData) -> eventData.stream(Flux.just(events.create(event -> event.id("1").value(data))))));
+		try {
+			channel.writeInbound(Unpooled.copiedBuffer("GET / HTTP/1.1\r\n\r\n", StandardCharsets.US_ASCII));
+			StringBuilder body = new StringBuilder();
+			Object msg;
+			while( (msg = channel.readOutbound()) != null) {
+				try {
+					if(msg instanceof HttpContent) {
+						body.append(((HttpContent)msg).content().toString(StandardCharsets.UTF_8));
+					}
+				}
+				finally {
+					ReferenceCountUtil.release(msg);
+				}
+			}
+			Assertions.assertTrue(body.toString().contains("data:a\r\ndata:b\r\n\r\n"));
+			// The event data must be released once escaped
+			Assertions.assertEquals(0, data.refCnt());
+		}
+		finally {
+			channel.finishAndReleaseAll();
+		}
+	}
+
+	private static GenericResponseBody createResponseBody(TrackingByteBufAllocator allocator, int fileBufferCapacity) {
+		EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+		channel.config().setAllocator(allocator);
+		Http2Response response = new Http2Response(channel.pipeline().firstContext(), new GenericHeaderService(List.of(new ContentTypeCodec())), new StringConverter());
+		response.body().setFileBufferCapacity(fileBufferCapacity);
+		return response.body();
+	}
+
+	private static List<String> readChunks(Publisher<ByteBuf> data) {
+		return Flux.from(data)
+			.map(chunk -> {
+				try {
+					return chunk.toString(StandardCharsets.UTF_8);
+				}
+				finally {
+					chunk.release();
+				}
+			})
+			.collectList()
+			.block();
+	}
+
+	@Test
+	public void testReadFileChunks() {
+		TrackingByteBufAllocator allocator = new TrackingByteBufAllocator();
+		GenericResponseBody body = createResponseBody(allocator, 5);
+		try(FileResource resource = new FileResource(file.toUri())) {
+			body.resource().value(resource);
+
+			// Chunks are sized to the file buffer capacity
+			Assertions.assertEquals(List.of("Hello", " worl", "d!"), readChunks(body.getData()));
+		}
+		allocator.assertReleased(3);
+	}
+
+	@Test
+	public void testReadFileRange() {
+		TrackingByteBufAllocator allocator = new TrackingByteBufAllocator();
+		GenericResponseBody body = createResponseBody(allocator, 5);
+		try(FileResource resource = new FileResource(file.toUri())) {
+			((GenericResponseBody.GenericResponseBodyResourceData)body.resource()).setData(resource, new GenericResponseBody.ByteRange(2, 8));
+
+			Assertions.assertEquals(List.of("llo w", "or"), readChunks(body.getData()));
+		}
+		allocator.assertReleased(2);
+	}
+
+	@Test
+	public void testReadFileRanges() {
+		TrackingByteBufAllocator allocator = new TrackingByteBufAllocator();
+		GenericResponseBody body = createResponseBody(allocator, 5);
+		try(FileResource resource = new FileResource(file.toUri())) {
+			List<GenericResponseBody.ByteRange> ranges = List.of(new GenericResponseBody.ByteRange(0, 1), new GenericResponseBody.ByteRange(6, 10));
+			List<ByteBuf> delimiters = List.of(
+				Unpooled.unreleasableBuffer(Unpooled.copiedBuffer("[", StandardCharsets.UTF_8)),
+				Unpooled.unreleasableBuffer(Unpooled.copiedBuffer("|", StandardCharsets.UTF_8)),
+				Unpooled.unreleasableBuffer(Unpooled.copiedBuffer("]", StandardCharsets.UTF_8))
+			);
+			((GenericResponseBody.GenericResponseBodyResourceData)body.resource()).setData(resource, ranges, delimiters);
+
+			// Each range is read from its own position in the same file channel
+			Assertions.assertEquals(List.of("[", "He", "|", "world", "]"), readChunks(body.getData()));
+		}
+		allocator.assertReleased(2);
+	}
+
+	@Test
+	public void testReadFileCancel() throws Exception {
+		TrackingByteBufAllocator allocator = new TrackingByteBufAllocator();
+		GenericResponseBody body = createResponseBody(allocator, 5);
+		List<ReadableByteChannel> fileChannels = new ArrayList<>();
+		try(FileResource resource = new FileResource(file.toUri()) {
+
+			@Override
+			public Optional<ReadableByteChannel> openReadableByteChannel() {
+				Optional<ReadableByteChannel> fileChannel = super.openReadableByteChannel();
+				fileChannel.ifPresent(fileChannels::add);
+				return fileChannel;
+			}
+		}) {
+			body.resource().value(resource);
+			Assertions.assertEquals(1, fileChannels.size());
+
+			CompletableFuture<SignalType> terminated = new CompletableFuture<>();
+			Flux.from(body.getData()).subscribe(new BaseSubscriber<ByteBuf>() {
+
+				@Override
+				protected void hookOnSubscribe(Subscription subscription) {
+					subscription.request(1);
+				}
+
+				@Override
+				protected void hookOnNext(ByteBuf value) {
+					value.release();
+					this.cancel();
+				}
+
+				@Override
+				protected void hookFinally(SignalType type) {
+					terminated.complete(type);
+				}
+			});
+			Assertions.assertEquals(SignalType.CANCEL, terminated.get(5, TimeUnit.SECONDS));
+
+			// Only the requested chunk is read and the file channel is closed on cancel
+			Assertions.assertFalse(fileChannels.get(0).isOpen());
+		}
+		allocator.assertReleased(1);
+	}
+
+	/**
+	 * An allocator which keeps track of the direct buffers it allocates in order to check that file chunks are released.
+	 */
+	private static class TrackingByteBufAllocator extends UnpooledByteBufAllocator {
+
+		private final List<ByteBuf> buffers = new CopyOnWriteArrayList<>();
+
+		public TrackingByteBufAllocator() {
+			super(false);
+		}
+
+		@Override
+		protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+			ByteBuf buffer = super.newDirectBuffer(initialCapacity, maxCapacity);
+			this.buffers.add(buffer);
+			return buffer;
+		}
+
+		public void assertReleased(int expectedCount) {
+			Assertions.assertEquals(expectedCount, this.buffers.size());
+			for(ByteBuf buffer : this.buffers) {
+				Assertions.assertEquals(0, buffer.refCnt());
+			}
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package io.inverno.mod.http.server.internal;
+
+import java.net.SocketAddress;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.inverno.mod.base.converter.StringConverter;
+import io.inverno.mod.base.net.NetService;
+import io.inverno.mod.http.base.internal.header.ContentTypeCodec;
+import io.inverno.mod.http.base.internal.header.GenericHeaderService;
+import io.inverno.mod.http.server.HttpServerConfiguration;
+import io.inverno.mod.http.server.internal.http1x.Http1xChannelHandler;
+import io.inverno.mod.http.server.internal.http1x.Http1xRequestDecoder;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.timeout.IdleStateHandler;
+
+public class HttpChannelConfigurerTest {
+
+	private static final NetService NET_SERVICE = new NetService() {
+
+		@Override
+		public TransportType getTransportType() {
+			return TransportType.NIO;
+		}
+
+		@Override
+		public EventLoopGroup getAcceptorEventLoopGroup() {
+			return null;
+		}
+
+		@Override
+		public EventLoopGroup createIoEventLoopGroup() {
+			return null;
+		}
+
+		@Override
+		public EventLoopGroup createIoEventLoopGroup(int nThreads) {
+			return null;
+		}
+
+		@Override
+		public Bootstrap createClient(SocketAddress socketAddress) {
+			return null;
+		}
+
+		@Override
+		public Bootstrap createClient(SocketAddress socketAddress, int nThreads) {
+			return null;
+		}
+
+		@Override
+		public ServerBootstrap createServer(SocketAddress socketAddress) {
+			return null;
+		}
+
+		@Override
+		public ServerBootstrap createServer(SocketAddress socketAddress, int nThreads) {
+			return null;
+		}
+
+		@Override
+		public ByteBufAllocator getByteBufAllocator() {
+			return UnpooledByteBufAllocator.DEFAULT;
+		}
+
+		@Override
+		public ByteBufAllocator getDirectByteBufAllocator() {
+			return UnpooledByteBufAllocator.DEFAULT;
+		}
+	};
+
+	private static EmbeddedChannel configure(HttpServerConfiguration configuration) {
+		HttpChannelConfigurer configurer = new HttpChannelConfigurer(
+			configuration,
+			NET_SERVICE,
+			() -> null,
+			() -> new Http1xChannelHandler(
+				configuration,
+				exchange -> exchange.response().body().empty(),
+				errorExchange -> errorExchange.response().headers(h -> h.status(500)).body().empty(),
+				new GenericHeaderService(List.of(new ContentTypeCodec())),
+				new StringConverter(),
+				null,
+				null,
+				new GenericHttpServerStatistics(),
+				new ServerHeaders(configuration)
+			),
+			() -> null
+		);
+		EmbeddedChannel channel = new EmbeddedChannel();
+		configurer.configure(channel.pipeline());
+		return channel;
+	}
+
+	@Test
+	public void testConfigureTimeouts() {
+		EmbeddedChannel channel = configure(new HttpServerConfiguration() {});
+
+		IdleStateHandler idleStateHandler = channel.pipeline().get(IdleStateHandler.class);
+		Assertions.assertNotNull(idleStateHandler);
+		Assertions.assertSame(idleStateHandler, channel.pipeline().first());
+		Assertions.assertEquals(0, idleStateHandler.getReaderIdleTimeInMillis());
+		Assertions.assertEquals(60000, idleStateHandler.getWriterIdleTimeInMillis());
+		Assertions.assertEquals(60000, idleStateHandler.getAllIdleTimeInMillis());
+		Assertions.assertNotNull(channel.pipeline().get(Http1xRequestDecoder.class));
+		Assertions.assertNotNull(channel.pipeline().get(Http1xChannelHandler.class));
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testConfigureIdleTimeoutOnly() {
+		EmbeddedChannel channel = configure(new HttpServerConfiguration() {
+
+			@Override
+			public long response_write_timeout() {
+				return 0;
+			}
+		});
+
+		IdleStateHandler idleStateHandler = channel.pipeline().get(IdleStateHandler.class);
+		Assertions.assertNotNull(idleStateHandler);
+		Assertions.assertEquals(0, idleStateHandler.getWriterIdleTimeInMillis());
+		Assertions.assertEquals(60000, idleStateHandler.getAllIdleTimeInMillis());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testConfigureTimeoutsDisabled() {
+		EmbeddedChannel channel = configure(new HttpServerConfiguration() {
+
+			@Override
+			public long idle_timeout() {
+				return 0;
+			}
+
+			@Override
+			public long response_write_timeout() {
+				return -1;
+			}
+		});
+
+		Assertions.assertNull(channel.pipeline().get(IdleStateHandler.class));
+		Assertions.assertNotNull(channel.pipeline().get(Http1xChannelHandler.class));
+		channel.finishAndReleaseAll();
+	}
+}
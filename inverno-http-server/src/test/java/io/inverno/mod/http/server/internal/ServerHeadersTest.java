@@ -0,0 +1,60 @@
+package io.inverno.mod.http.server.internal;
+
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.inverno.mod.http.base.header.Headers;
+import io.inverno.mod.http.server.HttpServerConfiguration;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+public class ServerHeadersTest {
+
+	@Test
+	public void testDisabled() {
+		ServerHeaders serverHeaders = new ServerHeaders(new HttpServerConfiguration() {});
+		Assertions.assertNull(serverHeaders.getDate(GlobalEventExecutor.INSTANCE));
+		Assertions.assertNull(serverHeaders.getServer());
+	}
+
+	@Test
+	public void testEnabled() throws InterruptedException {
+		ServerHeaders serverHeaders = new ServerHeaders(new HttpServerConfiguration() {
+
+			@Override
+			public boolean date_header_enabled() {
+				return true;
+			}
+
+			@Override
+			public String server_header() {
+				return "inverno";
+			}
+		});
+		Assertions.assertEquals("inverno", serverHeaders.getServer().toString());
+
+		// The embedded event loop only runs the refresh task when pending tasks are explicitly run
+		EmbeddedChannel channel = new EmbeddedChannel();
+		EventExecutor eventLoop = channel.eventLoop();
+		try {
+			CharSequence date = serverHeaders.getDate(eventLoop);
+			Assertions.assertNotNull(ZonedDateTime.parse(date, Headers.FORMATTER_RFC_1123_DATE_TIME));
+			// The value is cached in the event loop
+			Assertions.assertSame(date, serverHeaders.getDate(eventLoop));
+
+			// The value is refreshed at the beginning of the next second
+			Thread.sleep(1100);
+			channel.runPendingTasks();
+			CharSequence refreshedDate = serverHeaders.getDate(eventLoop);
+			Assertions.assertNotSame(date, refreshedDate);
+			Assertions.assertTrue(ZonedDateTime.parse(refreshedDate, Headers.FORMATTER_RFC_1123_DATE_TIME).isAfter(ZonedDateTime.parse(date, Headers.FORMATTER_RFC_1123_DATE_TIME)));
+		}
+		finally {
+			serverHeaders.destroy();
+			channel.finishAndReleaseAll();
+		}
+	}
+}
@@ -0,0 +1,486 @@
+package io.inverno.mod.http.server.internal.http1x;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.inverno.mod.base.converter.StringConverter;
+import io.inverno.mod.http.base.internal.header.ContentTypeCodec;
+import io.inverno.mod.http.base.internal.header.GenericHeaderService;
+import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
+import io.inverno.mod.http.server.internal.GenericHttpServerStatistics;
+import io.inverno.mod.http.server.internal.HttpServer;
+import io.inverno.mod.http.server.internal.ServerHeaders;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class Http1xChannelHandlerTest {
+
+	private static final HttpServerConfiguration CONCURRENT_PIPELINING_CONFIGURATION = new HttpServerConfiguration() {
+
+		@Override
+		public boolean concurrent_pipelining_enabled() {
+			return true;
+		}
+	};
+
+	private static EmbeddedChannel createChannel(HttpServerConfiguration configuration, List<Sinks.One<ByteBuf>> responses) {
+		return createChannel(configuration, exchange -> {
+			Sinks.One<ByteBuf> response = Sinks.one();
+			responses.add(response);
+			exchange.response().body().raw().stream(response.asMono());
+		});
+	}
+
+	private static EmbeddedChannel createChannel(HttpServerConfiguration configuration, ExchangeHandler<Exchange> rootHandler) {
+		return createChannel(configuration, rootHandler, new GenericHttpServerStatistics());
+	}
+
+	private static EmbeddedChannel createChannel(HttpServerConfiguration configuration, ExchangeHandler<Exchange> rootHandler, GenericHttpServerStatistics statistics) {
+		Http1xChannelHandler handler = new Http1xChannelHandler(
+			configuration,
+			rootHandler,
+			errorExchange -> errorExchange.response().headers(h -> h.status(500)).body().empty(),
+			new GenericHeaderService(List.of(new ContentTypeCodec())),
+			new StringConverter(),
+			null,
+			null,
+			statistics,
+			new ServerHeaders(configuration)
+		);
+		return new EmbeddedChannel(new Http1xRequestDecoder(configuration.request_header_timeout()), handler);
+	}
+
+	private static void write(EmbeddedChannel channel, String data) {
+		channel.writeInbound(Unpooled.copiedBuffer(data, StandardCharsets.US_ASCII));
+	}
+
+	private static FullHttpResponse readResponse(EmbeddedChannel channel) {
+		Object msg;
+		while( (msg = channel.readOutbound()) != null) {
+			if(msg instanceof HttpObject) {
+				return (FullHttpResponse)msg;
+			}
+			ReferenceCountUtil.release(msg);
+		}
+		return null;
+	}
+
+	private static void assertResponse(EmbeddedChannel channel, String expectedContent, boolean expectedClose) {
+		FullHttpResponse response = readResponse(channel);
+		Assertions.assertNotNull(response);
+		try {
+			Assertions.assertEquals(expectedContent, response.content().toString(StandardCharsets.US_ASCII));
+			Assertions.assertEquals(expectedClose, response.headers().contains(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE, true));
+		}
+		finally {
+			response.release();
+		}
+	}
+
+	@Test
+	public void testGracefulShutdownWithPipelinedRequests() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		EmbeddedChannel channel = createChannel(new HttpServerConfiguration() {}, responses);
+
+		write(channel, "GET /1 HTTP/1.1\r\n\r\nGET /2 HTTP/1.1\r\n\r\n");
+		Assertions.assertEquals(1, responses.size());
+
+		channel.pipeline().fireUserEventTriggered(HttpServer.GracefulShutdownEvent.INSTANCE);
+		Assertions.assertTrue(channel.isOpen());
+
+		// The first response must not close the connection since a pipelined request is still in flight
+		responses.get(0).tryEmitValue(Unpooled.copiedBuffer("1", StandardCharsets.US_ASCII));
+		assertResponse(channel, "1", false);
+		Assertions.assertTrue(channel.isOpen());
+		Assertions.assertEquals(2, responses.size());
+
+		// The connection is closed after the last response
+		responses.get(1).tryEmitValue(Unpooled.copiedBuffer("2", StandardCharsets.US_ASCII));
+		assertResponse(channel, "2", true);
+		channel.runPendingTasks();
+		Assertions.assertFalse(channel.isOpen());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testGracefulShutdownWithConcurrentPipelinedRequests() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		EmbeddedChannel channel = createChannel(CONCURRENT_PIPELINING_CONFIGURATION, responses);
+
+		write(channel, "GET /1 HTTP/1.1\r\n\r\nGET /2 HTTP/1.1\r\n\r\n");
+		Assertions.assertEquals(2, responses.size());
+
+		channel.pipeline().fireUserEventTriggered(HttpServer.GracefulShutdownEvent.INSTANCE);
+
+		// The second response is buffered until the first one completes
+		responses.get(1).tryEmitValue(Unpooled.copiedBuffer("2", StandardCharsets.US_ASCII));
+		Assertions.assertNull(readResponse(channel));
+
+		responses.get(0).tryEmitValue(Unpooled.copiedBuffer("1", StandardCharsets.US_ASCII));
+		assertResponse(channel, "1", false);
+		assertResponse(channel, "2", true);
+		channel.runPendingTasks();
+		Assertions.assertFalse(channel.isOpen());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testConcurrentPipelining() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		EmbeddedChannel channel = createChannel(CONCURRENT_PIPELINING_CONFIGURATION, responses);
+
+		write(channel, "GET /1 HTTP/1.1\r\n\r\nGET /2 HTTP/1.1\r\n\r\nGET /3 HTTP/1.1\r\n\r\n");
+		// All exchanges are started right away
+		Assertions.assertEquals(3, responses.size());
+
+		// Responses are sent in the order of the requests
+		responses.get(2).tryEmitValue(Unpooled.copiedBuffer("3", StandardCharsets.US_ASCII));
+		responses.get(1).tryEmitValue(Unpooled.copiedBuffer("2", StandardCharsets.US_ASCII));
+		Assertions.assertNull(readResponse(channel));
+
+		responses.get(0).tryEmitValue(Unpooled.copiedBuffer("1", StandardCharsets.US_ASCII));
+		assertResponse(channel, "1", false);
+		assertResponse(channel, "2", false);
+		assertResponse(channel, "3", false);
+		Assertions.assertTrue(channel.isOpen());
+
+		// The connection is reused
+		write(channel, "GET /4 HTTP/1.1\r\n\r\n");
+		Assertions.assertEquals(4, responses.size());
+		responses.get(3).tryEmitValue(Unpooled.copiedBuffer("4", StandardCharsets.US_ASCII));
+		assertResponse(channel, "4", false);
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testConcurrentPipeliningConnectionClosed() {
+		Sinks.One<ByteBuf> firstResponse = Sinks.one();
+		UncancellablePublisher secondResponse = new UncancellablePublisher();
+		EmbeddedChannel channel = createChannel(CONCURRENT_PIPELINING_CONFIGURATION, exchange -> {
+			if(exchange.request().getPath().equals("/1")) {
+				exchange.response().body().raw().stream(firstResponse.asMono());
+			}
+			else {
+				exchange.response().body().raw().stream(secondResponse);
+			}
+		});
+
+		write(channel, "GET /1 HTTP/1.1\r\n\r\nGET /2 HTTP/1.1\r\n\r\n");
+
+		// The second response is buffered until the first one completes
+		ByteBuf bufferedChunk = Unpooled.copiedBuffer("a", StandardCharsets.US_ASCII);
+		secondResponse.emit(bufferedChunk);
+		Assertions.assertEquals(1, bufferedChunk.refCnt());
+
+		// Buffered frames are released when the connection is closed...
+		channel.close();
+		Assertions.assertEquals(0, bufferedChunk.refCnt());
+
+		// ...as well as frames written afterwards
+		ByteBuf lateChunk = Unpooled.copiedBuffer("b", StandardCharsets.US_ASCII);
+		secondResponse.emit(lateChunk);
+		Assertions.assertEquals(0, lateChunk.refCnt());
+		Assertions.assertNull(readResponse(channel));
+		channel.finishAndReleaseAll();
+	}
+
+	private static final HttpServerConfiguration HIGH_WATER_MARK_CONFIGURATION = new HttpServerConfiguration() {
+
+		@Override
+		public int request_body_high_water_mark() {
+			return 10;
+		}
+	};
+
+	@Test
+	public void testRequestBodyHighWaterMark() {
+		BaseSubscriber<ByteBuf> bodySubscriber = new BaseSubscriber<ByteBuf>() {
+
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				// Data are consumed on demand
+			}
+
+			@Override
+			protected void hookOnNext(ByteBuf value) {
+				value.release();
+			}
+		};
+		EmbeddedChannel channel = createChannel(HIGH_WATER_MARK_CONFIGURATION, exchange -> {
+			exchange.request().body().get().raw().stream().subscribe(bodySubscriber);
+			exchange.response().body().raw().stream(Sinks.<ByteBuf>one().asMono());
+		});
+
+		write(channel, "POST / HTTP/1.1\r\nContent-Length: 12\r\n\r\n123456");
+		Assertions.assertTrue(channel.config().isAutoRead());
+
+		// Reading is suspended when unconsumed data reach the high water mark...
+		write(channel, "789012");
+		Assertions.assertFalse(channel.config().isAutoRead());
+
+		// ...and resumed when they go back below
+		bodySubscriber.request(1);
+		Assertions.assertTrue(channel.config().isAutoRead());
+		bodySubscriber.request(1);
+		Assertions.assertTrue(channel.config().isAutoRead());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testRequestBodyHighWaterMarkWithCancelledBody() {
+		EmbeddedChannel channel = createChannel(HIGH_WATER_MARK_CONFIGURATION, exchange -> {
+			exchange.request().body().get().raw().stream().subscribe(new BaseSubscriber<ByteBuf>() {
+
+				@Override
+				protected void hookOnSubscribe(Subscription subscription) {
+					subscription.cancel();
+				}
+			});
+			exchange.response().body().raw().stream(Sinks.<ByteBuf>one().asMono());
+		});
+
+		// Data which can't be emitted must not be accounted as buffered
+		write(channel, "POST / HTTP/1.1\r\nContent-Length: 12\r\n\r\n123456");
+		write(channel, "789012");
+		Assertions.assertTrue(channel.config().isAutoRead());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testExchangeFinalizer() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		AtomicInteger finalized = new AtomicInteger();
+		EmbeddedChannel channel = createChannel(new HttpServerConfiguration() {}, exchange -> {
+			Sinks.One<ByteBuf> response = Sinks.one();
+			responses.add(response);
+			exchange.finalizer(Mono.fromRunnable(finalized::incrementAndGet));
+			exchange.response().body().raw().stream(response.asMono());
+		});
+
+		write(channel, "GET /1 HTTP/1.1\r\n\r\n");
+		Assertions.assertEquals(0, finalized.get());
+
+		responses.get(0).tryEmitValue(Unpooled.copiedBuffer("1", StandardCharsets.US_ASCII));
+		assertResponse(channel, "1", false);
+		Assertions.assertEquals(1, finalized.get());
+
+		// The finalizer must also be subscribed when the connection is closed before the response is sent
+		write(channel, "GET /2 HTTP/1.1\r\n\r\n");
+		Assertions.assertEquals(2, responses.size());
+		channel.close();
+		Assertions.assertEquals(2, finalized.get());
+		channel.finishAndReleaseAll();
+	}
+
+	private static final HttpServerConfiguration TIMEOUT_CONFIGURATION = new HttpServerConfiguration() {
+
+		@Override
+		public long request_header_timeout() {
+			return 10;
+		}
+	};
+
+	private static ExchangeHandler<Exchange> pendingResponseHandler(List<Sinks.One<ByteBuf>> responses) {
+		return exchange -> {
+			Sinks.One<ByteBuf> response = Sinks.one();
+			responses.add(response);
+			exchange.response().body().raw().stream(response.asMono());
+		};
+	}
+
+	private static void awaitTimeout(EmbeddedChannel channel) {
+		try {
+			Thread.sleep(50);
+		}
+		catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		channel.runPendingTasks();
+	}
+
+	@Test
+	public void testIdleTimeout() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		GenericHttpServerStatistics statistics = new GenericHttpServerStatistics();
+		EmbeddedChannel channel = createChannel(new HttpServerConfiguration() {}, pendingResponseHandler(responses), statistics);
+
+		write(channel, "GET /1 HTTP/1.1\r\n\r\n");
+
+		// An exchange is in progress: the connection is not idle
+		channel.pipeline().fireUserEventTriggered(IdleStateEvent.ALL_IDLE_STATE_EVENT);
+		Assertions.assertTrue(channel.isOpen());
+		Assertions.assertEquals(0, statistics.getIdleConnectionCount());
+
+		responses.get(0).tryEmitValue(Unpooled.copiedBuffer("1", StandardCharsets.US_ASCII));
+		assertResponse(channel, "1", false);
+
+		channel.pipeline().fireUserEventTriggered(IdleStateEvent.ALL_IDLE_STATE_EVENT);
+		channel.runPendingTasks();
+		Assertions.assertFalse(channel.isOpen());
+		Assertions.assertEquals(1, statistics.getIdleConnectionCount());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testRequestHeaderTimeout() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		GenericHttpServerStatistics statistics = new GenericHttpServerStatistics();
+		EmbeddedChannel channel = createChannel(TIMEOUT_CONFIGURATION, pendingResponseHandler(responses), statistics);
+
+		write(channel, "GET /1 HTTP/1.1\r\nHost: local");
+		awaitTimeout(channel);
+
+		FullHttpResponse response = readResponse(channel);
+		Assertions.assertNotNull(response);
+		try {
+			Assertions.assertEquals(408, response.status().code());
+			Assertions.assertTrue(response.headers().contains(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE, true));
+		}
+		finally {
+			response.release();
+		}
+		channel.runPendingTasks();
+		Assertions.assertFalse(channel.isOpen());
+		Assertions.assertTrue(responses.isEmpty());
+		Assertions.assertEquals(1, statistics.getRequestHeaderTimeoutCount());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testRequestHeaderTimeoutDuringResponse() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		GenericHttpServerStatistics statistics = new GenericHttpServerStatistics();
+		EmbeddedChannel channel = createChannel(TIMEOUT_CONFIGURATION, pendingResponseHandler(responses), statistics);
+
+		// The headers of the pipelined request are not received while the first response is in progress
+		write(channel, "GET /1 HTTP/1.1\r\n\r\nGET /2 HTTP/1.1\r\nHost: local");
+		Assertions.assertEquals(1, responses.size());
+		awaitTimeout(channel);
+
+		// A 408 can't be sent in the middle of a response, the connection is simply closed
+		Assertions.assertNull(readResponse(channel));
+		Assertions.assertFalse(channel.isOpen());
+		Assertions.assertEquals(1, statistics.getRequestHeaderTimeoutCount());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testResponseWriteTimeout() {
+		List<Sinks.One<ByteBuf>> responses = new ArrayList<>();
+		GenericHttpServerStatistics statistics = new GenericHttpServerStatistics();
+		EmbeddedChannel channel = createChannel(new HttpServerConfiguration() {}, pendingResponseHandler(responses), statistics);
+
+		write(channel, "GET /1 HTTP/1.1\r\n\r\n");
+
+		// Nothing is waiting to be written to the client: the response is simply slow
+		channel.pipeline().fireUserEventTriggered(IdleStateEvent.WRITER_IDLE_STATE_EVENT);
+		Assertions.assertTrue(channel.isOpen());
+		Assertions.assertEquals(0, statistics.getResponseWriteTimeoutCount());
+
+		// Data pending in the outbound buffer: the client stopped reading
+		channel.write(Unpooled.copiedBuffer("pending", StandardCharsets.US_ASCII));
+		channel.pipeline().fireUserEventTriggered(IdleStateEvent.WRITER_IDLE_STATE_EVENT);
+		channel.runPendingTasks();
+		Assertions.assertFalse(channel.isOpen());
+		Assertions.assertEquals(1, statistics.getResponseWriteTimeoutCount());
+		channel.finishAndReleaseAll();
+	}
+
+	private static final HttpServerConfiguration SINGLE_BATCH_CONFIGURATION = new HttpServerConfiguration() {
+
+		@Override
+		public int response_batch_size() {
+			return 1;
+		}
+	};
+
+	private static String readContent(EmbeddedChannel channel) {
+		StringBuilder content = new StringBuilder();
+		Object msg;
+		while( (msg = channel.readOutbound()) != null) {
+			if(msg instanceof HttpContent) {
+				content.append(((HttpContent)msg).content().toString(StandardCharsets.US_ASCII));
+			}
+			ReferenceCountUtil.release(msg);
+		}
+		return content.toString();
+	}
+
+	@Test
+	public void testResponseDemandFollowsWritability() {
+		Sinks.Many<ByteBuf> data = Sinks.many().unicast().onBackpressureBuffer();
+		AtomicLong requested = new AtomicLong();
+		EmbeddedChannel channel = createChannel(SINGLE_BATCH_CONFIGURATION, exchange -> exchange.response().body().raw().stream(data.asFlux().doOnRequest(requested::addAndGet)));
+
+		write(channel, "GET / HTTP/1.1\r\n\r\n");
+		Assertions.assertEquals(1, requested.get());
+
+		data.tryEmitNext(Unpooled.copiedBuffer("a", StandardCharsets.US_ASCII));
+		Assertions.assertEquals(2, requested.get());
+
+		// Demand is deferred while the channel is not writable...
+		channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+		Assertions.assertFalse(channel.isWritable());
+		data.tryEmitNext(Unpooled.copiedBuffer("b", StandardCharsets.US_ASCII));
+		Assertions.assertEquals(2, requested.get());
+		data.tryEmitNext(Unpooled.copiedBuffer("c", StandardCharsets.US_ASCII));
+		Assertions.assertEquals(2, requested.get());
+
+		// ...and resumed when it becomes writable again
+		channel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+		Assertions.assertEquals(4, requested.get());
+
+		data.tryEmitComplete();
+		Assertions.assertEquals("abc", readContent(channel));
+		channel.finishAndReleaseAll();
+	}
+
+	/**
+	 * A publisher which keeps emitting after its subscription has been cancelled in order to simulate frames written concurrently with the closing of the connection.
+	 */
+	private static class UncancellablePublisher implements Publisher<ByteBuf> {
+
+		private Subscriber<? super ByteBuf> subscriber;
+
+		@Override
+		public void subscribe(Subscriber<? super ByteBuf> subscriber) {
+			this.subscriber = subscriber;
+			subscriber.onSubscribe(new Subscription() {
+
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+		}
+
+		public void emit(ByteBuf chunk) {
+			this.subscriber.onNext(chunk);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package io.inverno.mod.http.server.internal.http1x;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+
+public class Http1xRequestDecoderTest {
+
+	private static void write(EmbeddedChannel channel, String data) {
+		channel.writeInbound(Unpooled.copiedBuffer(data, StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	public void testDecodeRequest() {
+		EmbeddedChannel channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "\r\nGET /path?a=b HTTP/1.1\r\nHost: localhost\r\nContent-Type:  text/plain \r\nX-Folded: a\r\n b\r\n\r\n");
+
+		HttpRequest request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().isSuccess());
+		Assertions.assertSame(HttpMethod.GET, request.method());
+		Assertions.assertSame(HttpVersion.HTTP_1_1, request.protocolVersion());
+		Assertions.assertEquals("/path?a=b", request.uri());
+		Assertions.assertEquals("localhost", request.headers().get("host"));
+		Assertions.assertEquals("text/plain", request.headers().get("content-type"));
+		Assertions.assertEquals("a b", request.headers().get("x-folded"));
+		Assertions.assertSame(LastHttpContent.EMPTY_LAST_CONTENT, channel.readInbound());
+		Assertions.assertNull(channel.readInbound());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testDecodeFixedLengthContent() {
+		EmbeddedChannel channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "POST /upload HTTP/1.1\r\nContent-Len");
+		Assertions.assertNull(channel.readInbound());
+		write(channel, "gth: 11\r\n\r\nhello");
+
+		HttpRequest request = channel.readInbound();
+		Assertions.assertSame(HttpMethod.POST, request.method());
+		HttpContent content = channel.readInbound();
+		Assertions.assertFalse(content instanceof LastHttpContent);
+		Assertions.assertEquals("hello", content.content().toString(StandardCharsets.US_ASCII));
+		content.release();
+
+		write(channel, " worldGET / HTTP/1.1\r\n\r\n");
+		LastHttpContent lastContent = channel.readInbound();
+		Assertions.assertEquals(" world", lastContent.content().toString(StandardCharsets.US_ASCII));
+		lastContent.release();
+
+		request = channel.readInbound();
+		Assertions.assertSame(HttpMethod.GET, request.method());
+		Assertions.assertSame(LastHttpContent.EMPTY_LAST_CONTENT, channel.readInbound());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testDecodeChunkedContent() {
+		EmbeddedChannel channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "PUT /chunked HTTP/1.1\r\nTransfer-Encoding: chunked\r\nContent-Length: 100\r\n\r\n5;ext=1\r\nhello\r\n6\r\n world\r\n0\r\nX-Trailer: value\r\n\r\n");
+
+		HttpRequest request = channel.readInbound();
+		Assertions.assertSame(HttpMethod.PUT, request.method());
+		Assertions.assertFalse(request.headers().contains("content-length"));
+
+		StringBuilder body = new StringBuilder();
+		HttpContent content;
+		while(!((content = channel.readInbound()) instanceof LastHttpContent)) {
+			body.append(content.content().toString(StandardCharsets.US_ASCII));
+			content.release();
+		}
+		Assertions.assertEquals("hello world", body.toString());
+		Assertions.assertEquals("value", ((LastHttpContent)content).trailingHeaders().get("x-trailer"));
+		content.release();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testDecodeTransferEncoding() {
+		EmbeddedChannel channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "PUT /chunked HTTP/1.1\r\nTransfer-Encoding: identity\r\nTransfer-Encoding: gzip , Chunked\r\nContent-Length: 100\r\n\r\n5\r\nhello\r\n0\r\n\r\n");
+
+		HttpRequest request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().isSuccess());
+		Assertions.assertFalse(request.headers().contains("content-length"));
+		HttpContent content = channel.readInbound();
+		Assertions.assertEquals("hello", content.content().toString(StandardCharsets.US_ASCII));
+		content.release();
+		Assertions.assertTrue(channel.readInbound() instanceof LastHttpContent);
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testDecodeInvalidTransferEncoding() {
+		// chunked is not a transfer coding
+		EmbeddedChannel channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "POST / HTTP/1.1\r\nTransfer-Encoding: xchunked\r\nContent-Length: 5\r\n\r\nhello");
+		HttpRequest request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().isFailure());
+		channel.finishAndReleaseAll();
+
+		// chunked is not the final coding
+		channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked, identity\r\n\r\n5\r\nhello\r\n0\r\n\r\n");
+		request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().isFailure());
+		channel.finishAndReleaseAll();
+
+		// chunked is not the final coding across multiple headers
+		channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTransfer-Encoding: gzip\r\n\r\n5\r\nhello\r\n0\r\n\r\n");
+		request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().isFailure());
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void testDecodeInvalidRequest() {
+		EmbeddedChannel channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "GET /\r\n\r\n");
+		HttpRequest request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().isFailure());
+
+		channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		write(channel, "GET / HTTP/1.1\r\nInvalid Name: value\r\n\r\n");
+		request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().isFailure());
+
+		channel = new EmbeddedChannel(new Http1xRequestDecoder(0));
+		StringBuilder header = new StringBuilder("GET / HTTP/1.1\r\nX-Large: ");
+		for(int i=0;i<9000;i++) {
+			header.append('a');
+		}
+		write(channel, header.toString());
+		request = channel.readInbound();
+		Assertions.assertTrue(request.decoderResult().cause() instanceof TooLongFrameException);
+		Assertions.assertTrue(request.decoderResult().cause().getMessage().startsWith("HTTP header is larger than"));
+		channel.finishAndReleaseAll();
+	}
+}
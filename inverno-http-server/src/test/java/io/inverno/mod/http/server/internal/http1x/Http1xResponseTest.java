@@ -0,0 +1,32 @@
+package io.inverno.mod.http.server.internal.http1x;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.inverno.mod.base.Charsets;
+import io.inverno.mod.http.base.Status;
+import io.netty.buffer.Unpooled;
+
+public class Http1xResponseTest {
+
+	@Test
+	public void testRecycle() {
+		Http1xResponse response = new Http1xResponse(null, null, null);
+		response.headers(h -> h.status(Status.NOT_FOUND).contentType("text/plain"));
+		response.body().raw().value(Unpooled.copiedBuffer("Hello", Charsets.DEFAULT));
+		response.headers().setWritten(true);
+		Assertions.assertTrue(response.isSingle());
+
+		response.recycle();
+		Assertions.assertThrows(IllegalStateException.class, () -> response.headers());
+		Assertions.assertThrows(IllegalStateException.class, () -> response.body());
+		Assertions.assertThrows(IllegalStateException.class, () -> response.trailers(t -> {}));
+
+		response.reuse();
+		Assertions.assertFalse(response.isHeadersWritten());
+		Assertions.assertFalse(response.isSingle());
+		Assertions.assertEquals(200, response.headers().getStatusCode());
+		Assertions.assertFalse(response.headers().getContentType().isPresent());
+		Assertions.assertNull(response.trailers());
+	}
+}
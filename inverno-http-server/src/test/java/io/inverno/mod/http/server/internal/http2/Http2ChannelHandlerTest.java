@@ -0,0 +1,246 @@
+package io.inverno.mod.http.server.internal.http2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import io.inverno.mod.base.converter.StringConverter;
+import io.inverno.mod.http.base.internal.header.ContentTypeCodec;
+import io.inverno.mod.http.base.internal.header.GenericHeaderService;
+import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.HttpServerConfiguration;
+import io.inverno.mod.http.server.internal.GenericHttpServerStatistics;
+import io.inverno.mod.http.server.internal.ServerHeaders;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http2.DefaultHttp2FrameReader;
+import io.netty.handler.codec.http2.DefaultHttp2FrameWriter;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2FrameAdapter;
+import io.netty.handler.codec.http2.Http2FrameListener;
+import io.netty.handler.codec.http2.Http2FrameReader;
+import io.netty.handler.codec.http2.Http2FrameWriter;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2Settings;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Sinks;
+
+public class Http2ChannelHandlerTest {
+
+	private static final HttpServerConfiguration SINGLE_BATCH_CONFIGURATION = new HttpServerConfiguration() {
+
+		@Override
+		public int response_batch_size() {
+			return 1;
+		}
+	};
+
+	private static Http2ChannelHandler createHandler(HttpServerConfiguration configuration, ExchangeHandler<Exchange> rootHandler) {
+		return new Http2ChannelHandlerFactory(
+			configuration,
+			rootHandler,
+			errorExchange -> errorExchange.response().headers(h -> h.status(500)).body().empty(),
+			new GenericHeaderService(List.of(new ContentTypeCodec())),
+			new StringConverter(),
+			null,
+			null,
+			new GenericHttpServerStatistics(),
+			new ServerHeaders(configuration)
+		).get();
+	}
+
+	private static Http2Headers headers(String method, String path) {
+		return new DefaultHttp2Headers().method(method).path(path).scheme("http").authority("localhost");
+	}
+
+	@Test
+	public void testResponseDemandFollowsFlowControlWindow() throws Http2Exception {
+		Sinks.Many<ByteBuf> data = Sinks.many().unicast().onBackpressureBuffer();
+		AtomicLong requested = new AtomicLong();
+		Http2Client client = new Http2Client(createHandler(SINGLE_BATCH_CONFIGURATION, exchange -> exchange.response().body().raw().stream(data.asFlux().doOnRequest(requested::addAndGet))), new Http2Settings().initialWindowSize(4));
+
+		client.writeHeaders(1, headers("GET", "/"), true);
+		Assertions.assertEquals(1, requested.get());
+
+		// Demand is deferred once the stream flow control window is exhausted...
+		data.tryEmitNext(Unpooled.copiedBuffer("abcd", StandardCharsets.US_ASCII));
+		Assertions.assertEquals(1, requested.get());
+		data.tryEmitNext(Unpooled.copiedBuffer("e", StandardCharsets.US_ASCII));
+		Assertions.assertEquals(1, requested.get());
+		Assertions.assertEquals("abcd", client.readData(1));
+
+		// ...and resumed when the client updates the window
+		client.writeWindowUpdate(1, 10);
+		Assertions.assertEquals(3, requested.get());
+		Assertions.assertEquals("e", client.readData(1));
+
+		data.tryEmitComplete();
+		client.close();
+	}
+
+	private static int unconsumedBytes(Http2ChannelHandler handler, int streamId) {
+		return handler.decoder().flowController().unconsumedBytes(handler.connection().stream(streamId));
+	}
+
+	@Test
+	public void testRequestDataReturnedOnConsume() {
+		BaseSubscriber<ByteBuf> bodySubscriber = new BaseSubscriber<ByteBuf>() {
+
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				// Data are consumed on demand
+			}
+
+			@Override
+			protected void hookOnNext(ByteBuf value) {
+				value.release();
+			}
+		};
+		Http2ChannelHandler handler = createHandler(new HttpServerConfiguration() {}, exchange -> {
+			exchange.request().body().get().raw().stream().subscribe(bodySubscriber);
+			exchange.response().body().raw().stream(Sinks.<ByteBuf>one().asMono());
+		});
+		Http2Client client = new Http2Client(handler, new Http2Settings());
+
+		client.writeHeaders(1, headers("POST", "/"), false);
+		client.writeData(1, "12345", false);
+		client.writeData(1, "678", false);
+		Assertions.assertEquals(8, unconsumedBytes(handler, 1));
+
+		// Bytes are returned to the flow controller as they are consumed
+		bodySubscriber.request(1);
+		Assertions.assertEquals(3, unconsumedBytes(handler, 1));
+		bodySubscriber.request(1);
+		Assertions.assertEquals(0, unconsumedBytes(handler, 1));
+		client.close();
+	}
+
+	@Test
+	public void testRequestDataReturnedOnDispose() {
+		Sinks.One<ByteBuf> response = Sinks.one();
+		Http2ChannelHandler handler = createHandler(new HttpServerConfiguration() {}, exchange -> {
+			// The request body is never subscribed
+			exchange.request().body();
+			exchange.response().body().raw().stream(response.asMono());
+		});
+		Http2Client client = new Http2Client(handler, new Http2Settings());
+
+		client.writeHeaders(1, headers("POST", "/"), false);
+		client.writeData(1, "12345", false);
+		Assertions.assertEquals(5, unconsumedBytes(handler, 1));
+
+		// Buffered bytes are returned when the exchange is disposed, the stream remains open on the client side
+		response.tryEmitValue(Unpooled.copiedBuffer("a", StandardCharsets.US_ASCII));
+		Assertions.assertNotNull(handler.connection().stream(1));
+		Assertions.assertEquals(0, unconsumedBytes(handler, 1));
+		client.close();
+	}
+
+	@Test
+	public void testRequestDataReturnedWithoutBody() {
+		Http2ChannelHandler handler = createHandler(new HttpServerConfiguration() {}, exchange -> {
+			exchange.response().body().raw().stream(Sinks.<ByteBuf>one().asMono());
+		});
+		Http2Client client = new Http2Client(handler, new Http2Settings());
+
+		// There's no request data sink, bytes are returned immediately
+		client.writeHeaders(1, headers("POST", "/"), false);
+		client.writeData(1, "12345", false);
+		Assertions.assertEquals(0, unconsumedBytes(handler, 1));
+		client.close();
+	}
+
+	/**
+	 * A minimal HTTP/2 client writing frames to and reading frames from the server channel.
+	 */
+	private static class Http2Client {
+
+		private final EmbeddedChannel channel;
+		private final EmbeddedChannel clientChannel;
+		private final ChannelHandlerContext context;
+		private final Http2FrameWriter frameWriter;
+		private final Http2FrameReader frameReader;
+
+		public Http2Client(Http2ChannelHandler handler, Http2Settings settings) {
+			this.channel = new EmbeddedChannel(handler);
+			// Frames are encoded in the outbound buffer of the client channel before being written to the server channel
+			this.clientChannel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+			this.context = this.clientChannel.pipeline().firstContext();
+			this.frameWriter = new DefaultHttp2FrameWriter();
+			this.frameReader = new DefaultHttp2FrameReader();
+
+			this.channel.writeInbound(Http2CodecUtil.connectionPrefaceBuf());
+			this.frameWriter.writeSettings(this.context, settings, this.context.newPromise());
+			this.flush();
+		}
+
+		public void writeHeaders(int streamId, Http2Headers headers, boolean endOfStream) {
+			this.frameWriter.writeHeaders(this.context, streamId, headers, 0, endOfStream, this.context.newPromise());
+			this.flush();
+		}
+
+		public void writeData(int streamId, String data, boolean endOfStream) {
+			this.frameWriter.writeData(this.context, streamId, Unpooled.copiedBuffer(data, StandardCharsets.US_ASCII), 0, endOfStream, this.context.newPromise());
+			this.flush();
+		}
+
+		public void writeWindowUpdate(int streamId, int windowSizeIncrement) {
+			this.frameWriter.writeWindowUpdate(this.context, streamId, windowSizeIncrement, this.context.newPromise());
+			this.flush();
+		}
+
+		private void flush() {
+			this.clientChannel.flush();
+			ByteBuf frame;
+			while( (frame = this.clientChannel.readOutbound()) != null) {
+				this.channel.writeInbound(frame);
+			}
+		}
+
+		public void read(Http2FrameListener listener) throws Http2Exception {
+			// A frame can span multiple buffers, the reader expects complete frames
+			ByteBuf frames = Unpooled.buffer();
+			try {
+				ByteBuf frame;
+				while( (frame = this.channel.readOutbound()) != null) {
+					frames.writeBytes(frame);
+					frame.release();
+				}
+				this.frameReader.readFrame(this.context, frames, listener);
+			}
+			finally {
+				frames.release();
+			}
+		}
+
+		public String readData(int streamId) throws Http2Exception {
+			StringBuilder data = new StringBuilder();
+			this.read(new Http2FrameAdapter() {
+
+				@Override
+				public int onDataRead(ChannelHandlerContext ctx, int frameStreamId, ByteBuf payload, int padding, boolean endOfStream) throws Http2Exception {
+					if(frameStreamId == streamId) {
+						data.append(payload.toString(StandardCharsets.US_ASCII));
+					}
+					return payload.readableBytes() + padding;
+				}
+			});
+			return data.toString();
+		}
+
+		public void close() {
+			this.channel.finishAndReleaseAll();
+			this.clientChannel.finishAndReleaseAll();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package io.inverno.mod.http.server.internal.netty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.AsciiString;
+
+public class LinkedHttpHeadersTest {
+
+	@Test
+	public void testEncode() {
+		LinkedHttpHeaders headers = new LinkedHttpHeaders();
+		headers.set("Content-Type", "application/json");
+		headers.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+		headers.set("content-encoding", "zstd");
+		headers.set("x-custom", "value");
+
+		ByteBuf buf = Unpooled.buffer();
+		try {
+			headers.encode(buf);
+			Assertions.assertEquals("content-type: application/json\r\ntransfer-encoding: chunked\r\ncontent-encoding: zstd\r\nx-custom: value\r\n", buf.toString(StandardCharsets.US_ASCII));
+		}
+		finally {
+			buf.release();
+		}
+	}
+
+	@Test
+	public void testKnownHeaders() {
+		LinkedHttpHeaders headers = new LinkedHttpHeaders();
+		headers.add("Set-Cookie", "a=1");
+		headers.add(HttpHeaderNames.SET_COOKIE, "b=2");
+		headers.add("X-Custom", "value");
+
+		Assertions.assertEquals("a=1", headers.get(HttpHeaderNames.SET_COOKIE));
+		Assertions.assertEquals(2, headers.getAll("SET-COOKIE").size());
+		Assertions.assertTrue(headers.contains("set-cookie", "b=2", false));
+		Assertions.assertEquals("value", headers.get("x-custom"));
+
+		headers.remove("set-COOKIE");
+		Assertions.assertNull(headers.get(HttpHeaderNames.SET_COOKIE));
+		Assertions.assertEquals("value", headers.get("X-CUSTOM"));
+	}
+
+	@Test
+	public void testManyHeaders() {
+		LinkedHttpHeaders headers = new LinkedHttpHeaders();
+		for(int i=0;i<100;i++) {
+			headers.add("x-header-" + i, Integer.toString(i));
+			headers.add("x-multi", Integer.toString(i));
+		}
+		Assertions.assertEquals(200, headers.size());
+		for(int i=0;i<100;i++) {
+			Assertions.assertEquals(i, headers.getInt("X-Header-" + i, -1));
+		}
+		List<String> values = headers.getAll("x-multi");
+		Assertions.assertEquals(100, values.size());
+		Assertions.assertEquals("0", values.get(0));
+		Assertions.assertEquals("99", values.get(99));
+
+		headers.remove("x-multi");
+		Assertions.assertEquals(100, headers.size());
+		Assertions.assertTrue(headers.getAll("x-multi").isEmpty());
+		Assertions.assertEquals(List.of("42"), headers.getAll("x-header-42"));
+	}
+
+	@Test
+	public void testParseNumbers() {
+		LinkedHttpHeaders headers = new LinkedHttpHeaders();
+		headers.add("content-length", new AsciiString("9223372036854775807"));
+		headers.add("x-negative", "-2147483648");
+		headers.add("x-invalid", "12a");
+		headers.add("x-overflow", "2147483648");
+
+		Assertions.assertEquals(Long.MAX_VALUE, headers.getLong("content-length").longValue());
+		Assertions.assertEquals(Integer.MIN_VALUE, headers.getInt("x-negative").intValue());
+		Assertions.assertThrows(NumberFormatException.class, () -> headers.getInt("x-invalid"));
+		Assertions.assertThrows(NumberFormatException.class, () -> headers.getInt("x-overflow"));
+		Assertions.assertEquals(2147483648l, headers.getLong("x-overflow").longValue());
+		Assertions.assertNull(headers.getInt("x-missing"));
+	}
+}
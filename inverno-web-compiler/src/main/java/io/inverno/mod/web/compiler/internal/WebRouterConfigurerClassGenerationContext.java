@@ -16,8 +16,10 @@
 package io.inverno.mod.web.compiler.internal;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -78,6 +80,7 @@ class WebRouterConfigurerClassGenerationContext extends AbstractSourceGeneration
 		CONFIGURER_PARAMETER,
 		CONFIGURER_ASSIGNMENT,
 		CONFIGURER_INVOKE,
+		CONFIGURER_DISPATCHER,
 		CONTROLLER_FIELD,
 		CONTROLLER_PARAMETER,
 		CONTROLLER_ASSIGNMENT,
@@ -88,17 +91,22 @@ class WebRouterConfigurerClassGenerationContext extends AbstractSourceGeneration
 		ROUTE_PARAMETER_REFERENCE_CLASS,
 		ROUTE_PARAMETER_REFERENCE_TYPE,
 		ROUTE_PARAMETER_REFERENCE_ONE,
-		ROUTE_PARAMETER_REFERENCE_MANY
+		ROUTE_PARAMETER_REFERENCE_MANY,
+		ROUTE_PARAMETER_DECLARATION_CLASS,
+		ROUTE_PARAMETER_DECLARATION_TYPE
 	}
 	
 	private TypeGenerator typeGenerator;
 	private WebControllerInfo webController;
 	private WebRouteInfo webRoute;
 	private Integer parameterIndex;
+	private boolean routeDispatcher;
 	
 	private TypeMirror collectionType;
 	private TypeMirror listType;
 	private TypeMirror setType;
+	private TypeMirror arrayListType;
+	private TypeMirror hashSetType;
 	private TypeMirror optionalType;
 	private TypeMirror collectorsType;
 	private TypeMirror webRouteAnnotationType;
@@ -123,6 +131,8 @@ class WebRouterConfigurerClassGenerationContext extends AbstractSourceGeneration
 		this.collectionType = typeUtils.erasure(elementUtils.getTypeElement(Collection.class.getCanonicalName()).asType());
 		this.listType = typeUtils.erasure(elementUtils.getTypeElement(List.class.getCanonicalName()).asType());
 		this.setType = typeUtils.erasure(elementUtils.getTypeElement(Set.class.getCanonicalName()).asType());
+		this.arrayListType = typeUtils.erasure(elementUtils.getTypeElement(ArrayList.class.getCanonicalName()).asType());
+		this.hashSetType = typeUtils.erasure(elementUtils.getTypeElement(HashSet.class.getCanonicalName()).asType());
 		this.optionalType = typeUtils.erasure(elementUtils.getTypeElement(Optional.class.getCanonicalName()).asType());
 		this.collectorsType = elementUtils.getTypeElement(Collectors.class.getCanonicalName()).asType();
 		this.webRouteAnnotationType = elementUtils.getTypeElement(WebRoute.class.getCanonicalName()).asType();
@@ -146,6 +156,7 @@ class WebRouterConfigurerClassGenerationContext extends AbstractSourceGeneration
 		this.webController = parentGeneration.webController;
 		this.webRoute = parentGeneration.webRoute;
 		this.parameterIndex = parentGeneration.parameterIndex;
+		this.routeDispatcher = parentGeneration.routeDispatcher;
 	}
 	
 	@Override
@@ -187,6 +198,12 @@ class WebRouterConfigurerClassGenerationContext extends AbstractSourceGeneration
 		return context;
 	}
 	
+	public WebRouterConfigurerClassGenerationContext withRouteDispatcher(boolean routeDispatcher) {
+		WebRouterConfigurerClassGenerationContext context = new WebRouterConfigurerClassGenerationContext(this);
+		context.routeDispatcher = routeDispatcher;
+		return context;
+	}
+	
 	public WebControllerInfo getWebController() {
 		return webController;
 	}
@@ -199,6 +216,10 @@ class WebRouterConfigurerClassGenerationContext extends AbstractSourceGeneration
 		return parameterIndex;
 	}
 	
+	public boolean isRouteDispatcher() {
+		return routeDispatcher;
+	}
+	
 	public TypeMirror getParameterConverterType(TypeMirror type) {
 		if(this.isArrayType(type)) {
 			return ((ArrayType)type).getComponentType();
@@ -285,6 +306,22 @@ class WebRouterConfigurerClassGenerationContext extends AbstractSourceGeneration
 		return this.getTypeName(this.getSetType());
 	}
 	
+	public TypeMirror getArrayListType() {
+		return arrayListType != null ? arrayListType : this.parentGeneration.getArrayListType();
+	}
+	
+	public String getArrayListTypeName() {
+		return this.getTypeName(this.getArrayListType());
+	}
+	
+	public TypeMirror getHashSetType() {
+		return hashSetType != null ? hashSetType : this.parentGeneration.getHashSetType();
+	}
+	
+	public String getHashSetTypeName() {
+		return this.getTypeName(this.getHashSetType());
+	}
+	
 	public TypeMirror getOptionalType() {
 		return optionalType != null ? optionalType : this.parentGeneration.getOptionalType();
 	}
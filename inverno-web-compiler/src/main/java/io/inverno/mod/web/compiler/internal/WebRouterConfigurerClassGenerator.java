@@ -15,20 +15,27 @@
  */
 package io.inverno.mod.web.compiler.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import javax.lang.model.type.ArrayType;
-import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 
 import io.inverno.core.annotation.Bean;
+import io.inverno.mod.base.net.URIBuilder;
 import io.inverno.mod.base.net.URIs;
+import io.inverno.mod.http.base.Method;
 import io.inverno.mod.web.WebExchange;
+import io.inverno.mod.web.WebRouteDispatcher;
 import io.inverno.mod.web.WebRouter;
 import io.inverno.mod.web.WebRouterConfigurer;
 import io.inverno.mod.web.annotation.WebRoutes;
@@ -81,6 +88,8 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 			
 			StringBuilder configurerAnnotation = this.visit(routerConfigurerInfo, context.withIndentDepth(1).withMode(GenerationMode.CONFIGURER_ANNOTATION));
 			
+			StringBuilder configurer_dispatcher = context.isRouteDispatcher() ? this.visit(routerConfigurerInfo, context.withIndentDepth(1).withMode(GenerationMode.CONFIGURER_DISPATCHER)) : new StringBuilder();
+			
 			StringBuilder configurer_controller_fields = Arrays.stream(routerConfigurerInfo.getControllers())
 				.map(controllerInfo -> this.visit(controllerInfo, context.withIndentDepth(1).withMode(GenerationMode.CONTROLLER_FIELD)))
 				.collect(context.joining("\n"));
@@ -115,6 +124,9 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 				configurer_accept.append(Arrays.stream(routerConfigurerInfo.getControllers()).map(controllerInfo -> this.visit(controllerInfo, context.withIndentDepth(3).withMode(GenerationMode.ROUTE_DECLARATION))).collect(context.joining("\n")));
 				configurer_accept.append(";\n");
 			}
+			if(configurer_dispatcher.length() > 0) {
+				configurer_accept.append("\n").append(context.indent(2)).append("router.dispatcher(new RouteDispatcher());\n");
+			}
 			
 			configurer_accept.append(context.indent(1)).append("}");
 			
@@ -132,6 +144,9 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 			}
 			configurer_class.append(configurer_constructor).append("\n\n");
 			configurer_class.append(configurer_accept).append("\n");
+			if(configurer_dispatcher.length() > 0) {
+				configurer_class.append("\n").append(configurer_dispatcher).append("\n");
+			}
 			
 			configurer_class.append("}");
 			
@@ -158,9 +173,138 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 			result.append("\n})");
 			return result;
 		}
+		if(context.getMode() == GenerationMode.CONFIGURER_DISPATCHER) {
+			// static path -> methods
+			Map<String, Set<Method>> dispatchedRoutes = this.getDispatchedRoutes(routerConfigurerInfo);
+			if(dispatchedRoutes.isEmpty()) {
+				return new StringBuilder();
+			}
+			TypeMirror webRouteDispatcherType = context.getElementUtils().getTypeElement(WebRouteDispatcher.class.getCanonicalName()).asType();
+			
+			List<String> paths = new ArrayList<>();
+			List<Method> methods = new ArrayList<>();
+			StringBuilder dispatch_switch = new StringBuilder(context.indent(2)).append("if(path == null || method == null) {\n");
+			dispatch_switch.append(context.indent(3)).append("return -1;\n");
+			dispatch_switch.append(context.indent(2)).append("}\n");
+			dispatch_switch.append(context.indent(2)).append("switch(path) {\n");
+			for(Map.Entry<String, Set<Method>> e : dispatchedRoutes.entrySet()) {
+				dispatch_switch.append(context.indent(3)).append("case \"").append(this.escapeString(e.getKey())).append("\":\n");
+				dispatch_switch.append(context.indent(4)).append("switch(method) {\n");
+				for(Method method : e.getValue()) {
+					dispatch_switch.append(context.indent(5)).append("case ").append(method.toString()).append(": return ").append(paths.size()).append(";\n");
+					paths.add(e.getKey());
+					methods.add(method);
+				}
+				dispatch_switch.append(context.indent(5)).append("default: return -1;\n");
+				dispatch_switch.append(context.indent(4)).append("}\n");
+			}
+			dispatch_switch.append(context.indent(3)).append("default: return -1;\n");
+			dispatch_switch.append(context.indent(2)).append("}\n");
+			
+			StringBuilder result = new StringBuilder(context.indent(0)).append("private static final class RouteDispatcher implements ").append(context.getTypeName(webRouteDispatcherType)).append(" {\n\n");
+			result.append(context.indent(1)).append("private static final String[] PATHS = { ").append(paths.stream().map(path -> "\"" + this.escapeString(path) + "\"").collect(Collectors.joining(", "))).append(" };\n\n");
+			result.append(context.indent(1)).append("private static final ").append(context.getMethodTypeName()).append("[] METHODS = { ").append(methods.stream().map(method -> context.getMethodTypeName() + "." + method.toString()).collect(Collectors.joining(", "))).append(" };\n\n");
+			
+			result.append(context.indent(1)).append("@Override\n");
+			result.append(context.indent(1)).append("public int getRouteCount() {\n");
+			result.append(context.indent(2)).append("return PATHS.length;\n");
+			result.append(context.indent(1)).append("}\n\n");
+			
+			result.append(context.indent(1)).append("@Override\n");
+			result.append(context.indent(1)).append("public String getPath(int routeIndex) {\n");
+			result.append(context.indent(2)).append("return PATHS[routeIndex];\n");
+			result.append(context.indent(1)).append("}\n\n");
+			
+			result.append(context.indent(1)).append("@Override\n");
+			result.append(context.indent(1)).append("public ").append(context.getMethodTypeName()).append(" getMethod(int routeIndex) {\n");
+			result.append(context.indent(2)).append("return METHODS[routeIndex];\n");
+			result.append(context.indent(1)).append("}\n\n");
+			
+			result.append(context.indent(1)).append("@Override\n");
+			result.append(context.indent(1)).append("public int dispatch(String path, ").append(context.getMethodTypeName()).append(" method) {\n");
+			result.append(dispatch_switch);
+			result.append(context.indent(1)).append("}\n");
+			result.append(context.indent(0)).append("}");
+			return result;
+		}
 		return new StringBuilder();
 	}
 	
+	/**
+	 * <p>
+	 * Returns the static paths and methods of the web controller routes that
+	 * can be dispatched by a route dispatcher.
+	 * </p>
+	 * 
+	 * <p>
+	 * Only routes defined with static paths and explicit methods and without
+	 * content negotiation criteria can be dispatched, the others are always
+	 * resolved by the routing chain.
+	 * </p>
+	 * 
+	 * @param routerConfigurerInfo the web router configurer info
+	 * 
+	 * @return a map of methods indexed by normalized static path
+	 */
+	private Map<String, Set<Method>> getDispatchedRoutes(WebRouterConfigurerInfo routerConfigurerInfo) {
+		Map<String, Set<Method>> dispatchedRoutes = new LinkedHashMap<>();
+		for(WebControllerInfo controllerInfo : routerConfigurerInfo.getControllers()) {
+			for(WebRouteInfo routeInfo : controllerInfo.getRoutes()) {
+				if(routeInfo.getMethods() == null || routeInfo.getMethods().length == 0 
+					|| (routeInfo.getConsumes() != null && routeInfo.getConsumes().length > 0)
+					|| (routeInfo.getProduces() != null && routeInfo.getProduces().length > 0)
+					|| (routeInfo.getLanguages() != null && routeInfo.getLanguages().length > 0)) {
+					continue;
+				}
+				
+				List<String> routePaths = new ArrayList<>();
+				if(routeInfo.getPaths().length > 0) {
+					for(String path : routeInfo.getPaths()) {
+						routePaths.add(routeInfo.getController()
+							.map(WebControllerInfo::getRootPath)
+							.map(rootPath -> URIs.uri(rootPath, URIs.Option.PARAMETERIZED, URIs.Option.NORMALIZED).path(path, false).buildRawPath())
+							.orElse(path)
+						);
+					}
+				}
+				else {
+					routeInfo.getController()
+						.map(WebControllerInfo::getRootPath)
+						.map(rootPath -> URIs.uri(rootPath, URIs.Option.PARAMETERIZED, URIs.Option.NORMALIZED).buildRawPath())
+						.ifPresent(routePaths::add);
+				}
+				
+				for(String routePath : routePaths) {
+					// This must be consistent with the web route manager
+					URIBuilder pathBuilder = URIs.uri(routePath, false, URIs.Option.NORMALIZED, URIs.Option.PARAMETERIZED);
+					if(!pathBuilder.getParameterNames().isEmpty()) {
+						continue;
+					}
+					String rawPath = pathBuilder.buildRawPath();
+					List<String> staticPaths = new ArrayList<>();
+					staticPaths.add(rawPath);
+					if(routeInfo.isMatchTrailingSlash()) {
+						if(rawPath.endsWith("/")) {
+							staticPaths.add(rawPath.substring(0, rawPath.length() - 1));
+						}
+						else {
+							staticPaths.add(rawPath + "/");
+						}
+					}
+					for(String staticPath : staticPaths) {
+						Set<Method> methods = dispatchedRoutes.computeIfAbsent(staticPath, ign -> new LinkedHashSet<>());
+						methods.addAll(Arrays.asList(routeInfo.getMethods()));
+					}
+				}
+			}
+		}
+		return dispatchedRoutes;
+	}
+	
+	private String escapeString(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+	
 	@Override
 	public StringBuilder visit(WebProvidedRouterConfigurerInfo providedRouterConfigurerInfo, WebRouterConfigurerClassGenerationContext context) {
 		if(context.getMode() == GenerationMode.CONFIGURER_ANNOTATION) {
@@ -328,6 +472,11 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 			
 			StringBuilder requestParameters = new StringBuilder();
 			GenerationMode parameterReferenceMode = typesMode ? GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE : GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS;
+			GenerationMode parameterDeclarationMode = typesMode ? GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE : GenerationMode.ROUTE_PARAMETER_DECLARATION_CLASS;
+			
+			// Basic parameters are extracted in local variables before invoking the controller, form parameters are only available once the request body has been received
+			StringBuilder parameterDeclarations = new StringBuilder();
+			StringBuilder formParameterDeclarations = new StringBuilder();
 			
 			Integer nonReactiveRequestBodyParameterIndex = null; 
 			boolean hasFormParameters = false;
@@ -343,8 +492,12 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 					requestParameters.append(this.visit(parameterInfo, context.withIndentDepth(0).withMode(parameterReferenceMode).withParameterIndex(parameterIndex)));
 				}
 				if(parameterInfo instanceof WebFormParameterInfo) {
+					formParameterDeclarations.append(this.visit(parameterInfo, context.withIndentDepth(context.getIndentDepth() + 1).withMode(parameterDeclarationMode).withParameterIndex(parameterIndex)));
 					hasFormParameters = true;
 				}
+				else if(parameterInfo instanceof WebBasicParameterInfo) {
+					parameterDeclarations.append(this.visit(parameterInfo, context.withMode(parameterDeclarationMode).withParameterIndex(parameterIndex)));
+				}
 				if(parameterInfo instanceof WebRequestBodyParameterInfo) {
 					requestBodyInfo = (WebRequestBodyParameterInfo)parameterInfo;
 				}
@@ -356,12 +509,15 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 			
 			StringBuilder controllerInvoke = new StringBuilder("this.").append(context.getFieldName(context.getWebController().getQualifiedName())).append(".").append(routeInfo.getElement().get().getSimpleName().toString()).append("(").append(requestParameters).append(")");
 			
+			result.append(parameterDeclarations);
 			if(responseBodyInfo.getBodyKind() == ResponseBodyKind.EMPTY && responseBodyInfo.getBodyReactiveKind() == ResponseBodyReactiveKind.NONE) {
 				if(hasFormParameters) {
 					result.append(context.indent(0)).append("exchange.response().body().raw().stream(");
-					result.append(context.getFluxTypeName()).append(".from(exchange.request().body().get().urlEncoded().stream()).collectMultimap(").append(context.getParameterTypeName()).append("::getName)").append(".flatMap(formParameters -> ");
-					result.append("{ ").append(controllerInvoke).append("; return ").append(context.getMonoTypeName()).append(".empty(); }");
-					result.append("));\n");
+					result.append(context.getFluxTypeName()).append(".from(exchange.request().body().get().urlEncoded().stream()).collectMultimap(").append(context.getParameterTypeName()).append("::getName)").append(".flatMap(formParameters -> {\n");
+					result.append(formParameterDeclarations);
+					result.append(context.indent(1)).append(controllerInvoke).append(";\n");
+					result.append(context.indent(1)).append("return ").append(context.getMonoTypeName()).append(".empty();\n");
+					result.append(context.indent(0)).append("}));\n");
 				}
 				else if(nonReactiveRequestBodyParameterIndex != null) {
 					result.append(context.indent(0)).append("exchange.response().body().raw().stream(");
@@ -390,7 +546,8 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 					}
 				}
 				else if(hasFormParameters) {
-					controllerInvoke.insert(0, new StringBuilder(context.getFluxTypeName()).append(".from(exchange.request().body().get().urlEncoded().stream()).collectMultimap(").append(context.getParameterTypeName()).append("::getName)").append(".map(formParameters -> ")).append(")");
+					controllerInvoke.insert(0, new StringBuilder(context.getFluxTypeName()).append(".from(exchange.request().body().get().urlEncoded().stream()).collectMultimap(").append(context.getParameterTypeName()).append("::getName)").append(".map(formParameters -> {\n").append(formParameterDeclarations).append(context.indent(1)).append("return "))
+						.append(";\n").append(context.indent(0)).append("})");
 				}
 				
 				if(responseBodyInfo.getBodyKind() == ResponseBodyKind.EMPTY) {
@@ -541,90 +698,132 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 	@Override
 	public StringBuilder visit(WebBasicParameterInfo basicParameterInfo, WebRouterConfigurerClassGenerationContext context) {
 		if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE) {
-			boolean typesMode = context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE;
+			// Parameters are extracted in local variables (see ROUTE_PARAMETER_DECLARATION_*)
+			String parameterName = "parameter" + context.getParameterIndex();
+			if(basicParameterInfo.isRequired()) {
+				return new StringBuilder(parameterName);
+			}
+			else {
+				return new StringBuilder(context.getOptionalTypeName()).append(".ofNullable(").append(parameterName).append(")");
+			}
+		}
+		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE) {
+			boolean typesMode = context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE;
 			String parameterType = typesMode ? "routeTypes[" + context.getParameterIndex() + "]" : null;
+			String parameterName = "parameter" + context.getParameterIndex();
+			String parameterValueName = parameterName + "_value";
+			String parameterValuesName = parameterName + "_values";
 			
 			StringBuilder result = new StringBuilder();
 			
+			// Values are converted with Parameter.as()/asListOf() which delegate to the request parameter converter on each call, the converter is not exposed to generated configurers
 			TypeMirror basicParameterType = basicParameterInfo.getType();
-			if(basicParameterType.getKind() == TypeKind.ARRAY) {
+			if(basicParameterType.getKind() == TypeKind.ARRAY || context.isCollectionType(basicParameterType)) {
+				TypeMirror componentType = context.getParameterConverterType(basicParameterType);
+				String componentTypeName = context.getTypeName(componentType);
 				if(!typesMode) {
-					parameterType = context.getTypeName(((ArrayType)basicParameterType).getComponentType()) + ".class";
+					parameterType = componentTypeName + ".class";
 				}
-				result.append(context.getOptionalTypeName()).append(".ofNullable(");
-				result.append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY))).append(")");
-				result.append(".<").append(context.getTypeName(basicParameterType)).append(">map(parameters -> parameters.stream().flatMap(parameter -> parameter.asListOf(").append(parameterType).append(").stream())");
-				result.append(".toArray(").append(context.getTypeName(((ArrayType)basicParameterType).getComponentType())).append("[]::new)).filter(l -> l.length > 0)");
-			}
-			else if(context.getTypeUtils().isSameType(context.getCollectionType(), context.getTypeUtils().erasure(basicParameterType))) {
-				if(!typesMode) {
-					parameterType = context.getTypeName(((DeclaredType)basicParameterType).getTypeArguments().get(0)) + ".class";
+				
+				boolean setType = context.getTypeUtils().isSameType(context.getSetType(), context.getTypeUtils().erasure(basicParameterType));
+				String collectionTypeName;
+				String collectionImplTypeName;
+				if(setType) {
+					collectionTypeName = context.getSetTypeName();
+					collectionImplTypeName = context.getHashSetTypeName();
 				}
+				else {
+					collectionTypeName = context.getListTypeName();
+					collectionImplTypeName = context.getArrayListTypeName();
+				}
+				String parameterCollectionName = parameterName + "_collection";
 				
-				result.append(context.getOptionalTypeName()).append(".ofNullable(");
-				result.append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY))).append(")");
-				result.append(".<").append(context.getTypeName(basicParameterType)).append(">map(parameters -> parameters.stream().flatMap(parameter -> parameter.asListOf(").append(parameterType).append(").stream())");
-				result.append(".collect(").append(context.getCollectorsTypeName()).append(".toList())).filter(l -> !l.isEmpty())");
-			}
-			else if(context.getTypeUtils().isSameType(context.getListType(), context.getTypeUtils().erasure(basicParameterType))) {
-				if(!typesMode) {
-					parameterType = context.getTypeName(((DeclaredType)basicParameterType).getTypeArguments().get(0)) + ".class";
+				StringBuilder parameterConversion = new StringBuilder(parameterValueName).append(".");
+				if(typesMode) {
+					parameterConversion.append("<").append(componentTypeName).append(">");
 				}
+				parameterConversion.append("asListOf(").append(parameterType).append(")");
 				
-				result.append(context.getOptionalTypeName()).append(".ofNullable(");
-				result.append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY))).append(")");
-				result.append(".<").append(context.getTypeName(basicParameterType)).append(">map(parameters -> parameters.stream().flatMap(parameter -> parameter.asListOf(").append(parameterType).append(").stream())");
-				result.append(".collect(").append(context.getCollectorsTypeName()).append(".toList())).filter(l -> !l.isEmpty())");
-			}
-			else if(context.getTypeUtils().isSameType(context.getSetType(), context.getTypeUtils().erasure(basicParameterType))) {
-				if(!typesMode) {
-					parameterType = context.getTypeName(((DeclaredType)basicParameterType).getTypeArguments().get(0)) + ".class";
+				result.append(context.indent(0)).append(collectionTypeName).append("<").append(componentTypeName).append("> ").append(parameterCollectionName).append(" = null;\n");
+				if(basicParameterInfo instanceof WebPathParameterInfo) {
+					// A path parameter has one value at most which is converted directly
+					result.append(this.visitParameterValue(basicParameterInfo, context, parameterValueName, parameterValuesName));
+					result.append(context.indent(0)).append("if(").append(parameterValueName).append(" != null) {\n");
+					result.append(context.indent(1)).append(parameterCollectionName).append(" = ");
+					if(setType) {
+						result.append("new ").append(collectionImplTypeName).append("<>(").append(parameterConversion).append(")");
+					}
+					else {
+						result.append(parameterConversion);
+					}
+					result.append(";\n");
+					result.append(context.indent(0)).append("}\n");
+				}
+				else {
+					result.append(this.visitParameterValues(basicParameterInfo, context, parameterValuesName));
+					result.append(context.indent(0)).append("if(").append(parameterValuesName).append(" != null && !").append(parameterValuesName).append(".isEmpty()) {\n");
+					result.append(context.indent(1)).append(parameterCollectionName).append(" = new ").append(collectionImplTypeName).append("<>();\n");
+					result.append(context.indent(1)).append("for(").append(context.getParameterTypeName()).append(" ").append(parameterValueName).append(" : ").append(parameterValuesName).append(") {\n");
+					result.append(context.indent(2)).append(parameterCollectionName).append(".addAll(").append(parameterConversion).append(");\n");
+					result.append(context.indent(1)).append("}\n");
+					result.append(context.indent(0)).append("}\n");
 				}
 				
-				result.append(context.getOptionalTypeName()).append(".ofNullable(");
-				result.append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY))).append(")");
-				result.append(".<").append(context.getTypeName(basicParameterType)).append(">map(parameters -> parameters.stream().flatMap(parameter -> parameter.asListOf(").append(parameterType).append(").stream())");
-				result.append(".collect(").append(context.getCollectorsTypeName()).append(".toSet())).filter(l -> !l.isEmpty())");
+				result.append(context.indent(0)).append(context.getTypeName(basicParameterType)).append(" ").append(parameterName).append(" = ").append(parameterCollectionName).append(" != null && !").append(parameterCollectionName).append(".isEmpty() ? ");
+				if(basicParameterType.getKind() == TypeKind.ARRAY) {
+					result.append(parameterCollectionName).append(".toArray(new ").append(componentTypeName).append("[").append(parameterCollectionName).append(".size()])");
+				}
+				else {
+					result.append(parameterCollectionName);
+				}
+				result.append(" : null;\n");
 			}
 			else {
-				result.append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_ONE)));
-				result.append(".map(parameter -> parameter.");
+				result.append(this.visitParameterValue(basicParameterInfo, context, parameterValueName, parameterValuesName));
+				
+				String parameterTypeName;
+				StringBuilder parameterConversion = new StringBuilder(parameterValueName).append(".");
 				if(basicParameterType instanceof PrimitiveType) {
+					parameterTypeName = context.getTypeName(context.getTypeUtils().boxedClass((PrimitiveType)basicParameterType).asType());
 					// boolean, byte, short, int, long, char, float, and double.
 					switch(basicParameterType.getKind()) {
-						case BOOLEAN: result.append("asBoolean())");
+						case BOOLEAN: parameterConversion.append("asBoolean()");
 							break;
-						case BYTE: result.append("asByte())");
+						case BYTE: parameterConversion.append("asByte()");
 							break;
-						case SHORT: result.append("asShort())");
+						case SHORT: parameterConversion.append("asShort()");
 							break;
-						case INT: result.append("asInteger())");
+						case INT: parameterConversion.append("asInteger()");
 							break;
-						case LONG: result.append("asLong())");
+						case LONG: parameterConversion.append("asLong()");
 							break;
-						case CHAR: result.append("asCharacter())");
+						case CHAR: parameterConversion.append("asCharacter()");
 							break;
-						case FLOAT: result.append("asFloat())");
+						case FLOAT: parameterConversion.append("asFloat()");
 							break;
-						case DOUBLE: result.append("asDouble())");
+						case DOUBLE: parameterConversion.append("asDouble()");
 							break;
 						default:
 							throw new IllegalStateException("Unsupported primitive type: " + basicParameterType);
 					}
 				}
 				else {
+					parameterTypeName = context.getTypeName(basicParameterType);
 					if(!typesMode) {
-						parameterType = context.getTypeName(basicParameterType) + ".class";
+						parameterType = parameterTypeName + ".class";
 					}
 					else {
-						result.append("<").append(context.getTypeName(basicParameterType)).append(">");
+						parameterConversion.append("<").append(parameterTypeName).append(">");
 					}
-					result.append("as(").append(parameterType).append("))");
+					parameterConversion.append("as(").append(parameterType).append(")");
 				}
+				result.append(context.indent(0)).append(parameterTypeName).append(" ").append(parameterName).append(" = ").append(parameterValueName).append(" != null ? ").append(parameterConversion).append(" : null;\n");
 			}
 			
 			if(basicParameterInfo.isRequired()) {
-				result.append(".orElseThrow(() -> new ").append(context.getMissingRequiredParameterExceptionTypeName()).append("(\"").append(basicParameterInfo.getQualifiedName().getParameterName()).append("\"))");
+				result.append(context.indent(0)).append("if(").append(parameterName).append(" == null) {\n");
+				result.append(context.indent(1)).append("throw new ").append(context.getMissingRequiredParameterExceptionTypeName()).append("(\"").append(basicParameterInfo.getQualifiedName().getParameterName()).append("\");\n");
+				result.append(context.indent(0)).append("}\n");
 			}
 			return result;
 		}
@@ -648,6 +847,52 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 		return new StringBuilder();
 	}
 
+	/**
+	 * <p>
+	 * Generates the declaration of the local variable holding the first value
+	 * of a basic parameter or null.
+	 * </p>
+	 * 
+	 * @param basicParameterInfo  the basic parameter info
+	 * @param context             the generation context
+	 * @param parameterValueName  the name of the parameter value variable
+	 * @param parameterValuesName the name of the parameter values variable
+	 * 
+	 * @return a string builder
+	 */
+	private StringBuilder visitParameterValue(WebBasicParameterInfo basicParameterInfo, WebRouterConfigurerClassGenerationContext context, String parameterValueName, String parameterValuesName) {
+		StringBuilder result = new StringBuilder();
+		if(basicParameterInfo instanceof WebFormParameterInfo) {
+			result.append(context.indent(0)).append(context.getCollectionTypeName()).append("<").append(context.getParameterTypeName()).append("> ").append(parameterValuesName).append(" = ").append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY))).append(";\n");
+			result.append(context.indent(0)).append(context.getParameterTypeName()).append(" ").append(parameterValueName).append(" = ").append(parameterValuesName).append(" != null && !").append(parameterValuesName).append(".isEmpty() ? ").append(parameterValuesName).append(".iterator().next() : null;\n");
+		}
+		else {
+			result.append(context.indent(0)).append(context.getParameterTypeName()).append(" ").append(parameterValueName).append(" = ").append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_ONE))).append(".orElse(null);\n");
+		}
+		return result;
+	}
+	
+	/**
+	 * <p>
+	 * Generates the declaration of the local variable holding the values of a
+	 * basic parameter or null.
+	 * </p>
+	 * 
+	 * <p>
+	 * Path parameters have one value at most and must be extracted with
+	 * {@link #visitParameterValue(WebBasicParameterInfo, WebRouterConfigurerClassGenerationContext, String, String)}.
+	 * </p>
+	 * 
+	 * @param basicParameterInfo  the basic parameter info
+	 * @param context             the generation context
+	 * @param parameterValuesName the name of the parameter values variable
+	 * 
+	 * @return a string builder
+	 */
+	private StringBuilder visitParameterValues(WebBasicParameterInfo basicParameterInfo, WebRouterConfigurerClassGenerationContext context, String parameterValuesName) {
+		return new StringBuilder(context.indent(0)).append(context.getCollectionTypeName()).append("<? extends ").append(context.getParameterTypeName()).append("> ").append(parameterValuesName).append(" = ").append(this.visit(basicParameterInfo, context.withMode(GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY))).append(";\n");
+	}
+
 	@Override
 	public StringBuilder visit(WebCookieParameterInfo cookieParameterInfo, WebRouterConfigurerClassGenerationContext context) {
 		if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_ONE) {
@@ -656,7 +901,7 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY) {
 			return new StringBuilder("exchange.request().cookies().getAll(\"").append(cookieParameterInfo.getQualifiedName().getParameterName()).append("\")");
 		}
-		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE) {
+		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE) {
 			return this.visit((WebBasicParameterInfo)cookieParameterInfo, context);
 		}
 		return new StringBuilder();
@@ -670,7 +915,7 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY) {
 			return new StringBuilder("formParameters.get(\"").append(formParameterInfo.getQualifiedName().getParameterName()).append("\")");
 		}
-		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE) {
+		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE) {
 			return this.visit((WebBasicParameterInfo)formParameterInfo, context);
 		}
 		return new StringBuilder();
@@ -684,7 +929,7 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY) {
 			return new StringBuilder("exchange.request().headers().getAllParameter(\"").append(headerParameterInfo.getQualifiedName().getParameterName()).append("\")");
 		}
-		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE) {
+		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE) {
 			return this.visit((WebBasicParameterInfo)headerParameterInfo, context);
 		}
 		return new StringBuilder();
@@ -698,7 +943,7 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 		if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY) {
 			return new StringBuilder("exchange.request().pathParameters().get(\"").append(pathParameterInfo.getQualifiedName().getParameterName()).append("\").map(parameter -> ").append(context.getListTypeName()).append(".of(parameter)).orElse(").append(context.getListTypeName()).append(".of())");
 		}
-		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE) {
+		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE) {
 			return this.visit((WebBasicParameterInfo)pathParameterInfo, context);
 		}
 		return new StringBuilder();
@@ -712,7 +957,7 @@ class WebRouterConfigurerClassGenerator implements WebRouterConfigurerInfoVisito
 		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_MANY) {
 			return new StringBuilder("exchange.request().queryParameters().getAll(\"").append(queryParameterInfo.getQualifiedName().getParameterName()).append("\")");
 		}
-		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE) {
+		else if(context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_REFERENCE_TYPE || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_CLASS || context.getMode() == GenerationMode.ROUTE_PARAMETER_DECLARATION_TYPE) {
 			return this.visit((WebBasicParameterInfo)queryParameterInfo, context);
 		}
 		return new StringBuilder();
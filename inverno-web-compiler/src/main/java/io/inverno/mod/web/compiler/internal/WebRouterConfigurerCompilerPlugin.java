@@ -63,6 +63,14 @@ import io.inverno.mod.web.compiler.spi.WebRouterConfigurerQualifiedName;
  * can be activated with option {@code inverno.web.generateOpenApiDefinition}.
  * </p>
  * 
+ * <p>
+ * This plugin can also generates a {@link io.inverno.mod.web.WebRouteDispatcher}
+ * for the static routes defined in the web controllers of the module which is
+ * installed in the web router to resolve these routes ahead of the routing
+ * chain. This can be activated with option
+ * {@code inverno.web.generateRouteDispatcher}.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -70,6 +78,8 @@ public class WebRouterConfigurerCompilerPlugin implements CompilerPlugin {
 
 	private static final String OPTION_GENERATE_OPENAPI_DEFINITION = "inverno.web.generateOpenApiDefinition";
 	
+	private static final String OPTION_GENERATE_ROUTE_DISPATCHER = "inverno.web.generateRouteDispatcher";
+	
 	private final WebRouterConfigurerOpenApiGenerator openApiGenrator;
 	private final WebRouterConfigurerClassGenerator webRouterConfigurerClassGenerator;
 	private final WebRouteDuplicateDetector webRouteDuplicateDectector;
@@ -96,7 +106,7 @@ public class WebRouterConfigurerCompilerPlugin implements CompilerPlugin {
 	
 	@Override
 	public Set<String> getSupportedOptions() {
-		return Set.of(WebRouterConfigurerCompilerPlugin.OPTION_GENERATE_OPENAPI_DEFINITION);
+		return Set.of(WebRouterConfigurerCompilerPlugin.OPTION_GENERATE_OPENAPI_DEFINITION, WebRouterConfigurerCompilerPlugin.OPTION_GENERATE_ROUTE_DISPATCHER);
 	}
 
 	@Override
@@ -145,7 +155,7 @@ public class WebRouterConfigurerCompilerPlugin implements CompilerPlugin {
 		if(!webRouterConfigurerInfo.hasError() && (webRouterConfigurerInfo.getControllers().length > 0 || webRouterConfigurerInfo.getRouters().length > 0)) {
 			try {
 				execution.createSourceFile(webRouterConfigurerInfo.getQualifiedName().getClassName(), execution.getElements().stream().toArray(Element[]::new), () -> {
-					return webRouterConfigurerInfo.accept(this.webRouterConfigurerClassGenerator, new WebRouterConfigurerClassGenerationContext(this.pluginContext.getTypeUtils(), this.pluginContext.getElementUtils(), GenerationMode.CONFIGURER_CLASS)).toString();
+					return webRouterConfigurerInfo.accept(this.webRouterConfigurerClassGenerator, new WebRouterConfigurerClassGenerationContext(this.pluginContext.getTypeUtils(), this.pluginContext.getElementUtils(), GenerationMode.CONFIGURER_CLASS).withRouteDispatcher(this.pluginContext.getOptions().isOptionActivated(WebRouterConfigurerCompilerPlugin.OPTION_GENERATE_ROUTE_DISPATCHER, false))).toString();
 				});
 			} 
 			catch (IOException e) {
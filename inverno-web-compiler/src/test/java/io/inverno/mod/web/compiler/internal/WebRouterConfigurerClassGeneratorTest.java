@@ -0,0 +1,203 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web.compiler.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ *
+ */
+public class WebRouterConfigurerClassGeneratorTest {
+	
+	private static final Path MODULE_SOURCE = Paths.get("src/test/mods/io.inverno.mod.test.web");
+	
+	private static final String GENERATED_CONFIGURER = "io/inverno/mod/test/web/WebRouterConfigurer.java";
+	
+	private Path target;
+	
+	@BeforeEach
+	public void init() throws IOException {
+		this.target = Files.createTempDirectory("inverno-web-compiler");
+	}
+	
+	@AfterEach
+	public void destroy() throws IOException {
+		try(Stream<Path> walk = Files.walk(this.target)) {
+			walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+	
+	private String compile(String... options) throws IOException {
+		Path classes = Files.createDirectories(this.target.resolve("classes"));
+		Path sources = Files.createDirectories(this.target.resolve("generated-sources"));
+		
+		// The test module is compiled against the module dependencies, the Inverno compiler and the web compiler plugin are loaded from the processor path
+		String path = Stream.of(System.getProperty("jdk.module.path", ""), System.getProperty("java.class.path", ""))
+			.flatMap(p -> Stream.of(p.split(File.pathSeparator)))
+			.filter(p -> !p.isEmpty() && (!new File(p).isDirectory() || new File(p, "module-info.class").exists()))
+			.distinct()
+			.collect(Collectors.joining(File.pathSeparator));
+		
+		List<String> compilerOptions = new ArrayList<>();
+		compilerOptions.add("--module-path");
+		compilerOptions.add(path);
+		compilerOptions.add("--limit-modules");
+		compilerOptions.add("io.inverno.core,io.inverno.mod.web");
+		compilerOptions.add("-processorpath");
+		compilerOptions.add(path);
+		compilerOptions.add("-d");
+		compilerOptions.add(classes.toString());
+		compilerOptions.add("-s");
+		compilerOptions.add(sources.toString());
+		compilerOptions.addAll(List.of(options));
+		
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.getDefault(), StandardCharsets.UTF_8);
+			Stream<Path> walk = Files.walk(MODULE_SOURCE)) {
+			List<File> sourceFiles = walk.filter(p -> p.toString().endsWith(".java")).map(Path::toFile).collect(Collectors.toList());
+			boolean success = compiler.getTask(null, fileManager, diagnostics, compilerOptions, null, fileManager.getJavaFileObjectsFromFiles(sourceFiles)).call();
+			Assertions.assertTrue(success, () -> diagnostics.getDiagnostics().stream()
+				.filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+				.map(d -> d.getMessage(Locale.getDefault()))
+				.collect(Collectors.joining("\n"))
+			);
+		}
+		
+		Path configurer = sources.resolve(GENERATED_CONFIGURER);
+		Assertions.assertTrue(Files.exists(configurer), "Web router configurer was not generated");
+		return new String(Files.readAllBytes(configurer), StandardCharsets.UTF_8);
+	}
+	
+	private static String normalize(String source) {
+		return source.replaceAll("\\s+", "");
+	}
+	
+	@Test
+	public void testGenerateRouteDispatcher() throws IOException {
+		String source = this.compile("-Ainverno.web.generateRouteDispatcher=true");
+		
+		int dispatcherIndex = source.indexOf("private static final class RouteDispatcher");
+		Assertions.assertTrue(dispatcherIndex > 0, "Route dispatcher was not generated");
+		Assertions.assertTrue(source.contains("router.dispatcher(new RouteDispatcher());"));
+		
+		String dispatcher = normalize(source.substring(dispatcherIndex));
+		
+		// Static routes with explicit methods are dispatched including trailing slash variants
+		Assertions.assertTrue(dispatcher.contains(normalize("private static final String[] PATHS = { \"/test/hello\", \"/test/hello\", \"/test/hello/\" };")), dispatcher);
+		Assertions.assertTrue(dispatcher.contains(normalize(
+			"if(path == null || method == null) {" + 
+				"return -1;" + 
+			"}" + 
+			"switch(path) {" + 
+				"case \"/test/hello\":" + 
+					"switch(method) {" + 
+						"case GET: return 0;" + 
+						"case POST: return 1;" + 
+						"default: return -1;" + 
+					"}" + 
+				"case \"/test/hello/\":" + 
+					"switch(method) {" + 
+						"case POST: return 2;" + 
+						"default: return -1;" + 
+					"}" + 
+				"default: return -1;" + 
+			"}"
+		)), dispatcher);
+		
+		// Parameterized routes, routes without methods and content negotiated routes are left to the routing chain
+		Assertions.assertFalse(dispatcher.contains("/test/hello/{name}"));
+		Assertions.assertFalse(dispatcher.contains("/test/any"));
+		Assertions.assertFalse(dispatcher.contains("/test/json"));
+	}
+	
+	@Test
+	public void testGenerateParameterExtraction() throws IOException {
+		String source = normalize(this.compile());
+		
+		// A path parameter has one value which is converted directly
+		Assertions.assertTrue(source.contains(normalize(
+			"List<Integer> parameter0_collection = null;" + 
+			"Parameter parameter0_value = exchange.request().pathParameters().get(\"ids\").orElse(null);" + 
+			"if(parameter0_value != null) {" + 
+				"parameter0_collection = parameter0_value.asListOf(Integer.class);" + 
+			"}" + 
+			"List<Integer> parameter0 = parameter0_collection != null && !parameter0_collection.isEmpty() ? parameter0_collection : null;" + 
+			"if(parameter0 == null) {"
+		)), source);
+		Assertions.assertFalse(source.contains("List.of("), source);
+		
+		// Single parameters are converted after a null check
+		Assertions.assertTrue(source.contains(normalize(
+			"Parameter parameter1_value = exchange.request().queryParameters().get(\"name\").orElse(null);" + 
+			"String parameter1 = parameter1_value != null ? parameter1_value.as(String.class) : null;" + 
+			"if(parameter1 == null) {"
+		)), source);
+		Assertions.assertTrue(source.contains(normalize(
+			"Parameter parameter2_value = exchange.request().queryParameters().get(\"count\").orElse(null);" + 
+			"Integer parameter2 = parameter2_value != null ? parameter2_value.as(Integer.class) : null;"
+		)), source);
+		Assertions.assertFalse(source.contains(normalize("if(parameter2 == null)")), source);
+		
+		// Multiple values are collected in a loop
+		Assertions.assertTrue(source.contains(normalize(
+			"Set<String> parameter3_collection = null;" + 
+			"Collection<? extends Parameter> parameter3_values = exchange.request().headers().getAllParameter(\"tags\");" + 
+			"if(parameter3_values != null && !parameter3_values.isEmpty()) {" + 
+				"parameter3_collection = new HashSet<>();" + 
+				"for(Parameter parameter3_value : parameter3_values) {" + 
+					"parameter3_collection.addAll(parameter3_value.asListOf(String.class));" + 
+				"}" + 
+			"}" + 
+			"Set<String> parameter3 = parameter3_collection != null && !parameter3_collection.isEmpty() ? parameter3_collection : null;"
+		)), source);
+		
+		// Only optional parameters are wrapped when invoking the controller
+		Assertions.assertTrue(source.contains(normalize(".params(parameter0, parameter1, Optional.ofNullable(parameter2), parameter3)")), source);
+	}
+	
+	@Test
+	public void testNoRouteDispatcher() throws IOException {
+		String source = this.compile();
+		
+		Assertions.assertFalse(source.contains("RouteDispatcher"));
+		Assertions.assertFalse(source.contains("router.dispatcher("));
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.test.web;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import io.inverno.core.annotation.Bean;
+import io.inverno.mod.http.base.Method;
+import io.inverno.mod.web.annotation.HeaderParam;
+import io.inverno.mod.web.annotation.PathParam;
+import io.inverno.mod.web.annotation.QueryParam;
+import io.inverno.mod.web.annotation.WebController;
+import io.inverno.mod.web.annotation.WebRoute;
+
+@Bean
+@WebController(path = "/test")
+public class TestController {
+	
+	@WebRoute(path = "/hello", method = Method.GET)
+	public String hello() {
+		return "hello";
+	}
+	
+	@WebRoute(path = "/hello", method = Method.POST, matchTrailingSlash = true)
+	public String postHello() {
+		return "hello";
+	}
+	
+	@WebRoute(path = "/hello/{name}", method = Method.GET)
+	public String helloName(@PathParam String name) {
+		return name;
+	}
+	
+	@WebRoute(path = "/any")
+	public String any() {
+		return "any";
+	}
+	
+	@WebRoute(path = "/json", method = Method.GET, produces = "application/json")
+	public String json() {
+		return "{}";
+	}
+	
+	@WebRoute(path = "/params/{ids}", method = Method.GET)
+	public String params(@PathParam List<Integer> ids, @QueryParam String name, @QueryParam Optional<Integer> count, @HeaderParam Set<String> tags) {
+		return name;
+	}
+}
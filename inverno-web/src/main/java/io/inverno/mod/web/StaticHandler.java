@@ -15,7 +15,21 @@
  */
 package io.inverno.mod.web;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import io.inverno.mod.base.net.URIBuilder;
 import io.inverno.mod.base.net.URIs;
@@ -24,6 +38,9 @@ import io.inverno.mod.http.base.BadRequestException;
 import io.inverno.mod.http.base.HttpException;
 import io.inverno.mod.http.base.NotFoundException;
 import io.inverno.mod.http.base.Parameter;
+import io.inverno.mod.http.base.header.Headers;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * <p>
@@ -47,6 +64,19 @@ import io.inverno.mod.http.base.Parameter;
  * 
  * </pre></blockquote>
  * 
+ * <p>
+ * Resources are served with a weak entity tag derived from their size and last
+ * modified time, conditional requests are then answered with a
+ * {@code 304 Not Modified} response when the resource has not changed. An
+ * entity tag generator can be specified to produce strong entity tags instead,
+ * such as the one returned by {@link #digestEntityTagGenerator(String)}.
+ * </p>
+ * 
+ * <p>
+ * A {@link StaticResourceCache} can be specified to serve small resources from
+ * memory.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  * 
@@ -63,6 +93,10 @@ public class StaticHandler implements WebExchangeHandler<WebExchange> {
 	
 	private String pathParameterName;
 	
+	private Function<Resource, String> entityTagGenerator;
+	
+	private StaticResourceCache cache;
+	
 	/**
 	 * <p>
 	 * Creates a static handler resolving resources from the specified base
@@ -106,6 +140,93 @@ public class StaticHandler implements WebExchangeHandler<WebExchange> {
 		this.pathParameterName = pathParameterName;
 	}
 	
+	/**
+	 * <p>
+	 * Sets the generator used to generate the entity tag of the resources
+	 * served by the handler.
+	 * </p>
+	 * 
+	 * <p>
+	 * The generator can return null in which case a weak entity tag is
+	 * generated from the size and the last modified time of the resource.
+	 * </p>
+	 * 
+	 * @param entityTagGenerator an entity tag generator or null to use weak
+	 *                           entity tags
+	 * 
+	 * @see #digestEntityTagGenerator(String)
+	 */
+	public void setEntityTagGenerator(Function<Resource, String> entityTagGenerator) {
+		this.entityTagGenerator = entityTagGenerator;
+	}
+	
+	/**
+	 * <p>
+	 * Sets the cache used to serve resources from memory.
+	 * </p>
+	 * 
+	 * <p>
+	 * A cache can be shared by multiple static handlers.
+	 * </p>
+	 * 
+	 * @param cache a static resource cache or null to always read resources
+	 */
+	public void setCache(StaticResourceCache cache) {
+		this.cache = cache;
+	}
+	
+	/**
+	 * <p>
+	 * Returns an entity tag generator generating strong entity tags from the
+	 * digest of the content of a resource.
+	 * </p>
+	 * 
+	 * <p>
+	 * Digests are computed once per resource in the background and cached as
+	 * long as the size and the last modified time of the resource remain the
+	 * same, a resource doesn't get a strong entity tag until its digest has
+	 * been computed. A resource whose size or last modified time can't be
+	 * determined doesn't get a strong entity tag.
+	 * </p>
+	 * 
+	 * @param algorithm a message digest algorithm (eg. {@code SHA-256})
+	 * 
+	 * @return an entity tag generator
+	 * 
+	 * @throws IllegalArgumentException if the algorithm is not supported
+	 */
+	public static Function<Resource, String> digestEntityTagGenerator(String algorithm) throws IllegalArgumentException {
+		return new DigestEntityTagGenerator(algorithm);
+	}
+	
+	/**
+	 * <p>
+	 * Sets the specified resource in the response payload along with its
+	 * entity tag when an entity tag generator has been specified.
+	 * </p>
+	 * 
+	 * <p>
+	 * The resource is served from the cache when one has been specified.
+	 * </p>
+	 * 
+	 * @param exchange the web exchange
+	 * @param resource the resource to serve
+	 */
+	private void serve(WebExchange exchange, Resource resource) {
+		if(this.entityTagGenerator != null && resource.exists().orElse(true)) {
+			String entityTag = this.entityTagGenerator.apply(resource);
+			if(entityTag != null) {
+				exchange.response().headers(headers -> headers.set(Headers.NAME_ETAG, entityTag));
+			}
+		}
+		if(this.cache != null) {
+			this.cache.serve(exchange, resource);
+		}
+		else {
+			exchange.response().body().resource().value(resource);
+		}
+	}
+	
 	@Override
 	public void handle(WebExchange exchange) throws HttpException {
 		String resourcePath = exchange.request().pathParameters().get(this.pathParameterName).map(Parameter::getValue).orElse("");
@@ -131,7 +252,7 @@ public class StaticHandler implements WebExchangeHandler<WebExchange> {
 			
 			if(!exists.isPresent()) {
 				// We can't determine the existence, this indicates an "opaque" resource like a URL, we can only try
-				exchange.response().body().resource().value(requestedResource);
+				this.serve(exchange, requestedResource);
 			}
 			else if(exists.get()) {
 				// Resource exists
@@ -139,18 +260,18 @@ public class StaticHandler implements WebExchangeHandler<WebExchange> {
 					// We know what the resource is
 					if(isFile.get()) {
 						// regular file
-						exchange.response().body().resource().value(requestedResource);
+						this.serve(exchange, requestedResource);
 					}
 					else {
 						// directory
 						try(Resource requestedResourceIndex = requestedResource.resolve("index.html")) {
-							exchange.response().body().resource().value(requestedResourceIndex);
+							this.serve(exchange, requestedResourceIndex);
 						}
 					}
 				}
 				else {
 					// This might indicate stream based resources like module or URL in which case we'll have content but no file
-					exchange.response().body().resource().value(requestedResource);
+					this.serve(exchange, requestedResource);
 				}
 			}
 			else {
@@ -158,7 +279,7 @@ public class StaticHandler implements WebExchangeHandler<WebExchange> {
 				if(!isFile.isPresent()) {
 					// This might indicate stream based resources like module or URL in which case we might have a directory
 					try(Resource requestedResourceIndex = requestedResource.resolve("index.html")) {
-						exchange.response().body().resource().value(requestedResourceIndex);
+						this.serve(exchange, requestedResourceIndex);
 					}
 				}
 				else {
@@ -171,4 +292,153 @@ public class StaticHandler implements WebExchangeHandler<WebExchange> {
 			throw new NotFoundException(resourcePath);
 		}
 	}
+	
+	/**
+	 * <p>
+	 * An entity tag generator generating strong entity tags from the digest of
+	 * the content of a resource.
+	 * </p>
+	 * 
+	 * <p>
+	 * Digesting a resource requires to read its whole content, digests are
+	 * then computed on the bounded elastic scheduler in order not to block the
+	 * event loop and cached for the most recently used resources. No entity tag
+	 * is generated until the digest of the current version of a resource is
+	 * available.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class DigestEntityTagGenerator implements Function<Resource, String> {
+		
+		private static final int MAX_CACHED_ENTITY_TAGS = 1024;
+		
+		private final String algorithm;
+		
+		private final Map<URI, DigestEntityTag> entityTags;
+		
+		private final Set<URI> digestingResources;
+		
+		public DigestEntityTagGenerator(String algorithm) throws IllegalArgumentException {
+			try {
+				MessageDigest.getInstance(algorithm);
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new IllegalArgumentException("Unsupported digest algorithm: " + algorithm, e);
+			}
+			this.algorithm = algorithm;
+			this.entityTags = new LinkedHashMap<>(16, 0.75f, true) {
+				
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<URI, DigestEntityTag> eldest) {
+					return this.size() > MAX_CACHED_ENTITY_TAGS;
+				}
+			};
+			this.digestingResources = new HashSet<>();
+		}
+		
+		@Override
+		public String apply(Resource resource) {
+			Long size = resource.size().orElse(null);
+			FileTime lastModified = resource.lastModified().orElse(null);
+			if(size == null || lastModified == null) {
+				return null;
+			}
+			URI uri = resource.getURI();
+			synchronized(this.entityTags) {
+				DigestEntityTag entityTag = this.entityTags.get(uri);
+				if(entityTag != null && entityTag.size == size && Objects.equals(entityTag.lastModified, lastModified)) {
+					return entityTag.value;
+				}
+				if(!this.digestingResources.add(uri)) {
+					// The resource is already being digested
+					return null;
+				}
+			}
+			
+			// The channel is opened eagerly since the resource might be closed before it is actually digested
+			ReadableByteChannel channel = null;
+			try {
+				channel = resource.openReadableByteChannel().orElse(null);
+			}
+			finally {
+				if(channel == null) {
+					synchronized(this.entityTags) {
+						this.digestingResources.remove(uri);
+					}
+				}
+			}
+			if(channel != null) {
+				ReadableByteChannel resourceChannel = channel;
+				Mono.fromCallable(() -> this.digest(resourceChannel))
+					.subscribeOn(Schedulers.boundedElastic())
+					.doFinally(ign -> {
+						synchronized(this.entityTags) {
+							this.digestingResources.remove(uri);
+						}
+					})
+					.subscribe(
+						value -> {
+							synchronized(this.entityTags) {
+								this.entityTags.put(uri, new DigestEntityTag(size, lastModified, value));
+							}
+						},
+						e -> {}
+					);
+			}
+			return null;
+		}
+		
+		/**
+		 * <p>
+		 * Digests the content read from the specified channel which is closed
+		 * once the content has been digested.
+		 * </p>
+		 * 
+		 * @param channel the channel to read the resource
+		 * 
+		 * @return the entity tag or null if the resource couldn't be read
+		 */
+		private String digest(ReadableByteChannel channel) {
+			try(channel) {
+				MessageDigest digest = MessageDigest.getInstance(this.algorithm);
+				ByteBuffer buffer = ByteBuffer.allocate(8192);
+				while(channel.read(buffer) != -1) {
+					buffer.flip();
+					digest.update(buffer);
+					buffer.clear();
+				}
+				return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+			}
+			catch (IOException | NoSuchAlgorithmException e) {
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A strong entity tag computed for a given version of a resource.
+	 * </p>
+	 * 
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class DigestEntityTag {
+		
+		private final long size;
+		
+		private final FileTime lastModified;
+		
+		private final String value;
+		
+		public DigestEntityTag(long size, FileTime lastModified, String value) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.value = value;
+		}
+	}
 }
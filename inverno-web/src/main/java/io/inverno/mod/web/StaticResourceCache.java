@@ -0,0 +1,820 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.reactivestreams.Publisher;
+
+import io.inverno.mod.base.resource.Resource;
+import io.inverno.mod.base.resource.ResourceException;
+import io.inverno.mod.http.base.Status;
+import io.inverno.mod.http.base.header.Headers;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * <p>
+ * A bounded in-memory cache of static resources.
+ * </p>
+ *
+ * <p>
+ * Small resources are loaded once in pooled read-only direct buffers along
+ * with their {@code gzip} and {@code deflate} variants which are only kept
+ * when they are actually smaller than the original content. A cached resource
+ * is then served from memory without any file I/O and without compressing the
+ * content again.
+ * </p>
+ *
+ * <p>
+ * Resources are loaded and compressed in the background on the bounded elastic
+ * scheduler in order not to block the event loop, a resource is served as is
+ * until it has been loaded.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by the total size of the cached content, the least
+ * recently used resources are evicted first. A cached resource is invalidated
+ * when the size or the last modified time of the underlying resource has
+ * changed.
+ * </p>
+ *
+ * <p>
+ * A precompressed variant is not served when the server already negotiated a
+ * content encoding for the response, as it is the case with HTTP/2 when
+ * compression is enabled in the HTTP server, in which case the original content
+ * is served from memory and compressed by the server.
+ * </p>
+ *
+ * <blockquote><pre>
+ * StaticResourceCache cache = new StaticResourceCache(16 * 1024 * 1024);
+ *
+ * StaticHandler handler = new StaticHandler(new FileResource("/path/to/resources/"));
+ * handler.setCache(cache);
+ * </pre></blockquote>
+ *
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ *
+ * @see StaticHandler
+ */
+public class StaticResourceCache {
+	
+	/**
+	 * The default maximum size of a cached resource.
+	 */
+	public static final long DEFAULT_MAX_RESOURCE_SIZE = 256 * 1024;
+	
+	/**
+	 * The minimum compression ratio for a compressed variant to be kept.
+	 */
+	private static final float MAX_COMPRESSED_RATIO = 0.9f;
+	
+	private final ByteBufAllocator allocator;
+	
+	private final long maxSize;
+	
+	private final long maxResourceSize;
+	
+	private final LinkedHashMap<URI, CachedResource> resources;
+	
+	private final Set<URI> loadingResources;
+	
+	private long size;
+	
+	/**
+	 * <p>
+	 * Creates a static resource cache using the default pooled allocator and
+	 * the default maximum resource size.
+	 * </p>
+	 *
+	 * @param maxSize the maximum total size in bytes of the cached content
+	 */
+	public StaticResourceCache(long maxSize) {
+		this(PooledByteBufAllocator.DEFAULT, maxSize, DEFAULT_MAX_RESOURCE_SIZE);
+	}
+	
+	/**
+	 * <p>
+	 * Creates a static resource cache.
+	 * </p>
+	 *
+	 * @param allocator       the allocator used to allocate cached content
+	 * @param maxSize         the maximum total size in bytes of the cached
+	 *                        content
+	 * @param maxResourceSize the maximum size in bytes of a cached resource
+	 */
+	public StaticResourceCache(ByteBufAllocator allocator, long maxSize, long maxResourceSize) {
+		this.allocator = allocator;
+		this.maxSize = maxSize;
+		this.maxResourceSize = Math.min(maxResourceSize, Integer.MAX_VALUE);
+		this.resources = new LinkedHashMap<>(16, 0.75f, true);
+		this.loadingResources = new HashSet<>();
+	}
+	
+	/**
+	 * <p>
+	 * Sets the specified resource in the response payload, from memory when the
+	 * resource can be cached.
+	 * </p>
+	 *
+	 * <p>
+	 * The variant of the resource is selected from the {@code accept-encoding}
+	 * header of the request, a resource that can't be cached is set as is in the
+	 * response payload.
+	 * </p>
+	 *
+	 * <p>
+	 * The cached content served in the response is retained until the exchange
+	 * is finalized (see {@link io.inverno.mod.http.server.Exchange#finalizer(Mono)}).
+	 * When the exchange doesn't support finalizers, content which is leased but
+	 * never read (eg. a byte range publisher which is never subscribed) remains
+	 * retained and is never freed once the resource is evicted.
+	 * </p>
+	 *
+	 * @param exchange the web exchange
+	 * @param resource the resource to serve
+	 */
+	public void serve(WebExchange exchange, Resource resource) {
+		CachedResource cachedResource = this.get(resource);
+		if(cachedResource == null) {
+			exchange.response().body().resource().value(resource);
+			return;
+		}
+		
+		CachedResourceVariant variant = cachedResource.identity;
+		if(cachedResource.gzip != null || cachedResource.deflate != null) {
+			exchange.response().headers(headers -> headers.add(Headers.NAME_VARY, Headers.NAME_ACCEPT_ENCODING));
+			if(!exchange.response().headers().contains(Headers.NAME_CONTENT_ENCODING)) {
+				variant = negotiateVariant(exchange.request().headers().getAll(Headers.NAME_ACCEPT_ENCODING), cachedResource);
+			}
+		}
+		
+		// The content is retained for the request when the variant is selected so that the response doesn't fail if the resource is evicted in the meantime
+		CachedResourceLease lease = variant.lease();
+		if(lease == null) {
+			exchange.response().body().resource().value(resource);
+			return;
+		}
+		if(variant.encoding != null) {
+			String encoding = variant.encoding;
+			exchange.response().headers(headers -> {
+				headers.set(Headers.NAME_CONTENT_ENCODING, encoding);
+				// A strong entity tag must differ between encodings
+				headers.get(Headers.NAME_ETAG)
+					.filter(etag -> !etag.startsWith("W/") && etag.endsWith("\""))
+					.ifPresent(etag -> headers.set(Headers.NAME_ETAG, etag.substring(0, etag.length() - 1) + "-" + encoding + "\""));
+			});
+		}
+		try {
+			// The content must be released even if it is never read, eg. the connection was closed before the response data were subscribed
+			exchange.finalizer(Mono.fromRunnable(lease::release));
+		}
+		catch(UnsupportedOperationException e) {
+			// The lease can then only be released below when we know the content is not going to be read
+		}
+		exchange.response().body().resource().value(lease);
+		if(!lease.isRead() && exchange.response().headers().getStatusCode() != Status.PARTIAL_CONTENT.getCode()) {
+			// The content is not going to be read (eg. 304 Not Modified)
+			lease.release();
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Invalidates all cached resources.
+	 * </p>
+	 */
+	public void invalidate() {
+		synchronized(this.resources) {
+			this.resources.values().forEach(CachedResource::release);
+			this.resources.clear();
+			this.size = 0;
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Returns the cached resource corresponding to the specified resource.
+	 * </p>
+	 *
+	 * <p>
+	 * Reading and compressing a resource are blocking operations, when the
+	 * resource is not cached or when it has been modified, it is loaded in the
+	 * background on the bounded elastic scheduler and this method returns null
+	 * so that the resource is served as is in the meantime.
+	 * </p>
+	 *
+	 * @param resource a resource
+	 *
+	 * @return a cached resource or null if the resource is not cached yet or
+	 *         can't be cached
+	 */
+	private CachedResource get(Resource resource) {
+		Long resourceSize = resource.size().orElse(null);
+		if(resourceSize == null || resourceSize > this.maxResourceSize || !resource.exists().orElse(false)) {
+			return null;
+		}
+		FileTime lastModified = resource.lastModified().orElse(null);
+		URI uri = resource.getURI();
+		
+		synchronized(this.resources) {
+			CachedResource cachedResource = this.resources.get(uri);
+			if(cachedResource != null && cachedResource.identity.size == resourceSize && Objects.equals(cachedResource.identity.lastModified, lastModified)) {
+				return cachedResource;
+			}
+			if(!this.loadingResources.add(uri)) {
+				// The resource is already being loaded
+				return null;
+			}
+		}
+		
+		// The channel is opened eagerly since the resource might be closed before it is actually loaded
+		ReadableByteChannel channel = null;
+		try {
+			channel = resource.openReadableByteChannel().orElse(null);
+		}
+		finally {
+			if(channel == null) {
+				synchronized(this.resources) {
+					this.loadingResources.remove(uri);
+				}
+			}
+		}
+		if(channel != null) {
+			ReadableByteChannel resourceChannel = channel;
+			String filename = resource.getFilename();
+			String mediaType = resource.getMediaType();
+			Mono.fromCallable(() -> this.load(resourceChannel, uri, filename, mediaType, resourceSize.intValue(), lastModified))
+				.subscribeOn(Schedulers.boundedElastic())
+				.doFinally(ign -> {
+					synchronized(this.resources) {
+						this.loadingResources.remove(uri);
+					}
+				})
+				.subscribe(this::put, e -> {});
+		}
+		return null;
+	}
+	
+	/**
+	 * <p>
+	 * Puts the specified loaded resource in the cache, evicting least recently
+	 * used resources if necessary.
+	 * </p>
+	 *
+	 * @param cachedResource the loaded resource
+	 */
+	private void put(CachedResource cachedResource) {
+		if(cachedResource.weight > this.maxSize) {
+			cachedResource.release();
+			return;
+		}
+		synchronized(this.resources) {
+			CachedResource previousResource = this.resources.put(cachedResource.identity.uri, cachedResource);
+			if(previousResource != null) {
+				this.size -= previousResource.weight;
+				previousResource.release();
+			}
+			this.size += cachedResource.weight;
+			
+			// Evict least recently used resources
+			Iterator<CachedResource> resourcesIterator = this.resources.values().iterator();
+			while(this.size > this.maxSize && resourcesIterator.hasNext()) {
+				CachedResource eldestResource = resourcesIterator.next();
+				if(eldestResource != cachedResource) {
+					resourcesIterator.remove();
+					this.size -= eldestResource.weight;
+					eldestResource.release();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Loads a resource and its compressed variants in memory.
+	 * </p>
+	 *
+	 * <p>
+	 * The specified channel is closed once the resource has been loaded.
+	 * </p>
+	 *
+	 * @param channel      the channel to read the resource
+	 * @param uri          the URI of the resource
+	 * @param filename     the filename of the resource
+	 * @param mediaType    the media type of the resource
+	 * @param resourceSize the size of the resource
+	 * @param lastModified the last modified time of the resource
+	 *
+	 * @return a cached resource or null if the resource couldn't be loaded
+	 */
+	private CachedResource load(ReadableByteChannel channel, URI uri, String filename, String mediaType, int resourceSize, FileTime lastModified) {
+		ByteBuf data = this.allocator.directBuffer(resourceSize, resourceSize);
+		ByteBuf gzipData = null;
+		ByteBuf deflateData = null;
+		try(channel) {
+			ByteBuffer target = data.nioBuffer(0, resourceSize);
+			while(target.hasRemaining() && channel.read(target) != -1);
+			if(target.position() != resourceSize || channel.read(ByteBuffer.allocate(1)) != -1) {
+				// The resource has changed while we were reading it
+				data.release();
+				return null;
+			}
+			data.writerIndex(resourceSize);
+			
+			gzipData = this.compress(data, true);
+			deflateData = this.compress(data, false);
+		}
+		catch(IOException e) {
+			data.release();
+			if(gzipData != null) {
+				gzipData.release();
+			}
+			return null;
+		}
+		
+		return new CachedResource(
+			new CachedResourceVariant(uri, filename, mediaType, lastModified, data.asReadOnly(), null),
+			gzipData != null ? new CachedResourceVariant(uri, filename, mediaType, lastModified, gzipData.asReadOnly(), Headers.VALUE_GZIP) : null,
+			deflateData != null ? new CachedResourceVariant(uri, filename, mediaType, lastModified, deflateData.asReadOnly(), Headers.VALUE_DEFLATE) : null
+		);
+	}
+	
+	/**
+	 * <p>
+	 * Compresses the specified data.
+	 * </p>
+	 *
+	 * @param data the data to compress
+	 * @param gzip true to use the gzip format, false to use the deflate format
+	 *
+	 * @return the compressed data or null if compression is not worth it
+	 *
+	 * @throws IOException if there was an error compressing the data
+	 */
+	private ByteBuf compress(ByteBuf data, boolean gzip) throws IOException {
+		ByteBuf compressedData = this.allocator.directBuffer();
+		Deflater deflater = gzip ? null : new Deflater(Deflater.BEST_COMPRESSION);
+		try(OutputStream out = gzip ? new BestCompressionGZIPOutputStream(new ByteBufOutputStream(compressedData)) : new DeflaterOutputStream(new ByteBufOutputStream(compressedData), deflater)) {
+			data.getBytes(data.readerIndex(), out, data.readableBytes());
+		}
+		catch(IOException e) {
+			compressedData.release();
+			throw e;
+		}
+		finally {
+			if(deflater != null) {
+				deflater.end();
+			}
+		}
+		if(compressedData.readableBytes() > data.readableBytes() * MAX_COMPRESSED_RATIO) {
+			compressedData.release();
+			return null;
+		}
+		return compressedData;
+	}
+	
+	/**
+	 * <p>
+	 * Selects the variant of a cached resource matching the specified
+	 * {@code accept-encoding} header values.
+	 * </p>
+	 *
+	 * @param acceptEncodings the {@code accept-encoding} header values
+	 * @param cachedResource  the cached resource
+	 *
+	 * @return a variant of the cached resource
+	 */
+	private static CachedResourceVariant negotiateVariant(List<String> acceptEncodings, CachedResource cachedResource) {
+		float gzipQuality = -1;
+		float deflateQuality = -1;
+		float anyQuality = -1;
+		for(String acceptEncoding : acceptEncodings) {
+			for(String coding : acceptEncoding.split(",")) {
+				String[] codingParts = coding.split(";");
+				String name = codingParts[0].trim().toLowerCase();
+				float quality = 1;
+				for(int i=1;i<codingParts.length;i++) {
+					String parameter = codingParts[i].trim();
+					if(parameter.startsWith("q=")) {
+						try {
+							quality = Float.parseFloat(parameter.substring(2));
+						}
+						catch(NumberFormatException e) {
+							quality = 0;
+						}
+					}
+				}
+				if(name.equals(Headers.VALUE_GZIP) || name.equals(Headers.VALUE_X_GZIP)) {
+					gzipQuality = quality;
+				}
+				else if(name.equals(Headers.VALUE_DEFLATE)) {
+					deflateQuality = quality;
+				}
+				else if(name.equals("*")) {
+					anyQuality = quality;
+				}
+			}
+		}
+		if(gzipQuality < 0) {
+			gzipQuality = anyQuality;
+		}
+		if(deflateQuality < 0) {
+			deflateQuality = anyQuality;
+		}
+		
+		if(cachedResource.gzip != null && gzipQuality > 0 && (gzipQuality >= deflateQuality || cachedResource.deflate == null)) {
+			return cachedResource.gzip;
+		}
+		else if(cachedResource.deflate != null && deflateQuality > 0) {
+			return cachedResource.deflate;
+		}
+		return cachedResource.identity;
+	}
+	
+	/**
+	 * <p>
+	 * A gzip output stream using the best compression level.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class BestCompressionGZIPOutputStream extends GZIPOutputStream {
+		
+		public BestCompressionGZIPOutputStream(OutputStream out) throws IOException {
+			super(out);
+			this.def.setLevel(Deflater.BEST_COMPRESSION);
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A resource cached in memory along with its compressed variants.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class CachedResource {
+		
+		private final CachedResourceVariant identity;
+		
+		private final CachedResourceVariant gzip;
+		
+		private final CachedResourceVariant deflate;
+		
+		private final long weight;
+		
+		public CachedResource(CachedResourceVariant identity, CachedResourceVariant gzip, CachedResourceVariant deflate) {
+			this.identity = identity;
+			this.gzip = gzip;
+			this.deflate = deflate;
+			this.weight = identity.size + (gzip != null ? gzip.size : 0) + (deflate != null ? deflate.size : 0);
+		}
+		
+		public void release() {
+			this.identity.data.release();
+			if(this.gzip != null) {
+				this.gzip.data.release();
+			}
+			if(this.deflate != null) {
+				this.deflate.data.release();
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A variant of a cached resource.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private class CachedResourceVariant {
+		
+		private final URI uri;
+		
+		private final String filename;
+		
+		private final String mediaType;
+		
+		private final FileTime lastModified;
+		
+		private final ByteBuf data;
+		
+		private final int size;
+		
+		private final String encoding;
+		
+		public CachedResourceVariant(URI uri, String filename, String mediaType, FileTime lastModified, ByteBuf data, String encoding) {
+			this.uri = uri;
+			this.filename = filename;
+			this.mediaType = mediaType;
+			this.lastModified = lastModified;
+			this.data = data;
+			this.size = data.readableBytes();
+			this.encoding = encoding;
+		}
+		
+		/**
+		 * <p>
+		 * Leases the variant to serve it in a response.
+		 * </p>
+		 *
+		 * @return a lease or null if the cached resource has been evicted
+		 */
+		public CachedResourceLease lease() {
+			synchronized(StaticResourceCache.this.resources) {
+				if(this.data.refCnt() == 0) {
+					return null;
+				}
+				return new CachedResourceLease(this, this.data.retainedDuplicate());
+			}
+		}
+		
+		/**
+		 * <p>
+		 * Returns a retained duplicate of the cached content.
+		 * </p>
+		 *
+		 * @return a retained duplicate of the cached content
+		 *
+		 * @throws ResourceException if the cached resource has been evicted
+		 */
+		public ByteBuf retainedData() throws ResourceException {
+			synchronized(StaticResourceCache.this.resources) {
+				if(this.data.refCnt() == 0) {
+					throw new ResourceException("Cached resource " + this.uri + " has been evicted");
+				}
+				return this.data.retainedDuplicate();
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A variant of a cached resource leased to a request and exposed as a
+	 * read-only {@link Resource}.
+	 * </p>
+	 *
+	 * <p>
+	 * The lease holds a retained duplicate of the cached content which is
+	 * handed over to the first subscriber to the resource data and released
+	 * downstream, it is released by the cache if the content is not read or
+	 * when the exchange is finalized. The cached content must be retained again
+	 * for subsequent reads (eg. multiple byte ranges) which fail if the cached
+	 * resource has been evicted in the meantime.
+	 * </p>
+	 *
+	 * <p>
+	 * A cached resource has no children, resolving a path against a lease
+	 * returns a resource that doesn't exist.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class CachedResourceLease implements Resource {
+		
+		private final CachedResourceVariant variant;
+		
+		private final AtomicReference<ByteBuf> data;
+		
+		private volatile boolean read;
+		
+		public CachedResourceLease(CachedResourceVariant variant, ByteBuf data) {
+			this.variant = variant;
+			this.data = new AtomicReference<>(data);
+		}
+		
+		/**
+		 * <p>
+		 * Determines whether the resource data have been requested.
+		 * </p>
+		 *
+		 * @return true if the resource has been read, false otherwise
+		 */
+		public boolean isRead() {
+			return this.read;
+		}
+		
+		/**
+		 * <p>
+		 * Releases the leased content if it hasn't been handed over to a
+		 * subscriber.
+		 * </p>
+		 */
+		public void release() {
+			ByteBuf leasedData = this.data.getAndSet(null);
+			if(leasedData != null) {
+				leasedData.release();
+			}
+		}
+		
+		@Override
+		public String getFilename() {
+			return this.variant.filename;
+		}
+		
+		@Override
+		public String getMediaType() {
+			return this.variant.mediaType;
+		}
+		
+		@Override
+		public URI getURI() {
+			return this.variant.uri;
+		}
+		
+		@Override
+		public Optional<Boolean> isFile() {
+			return Optional.of(false);
+		}
+		
+		@Override
+		public Optional<Boolean> exists() {
+			return Optional.of(true);
+		}
+		
+		@Override
+		public Optional<FileTime> lastModified() {
+			return Optional.ofNullable(this.variant.lastModified);
+		}
+		
+		@Override
+		public Optional<Long> size() {
+			return Optional.of((long)this.variant.size);
+		}
+		
+		@Override
+		public Optional<ReadableByteChannel> openReadableByteChannel() {
+			this.read = true;
+			return Optional.of(Channels.newChannel(new ByteBufInputStream(this.retainedData(), true)));
+		}
+		
+		@Override
+		public Optional<WritableByteChannel> openWritableByteChannel(boolean append, boolean createParents) {
+			return Optional.empty();
+		}
+		
+		@Override
+		public Optional<Publisher<ByteBuf>> read() {
+			this.read = true;
+			return Optional.of(Mono.fromSupplier(this::retainedData).doOnDiscard(ByteBuf.class, ByteBuf::release));
+		}
+		
+		private ByteBuf retainedData() throws ResourceException {
+			ByteBuf leasedData = this.data.getAndSet(null);
+			return leasedData != null ? leasedData : this.variant.retainedData();
+		}
+		
+		@Override
+		public Optional<Publisher<Integer>> write(Publisher<ByteBuf> data, boolean append, boolean createParents) {
+			return Optional.empty();
+		}
+		
+		@Override
+		public boolean delete() {
+			return false;
+		}
+		
+		@Override
+		public Resource resolve(Path path) {
+			return new MissingResource(this.variant.uri.resolve(path.toString()));
+		}
+		
+		@Override
+		public void close() {
+		
+		}
+	}
+	
+	/**
+	 * <p>
+	 * A resource that doesn't exist resulting from the resolution of a path
+	 * against a cached resource.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class MissingResource implements Resource {
+		
+		private final URI uri;
+		
+		public MissingResource(URI uri) {
+			this.uri = uri;
+		}
+		
+		@Override
+		public String getFilename() {
+			String path = this.uri.getPath();
+			return path != null ? path.substring(path.lastIndexOf('/') + 1) : null;
+		}
+		
+		@Override
+		public String getMediaType() {
+			return null;
+		}
+		
+		@Override
+		public URI getURI() {
+			return this.uri;
+		}
+		
+		@Override
+		public Optional<Boolean> isFile() {
+			return Optional.of(false);
+		}
+		
+		@Override
+		public Optional<Boolean> exists() {
+			return Optional.of(false);
+		}
+		
+		@Override
+		public Optional<FileTime> lastModified() {
+			return Optional.empty();
+		}
+		
+		@Override
+		public Optional<Long> size() {
+			return Optional.empty();
+		}
+		
+		@Override
+		public Optional<ReadableByteChannel> openReadableByteChannel() {
+			return Optional.empty();
+		}
+		
+		@Override
+		public Optional<WritableByteChannel> openWritableByteChannel(boolean append, boolean createParents) {
+			return Optional.empty();
+		}
+		
+		@Override
+		public Optional<Publisher<ByteBuf>> read() {
+			return Optional.empty();
+		}
+		
+		@Override
+		public Optional<Publisher<Integer>> write(Publisher<ByteBuf> data, boolean append, boolean createParents) {
+			return Optional.empty();
+		}
+		
+		@Override
+		public boolean delete() {
+			return false;
+		}
+		
+		@Override
+		public Resource resolve(Path path) {
+			return new MissingResource(this.uri.resolve(path.toString()));
+		}
+		
+		@Override
+		public void close() {
+		
+		}
+	}
+}
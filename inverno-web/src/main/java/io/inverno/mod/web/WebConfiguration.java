@@ -63,4 +63,39 @@ public interface WebConfiguration {
 	default boolean enable_webjars() {
 		return false;
 	}
+	
+	/**
+	 * <p>
+	 * The maximum number of resolved routes cached by the web router.
+	 * </p>
+	 * 
+	 * <p>
+	 * A route is resolved from the method, the path, the {@code accept}, the
+	 * {@code content-type} and the {@code accept-language} headers of a request.
+	 * Caching resolved routes saves the routing of the request through the
+	 * routing chain when a limited set of distinct requests is expected. A value
+	 * lower or equal to 0 disables the cache.
+	 * </p>
+	 * 
+	 * @return the maximum number of cached resolved routes
+	 */
+	default int route_cache_size() {
+		return 0;
+	}
+	
+	/**
+	 * <p>
+	 * The maximum total size in bytes of the WebJars resources cached in memory.
+	 * </p>
+	 * 
+	 * <p>
+	 * Small WebJars resources and their compressed variants are then served
+	 * from memory. A value lower or equal to 0 disables the cache.
+	 * </p>
+	 * 
+	 * @return the maximum size of the WebJars resources cache
+	 */
+	default long webjars_cache_size() {
+		return 0;
+	}
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web;
+
+import io.inverno.mod.http.base.Method;
+
+/**
+ * <p>
+ * A web route dispatcher maps the static paths and methods of a set of web
+ * routes known in advance to route indexes.
+ * </p>
+ * 
+ * <p>
+ * It is typically generated by the web compiler for the web controllers
+ * defined in a module and installed in a {@link WebRouter} which can then
+ * resolve these routes without going through its generic routing chain.
+ * </p>
+ * 
+ * <p>
+ * A route dispatcher only provides a fast path: the router remains responsible
+ * for resolving the handler of a route index from its actual routes, a route
+ * index is ignored when the corresponding route is disabled, removed or is
+ * ambiguous (eg. when other routes defined on the same path and method specify
+ * content negotiation criteria).
+ * </p>
+ * 
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ * 
+ * @see WebRouter
+ */
+public interface WebRouteDispatcher {
+
+	/**
+	 * <p>
+	 * Returns the number of routes handled by the dispatcher.
+	 * </p>
+	 * 
+	 * @return the number of routes
+	 */
+	int getRouteCount();
+	
+	/**
+	 * <p>
+	 * Returns the normalized static path of the route at the specified index.
+	 * </p>
+	 * 
+	 * @param routeIndex a route index
+	 * 
+	 * @return an absolute normalized path
+	 */
+	String getPath(int routeIndex);
+	
+	/**
+	 * <p>
+	 * Returns the method of the route at the specified index.
+	 * </p>
+	 * 
+	 * @param routeIndex a route index
+	 * 
+	 * @return a method
+	 */
+	Method getMethod(int routeIndex);
+	
+	/**
+	 * <p>
+	 * Returns the index of the route matching the specified path and method.
+	 * </p>
+	 * 
+	 * <p>
+	 * Implementations must return -1 when the path or the method is null.
+	 * </p>
+	 * 
+	 * @param path   the absolute normalized path of a request
+	 * @param method the method of a request
+	 * 
+	 * @return a route index or -1 if no route matches the path and the method
+	 */
+	int dispatch(String path, Method method);
+}
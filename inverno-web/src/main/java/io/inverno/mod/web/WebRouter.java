@@ -40,9 +40,35 @@ import io.inverno.mod.http.server.Exchange;
  * @see WebExchangeHandler
  * @see WebRoute
  * @see WebRouteManager
+ * @see WebRouteDispatcher
  *
  * @param <A> the type of web exchange handled by the route
  */
 public interface WebRouter<A extends WebExchange> extends Router<A, WebRouter<A>, WebRouteManager<A>, WebRoute<A>, Exchange> {
 
+	/**
+	 * <p>
+	 * Installs the specified route dispatcher ahead of the routes defined in the
+	 * router.
+	 * </p>
+	 * 
+	 * <p>
+	 * The routes handled by the dispatcher must have been defined in the router,
+	 * the dispatcher is only used to resolve them faster.
+	 * </p>
+	 * 
+	 * <p>
+	 * The default implementation ignores the dispatcher, routes are then simply
+	 * resolved by the router.
+	 * </p>
+	 * 
+	 * @param dispatcher a web route dispatcher
+	 * 
+	 * @return the router
+	 * 
+	 * @since 1.2
+	 */
+	default WebRouter<A> dispatcher(WebRouteDispatcher dispatcher) {
+		return this;
+	}
 }
@@ -27,6 +27,7 @@ import io.inverno.mod.http.base.HttpException;
 import io.inverno.mod.http.base.header.HeaderCodec;
 import io.inverno.mod.http.base.header.Headers;
 import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.ContentAwareRoute;
 
 /**
@@ -60,6 +61,13 @@ class ConsumesRoutingLink<A extends Exchange, B extends ContentAwareRoute<A>> ex
 		this.handlers = new LinkedHashMap<>();
 	}
 
+	@Override
+	protected ConsumesRoutingLink<A, B> copyLink() {
+		ConsumesRoutingLink<A, B> copy = new ConsumesRoutingLink<>(this.acceptCodec);
+		this.handlers.forEach((mediaRange, handler) -> copy.handlers.put(mediaRange, handler.copy()));
+		return copy;
+	}
+
 	@Override
 	public ConsumesRoutingLink<A, B> setRoute(B route) {
 		// Note if someone defines a route with a GET like method and a consumed media
@@ -159,9 +167,9 @@ class ConsumesRoutingLink<A extends Exchange, B extends ContentAwareRoute<A>> ex
 	}
 
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if (this.handlers.isEmpty()) {
-			this.nextLink.handle(exchange);
+			return this.nextLink.resolve(exchange);
 		} 
 		else {
 			Optional<Headers.ContentType> contentTypeHeader = exchange.request().headers().<Headers.ContentType>getHeader(Headers.NAME_CONTENT_TYPE);
@@ -174,10 +182,10 @@ class ConsumesRoutingLink<A extends Exchange, B extends ContentAwareRoute<A>> ex
 				);
 
 			if (handler.isPresent()) {
-				handler.get().handle(exchange);
+				return handler.get().resolve(exchange);
 			} 
 			else if (this.handlers.isEmpty() || !contentTypeHeader.isPresent()) {
-				this.nextLink.handle(exchange);
+				return this.nextLink.resolve(exchange);
 			}
 			else {
 				throw new UnsupportedMediaTypeException();
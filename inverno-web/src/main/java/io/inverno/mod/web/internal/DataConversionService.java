@@ -16,9 +16,10 @@
 package io.inverno.mod.web.internal;
 
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
@@ -52,6 +53,14 @@ import reactor.core.publisher.Mono;
  * type.
  * </p>
  * 
+ * <p>
+ * Resolved converters are cached by media type in a bounded concurrent map
+ * which is safe to access from multiple event loop threads. Media types are
+ * normalized (lower case without parameters) before being resolved so that
+ * equivalent media types share the same entry and arbitrary client-supplied
+ * values can't grow the cache beyond its capacity.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  * 
@@ -60,7 +69,12 @@ import reactor.core.publisher.Mono;
 @Bean(visibility = Visibility.PRIVATE)
 public class DataConversionService {
 
-	private final Map<String, MediaTypeConverter<ByteBuf>> convertersCache;
+	/**
+	 * The maximum number of media types in the converters cache.
+	 */
+	private static final int MAX_CACHED_MEDIA_TYPES = 256;
+	
+	private final Map<String, Optional<MediaTypeConverter<ByteBuf>>> convertersCache;
 
 	private final List<MediaTypeConverter<ByteBuf>> converters;
 
@@ -74,7 +88,34 @@ public class DataConversionService {
 	 */
 	public DataConversionService(List<MediaTypeConverter<ByteBuf>> converters) {
 		this.converters = converters;
-		this.convertersCache = new HashMap<>();
+		this.convertersCache = new ConcurrentHashMap<>();
+	}
+	
+	/**
+	 * <p>
+	 * Resolves and caches the converter for the specified media type ahead of
+	 * time.
+	 * </p>
+	 * 
+	 * <p>
+	 * This is typically invoked when a route is defined with the media types it
+	 * consumes or produces in order to avoid resolving converters while
+	 * processing requests. Media type ranges (eg. {@code application/*}) and
+	 * media types for which there's no converter are ignored.
+	 * </p>
+	 * 
+	 * @param mediaType a media type
+	 */
+	public void resolveConverter(String mediaType) {
+		if(mediaType == null || mediaType.indexOf('*') >= 0) {
+			return;
+		}
+		try {
+			this.getConverter(mediaType);
+		}
+		catch(NoConverterException e) {
+			// ignore, the error is reported when the converter is actually requested
+		}
 	}
 
 	/**
@@ -90,23 +131,53 @@ public class DataConversionService {
 	 *                              specified media type
 	 */
 	public MediaTypeConverter<ByteBuf> getConverter(String mediaType) throws NoConverterException {
-		MediaTypeConverter<ByteBuf> result = this.convertersCache.get(mediaType);
-		if (result == null && !this.convertersCache.containsKey(mediaType)) {
-			for (MediaTypeConverter<ByteBuf> converter : this.converters) {
-				if (converter.canConvert(mediaType)) {
-					this.convertersCache.put(mediaType, converter);
-					result = converter;
+		if(mediaType == null) {
+			// null keys are not supported in the cache
+			throw new NoConverterException(mediaType);
+		}
+		String normalizedMediaType = normalizeMediaType(mediaType);
+		Optional<MediaTypeConverter<ByteBuf>> result = this.convertersCache.get(normalizedMediaType);
+		if(result == null) {
+			result = Optional.empty();
+			for(MediaTypeConverter<ByteBuf> converter : this.converters) {
+				if(converter.canConvert(normalizedMediaType)) {
+					result = Optional.of(converter);
 					break;
 				}
 			}
-			if (result == null) {
-				this.convertersCache.put(mediaType, null);
+			if(this.convertersCache.size() < MAX_CACHED_MEDIA_TYPES) {
+				// The cache can slightly exceed its capacity under contention which is acceptable
+				this.convertersCache.putIfAbsent(normalizedMediaType, result);
 			}
 		}
-		if (result == null) {
-			throw new NoConverterException(mediaType);
+		return result.orElseThrow(() -> new NoConverterException(mediaType));
+	}
+	
+	/**
+	 * <p>
+	 * Normalizes the specified media type by removing parameters and
+	 * whitespaces and converting it to lower case.
+	 * </p>
+	 * 
+	 * <p>
+	 * The specified media type is returned as is when it is already normalized
+	 * which is the case for media types obtained from a parsed content type
+	 * header.
+	 * </p>
+	 * 
+	 * @param mediaType a media type
+	 * 
+	 * @return a normalized media type
+	 */
+	private static String normalizeMediaType(String mediaType) {
+		for(int i=0;i<mediaType.length();i++) {
+			char c = mediaType.charAt(i);
+			if(c == ';' || c == ' ' || c == '\t' || (c >= 'A' && c <= 'Z')) {
+				int parametersIndex = mediaType.indexOf(';');
+				return (parametersIndex >= 0 ? mediaType.substring(0, parametersIndex) : mediaType).trim().toLowerCase();
+			}
 		}
-		return result;
+		return mediaType;
 	}
 
 	/**
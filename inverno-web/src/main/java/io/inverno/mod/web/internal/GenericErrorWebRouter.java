@@ -19,6 +19,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.time.format.DateTimeFormatter;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -49,6 +50,12 @@ import io.inverno.mod.web.ErrorWebRouterConfigurer;
  * Generic {@link ErrorWebRouter} implementation.
  * </p>
  * 
+ * <p>
+ * Routes are updated in a copy of the routing chain which then replaces the
+ * current chain so that errors can be routed without locking while routes are
+ * updated.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -57,7 +64,7 @@ public class GenericErrorWebRouter implements @Provide ErrorWebRouter {
 	
 	private final DataConversionService dataConversionService;
 	
-	private final RoutingLink<ErrorWebExchange<Throwable>, ?, ErrorWebRoute> firstLink;
+	private volatile RoutingLink<ErrorWebExchange<Throwable>, ?, ErrorWebRoute> firstLink;
 	
 	private ErrorWebRouterConfigurer configurer;
 	
@@ -113,7 +120,10 @@ public class GenericErrorWebRouter implements @Provide ErrorWebRouter {
 	 * @param route an error web route
 	 */
 	void setRoute(ErrorWebRoute route) {
-		this.firstLink.setRoute(route);
+		if(this.dataConversionService != null) {
+			this.dataConversionService.resolveConverter(route.getProduce());
+		}
+		this.updateRoutes(firstLink -> firstLink.setRoute(route));
 	}
 	
 	/**
@@ -124,7 +134,7 @@ public class GenericErrorWebRouter implements @Provide ErrorWebRouter {
 	 * @param route the error web route to enable
 	 */
 	void enableRoute(ErrorWebRoute route) {
-		this.firstLink.enableRoute(route);
+		this.updateRoutes(firstLink -> firstLink.enableRoute(route));
 	}
 	
 	/**
@@ -135,7 +145,7 @@ public class GenericErrorWebRouter implements @Provide ErrorWebRouter {
 	 * @param route the error web route to disable
 	 */
 	void disableRoute(ErrorWebRoute route) {
-		this.firstLink.disableRoute(route);
+		this.updateRoutes(firstLink -> firstLink.disableRoute(route));
 	}
 
 	/**
@@ -146,7 +156,21 @@ public class GenericErrorWebRouter implements @Provide ErrorWebRouter {
 	 * @param route the error web route to remove
 	 */
 	void removeRoute(ErrorWebRoute route) {
-		this.firstLink.removeRoute(route);
+		this.updateRoutes(firstLink -> firstLink.removeRoute(route));
+	}
+	
+	/**
+	 * <p>
+	 * Applies the specified update to a copy of the routing chain and replaces
+	 * the current chain with the updated copy.
+	 * </p>
+	 * 
+	 * @param update the update to apply to the routing chain
+	 */
+	private synchronized void updateRoutes(Consumer<RoutingLink<ErrorWebExchange<Throwable>, ?, ErrorWebRoute>> update) {
+		RoutingLink<ErrorWebExchange<Throwable>, ?, ErrorWebRoute> updatedFirstLink = this.firstLink.copy();
+		update.accept(updatedFirstLink);
+		this.firstLink = updatedFirstLink;
 	}
 	
 	@Override
@@ -20,9 +20,11 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.web.WebExchange;
 import io.inverno.mod.web.WebRequest;
 import io.inverno.mod.web.WebResponse;
+import reactor.core.publisher.Mono;
 
 /**
  * <p>
@@ -37,6 +39,8 @@ import io.inverno.mod.web.WebResponse;
  */
 class GenericWebExchange implements WebExchange  {
 
+	private final Exchange exchange;
+	
 	private final GenericWebRequest request;
 	
 	private final GenericWebResponse response;
@@ -45,13 +49,16 @@ class GenericWebExchange implements WebExchange  {
 	
 	/**
 	 * <p>
-	 * Creates a generic web exchange with the specified request and response.
+	 * Creates a generic web exchange with the specified underlying exchange,
+	 * request and response.
 	 * </p>
 	 * 
+	 * @param exchange the underlying exchange
 	 * @param request  a web request
 	 * @param response a web response
 	 */
-	public GenericWebExchange(GenericWebRequest request, GenericWebResponse response) {
+	public GenericWebExchange(Exchange exchange, GenericWebRequest request, GenericWebResponse response) {
+		this.exchange = exchange;
 		this.request = request;
 		this.response = response;
 	}
@@ -66,6 +73,12 @@ class GenericWebExchange implements WebExchange  {
 		return this.response;
 	}
 	
+	@Override
+	public GenericWebExchange finalizer(Mono<Void> finalizer) {
+		this.exchange.finalizer(finalizer);
+		return this;
+	}
+	
 	@Override
 	public void setAttribute(String name, Object value) {
 		if(this.attributes == null) {
@@ -16,7 +16,10 @@
 package io.inverno.mod.web.internal;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import io.inverno.core.annotation.Bean;
@@ -31,8 +34,11 @@ import io.inverno.mod.http.base.internal.header.AcceptCodec;
 import io.inverno.mod.http.base.internal.header.AcceptLanguageCodec;
 import io.inverno.mod.http.base.internal.header.ContentTypeCodec;
 import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.web.StaticResourceCache;
 import io.inverno.mod.web.WebExchange;
 import io.inverno.mod.web.WebRoute;
+import io.inverno.mod.web.WebRouteDispatcher;
 import io.inverno.mod.web.WebRouteManager;
 import io.inverno.mod.web.WebRouter;
 import io.inverno.mod.web.WebConfiguration;
@@ -43,6 +49,18 @@ import io.inverno.mod.web.WebRouterConfigurer;
  * Generic {@link WebRouter} implementation.
  * </p>
  * 
+ * <p>
+ * Routes are updated in a copy of the routing chain which then replaces the
+ * current chain so that exchanges can be routed without locking while routes
+ * are updated.
+ * </p>
+ * 
+ * <p>
+ * {@link WebRouteDispatcher Route dispatchers} installed in the router are
+ * resolved against the routes every time routes are updated and used to route
+ * exchanges ahead of the routing chain.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  */
@@ -54,7 +72,9 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 	private final ResourceService resourceService;
 	private final ObjectConverter<String> parameterConverter;
 	
-	private final RoutingLink<WebExchange, ?, WebRoute<WebExchange>> firstLink;
+	private volatile RoutingLink<WebExchange, ?, WebRoute<WebExchange>> firstLink;
+	private final ResolvedRouteCache routeCache;
+	private volatile ResolvedRouteDispatcher[] dispatchers;
 	private final OpenApiWebRouterConfigurer openApiConfigurer;
 	private final WebjarsWebRouterConfigurer webjarsConfigurer;
 	
@@ -76,7 +96,7 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 		this.dataConversionService = dataConversionService;
 		this.parameterConverter = parameterConverter;
 		this.openApiConfigurer = this.configuration.enable_open_api() ? new OpenApiWebRouterConfigurer(configuration, resourceService) : null;
-		this.webjarsConfigurer = this.configuration.enable_webjars() ? new WebjarsWebRouterConfigurer(resourceService) : null;
+		this.webjarsConfigurer = this.configuration.enable_webjars() ? new WebjarsWebRouterConfigurer(resourceService, this.configuration.webjars_cache_size() > 0 ? new StaticResourceCache(this.configuration.webjars_cache_size()) : null) : null;
 		
 		AcceptCodec acceptCodec = new AcceptCodec(false);
 		ContentTypeCodec contentTypeCodec = new ContentTypeCodec();
@@ -90,6 +110,9 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 			.connect(new ProducesRoutingLink<>(contentTypeCodec))
 			.connect(new LanguageRoutingLink<>(acceptLanguageCodec))
 			.connect(new HandlerRoutingLink<>());
+		
+		this.routeCache = this.configuration.route_cache_size() > 0 ? new ResolvedRouteCache(() -> this.firstLink, this.configuration.route_cache_size()) : null;
+		this.dispatchers = new ResolvedRouteDispatcher[0];
 	}
 	
 	@Init
@@ -134,7 +157,11 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 	 * @param route a web route
 	 */
 	void setRoute(WebRoute<WebExchange> route) {
-		this.firstLink.setRoute(route);
+		if(this.dataConversionService != null) {
+			this.dataConversionService.resolveConverter(route.getConsume());
+			this.dataConversionService.resolveConverter(route.getProduce());
+		}
+		this.updateRoutes(firstLink -> firstLink.setRoute(route));
 	}
 	
 	/**
@@ -145,7 +172,7 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 	 * @param route the web route to enable
 	 */
 	void enableRoute(WebRoute<WebExchange> route) {
-		this.firstLink.enableRoute(route);
+		this.updateRoutes(firstLink -> firstLink.enableRoute(route));
 	}
 	
 	/**
@@ -156,7 +183,7 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 	 * @param route the web route to disable
 	 */
 	void disableRoute(WebRoute<WebExchange> route) {
-		this.firstLink.disableRoute(route);
+		this.updateRoutes(firstLink -> firstLink.disableRoute(route));
 	}
 
 	/**
@@ -167,7 +194,51 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 	 * @param route the web route to remove
 	 */
 	void removeRoute(WebRoute<WebExchange> route) {
-		this.firstLink.removeRoute(route);
+		this.updateRoutes(firstLink -> firstLink.removeRoute(route));
+	}
+	
+	/**
+	 * <p>
+	 * Applies the specified update to a copy of the routing chain, replaces the
+	 * current chain with the updated copy and invalidates the resolved route
+	 * cache if any.
+	 * </p>
+	 * 
+	 * @param update the update to apply to the routing chain
+	 */
+	private synchronized void updateRoutes(Consumer<RoutingLink<WebExchange, ?, WebRoute<WebExchange>>> update) {
+		RoutingLink<WebExchange, ?, WebRoute<WebExchange>> updatedFirstLink = this.firstLink.copy();
+		update.accept(updatedFirstLink);
+		if(this.dispatchers.length > 0) {
+			this.resolveDispatchers(updatedFirstLink, null);
+		}
+		this.firstLink = updatedFirstLink;
+		if(this.routeCache != null) {
+			this.routeCache.invalidate();
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Resolves the installed route dispatchers and the specified new dispatcher
+	 * against the routes in the specified routing chain.
+	 * </p>
+	 * 
+	 * @param firstLink     the first link of the routing chain
+	 * @param newDispatcher a new route dispatcher or null
+	 */
+	private void resolveDispatchers(RoutingLink<WebExchange, ?, WebRoute<WebExchange>> firstLink, WebRouteDispatcher newDispatcher) {
+		GenericWebRouteExtractor routeExtractor = new GenericWebRouteExtractor(this);
+		firstLink.extractRoute(routeExtractor);
+		Set<WebRoute<WebExchange>> routes = routeExtractor.getRoutes();
+		List<ResolvedRouteDispatcher> resolvedDispatchers = new ArrayList<>();
+		for(ResolvedRouteDispatcher dispatcher : this.dispatchers) {
+			resolvedDispatchers.add(new ResolvedRouteDispatcher(dispatcher.getDispatcher(), routes));
+		}
+		if(newDispatcher != null) {
+			resolvedDispatchers.add(new ResolvedRouteDispatcher(newDispatcher, routes));
+		}
+		this.dispatchers = resolvedDispatchers.toArray(new ResolvedRouteDispatcher[resolvedDispatchers.size()]);
 	}
 	
 	@Override
@@ -175,6 +246,12 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 		return new GenericWebRouteManager(this);
 	}
 	
+	@Override
+	public synchronized WebRouter<WebExchange> dispatcher(WebRouteDispatcher dispatcher) {
+		this.resolveDispatchers(this.firstLink, dispatcher);
+		return this;
+	}
+	
 	@Override
 	public Set<WebRoute<WebExchange>> getRoutes() {
 		GenericWebRouteExtractor routeExtractor = new GenericWebRouteExtractor(this);
@@ -184,7 +261,20 @@ public class GenericWebRouter implements @Provide WebRouter<WebExchange> {
 	
 	@Override
 	public void handle(Exchange exchange) throws HttpException {
-		this.firstLink.handle(new GenericWebExchange(new GenericWebRequest(exchange.request(), this.dataConversionService, this.parameterConverter), new GenericWebResponse(exchange.response(), this.dataConversionService)));
+		GenericWebExchange webExchange = new GenericWebExchange(exchange, new GenericWebRequest(exchange.request(), this.dataConversionService, this.parameterConverter), new GenericWebResponse(exchange.response(), this.dataConversionService));
+		for(ResolvedRouteDispatcher dispatcher : this.dispatchers) {
+			ExchangeHandler<WebExchange> handler = dispatcher.resolve(webExchange);
+			if(handler != null) {
+				handler.handle(webExchange);
+				return;
+			}
+		}
+		if(this.routeCache != null) {
+			this.routeCache.handle(webExchange);
+		}
+		else {
+			this.firstLink.handle(webExchange);
+		}
 	}
 	
 	/**
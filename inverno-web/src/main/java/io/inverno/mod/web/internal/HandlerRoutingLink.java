@@ -51,6 +51,15 @@ class HandlerRoutingLink<A extends Exchange, B extends Route<A>> extends Routing
 		super(HandlerRoutingLink::new);
 	}
 	
+	@Override
+	protected HandlerRoutingLink<A, B> copyLink() {
+		HandlerRoutingLink<A, B> copy = new HandlerRoutingLink<>();
+		copy.handler = this.handler;
+		copy.disabled = this.disabled;
+		return copy;
+	}
+	
+
 	@Override
 	public HandlerRoutingLink<A, B> setRoute(B route) {
 		this.handler = route.getHandler();
@@ -93,13 +102,13 @@ class HandlerRoutingLink<A extends Exchange, B extends Route<A>> extends Routing
 	}
 	
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if(this.handler == null) {
-			throw new RouteNotFoundException();
+			return notFoundHandler();
 		}
 		if(this.disabled) {
-			throw new DisabledRouteException();
+			return disabledHandler();
 		}
-		this.handler.handle(exchange);
+		return this.handler;
 	}
 }
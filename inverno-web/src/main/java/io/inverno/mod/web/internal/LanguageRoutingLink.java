@@ -28,6 +28,7 @@ import io.inverno.mod.http.base.header.Headers;
 import io.inverno.mod.http.base.header.Headers.AcceptLanguage.LanguageRange;
 import io.inverno.mod.http.base.header.Headers.AcceptMatch;
 import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.AcceptAwareRoute;
 
 /**
@@ -69,6 +70,14 @@ class LanguageRoutingLink<A extends Exchange, B extends AcceptAwareRoute<A>> ext
 			.collect(Collectors.toMap(Entry::getKey, Entry::getValue, (a, b) -> a, LinkedHashMap::new));
 	}
 
+	@Override
+	protected LanguageRoutingLink<A, B> copyLink() {
+		LanguageRoutingLink<A, B> copy = new LanguageRoutingLink<>(this.acceptLanguageCodec);
+		this.handlers.forEach((languageRange, handler) -> copy.handlers.put(languageRange, handler.copy()));
+		copy.updateEnabledHandlers();
+		return copy;
+	}
+
 	@Override
 	public LanguageRoutingLink<A, B> setRoute(B route) {
 		String language = route.getLanguage();
@@ -172,9 +181,9 @@ class LanguageRoutingLink<A extends Exchange, B extends AcceptAwareRoute<A>> ext
 	}
 
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if (this.enabledHandlers.isEmpty()) {
-			this.nextLink.handle(exchange);
+			return this.nextLink.resolve(exchange);
 		} 
 		else {
 			Headers.AcceptLanguage acceptLanguage = Headers.AcceptLanguage
@@ -188,40 +197,25 @@ class LanguageRoutingLink<A extends Exchange, B extends AcceptAwareRoute<A>> ext
 				AcceptMatch<LanguageRange, Entry<LanguageRange, RoutingLink<A, ?, B>>> bestMatch = acceptLanguageMatchesIterator.next();
 				if (bestMatch.getSource().getLanguageTag().equals("*")) {
 					// First check if the next link can handle the request since this is the default
-					try {
-						this.nextLink.handle(exchange);
-						return;
-					} 
-					catch (RouteNotFoundException | DisabledRouteException e1) {
-						// There's no default handler defined, we can take the best match
-						try {
-							bestMatch.getTarget().getValue().handle(exchange);
-							return;
-						} 
-						catch (RouteNotFoundException | DisabledRouteException e2) {
-							// continue with the next best match
-							continue;
-						}
-					}
-				} 
-				else {
-					try {
-						bestMatch.getTarget().getValue().handle(exchange);
-						return;
-					} 
-					catch (RouteNotFoundException | DisabledRouteException e) {
-						// continue with the next best match
-						continue;
+					ExchangeHandler<A> handler = this.nextLink.resolve(exchange);
+					if (isResolved(handler)) {
+						return handler;
 					}
 				}
+				// There's no default handler defined, we can take the best match
+				ExchangeHandler<A> handler = bestMatch.getTarget().getValue().resolve(exchange);
+				if (isResolved(handler)) {
+					return handler;
+				}
+				// continue with the next best match
 			}
 			// We havent't found a matching language so we default to the next link which
-			// can throw a RouteNorFoundException.
+			// can resolve to the not found handler.
 			// User has to explicitly define a default handler
-			// Here we can possibly invoke the next link twice but in that case a
-			// RouteNotFoundException or DisabledRouteException is thrown so there shouldn't
-			// be complex processing involved.
-			this.nextLink.handle(exchange);
+			// Here we can possibly resolve the next link twice but in that case the not
+			// found or disabled handler is returned so there shouldn't be complex
+			// processing involved.
+			return this.nextLink.resolve(exchange);
 		}
 	}
 }
@@ -24,6 +24,7 @@ import io.inverno.mod.http.base.Method;
 import io.inverno.mod.http.base.MethodNotAllowedException;
 import io.inverno.mod.http.base.HttpException;
 import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.MethodAwareRoute;
 
 /**
@@ -60,6 +61,14 @@ class MethodRoutingLink<A extends Exchange, B extends MethodAwareRoute<A>> exten
 			.collect(Collectors.toMap(Entry::getKey, Entry::getValue));
 	}
 
+	@Override
+	protected MethodRoutingLink<A, B> copyLink() {
+		MethodRoutingLink<A, B> copy = new MethodRoutingLink<>();
+		this.handlers.forEach((method, handler) -> copy.handlers.put(method, handler.copy()));
+		copy.updateEnabledHandlers();
+		return copy;
+	}
+
 	@Override
 	public MethodRoutingLink<A, B> setRoute(B route) {
 		Method method = route.getMethod();
@@ -153,17 +162,17 @@ class MethodRoutingLink<A extends Exchange, B extends MethodAwareRoute<A>> exten
 	}
 
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if (this.handlers.isEmpty()) {
-			this.nextLink.handle(exchange);
+			return this.nextLink.resolve(exchange);
 		} 
 		else {
 			RoutingLink<A, ?, B> handler = this.enabledHandlers.get(exchange.request().getMethod());
 			if (handler != null) {
-				handler.handle(exchange);
+				return handler.resolve(exchange);
 			} 
 			else if (this.enabledHandlers.isEmpty()) {
-				this.nextLink.handle(exchange);
+				return this.nextLink.resolve(exchange);
 			} 
 			else {
 				throw new MethodNotAllowedException(this.handlers.keySet());
@@ -15,14 +15,14 @@
  */
 package io.inverno.mod.web.internal;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
-import io.inverno.mod.base.net.URIMatcher;
 import io.inverno.mod.base.net.URIPattern;
+import io.inverno.mod.base.net.URIPatternTrie;
 import io.inverno.mod.http.base.HttpException;
 import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.PathAwareRoute;
 import io.inverno.mod.web.PathParameters;
 import io.inverno.mod.web.WebExchange;
@@ -39,6 +39,11 @@ import io.inverno.mod.web.WebExchange;
  * with static path are handled by the {@link PathRoutingLink}.
  * </p>
  * 
+ * <p>
+ * Path patterns are indexed in a {@link URIPatternTrie} so that only the
+ * patterns sharing the static prefix of the exchange path are actually matched.
+ * </p>
+ * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
  * @since 1.0
  *
@@ -48,6 +53,8 @@ import io.inverno.mod.web.WebExchange;
 class PathPatternRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> extends RoutingLink<A, PathPatternRoutingLink<A, B>, B> {
 
 	private Map<URIPattern, RoutingLink<A, ?, B>> handlers;
+	
+	private URIPatternTrie<RoutingLink<A, ?, B>> handlersTrie;
 
 	/**
 	 * <p>
@@ -56,7 +63,19 @@ class PathPatternRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> ex
 	 */
 	public PathPatternRoutingLink() {
 		super(PathPatternRoutingLink::new);
-		this.handlers = new HashMap<>();
+		this.handlers = new LinkedHashMap<>();
+		this.handlersTrie = new URIPatternTrie<>();
+	}
+
+	@Override
+	protected PathPatternRoutingLink<A, B> copyLink() {
+		PathPatternRoutingLink<A, B> copy = new PathPatternRoutingLink<>();
+		this.handlers.forEach((pathPattern, handler) -> {
+			RoutingLink<A, ?, B> handlerCopy = handler.copy();
+			copy.handlers.put(pathPattern, handlerCopy);
+			copy.handlersTrie.put(pathPattern, handlerCopy);
+		});
+		return copy;
 	}
 
 	@Override
@@ -67,7 +86,9 @@ class PathPatternRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> ex
 				this.handlers.get(pathPattern).setRoute(route);
 			} 
 			else {
-				this.handlers.put(pathPattern, this.nextLink.createNextLink().setRoute(route));
+				RoutingLink<A, ?, B> handler = this.nextLink.createNextLink().setRoute(route);
+				this.handlers.put(pathPattern, handler);
+				this.handlersTrie.put(pathPattern, handler);
 			}
 		} 
 		else {
@@ -116,6 +137,7 @@ class PathPatternRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> ex
 				if (!handler.hasRoute()) {
 					// The link has no more routes, we can remove it for good
 					this.handlers.remove(pathPattern);
+					this.handlersTrie.remove(pathPattern);
 				}
 			}
 			// route doesn't exist so let's do nothing
@@ -148,37 +170,29 @@ class PathPatternRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> ex
 	}
 
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if (this.handlers.isEmpty()) {
-			this.nextLink.handle(exchange);
+			return this.nextLink.resolve(exchange);
 		} 
 		else {
 			// Path in the request headers is normalized as per API specification
 			String normalizedPath = exchange.request().getPathAbsolute();
 
-			URIMatcher bestMatchMatcher = null;
-			RoutingLink<A, ?, B> bestMatchHandler = null;
-			for (Entry<URIPattern, RoutingLink<A, ?, B>> e : this.handlers.entrySet()) {
-				URIMatcher matcher = e.getKey().matcher(normalizedPath);
-				if (matcher.matches() && (bestMatchMatcher == null || matcher.compareTo(bestMatchMatcher) > 0)) {
-					bestMatchMatcher = matcher;
-					bestMatchHandler = e.getValue();
-				}
-			}
-			if (bestMatchHandler != null) {
-				Map<String, String> rawPathParameters = bestMatchMatcher.getParameters();
+			URIPatternTrie.Match<RoutingLink<A, ?, B>> bestMatch = this.handlersTrie.match(normalizedPath);
+			if (bestMatch != null) {
+				Map<String, String> rawPathParameters = bestMatch.getParameters();
 				if (!rawPathParameters.isEmpty()) {
 					if (exchange instanceof WebExchange) {
 						PathParameters requestPathParameters = ((WebExchange) exchange).request().pathParameters();
 						if (requestPathParameters instanceof MutablePathParameters) {
-							((MutablePathParameters) requestPathParameters).putAll(bestMatchMatcher.getParameters());
+							((MutablePathParameters) requestPathParameters).putAll(rawPathParameters);
 						}
 					}
 				}
-				bestMatchHandler.handle(exchange);
+				return bestMatch.getValue().resolve(exchange);
 			} 
 			else {
-				nextLink.handle(exchange);
+				return this.nextLink.resolve(exchange);
 			}
 		}
 	}
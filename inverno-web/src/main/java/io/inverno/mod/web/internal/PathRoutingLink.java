@@ -20,6 +20,7 @@ import java.util.Map;
 
 import io.inverno.mod.http.base.HttpException;
 import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.PathAwareRoute;
 
 /**
@@ -53,6 +54,13 @@ class PathRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> extends R
 		this.handlers = new HashMap<>();
 	}
 
+	@Override
+	protected PathRoutingLink<A, B> copyLink() {
+		PathRoutingLink<A, B> copy = new PathRoutingLink<>();
+		this.handlers.forEach((path, handler) -> copy.handlers.put(path, handler.copy()));
+		return copy;
+	}
+
 	@Override
 	public PathRoutingLink<A, B> setRoute(B route) {
 		String path = route.getPath();
@@ -147,9 +155,9 @@ class PathRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> extends R
 	}
 
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if (this.handlers.isEmpty()) {
-			this.nextLink.handle(exchange);
+			return this.nextLink.resolve(exchange);
 		} 
 		else {
 			// Path in the request headers is normalized as per API specification
@@ -157,7 +165,7 @@ class PathRoutingLink<A extends Exchange, B extends PathAwareRoute<A>> extends R
 			if (handler == null) {
 				handler = this.nextLink;
 			}
-			handler.handle(exchange);
+			return handler.resolve(exchange);
 		}
 	}
 }
@@ -27,6 +27,7 @@ import io.inverno.mod.http.base.HttpException;
 import io.inverno.mod.http.base.header.HeaderCodec;
 import io.inverno.mod.http.base.header.Headers;
 import io.inverno.mod.http.server.Exchange;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.AcceptAwareRoute;
 
 /**
@@ -68,6 +69,14 @@ class ProducesRoutingLink<A extends Exchange, B extends AcceptAwareRoute<A>> ext
 			.collect(Collectors.toMap(Entry::getKey, Entry::getValue, (a, b) -> a, LinkedHashMap::new));
 	}
 
+	@Override
+	protected ProducesRoutingLink<A, B> copyLink() {
+		ProducesRoutingLink<A, B> copy = new ProducesRoutingLink<>(this.contentTypeCodec);
+		this.handlers.forEach((contentType, handler) -> copy.handlers.put(contentType, handler.copy()));
+		copy.updateEnabledHandlers();
+		return copy;
+	}
+
 	@Override
 	public ProducesRoutingLink<A, B> setRoute(B route) {
 		String produce = route.getProduce();
@@ -168,9 +177,9 @@ class ProducesRoutingLink<A extends Exchange, B extends AcceptAwareRoute<A>> ext
 	}
 
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if (this.handlers.isEmpty()) {
-			this.nextLink.handle(exchange);
+			return this.nextLink.resolve(exchange);
 		} 
 		else {
 			Headers.Accept accept = Headers.Accept
@@ -187,35 +196,19 @@ class ProducesRoutingLink<A extends Exchange, B extends AcceptAwareRoute<A>> ext
 					if (!nextLinkInvoked && bestMatch.getSource().getMediaType().equals("*/*") && bestMatch.getSource().getParameters().isEmpty()) {
 						nextLinkInvoked = true;
 						// First check if the next link can handle the request since this is the default
-						try {
-							this.nextLink.handle(exchange);
-							return;
-						} 
-						catch (RouteNotFoundException | DisabledRouteException e1) {
-							// There's no default handler defined, we can take the best match
-							try {
-								exchange.response().headers().set(bestMatch.getTarget().getKey());
-								bestMatch.getTarget().getValue().handle(exchange);
-								return;
-							} 
-							catch (RouteNotFoundException | DisabledRouteException e2) {
-								// continue with the next best match
-								exchange.response().headers().remove(Headers.NAME_CONTENT_TYPE);
-								continue;
-							}
-						}
-					} 
-					else {
-						try {
-							exchange.response().headers().set(bestMatch.getTarget().getKey());
-							bestMatch.getTarget().getValue().handle(exchange);
-							return;
-						} 
-						catch (RouteNotFoundException | DisabledRouteException e) {
-							exchange.response().headers().remove(Headers.NAME_CONTENT_TYPE);
-							continue;
+						ExchangeHandler<A> handler = this.nextLink.resolve(exchange);
+						if (isResolved(handler)) {
+							return handler;
 						}
 					}
+					// There's no default handler defined, we can take the best match
+					exchange.response().headers().set(bestMatch.getTarget().getKey());
+					ExchangeHandler<A> handler = bestMatch.getTarget().getValue().resolve(exchange);
+					if (isResolved(handler)) {
+						return handler;
+					}
+					// continue with the next best match
+					exchange.response().headers().remove(Headers.NAME_CONTENT_TYPE);
 				}
 				// We haven't found any route that can handle the request
 				throw new NotAcceptableException(this.handlers.keySet().stream()
@@ -225,7 +218,7 @@ class ProducesRoutingLink<A extends Exchange, B extends AcceptAwareRoute<A>> ext
 			} 
 			else if (accept.getMediaRanges().stream().anyMatch(mediaRange -> mediaRange.getMediaType().equals("*/*"))) {
 				// We delegate to next link only if */* is accepted
-				this.nextLink.handle(exchange);
+				return this.nextLink.resolve(exchange);
 			} 
 			else {
 				throw new NotAcceptableException();
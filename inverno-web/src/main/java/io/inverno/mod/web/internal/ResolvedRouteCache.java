@@ -0,0 +1,264 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web.internal;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.inverno.mod.http.base.HttpException;
+import io.inverno.mod.http.base.Method;
+import io.inverno.mod.http.base.Parameter;
+import io.inverno.mod.http.base.header.Headers;
+import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.http.server.RequestHeaders;
+import io.inverno.mod.web.WebExchange;
+
+/**
+ * <p>
+ * A bounded concurrent cache of the routes resolved by a routing chain.
+ * </p>
+ *
+ * <p>
+ * A resolved route is identified by the method, the absolute normalized path
+ * and the content negotiation headers ({@code accept}, {@code content-type}
+ * and {@code accept-language}) of the request. It holds the route handler, the
+ * path parameters and the response content type set by the routing chain when
+ * the route was resolved so the exchange can be routed again with a single
+ * lookup.
+ * </p>
+ *
+ * <p>
+ * When the cache is full, a route is evicted using a second chance (clock)
+ * policy: routes that have been hit since the last eviction are spared once so
+ * that frequently used routes are not evicted by a burst of distinct requests
+ * (eg. parameterized paths with many distinct values).
+ * </p>
+ *
+ * <p>
+ * The cache must be invalidated when routes are added, enabled, disabled or
+ * removed from the routing chain. A resolved route is ignored when it was
+ * resolved before the last invalidation.
+ * </p>
+ *
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ */
+class ResolvedRouteCache {
+
+	private final Supplier<? extends RoutingLink<WebExchange, ?, ?>> firstLink;
+
+	private final int maxSize;
+
+	private final Map<RouteKey, ResolvedRoute> routes;
+
+	private final AtomicLong generation;
+
+	/**
+	 * <p>
+	 * Creates a resolved route cache.
+	 * </p>
+	 *
+	 * @param firstLink a supplier of the first link of the current routing
+	 *                  chain
+	 * @param maxSize   the maximum number of resolved routes to cache
+	 */
+	public ResolvedRouteCache(Supplier<? extends RoutingLink<WebExchange, ?, ?>> firstLink, int maxSize) {
+		this.firstLink = firstLink;
+		this.maxSize = maxSize;
+		this.routes = new ConcurrentHashMap<>();
+		this.generation = new AtomicLong();
+	}
+
+	/**
+	 * <p>
+	 * Invalidates all resolved routes.
+	 * </p>
+	 */
+	public void invalidate() {
+		this.generation.incrementAndGet();
+		this.routes.clear();
+	}
+
+	/**
+	 * <p>
+	 * Routes the specified exchange to the cached resolved route or resolves
+	 * the route using the routing chain.
+	 * </p>
+	 *
+	 * @param exchange the exchange to handle
+	 *
+	 * @throws HttpException if an error occurs during the processing of the
+	 *                       exchange
+	 */
+	public void handle(WebExchange exchange) throws HttpException {
+		long currentGeneration = this.generation.get();
+		RouteKey key = new RouteKey(exchange);
+		ResolvedRoute resolvedRoute = this.routes.get(key);
+		if(resolvedRoute != null && resolvedRoute.generation == currentGeneration) {
+			if(!resolvedRoute.referenced) {
+				resolvedRoute.referenced = true;
+			}
+			resolvedRoute.handle(exchange);
+			return;
+		}
+
+		ExchangeHandler<WebExchange> handler = this.firstLink.get().resolve(exchange);
+		if(RoutingLink.isResolved(handler)) {
+			Map<String, String> pathParameters = new HashMap<>();
+			for(Parameter pathParameter : exchange.request().pathParameters().getAll().values()) {
+				pathParameters.put(pathParameter.getName(), pathParameter.getValue());
+			}
+			Optional<Headers.ContentType> contentType = exchange.response().headers().getHeader(Headers.NAME_CONTENT_TYPE);
+
+			if(this.routes.size() >= this.maxSize) {
+				this.evict(currentGeneration);
+			}
+			this.routes.put(key, new ResolvedRoute(currentGeneration, handler, pathParameters, contentType.orElse(null)));
+		}
+		handler.handle(exchange);
+	}
+
+	/**
+	 * <p>
+	 * Evicts a resolved route to make room for a new one.
+	 * </p>
+	 *
+	 * <p>
+	 * The first route which was resolved before the last invalidation or which
+	 * hasn't been hit since it was last considered for eviction is evicted, hit
+	 * routes are given a second chance. If all routes were hit, the first route
+	 * is evicted.
+	 * </p>
+	 *
+	 * @param currentGeneration the current generation
+	 */
+	private void evict(long currentGeneration) {
+		Iterator<ResolvedRoute> routesIterator = this.routes.values().iterator();
+		while(routesIterator.hasNext()) {
+			ResolvedRoute route = routesIterator.next();
+			if(route.generation != currentGeneration || !route.referenced) {
+				routesIterator.remove();
+				return;
+			}
+			route.referenced = false;
+		}
+		routesIterator = this.routes.values().iterator();
+		if(routesIterator.hasNext()) {
+			routesIterator.next();
+			routesIterator.remove();
+		}
+	}
+
+	/**
+	 * <p>
+	 * The key identifying a resolved route.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class RouteKey {
+
+		private final Method method;
+
+		private final String path;
+
+		private final List<String> accept;
+
+		private final String contentType;
+
+		private final List<String> acceptLanguage;
+
+		private final int hashCode;
+
+		public RouteKey(WebExchange exchange) {
+			RequestHeaders headers = exchange.request().headers();
+			this.method = exchange.request().getMethod();
+			this.path = exchange.request().getPathAbsolute();
+			this.accept = headers.getAll(Headers.NAME_ACCEPT);
+			this.contentType = headers.get(Headers.NAME_CONTENT_TYPE).orElse(null);
+			this.acceptLanguage = headers.getAll(Headers.NAME_ACCEPT_LANGUAGE);
+			this.hashCode = Objects.hash(this.method, this.path, this.accept, this.contentType, this.acceptLanguage);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			RouteKey other = (RouteKey) obj;
+			return this.hashCode == other.hashCode
+				&& this.method == other.method
+				&& Objects.equals(this.path, other.path)
+				&& Objects.equals(this.accept, other.accept)
+				&& Objects.equals(this.contentType, other.contentType)
+				&& Objects.equals(this.acceptLanguage, other.acceptLanguage);
+		}
+	}
+
+	/**
+	 * <p>
+	 * A resolved route.
+	 * </p>
+	 *
+	 * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+	 * @since 1.2
+	 */
+	private static class ResolvedRoute {
+
+		private final long generation;
+
+		private final ExchangeHandler<WebExchange> handler;
+
+		private final Map<String, String> pathParameters;
+
+		private final Headers.ContentType contentType;
+
+		private volatile boolean referenced;
+
+		public ResolvedRoute(long generation, ExchangeHandler<WebExchange> handler, Map<String, String> pathParameters, Headers.ContentType contentType) {
+			this.generation = generation;
+			this.handler = handler;
+			this.pathParameters = pathParameters;
+			this.contentType = contentType;
+		}
+
+		public void handle(WebExchange exchange) throws HttpException {
+			if(!this.pathParameters.isEmpty() && exchange.request().pathParameters() instanceof MutablePathParameters) {
+				((MutablePathParameters)exchange.request().pathParameters()).putAll(this.pathParameters);
+			}
+			if(this.contentType != null) {
+				exchange.response().headers().set(this.contentType);
+			}
+			this.handler.handle(exchange);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web.internal;
+
+import java.util.Objects;
+import java.util.Set;
+
+import io.inverno.mod.http.base.Method;
+import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.web.WebExchange;
+import io.inverno.mod.web.WebRoute;
+import io.inverno.mod.web.WebRouteDispatcher;
+
+/**
+ * <p>
+ * A {@link WebRouteDispatcher} whose route indexes have been resolved against
+ * the routes of a web router.
+ * </p>
+ * 
+ * <p>
+ * A route index is resolved to the handler of the route defined in the router
+ * with the same path and method if and only if that route is the only one
+ * defined for this path and method, it is enabled and it doesn't specify any
+ * content negotiation criteria. Under these conditions, the routing chain of
+ * the router would route any exchange with that path and method to that same
+ * handler. The other route indexes are unresolved and the corresponding
+ * exchanges must be routed by the routing chain.
+ * </p>
+ * 
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ * @since 1.2
+ */
+class ResolvedRouteDispatcher {
+
+	private final WebRouteDispatcher dispatcher;
+	
+	private final ExchangeHandler<WebExchange>[] handlers;
+	
+	/**
+	 * <p>
+	 * Creates a resolved route dispatcher.
+	 * </p>
+	 * 
+	 * @param dispatcher the web route dispatcher
+	 * @param routes     the routes defined in the router
+	 */
+	@SuppressWarnings("unchecked")
+	public ResolvedRouteDispatcher(WebRouteDispatcher dispatcher, Set<WebRoute<WebExchange>> routes) {
+		this.dispatcher = dispatcher;
+		this.handlers = new ExchangeHandler[dispatcher.getRouteCount()];
+		for(int i=0;i<this.handlers.length;i++) {
+			String path = dispatcher.getPath(i);
+			WebRoute<WebExchange> matchingRoute = null;
+			for(WebRoute<WebExchange> route : routes) {
+				if(Objects.equals(path, route.getPath()) && route.getMethod() == dispatcher.getMethod(i)) {
+					if(matchingRoute != null) {
+						// ambiguous
+						matchingRoute = null;
+						break;
+					}
+					matchingRoute = route;
+				}
+			}
+			if(matchingRoute != null && !matchingRoute.isDisabled() && matchingRoute.getConsume() == null && matchingRoute.getProduce() == null && matchingRoute.getLanguage() == null) {
+				this.handlers[i] = matchingRoute.getHandler();
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Returns the web route dispatcher.
+	 * </p>
+	 * 
+	 * @return the web route dispatcher
+	 */
+	public WebRouteDispatcher getDispatcher() {
+		return this.dispatcher;
+	}
+	
+	/**
+	 * <p>
+	 * Resolves the handler of the route matching the specified exchange.
+	 * </p>
+	 * 
+	 * @param exchange the exchange to route
+	 * 
+	 * @return an exchange handler or null if the exchange must be routed by the
+	 *         routing chain
+	 */
+	public ExchangeHandler<WebExchange> resolve(WebExchange exchange) {
+		String path = exchange.request().getPathAbsolute();
+		Method method = exchange.request().getMethod();
+		if(path == null || method == null) {
+			// eg. HTTP/2 request without :method pseudo header: let the routing chain report the error
+			return null;
+		}
+		int routeIndex = this.dispatcher.dispatch(path, method);
+		return routeIndex >= 0 && routeIndex < this.handlers.length ? this.handlers[routeIndex] : null;
+	}
+}
@@ -17,6 +17,7 @@ package io.inverno.mod.web.internal;
 
 import java.util.function.Supplier;
 
+import io.inverno.mod.http.base.HttpException;
 import io.inverno.mod.http.server.Exchange;
 import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.Route;
@@ -42,8 +43,22 @@ import io.inverno.mod.web.Router;
  * 
  * <p>
  * A routing link is itself an exchange handler which is invoked to handle an
- * exchange. If a link in a routing chain can't route an exchange further, it
- * must throw a {@link RouteNotFoundException}.
+ * exchange. The handler of the route matching the exchange is first resolved
+ * by traversing the chain with {@link #resolve(Exchange)}. If a link in a
+ * routing chain can't route an exchange further, it must resolve to the
+ * {@link #notFoundHandler() not found handler} or to the
+ * {@link #disabledHandler() disabled handler} when the matching route is
+ * disabled. These handlers respectively throw a {@link RouteNotFoundException}
+ * and a {@link DisabledRouteException} when invoked which allows links to
+ * probe the rest of the chain without throwing exceptions when performing
+ * content negotiation.
+ * </p>
+ * 
+ * <p>
+ * A routing chain which is used to route exchanges must never be modified, a
+ * router must instead update a {@link #copy() copy} of the chain and then
+ * replace the original chain with the updated copy. This allows exchanges to
+ * be routed concurrently without locking while routes are updated.
  * </p>
  * 
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
@@ -55,6 +70,16 @@ import io.inverno.mod.web.Router;
 abstract class RoutingLink<A extends Exchange, B extends RoutingLink<A, B, C>, C extends Route<A>>
 		implements ExchangeHandler<A> {
 
+	@SuppressWarnings("rawtypes")
+	private static final ExchangeHandler NOT_FOUND_HANDLER = exchange -> {
+		throw new RouteNotFoundException();
+	};
+	
+	@SuppressWarnings("rawtypes")
+	private static final ExchangeHandler DISABLED_HANDLER = exchange -> {
+		throw new DisabledRouteException();
+	};
+	
 	private final Supplier<B> linkSupplier;
 
 	/**
@@ -73,6 +98,51 @@ abstract class RoutingLink<A extends Exchange, B extends RoutingLink<A, B, C>, C
 		this.linkSupplier = linkSupplier;
 	}
 
+	/**
+	 * <p>
+	 * Returns the handler resolved by a link when no route was found to process
+	 * an exchange.
+	 * </p>
+	 * 
+	 * @param <A> the type of exchange
+	 * 
+	 * @return an exchange handler throwing a {@link RouteNotFoundException}
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <A extends Exchange> ExchangeHandler<A> notFoundHandler() {
+		return NOT_FOUND_HANDLER;
+	}
+	
+	/**
+	 * <p>
+	 * Returns the handler resolved by a link when the route found to process an
+	 * exchange is disabled.
+	 * </p>
+	 * 
+	 * @param <A> the type of exchange
+	 * 
+	 * @return an exchange handler throwing a {@link DisabledRouteException}
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <A extends Exchange> ExchangeHandler<A> disabledHandler() {
+		return DISABLED_HANDLER;
+	}
+	
+	/**
+	 * <p>
+	 * Determines whether the specified resolved handler is an actual route
+	 * handler.
+	 * </p>
+	 * 
+	 * @param handler a handler returned by {@link #resolve(Exchange)}
+	 * 
+	 * @return false if the handler is the not found handler or the disabled
+	 *         handler, true otherwise
+	 */
+	protected static boolean isResolved(ExchangeHandler<?> handler) {
+		return handler != NOT_FOUND_HANDLER && handler != DISABLED_HANDLER;
+	}
+	
 	/**
 	 * <p>
 	 * Connects the link to the specified link.
@@ -114,6 +184,35 @@ abstract class RoutingLink<A extends Exchange, B extends RoutingLink<A, B, C>, C
 		return nextLink;
 	}
 
+	/**
+	 * <p>
+	 * Creates a deep copy of the chain starting at this link.
+	 * </p>
+	 * 
+	 * @return a copy of the chain
+	 */
+	public B copy() {
+		B copy = this.copyLink();
+		if (this.nextLink != null) {
+			copy.connectUnbounded(this.nextLink.copy());
+		}
+		return copy;
+	}
+	
+	/**
+	 * <p>
+	 * Creates a copy of the link which is not connected to any next link.
+	 * </p>
+	 * 
+	 * <p>
+	 * The state of the link must be deep copied, in particular the next links
+	 * it routes exchanges to must be {@link #copy() copied} as well.
+	 * </p>
+	 * 
+	 * @return a copy of the link
+	 */
+	protected abstract B copyLink();
+
 	/**
 	 * <p>
 	 * Visits the chain using the specified route extractor.
@@ -187,4 +286,30 @@ abstract class RoutingLink<A extends Exchange, B extends RoutingLink<A, B, C>, C
 	 * @return true if the chain is disabled, false otherwise
 	 */
 	public abstract boolean isDisabled();
+	
+	/**
+	 * <p>
+	 * Resolves the handler of the route matching the specified exchange in the
+	 * chain.
+	 * </p>
+	 * 
+	 * <p>
+	 * This method must not throw {@link RouteNotFoundException} or
+	 * {@link DisabledRouteException}, the {@link #notFoundHandler() not found
+	 * handler} or the {@link #disabledHandler() disabled handler} must be
+	 * returned instead.
+	 * </p>
+	 * 
+	 * @param exchange the exchange to route
+	 * 
+	 * @return an exchange handler
+	 * @throws HttpException if the exchange can't be routed for other reasons
+	 *                       (eg. method not allowed, not acceptable...)
+	 */
+	public abstract ExchangeHandler<A> resolve(A exchange) throws HttpException;
+	
+	@Override
+	public void handle(A exchange) throws HttpException {
+		this.resolve(exchange).handle(exchange);
+	}
 }
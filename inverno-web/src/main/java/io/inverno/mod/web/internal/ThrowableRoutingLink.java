@@ -22,6 +22,7 @@ import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
 import io.inverno.mod.http.base.HttpException;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.ErrorAwareRoute;
 import io.inverno.mod.web.ErrorWebExchange;
 import io.inverno.mod.web.ErrorWebRoute;
@@ -64,6 +65,13 @@ class ThrowableRoutingLink extends RoutingLink<ErrorWebExchange<Throwable>, Thro
 		this.handlers = new LinkedHashMap<>();
 	}
 
+	@Override
+	protected ThrowableRoutingLink copyLink() {
+		ThrowableRoutingLink copy = new ThrowableRoutingLink();
+		this.handlers.forEach((error, handler) -> copy.handlers.put(error, handler.copy()));
+		return copy;
+	}
+
 	@Override
 	public ThrowableRoutingLink setRoute(ErrorWebRoute route) {
 		Class<? extends Throwable> error = route.getError();
@@ -154,15 +162,13 @@ class ThrowableRoutingLink extends RoutingLink<ErrorWebExchange<Throwable>, Thro
 	}
 	
 	@Override
-	public void handle(ErrorWebExchange<Throwable> exchange) throws HttpException {
+	public ExchangeHandler<ErrorWebExchange<Throwable>> resolve(ErrorWebExchange<Throwable> exchange) throws HttpException {
 		// We take the first match, or we delegate to the next link
-		this.handlers.entrySet().stream()
+		return this.handlers.entrySet().stream()
 			.filter(e -> e.getKey().isAssignableFrom(exchange.getError().getClass()))
 			.findFirst()
 			.map(Entry::getValue)
-			.ifPresentOrElse(
-				handler -> handler.handle(exchange),
-				() -> this.nextLink.handle(exchange)
-			);
+			.orElse(this.nextLink)
+			.resolve(exchange);
 	}
 }
@@ -24,6 +24,7 @@ import io.inverno.mod.base.resource.Resource;
 import io.inverno.mod.base.resource.ResourceService;
 import io.inverno.mod.http.base.Method;
 import io.inverno.mod.web.StaticHandler;
+import io.inverno.mod.web.StaticResourceCache;
 import io.inverno.mod.web.WebConfiguration;
 import io.inverno.mod.web.WebExchange;
 import io.inverno.mod.web.WebRouter;
@@ -54,6 +55,8 @@ public class WebjarsWebRouterConfigurer implements WebRouterConfigurer<WebExchan
 	
 	private final ResourceService resourceService;
 	
+	private final StaticResourceCache cache;
+	
 	/**
 	 * <p>
 	 * Creates a WebJars web router configurer with the specified resource service.
@@ -62,7 +65,21 @@ public class WebjarsWebRouterConfigurer implements WebRouterConfigurer<WebExchan
 	 * @param resourceService the resource service
 	 */
 	public WebjarsWebRouterConfigurer(ResourceService resourceService) {
+		this(resourceService, null);
+	}
+	
+	/**
+	 * <p>
+	 * Creates a WebJars web router configurer with the specified resource service
+	 * and static resource cache.
+	 * </p>
+	 * 
+	 * @param resourceService the resource service
+	 * @param cache           the cache shared by WebJars routes or null
+	 */
+	public WebjarsWebRouterConfigurer(ResourceService resourceService, StaticResourceCache cache) {
 		this.resourceService = resourceService;
+		this.cache = cache;
 	}
 	
 	@Override
@@ -83,7 +100,7 @@ public class WebjarsWebRouterConfigurer implements WebRouterConfigurer<WebExchan
 				String webjarVersion = module.getDescriptor().rawVersion().get();
 				Resource baseResource = this.resourceService.getResource(URI.create(ModuleResource.SCHEME_MODULE + "://" + module.getName() + "/META-INF/resources/webjars/" + webjarName + "/" + webjarVersion + "/"));
 				String webjarRootPath = WebjarsWebRouterConfigurer.BASE_WEBJARS_PATH + "/" + webjarName + "/{path:.*}";
-				router.route().path(webjarRootPath).method(Method.GET).handler(new StaticHandler(baseResource));
+				router.route().path(webjarRootPath).method(Method.GET).handler(this.createStaticHandler(baseResource));
 			});
 		}
 		
@@ -97,7 +114,7 @@ public class WebjarsWebRouterConfigurer implements WebRouterConfigurer<WebExchan
 					
 					String webjarName = toModuleName(spec.substring(webjarIndex + 1, versionIndex));
 					String webjarRootPath = WebjarsWebRouterConfigurer.BASE_WEBJARS_PATH + "/" + webjarName + "/{path:.*}";
-					router.route().path(webjarRootPath).method(Method.GET).handler(new StaticHandler(baseResource));
+					router.route().path(webjarRootPath).method(Method.GET).handler(this.createStaticHandler(baseResource));
 				});
 		} 
 		catch (URISyntaxException e) {
@@ -105,6 +122,22 @@ public class WebjarsWebRouterConfigurer implements WebRouterConfigurer<WebExchan
 		}
 	}
 	
+	/**
+	 * <p>
+	 * Creates a static handler serving WebJar resources from the specified base
+	 * resource.
+	 * </p>
+	 * 
+	 * @param baseResource the WebJar base resource
+	 * 
+	 * @return a static handler
+	 */
+	private StaticHandler createStaticHandler(Resource baseResource) {
+		StaticHandler handler = new StaticHandler(baseResource);
+		handler.setCache(this.cache);
+		return handler;
+	}
+	
     private static final Pattern NON_ALPHANUM = Pattern.compile("[^A-Za-z0-9]");
     private static final Pattern REPEATING_DOTS = Pattern.compile("(\\.)(\\1)+");
     private static final Pattern LEADING_DOTS = Pattern.compile("^\\.");
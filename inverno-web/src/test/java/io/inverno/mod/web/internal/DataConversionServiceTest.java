@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web.internal;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.inverno.mod.base.converter.MediaTypeConverter;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ *
+ */
+public class DataConversionServiceTest {
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testGetConverter() throws NoConverterException {
+		MediaTypeConverter<ByteBuf> jsonConverter = Mockito.mock(MediaTypeConverter.class);
+		Mockito.when(jsonConverter.canConvert("application/json")).thenReturn(true);
+
+		DataConversionService dataConversionService = new DataConversionService(List.of(jsonConverter));
+
+		Assertions.assertSame(jsonConverter, dataConversionService.getConverter("application/json"));
+		Assertions.assertSame(jsonConverter, dataConversionService.getConverter("Application/JSON; charset=utf-8"));
+		Assertions.assertSame(jsonConverter, dataConversionService.getConverter("application/json"));
+		Mockito.verify(jsonConverter, Mockito.times(1)).canConvert("application/json");
+
+		Assertions.assertThrows(NoConverterException.class, () -> dataConversionService.getConverter("text/plain"));
+		Assertions.assertThrows(NoConverterException.class, () -> dataConversionService.getConverter("text/plain"));
+		Mockito.verify(jsonConverter, Mockito.times(1)).canConvert("text/plain");
+		
+		Assertions.assertThrows(NoConverterException.class, () -> dataConversionService.getConverter(null));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testResolveConverter() throws NoConverterException {
+		MediaTypeConverter<ByteBuf> jsonConverter = Mockito.mock(MediaTypeConverter.class);
+		Mockito.when(jsonConverter.canConvert("application/json")).thenReturn(true);
+
+		DataConversionService dataConversionService = new DataConversionService(List.of(jsonConverter));
+		dataConversionService.resolveConverter("application/json");
+		dataConversionService.resolveConverter("application/*");
+		dataConversionService.resolveConverter("text/plain");
+		Mockito.verify(jsonConverter, Mockito.times(1)).canConvert("application/json");
+		Mockito.verify(jsonConverter, Mockito.never()).canConvert("application/*");
+
+		Assertions.assertSame(jsonConverter, dataConversionService.getConverter("application/json"));
+		Mockito.verify(jsonConverter, Mockito.times(1)).canConvert("application/json");
+	}
+}
@@ -1,5 +1,6 @@
 package io.inverno.mod.web.internal;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -9,11 +10,14 @@ import org.junit.jupiter.api.Test;
 import io.inverno.mod.base.net.URIs;
 import io.inverno.mod.base.resource.MediaTypes;
 import io.inverno.mod.http.base.Method;
+import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.http.server.HttpServerConfiguration;
 import io.inverno.mod.web.Route;
 import io.inverno.mod.web.WebExchange;
 import io.inverno.mod.web.WebRoute;
+import io.inverno.mod.web.WebRouteDispatcher;
 import io.inverno.mod.web.WebConfiguration;
+import io.inverno.mod.web.internal.mock.MockWebExchange;
 
 public class GenericWebRouterTest {
 
@@ -209,4 +213,61 @@ public class GenericWebRouterTest {
 		Assertions.assertEquals(4, routes.size());
 	}
 	
+	@Test
+	public void testResolvedRouteDispatcher() {
+		GenericWebRouter router = new GenericWebRouter(CONFIGURATION, null, null, null);
+		ExchangeHandler<WebExchange> handlerA = exchange -> {};
+		ExchangeHandler<WebExchange> handlerB = exchange -> {};
+		router
+			.route().path("/a").method(Method.GET).handler(handlerA)
+			.route().path("/b").method(Method.GET).handler(handlerB)
+			.route().path("/b").method(Method.GET).produces(MediaTypes.APPLICATION_JSON).handler(exchange -> {})
+			.route().path("/c").method(Method.GET).handler(exchange -> {});
+		router.route().path("/c").disable();
+		
+		List<String> paths = List.of("/a", "/b", "/c", "/d");
+		WebRouteDispatcher dispatcher = new WebRouteDispatcher() {
+			
+			@Override
+			public int getRouteCount() {
+				return paths.size();
+			}
+			
+			@Override
+			public String getPath(int routeIndex) {
+				return paths.get(routeIndex);
+			}
+			
+			@Override
+			public Method getMethod(int routeIndex) {
+				return Method.GET;
+			}
+			
+			@Override
+			public int dispatch(String path, Method method) {
+				// Like generated dispatchers, this fails on a null method
+				switch(method) {
+					case GET: return paths.indexOf(path);
+					default: return -1;
+				}
+			}
+		};
+		
+		ResolvedRouteDispatcher resolvedDispatcher = new ResolvedRouteDispatcher(dispatcher, router.getRoutes());
+		
+		Assertions.assertEquals(handlerA, resolvedDispatcher.resolve(MockWebExchange.from("/a", Method.GET).build()));
+		// Ambiguous: /b is also produced in application/json
+		Assertions.assertNull(resolvedDispatcher.resolve(MockWebExchange.from("/b", Method.GET).build()));
+		// Disabled
+		Assertions.assertNull(resolvedDispatcher.resolve(MockWebExchange.from("/c", Method.GET).build()));
+		// Undefined
+		Assertions.assertNull(resolvedDispatcher.resolve(MockWebExchange.from("/d", Method.GET).build()));
+		Assertions.assertNull(resolvedDispatcher.resolve(MockWebExchange.from("/a", Method.POST).build()));
+		// No method (eg. HTTP/2 request without :method pseudo header)
+		Assertions.assertNull(resolvedDispatcher.resolve(MockWebExchange.from("/a", null).build()));
+		
+		router.route().path("/c").enable();
+		resolvedDispatcher = new ResolvedRouteDispatcher(dispatcher, router.getRoutes());
+		Assertions.assertNotNull(resolvedDispatcher.resolve(MockWebExchange.from("/c", Method.GET).build()));
+	}
 }
@@ -28,6 +28,8 @@ import io.inverno.mod.web.Route;
  */
 public class MockRoutingLink<A extends Exchange, B extends Route<A>> extends RoutingLink<A, MockRoutingLink<A, B>, B> {
 
+	private final List<MockRoutingLink<A, B>> linkRegistry;
+	
 	private ExchangeHandler<A> handler;
 	
 	private boolean disabled;
@@ -38,6 +40,15 @@ public class MockRoutingLink<A extends Exchange, B extends Route<A>> extends Rou
 			linkRegistry.add(newLink);
 			return newLink;
 		});
+		this.linkRegistry = linkRegistry;
+	}
+	
+	@Override
+	protected MockRoutingLink<A, B> copyLink() {
+		MockRoutingLink<A, B> copy = new MockRoutingLink<>(this.linkRegistry);
+		copy.handler = this.handler;
+		copy.disabled = this.disabled;
+		return copy;
 	}
 	
 	public MockRoutingLink<A, B> setRoute(B route) {
@@ -85,14 +96,14 @@ public class MockRoutingLink<A extends Exchange, B extends Route<A>> extends Rou
 	}
 	
 	@Override
-	public void handle(A exchange) throws HttpException {
+	public ExchangeHandler<A> resolve(A exchange) throws HttpException {
 		if(this.handler == null) {
-			throw new RouteNotFoundException();
+			return notFoundHandler();
 		}
 		if(this.disabled) {
-			throw new DisabledRouteException();
+			return disabledHandler();
 		}
-		this.handler.handle(exchange);
+		return this.handler;
 	}
 
 }
@@ -22,6 +22,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import io.inverno.mod.http.base.NotFoundException;
 import io.inverno.mod.http.server.ExchangeHandler;
 import io.inverno.mod.web.WebExchange;
 import io.inverno.mod.web.WebRoute;
@@ -78,5 +79,51 @@ public class PathRoutingLinkTest {
 		routingLink.handle(exchange4);
 		Mockito.verify(route_default.getHandler(), Mockito.times(1)).handle(exchange4);
 	}
-
+	
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testCopy() {
+		List<MockRoutingLink<WebExchange, WebRoute<WebExchange>>> linkRegistry = new ArrayList<>();
+		MockRoutingLink<WebExchange, WebRoute<WebExchange>> mockRoutingLink = new MockRoutingLink<>(linkRegistry);
+		PathRoutingLink<WebExchange, WebRoute<WebExchange>> routingLink = new PathRoutingLink<>();
+		routingLink.connect(mockRoutingLink);
+		
+		GenericWebRoute route1 = new GenericWebRoute(null);
+		route1.setPath("/a/b/c");
+		route1.setHandler(Mockito.mock(ExchangeHandler.class));
+		routingLink.setRoute(route1);
+		
+		PathRoutingLink<WebExchange, WebRoute<WebExchange>> routingLinkCopy = routingLink.copy();
+		routingLinkCopy.disableRoute(route1);
+		
+		GenericWebRoute route2 = new GenericWebRoute(null);
+		route2.setPath("/a/b/c/d");
+		route2.setHandler(Mockito.mock(ExchangeHandler.class));
+		routingLinkCopy.setRoute(route2);
+		
+		// The original chain is left untouched
+		MockWebExchange exchange1 = MockWebExchange.from("/a/b/c").build();
+		routingLink.handle(exchange1);
+		Mockito.verify(route1.getHandler(), Mockito.times(1)).handle(exchange1);
+		
+		MockWebExchange exchange2 = MockWebExchange.from("/a/b/c/d").build();
+		try {
+			routingLink.handle(exchange2);
+			Assertions.fail("Should throw " + NotFoundException.class);
+		}
+		catch(NotFoundException e) {
+		}
+		
+		MockWebExchange exchange3 = MockWebExchange.from("/a/b/c").build();
+		try {
+			routingLinkCopy.handle(exchange3);
+			Assertions.fail("Should throw " + NotFoundException.class);
+		}
+		catch(NotFoundException e) {
+		}
+		
+		MockWebExchange exchange4 = MockWebExchange.from("/a/b/c/d").build();
+		routingLinkCopy.handle(exchange4);
+		Mockito.verify(route2.getHandler(), Mockito.times(1)).handle(exchange4);
+	}
 }
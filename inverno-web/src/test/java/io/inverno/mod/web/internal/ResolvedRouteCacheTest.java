@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.inverno.mod.base.net.URIs;
+import io.inverno.mod.http.base.NotFoundException;
+import io.inverno.mod.http.server.ExchangeHandler;
+import io.inverno.mod.web.WebExchange;
+import io.inverno.mod.web.WebRoute;
+import io.inverno.mod.web.internal.mock.MockWebExchange;
+
+/**
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ *
+ */
+public class ResolvedRouteCacheTest {
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testHandle() {
+		List<MockRoutingLink<WebExchange, WebRoute<WebExchange>>> linkRegistry = new ArrayList<>();
+		MockRoutingLink<WebExchange, WebRoute<WebExchange>> mockRoutingLink = new MockRoutingLink<>(linkRegistry);
+		PathPatternRoutingLink<WebExchange, WebRoute<WebExchange>> routingLink = new PathPatternRoutingLink<>();
+		routingLink.connect(mockRoutingLink);
+
+		GenericWebRoute route1 = new GenericWebRoute(null);
+		route1.setPathPattern(URIs.uri("/a/{p}", URIs.Option.PARAMETERIZED).buildPathPattern());
+		route1.setHandler(Mockito.mock(ExchangeHandler.class));
+		routingLink.setRoute(route1);
+
+		ResolvedRouteCache routeCache = new ResolvedRouteCache(() -> routingLink, 1);
+
+		MockWebExchange exchange1 = MockWebExchange.from("/a/1").build();
+		routeCache.handle(exchange1);
+		Mockito.verify(route1.getHandler(), Mockito.times(1)).handle(exchange1);
+
+		// Resolved from the cache
+		MockWebExchange exchange2 = MockWebExchange.from("/a/1").build();
+		routeCache.handle(exchange2);
+		Mockito.verify(route1.getHandler(), Mockito.times(1)).handle(exchange2);
+		Assertions.assertEquals(Map.of("p", "1"), exchange2.request().pathParameters().getAll().entrySet().stream().collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().getValue())));
+
+		// Evicts /a/1
+		MockWebExchange exchange3 = MockWebExchange.from("/a/2").build();
+		routeCache.handle(exchange3);
+		Mockito.verify(route1.getHandler(), Mockito.times(1)).handle(exchange3);
+		Assertions.assertEquals(Map.of("p", "2"), exchange3.request().pathParameters().getAll().entrySet().stream().collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().getValue())));
+
+		routingLink.disableRoute(route1);
+		routeCache.invalidate();
+
+		MockWebExchange exchange4 = MockWebExchange.from("/a/2").build();
+		try {
+			routeCache.handle(exchange4);
+			Assertions.fail("Should throw " + NotFoundException.class);
+		}
+		catch(NotFoundException e) {
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testEvictSecondChance() {
+		List<MockRoutingLink<WebExchange, WebRoute<WebExchange>>> linkRegistry = new ArrayList<>();
+		MockRoutingLink<WebExchange, WebRoute<WebExchange>> mockRoutingLink = new MockRoutingLink<>(linkRegistry);
+		PathPatternRoutingLink<WebExchange, WebRoute<WebExchange>> routingLink = new PathPatternRoutingLink<>();
+		routingLink.connect(mockRoutingLink);
+
+		GenericWebRoute route1 = new GenericWebRoute(null);
+		route1.setPathPattern(URIs.uri("/a/{p}", URIs.Option.PARAMETERIZED).buildPathPattern());
+		route1.setHandler(Mockito.mock(ExchangeHandler.class));
+		routingLink.setRoute(route1);
+
+		// Counts the exchanges resolved by the routing chain
+		AtomicInteger resolveCount = new AtomicInteger();
+		ResolvedRouteCache routeCache = new ResolvedRouteCache(() -> {
+			resolveCount.incrementAndGet();
+			return routingLink;
+		}, 2);
+
+		routeCache.handle(MockWebExchange.from("/a/1").build());
+		routeCache.handle(MockWebExchange.from("/a/1").build());
+		Assertions.assertEquals(1, resolveCount.get());
+
+		routeCache.handle(MockWebExchange.from("/a/2").build());
+		Assertions.assertEquals(2, resolveCount.get());
+
+		// /a/1 has been hit, /a/2 is evicted
+		routeCache.handle(MockWebExchange.from("/a/3").build());
+		Assertions.assertEquals(3, resolveCount.get());
+
+		routeCache.handle(MockWebExchange.from("/a/1").build());
+		Assertions.assertEquals(3, resolveCount.get());
+
+		routeCache.handle(MockWebExchange.from("/a/2").build());
+		Assertions.assertEquals(4, resolveCount.get());
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2021 Jeremy KUHN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.inverno.mod.web.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.reactivestreams.Publisher;
+
+import io.inverno.mod.base.resource.FileResource;
+import io.inverno.mod.base.resource.Resource;
+import io.inverno.mod.base.resource.ResourceException;
+import io.inverno.mod.http.base.header.Headers;
+import io.inverno.mod.http.server.ResponseBody;
+import io.inverno.mod.web.StaticResourceCache;
+import io.inverno.mod.web.WebResponseBody;
+import io.inverno.mod.web.internal.mock.MockWebExchange;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import reactor.core.publisher.Mono;
+
+/**
+ * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
+ *
+ */
+public class StaticResourceCacheTest {
+	
+	private static Resource serve(StaticResourceCache cache, Resource resource, String acceptEncoding) {
+		return serve(cache, resource, acceptEncoding, null);
+	}
+	
+	private static Resource serve(StaticResourceCache cache, Resource resource, String acceptEncoding, List<Publisher<ByteBuf>> data) {
+		return serve(cache, resource, exchange(acceptEncoding, data));
+	}
+	
+	private static Resource serve(StaticResourceCache cache, Resource resource, MockWebExchange exchange) {
+		cache.serve(exchange, resource);
+		
+		ArgumentCaptor<Resource> servedResource = ArgumentCaptor.forClass(Resource.class);
+		Mockito.verify(exchange.response().body().resource()).value(servedResource.capture());
+		return servedResource.getValue();
+	}
+	
+	private static MockWebExchange exchange(String acceptEncoding, List<Publisher<ByteBuf>> data) {
+		ResponseBody.Resource resourceData = Mockito.mock(ResponseBody.Resource.class);
+		if(data != null) {
+			// Reads the resource like the server does when setting the response data
+			Mockito.doAnswer(invocation -> data.add(invocation.<Resource>getArgument(0).read().get())).when(resourceData).value(Mockito.any());
+		}
+		WebResponseBody responseBody = Mockito.mock(WebResponseBody.class);
+		Mockito.when(responseBody.resource()).thenReturn(resourceData);
+		
+		return MockWebExchange.from("/static/test.txt").headers(Map.of(Headers.NAME_ACCEPT_ENCODING, List.of(acceptEncoding))).responseBody(responseBody).build();
+	}
+	
+	private static Resource serveCached(StaticResourceCache cache, Resource resource, String acceptEncoding) {
+		return serveCached(cache, resource, acceptEncoding, null);
+	}
+	
+	private static Resource serveCached(StaticResourceCache cache, Resource resource, String acceptEncoding, List<Publisher<ByteBuf>> data) {
+		// Resources are loaded in the background and served as is until they are cached
+		long timeout = System.currentTimeMillis() + 5000;
+		while(serve(cache, resource, acceptEncoding) == resource) {
+			Assertions.assertTrue(System.currentTimeMillis() < timeout, "Resource was not cached");
+			try {
+				Thread.sleep(10);
+			}
+			catch(InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return serve(cache, resource, acceptEncoding, data);
+	}
+	
+	private static final String CONTENT;
+	
+	static {
+		StringBuilder content = new StringBuilder();
+		for(int i=0;i<100;i++) {
+			content.append("Hello world!\n");
+		}
+		CONTENT = content.toString();
+	}
+	
+	private static byte[] read(Resource resource) throws IOException {
+		ByteBuf data = Mono.from(resource.read().get()).block();
+		try {
+			byte[] bytes = new byte[data.readableBytes()];
+			data.readBytes(bytes);
+			return bytes;
+		}
+		finally {
+			data.release();
+		}
+	}
+	
+	@Test
+	public void testServe() throws IOException {
+		Path file = Files.createTempFile("static", ".txt");
+		try {
+			Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+			StaticResourceCache cache = new StaticResourceCache(UnpooledByteBufAllocator.DEFAULT, 1024 * 1024, 64 * 1024);
+			
+			try(FileResource resource = new FileResource(file.toUri())) {
+				Assertions.assertSame(resource, serve(cache, resource, "identity"));
+				
+				Resource identity = serveCached(cache, resource, "identity");
+				Assertions.assertFalse(identity.isFile().get());
+				Assertions.assertEquals(1300, identity.size().get());
+				Assertions.assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), read(identity));
+				
+				Resource gzip = serve(cache, resource, "gzip, deflate");
+				Assertions.assertTrue(gzip.size().get() < 1300);
+				try(GZIPInputStream in = new GZIPInputStream(new ByteBufInputStream(Mono.from(gzip.read().get()).block(), true))) {
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					in.transferTo(out);
+					Assertions.assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+				}
+				
+				Resource deflate = serve(cache, resource, "gzip;q=0.5, deflate");
+				Assertions.assertNotEquals(gzip.size().get(), deflate.size().get());
+				Assertions.assertEquals(gzip.size().get(), serve(cache, resource, "gzip").size().get());
+			}
+			
+			// Invalidated when the resource is modified
+			Files.write(file, "Bye!".getBytes(StandardCharsets.UTF_8));
+			try(FileResource resource = new FileResource(file.toUri())) {
+				Assertions.assertArrayEquals("Bye!".getBytes(StandardCharsets.UTF_8), read(serveCached(cache, resource, "identity")));
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testServeEvicted() throws IOException {
+		Path file = Files.createTempFile("static", ".txt");
+		try {
+			Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+			StaticResourceCache cache = new StaticResourceCache(UnpooledByteBufAllocator.DEFAULT, 1024 * 1024, 64 * 1024);
+			
+			try(FileResource resource = new FileResource(file.toUri())) {
+				List<Publisher<ByteBuf>> data = new ArrayList<>();
+				Resource identity = serveCached(cache, resource, "identity", data);
+				Assertions.assertEquals(1, data.size());
+				
+				// The content retained when the variant was selected must still be readable
+				cache.invalidate();
+				
+				ByteBuf content = Mono.from(data.get(0)).block();
+				try {
+					Assertions.assertEquals(CONTENT, content.toString(StandardCharsets.UTF_8));
+				}
+				finally {
+					content.release();
+				}
+				Assertions.assertEquals(0, content.refCnt());
+				
+				// Content is not retained anymore
+				Assertions.assertThrows(ResourceException.class, () -> read(identity));
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testServeReleasedOnFinalize() throws IOException {
+		Path file = Files.createTempFile("static", ".txt");
+		try {
+			Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+			StaticResourceCache cache = new StaticResourceCache(UnpooledByteBufAllocator.DEFAULT, 1024 * 1024, 64 * 1024);
+			
+			try(FileResource resource = new FileResource(file.toUri())) {
+				Resource identity = serveCached(cache, resource, "identity");
+				
+				List<Publisher<ByteBuf>> data = new ArrayList<>();
+				MockWebExchange exchange = exchange("identity", data);
+				Assertions.assertNotSame(resource, serve(cache, resource, exchange));
+				Assertions.assertEquals(1, data.size());
+				
+				// The response data are never subscribed (eg. connection closed), the leased content must be released when the exchange is finalized
+				exchange.finalizeExchange();
+				cache.invalidate();
+				Assertions.assertThrows(ResourceException.class, () -> Mono.from(data.get(0)).block());
+				
+				Resource resolvedResource = identity.resolve("other.txt");
+				Assertions.assertFalse(resolvedResource.exists().get());
+				Assertions.assertEquals(file.resolveSibling("other.txt").toUri(), resolvedResource.getURI());
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testServeTooLarge() throws IOException {
+		Path file = Files.createTempFile("static", ".txt");
+		try {
+			Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+			StaticResourceCache cache = new StaticResourceCache(UnpooledByteBufAllocator.DEFAULT, 1024 * 1024, 1024);
+			
+			try(FileResource resource = new FileResource(file.toUri())) {
+				Assertions.assertSame(resource, serve(cache, resource, "gzip"));
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -21,6 +21,7 @@ import java.util.Optional;
 
 import io.inverno.mod.http.base.Method;
 import io.inverno.mod.web.WebExchange;
+import reactor.core.publisher.Mono;
 
 /**
  * @author <a href="mailto:jeremy.kuhn@inverno.io">Jeremy Kuhn</a>
@@ -33,6 +34,8 @@ public class MockWebExchange implements WebExchange {
 	
 	private final Map<String, Object> attributes;
 	
+	private Mono<Void> finalizer;
+	
 	public MockWebExchange(MockWebRequest mockRequest, MockWebResponse mockResponse) {
 		this.mockRequest = mockRequest;
 		this.mockResponse = mockResponse;
@@ -57,6 +60,20 @@ public class MockWebExchange implements WebExchange {
 		return this.mockResponse;
 	}
 
+	@Override
+	public MockWebExchange finalizer(Mono<Void> finalizer) {
+		this.finalizer = this.finalizer != null ? this.finalizer.then(finalizer) : finalizer;
+		return this;
+	}
+	
+	public void finalizeExchange() {
+		if(this.finalizer != null) {
+			Mono<Void> currentFinalizer = this.finalizer;
+			this.finalizer = null;
+			currentFinalizer.block();
+		}
+	}
+	
 	@Override
 	public void setAttribute(String name, Object value) {
 		this.attributes.put(name, value);